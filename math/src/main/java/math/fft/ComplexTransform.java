@@ -0,0 +1,325 @@
+/*
+ * Copyright (c) 2017 Jacob Rachiele
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to
+ * do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+ * USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Contributors:
+ *
+ * Jacob Rachiele
+ */
+package math.fft;
+
+import java.util.Arrays;
+
+/**
+ * The forward discrete Fourier transform of complex sequences of a single length, computed in place on interleaved
+ * (re, im) arrays.
+ * <p>
+ * Lengths whose prime factors are all at most {@link #MAX_RADIX} are transformed by a mixed-radix Stockham
+ * algorithm, which needs no bit reversal because every pass writes its output in order into a second buffer. Any
+ * other length is transformed by Bluestein's algorithm, which rewrites the transform as a circular convolution of
+ * power-of-two length. All twiddle factors are computed once, when the instance is created, so an instance is
+ * immutable and may be shared between threads; each thread supplies its own {@link Workspace}.
+ * </p>
+ *
+ * @author Jacob Rachiele
+ */
+final class ComplexTransform {
+
+    static final int MAX_RADIX = 13;
+    private static final int[] RADICES = {4, 2, 3, 5, 7, 11, 13};
+    private static final double SIN_60 = Math.sqrt(3.0) / 2.0;
+
+    private final int n;
+    private final int[] factors;
+    private final double[] roots; // exp(-2 pi i t / n) for t < n, interleaved.
+
+    // Bluestein's algorithm, used when factors is null.
+    private final int m;
+    private final double[] chirp; // exp(-pi i k^2 / n) for k < n, interleaved.
+    private final double[] filter; // The transform of the conjugate chirp, divided by m.
+    private final ComplexTransform inner;
+
+    ComplexTransform(final int n) {
+        if (n < 1) {
+            throw new IllegalArgumentException("The transform length must be positive, but was " + n);
+        }
+        this.n = n;
+        this.factors = factor(n);
+        if (factors != null) {
+            this.roots = rootsOfUnity(n);
+            this.m = 0;
+            this.chirp = null;
+            this.filter = null;
+            this.inner = null;
+        } else {
+            this.roots = null;
+            int size = 1;
+            while (size < 2 * n - 1) {
+                size <<= 1;
+            }
+            this.m = size;
+            this.inner = new ComplexTransform(m);
+            this.chirp = new double[2 * n];
+            for (int k = 0; k < n; k++) {
+                // Reduce k squared modulo 2n first so that the angle stays accurate for large k.
+                final double angle = Math.PI * (((long) k * k) % (2L * n)) / n;
+                chirp[2 * k] = Math.cos(angle);
+                chirp[2 * k + 1] = -Math.sin(angle);
+            }
+            this.filter = new double[2 * m];
+            filter[0] = chirp[0];
+            filter[1] = -chirp[1];
+            for (int k = 1; k < n; k++) {
+                filter[2 * k] = filter[2 * (m - k)] = chirp[2 * k];
+                filter[2 * k + 1] = filter[2 * (m - k) + 1] = -chirp[2 * k + 1];
+            }
+            inner.stockham(filter, new double[2 * m]);
+            for (int k = 0; k < 2 * m; k++) {
+                filter[k] /= m;
+            }
+        }
+    }
+
+    /**
+     * The length of the sequences transformed.
+     *
+     * @return the length of the sequences transformed.
+     */
+    int length() {
+        return this.n;
+    }
+
+    /**
+     * Create a new workspace for this transform.
+     *
+     * @return a new workspace for this transform.
+     */
+    Workspace workspace() {
+        return (factors != null) ? new Workspace(new double[2 * n], null)
+                                 : new Workspace(new double[2 * m], new double[2 * m]);
+    }
+
+    /**
+     * Replace the first n complex elements of x with their discrete Fourier transform.
+     *
+     * @param x         the interleaved array to transform in place.
+     * @param workspace a workspace created by this transform, overwritten by this method.
+     */
+    void forward(final double[] x, final Workspace workspace) {
+        if (factors != null) {
+            stockham(x, workspace.buffer);
+        } else {
+            bluestein(x, workspace.buffer, workspace.scratch);
+        }
+    }
+
+    private void stockham(final double[] x, final double[] work) {
+        double[] in = x;
+        double[] out = work;
+        int stride = 1;
+        int length = n;
+        for (int radix : factors) {
+            length /= radix;
+            switch (radix) {
+                case 2:
+                    pass2(length, stride, in, out);
+                    break;
+                case 3:
+                    pass3(length, stride, in, out);
+                    break;
+                case 4:
+                    pass4(length, stride, in, out);
+                    break;
+                default:
+                    pass(radix, length, stride, in, out);
+            }
+            final double[] swap = in;
+            in = out;
+            out = swap;
+            stride *= radix;
+        }
+        if (in != x) {
+            System.arraycopy(in, 0, x, 0, 2 * n);
+        }
+    }
+
+    // Each pass splits sequences of length radix * m, held at the given stride, into radix interleaved sequences of
+    // length m, and multiplies output j of butterfly p by the twiddle factor exp(-2 pi i j p stride / n).
+    private void pass2(final int m, final int stride, final double[] in, final double[] out) {
+        for (int p = 0; p < m; p++) {
+            final int w = 2 * p * stride;
+            final double wr = roots[w];
+            final double wi = roots[w + 1];
+            for (int q = 0; q < stride; q++) {
+                final int a = 2 * (q + stride * p);
+                final int b = a + 2 * stride * m;
+                final int y = 2 * (q + stride * 2 * p);
+                final double dr = in[a] - in[b];
+                final double di = in[a + 1] - in[b + 1];
+                out[y] = in[a] + in[b];
+                out[y + 1] = in[a + 1] + in[b + 1];
+                out[y + 2 * stride] = dr * wr - di * wi;
+                out[y + 2 * stride + 1] = dr * wi + di * wr;
+            }
+        }
+    }
+
+    private void pass3(final int m, final int stride, final double[] in, final double[] out) {
+        final int step = 2 * stride * m;
+        for (int p = 0; p < m; p++) {
+            final int w1 = 2 * p * stride;
+            final int w2 = 2 * w1;
+            for (int q = 0; q < stride; q++) {
+                final int a = 2 * (q + stride * p);
+                final double sr = in[a + step] + in[a + 2 * step];
+                final double si = in[a + step + 1] + in[a + 2 * step + 1];
+                final double cr = in[a] - 0.5 * sr;
+                final double ci = in[a + 1] - 0.5 * si;
+                // -i sin(60) times the difference of the last two inputs.
+                final double dr = SIN_60 * (in[a + step + 1] - in[a + 2 * step + 1]);
+                final double di = -SIN_60 * (in[a + step] - in[a + 2 * step]);
+                final int y = 2 * (q + stride * 3 * p);
+                out[y] = in[a] + sr;
+                out[y + 1] = in[a + 1] + si;
+                twiddle(out, y + 2 * stride, cr + dr, ci + di, w1);
+                twiddle(out, y + 4 * stride, cr - dr, ci - di, w2);
+            }
+        }
+    }
+
+    private void pass4(final int m, final int stride, final double[] in, final double[] out) {
+        final int step = 2 * stride * m;
+        for (int p = 0; p < m; p++) {
+            final int w1 = 2 * p * stride;
+            for (int q = 0; q < stride; q++) {
+                final int a = 2 * (q + stride * p);
+                final double t0r = in[a] + in[a + 2 * step];
+                final double t0i = in[a + 1] + in[a + 2 * step + 1];
+                final double t1r = in[a] - in[a + 2 * step];
+                final double t1i = in[a + 1] - in[a + 2 * step + 1];
+                final double t2r = in[a + step] + in[a + 3 * step];
+                final double t2i = in[a + step + 1] + in[a + 3 * step + 1];
+                // -i times the difference of the odd inputs.
+                final double t3r = in[a + step + 1] - in[a + 3 * step + 1];
+                final double t3i = in[a + 3 * step] - in[a + step];
+                final int y = 2 * (q + stride * 4 * p);
+                out[y] = t0r + t2r;
+                out[y + 1] = t0i + t2i;
+                twiddle(out, y + 2 * stride, t1r + t3r, t1i + t3i, w1);
+                twiddle(out, y + 4 * stride, t0r - t2r, t0i - t2i, 2 * w1);
+                twiddle(out, y + 6 * stride, t1r - t3r, t1i - t3i, 3 * w1);
+            }
+        }
+    }
+
+    // The generic butterfly computes a direct transform of length radix, which is cheap for the small primes used.
+    private void pass(final int radix, final int m, final int stride, final double[] in, final double[] out) {
+        final int step = 2 * stride * m;
+        final int rootStep = n / radix;
+        for (int p = 0; p < m; p++) {
+            for (int q = 0; q < stride; q++) {
+                final int a = 2 * (q + stride * p);
+                final int y = 2 * (q + stride * radix * p);
+                for (int j = 0; j < radix; j++) {
+                    double sumr = in[a];
+                    double sumi = in[a + 1];
+                    for (int k = 1; k < radix; k++) {
+                        final int r = 2 * (((j * k) % radix) * rootStep);
+                        final double xr = in[a + k * step];
+                        final double xi = in[a + k * step + 1];
+                        sumr += xr * roots[r] - xi * roots[r + 1];
+                        sumi += xr * roots[r + 1] + xi * roots[r];
+                    }
+                    twiddle(out, y + 2 * stride * j, sumr, sumi, 2 * j * p * stride);
+                }
+            }
+        }
+    }
+
+    private void twiddle(final double[] out, final int y, final double re, final double im, final int w) {
+        final double wr = roots[w];
+        final double wi = roots[w + 1];
+        out[y] = re * wr - im * wi;
+        out[y + 1] = re * wi + im * wr;
+    }
+
+    // The transform of x is the chirp times the circular convolution of the chirped x with the conjugate chirp. The
+    // convolution is an inverse transform, done as the conjugate of the forward transform of the conjugate.
+    private void bluestein(final double[] x, final double[] a, final double[] scratch) {
+        for (int k = 0; k < n; k++) {
+            final double cr = chirp[2 * k];
+            final double ci = chirp[2 * k + 1];
+            a[2 * k] = x[2 * k] * cr - x[2 * k + 1] * ci;
+            a[2 * k + 1] = x[2 * k] * ci + x[2 * k + 1] * cr;
+        }
+        Arrays.fill(a, 2 * n, 2 * m, 0.0);
+        inner.stockham(a, scratch);
+        for (int k = 0; k < 2 * m; k += 2) {
+            final double re = a[k] * filter[k] - a[k + 1] * filter[k + 1];
+            final double im = a[k] * filter[k + 1] + a[k + 1] * filter[k];
+            a[k] = re;
+            a[k + 1] = -im;
+        }
+        inner.stockham(a, scratch);
+        for (int k = 0; k < n; k++) {
+            final double cr = chirp[2 * k];
+            final double ci = chirp[2 * k + 1];
+            final double re = a[2 * k];
+            final double im = -a[2 * k + 1];
+            x[2 * k] = re * cr - im * ci;
+            x[2 * k + 1] = re * ci + im * cr;
+        }
+    }
+
+    private static int[] factor(final int n) {
+        final int[] factors = new int[32];
+        int count = 0;
+        int remaining = n;
+        for (int radix : RADICES) {
+            while (remaining % radix == 0) {
+                factors[count++] = radix;
+                remaining /= radix;
+            }
+        }
+        return (remaining == 1) ? Arrays.copyOf(factors, count) : null;
+    }
+
+    private static double[] rootsOfUnity(final int n) {
+        final double[] roots = new double[2 * n];
+        for (int t = 0; t < n; t++) {
+            final double angle = 2.0 * Math.PI * t / n;
+            roots[2 * t] = Math.cos(angle);
+            roots[2 * t + 1] = -Math.sin(angle);
+        }
+        return roots;
+    }
+
+    /**
+     * The buffers a transform works in. A workspace must not be used by two threads at once.
+     */
+    static final class Workspace {
+
+        private final double[] buffer;
+        private final double[] scratch;
+
+        private Workspace(final double[] buffer, final double[] scratch) {
+            this.buffer = buffer;
+            this.scratch = scratch;
+        }
+    }
+}
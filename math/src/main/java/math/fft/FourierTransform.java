@@ -0,0 +1,393 @@
+/*
+ * Copyright (c) 2017 Jacob Rachiele
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to
+ * do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+ * USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Contributors:
+ *
+ * Jacob Rachiele
+ */
+package math.fft;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A plan for the discrete Fourier transform of sequences of a fixed length n, working on primitive arrays.
+ * <p>
+ * Complex sequences are stored as interleaved arrays, with the real part of element k at index 2k and its imaginary
+ * part at index 2k + 1, the layout used by {@link math.operations.ComplexOperators}. The forward transform of x is
+ * X<sub>j</sub> = &sum;<sub>k</sub> x<sub>k</sub> exp(-2&pi;ijk/n), and the inverse transform includes the factor
+ * 1/n, so that the inverse of the forward transform returns the original sequence.
+ * </p>
+ * <p>
+ * Any length is supported. Lengths whose prime factors are all at most 13 use a mixed-radix algorithm, and other
+ * lengths use Bluestein's algorithm, so every transform takes O(n log n) time. The transforms of real sequences work
+ * on a complex sequence of half the length when n is even.
+ * </p>
+ * <p>
+ * Plans are immutable and thread-safe. The twiddle factors of a plan are computed only once, and the plans for up
+ * to 64 lengths are cached by {@link #of(int)} so that repeated transforms of one length share them. Each
+ * thread gets its own workspace the first time it uses a plan, after which the {@code Into} methods allocate
+ * nothing.
+ * </p>
+ *
+ * @author Jacob Rachiele
+ */
+public final class FourierTransform {
+
+    private static final int MAX_CACHED_PLANS = 64;
+    private static final ConcurrentMap<Integer, FourierTransform> PLANS = new ConcurrentHashMap<>();
+
+    private final int n;
+    private volatile ComplexTransform complex; // Created when first needed for even lengths.
+    private final ComplexTransform half; // Used for real sequences of even length, null for odd lengths.
+    private final double[] halfRoots; // exp(-2 pi i k / n) for k <= n / 2, interleaved, for even lengths.
+    private final ThreadLocal<Workspace> workspaces;
+
+    private FourierTransform(final int n) {
+        this.n = n;
+        if (n % 2 == 0) {
+            this.half = new ComplexTransform(n / 2);
+            this.halfRoots = new double[n + 2];
+            for (int k = 0; k <= n / 2; k++) {
+                final double angle = 2.0 * Math.PI * k / n;
+                halfRoots[2 * k] = Math.cos(angle);
+                halfRoots[2 * k + 1] = -Math.sin(angle);
+            }
+        } else {
+            this.complex = new ComplexTransform(n);
+            this.half = null;
+            this.halfRoots = null;
+        }
+        this.workspaces = ThreadLocal.withInitial(Workspace::new);
+    }
+
+    /**
+     * The plan for the transform of sequences of the given length. Plans are cached, so calling this method again
+     * with the same length usually returns the same plan.
+     *
+     * @param n the length of the sequences to transform.
+     * @return the plan for the transform of sequences of the given length.
+     */
+    public static FourierTransform of(final int n) {
+        if (n < 1) {
+            throw new IllegalArgumentException("The transform length must be positive, but was " + n);
+        }
+        final FourierTransform cached = PLANS.get(n);
+        if (cached != null) {
+            return cached;
+        }
+        final FourierTransform plan = new FourierTransform(n);
+        if (PLANS.size() >= MAX_CACHED_PLANS) {
+            return plan;
+        }
+        final FourierTransform previous = PLANS.putIfAbsent(n, plan);
+        return (previous == null) ? plan : previous;
+    }
+
+    /**
+     * The smallest length at least as large as the given length whose only prime factors are 2, 3 and 5. Padding a
+     * sequence to such a length, as is done for convolutions, gives the fastest transforms.
+     *
+     * @param n the minimum length.
+     * @return the smallest length at least n whose only prime factors are 2, 3 and 5.
+     */
+    public static int fastLength(final int n) {
+        if (n <= 1) {
+            return 1;
+        }
+        int best = Integer.MAX_VALUE;
+        for (long p5 = 1; p5 < best; p5 *= 5) {
+            for (long p35 = p5; p35 < best; p35 *= 3) {
+                long length = p35;
+                while (length < n) {
+                    length <<= 1;
+                }
+                if (length < best) {
+                    best = (int) length;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * The length of the sequences transformed by this plan.
+     *
+     * @return the length of the sequences transformed by this plan.
+     */
+    public int length() {
+        return this.n;
+    }
+
+    /**
+     * The forward transform of the given interleaved complex sequence.
+     *
+     * @param x the interleaved complex sequence of length n to transform.
+     * @return the interleaved forward transform of the sequence.
+     */
+    public double[] forward(final double[] x) {
+        return forwardInto(new double[2 * n], x);
+    }
+
+    /**
+     * Compute the forward transform of the given interleaved complex sequence and store it in the destination. The
+     * destination may be the same array as x.
+     *
+     * @param destination the interleaved array of length n to store the transform in.
+     * @param x           the interleaved complex sequence of length n to transform.
+     * @return the destination array, now holding the forward transform of x.
+     */
+    public double[] forwardInto(final double[] destination, final double[] x) {
+        validateLength(destination, 2 * n, "destination");
+        validateLength(x, 2 * n, "sequence");
+        if (destination != x) {
+            System.arraycopy(x, 0, destination, 0, 2 * n);
+        }
+        complex().forward(destination, workspaces.get().complex());
+        return destination;
+    }
+
+    /**
+     * The inverse transform of the given interleaved complex sequence.
+     *
+     * @param x the interleaved complex sequence of length n to transform.
+     * @return the interleaved inverse transform of the sequence.
+     */
+    public double[] inverse(final double[] x) {
+        return inverseInto(new double[2 * n], x);
+    }
+
+    /**
+     * Compute the inverse transform of the given interleaved complex sequence and store it in the destination. The
+     * destination may be the same array as x.
+     *
+     * @param destination the interleaved array of length n to store the transform in.
+     * @param x           the interleaved complex sequence of length n to transform.
+     * @return the destination array, now holding the inverse transform of x.
+     */
+    public double[] inverseInto(final double[] destination, final double[] x) {
+        validateLength(destination, 2 * n, "destination");
+        validateLength(x, 2 * n, "sequence");
+        // The inverse transform is the conjugate of the forward transform of the conjugate, divided by n.
+        for (int k = 0; k < 2 * n; k += 2) {
+            destination[k] = x[k];
+            destination[k + 1] = -x[k + 1];
+        }
+        complex().forward(destination, workspaces.get().complex());
+        final double scale = 1.0 / n;
+        for (int k = 0; k < 2 * n; k += 2) {
+            destination[k] *= scale;
+            destination[k + 1] *= -scale;
+        }
+        return destination;
+    }
+
+    /**
+     * The forward transform of the given real sequence. Since the transform of a real sequence is conjugate
+     * symmetric, only its first n / 2 + 1 elements, rounded down, are returned.
+     *
+     * @param x the real sequence of length n to transform.
+     * @return the first n / 2 + 1 elements of the forward transform of the sequence, interleaved.
+     */
+    public double[] realForward(final double[] x) {
+        return realForwardInto(new double[2 * (n / 2 + 1)], x);
+    }
+
+    /**
+     * Compute the first n / 2 + 1 elements, rounded down, of the forward transform of the given real sequence and
+     * store them in the destination. The remaining elements are the conjugates of these in reverse order.
+     *
+     * @param destination the interleaved array of length n / 2 + 1 to store the transform in.
+     * @param x           the real sequence of length n to transform.
+     * @return the destination array, now holding the first n / 2 + 1 elements of the forward transform of x.
+     */
+    public double[] realForwardInto(final double[] destination, final double[] x) {
+        validateLength(destination, 2 * (n / 2 + 1), "destination");
+        validateLength(x, n, "sequence");
+        final Workspace workspace = workspaces.get();
+        if (half == null) {
+            final double[] z = workspace.sequence();
+            for (int k = 0; k < n; k++) {
+                z[2 * k] = x[k];
+                z[2 * k + 1] = 0.0;
+            }
+            complex().forward(z, workspace.complex());
+            System.arraycopy(z, 0, destination, 0, destination.length);
+            return destination;
+        }
+        // Transform the even and odd elements together as the real and imaginary parts of one sequence of half the
+        // length, then separate their transforms using conjugate symmetry and combine them.
+        final int h = n / 2;
+        final double[] z = workspace.sequence();
+        System.arraycopy(x, 0, z, 0, n);
+        half.forward(z, workspace.half());
+        final double z0r = z[0];
+        final double z0i = z[1];
+        for (int k = 0; k <= h / 2; k++) {
+            final int j = (h - k) % h;
+            final double ar = z[2 * k];
+            final double ai = z[2 * k + 1];
+            final double br = z[2 * j];
+            final double bi = z[2 * j + 1];
+            combine(destination, k, ar, ai, br, bi);
+            combine(destination, h - k, br, bi, ar, ai);
+        }
+        destination[0] = z0r + z0i;
+        destination[1] = 0.0;
+        destination[2 * h] = z0r - z0i;
+        destination[2 * h + 1] = 0.0;
+        return destination;
+    }
+
+    // X_k = E_k + w^k O_k, where E_k = (Z_k + conj Z_{h-k}) / 2 and O_k = -i (Z_k - conj Z_{h-k}) / 2.
+    private void combine(final double[] destination, final int k, final double ar, final double ai,
+                         final double br, final double bi) {
+        final double er = 0.5 * (ar + br);
+        final double ei = 0.5 * (ai - bi);
+        final double or = 0.5 * (ai + bi);
+        final double oi = -0.5 * (ar - br);
+        final double wr = halfRoots[2 * k];
+        final double wi = halfRoots[2 * k + 1];
+        destination[2 * k] = er + or * wr - oi * wi;
+        destination[2 * k + 1] = ei + or * wi + oi * wr;
+    }
+
+    /**
+     * The real sequence whose forward transform begins with the given n / 2 + 1 elements, rounded down.
+     *
+     * @param spectrum the first n / 2 + 1 elements of a conjugate symmetric transform, interleaved.
+     * @return the real sequence of length n with the given transform.
+     */
+    public double[] realInverse(final double[] spectrum) {
+        return realInverseInto(new double[n], spectrum);
+    }
+
+    /**
+     * Compute the real sequence whose forward transform begins with the given n / 2 + 1 elements, rounded down, and
+     * store it in the destination. The imaginary parts of the first element, and of the last when n is even, are
+     * ignored.
+     *
+     * @param destination the array of length n to store the sequence in.
+     * @param spectrum    the first n / 2 + 1 elements of a conjugate symmetric transform, interleaved.
+     * @return the destination array, now holding the real sequence with the given transform.
+     */
+    public double[] realInverseInto(final double[] destination, final double[] spectrum) {
+        validateLength(destination, n, "destination");
+        validateLength(spectrum, 2 * (n / 2 + 1), "spectrum");
+        final Workspace workspace = workspaces.get();
+        final double[] z = workspace.sequence();
+        if (half == null) {
+            // Rebuild the conjugate full spectrum, whose forward transform is n times the sequence.
+            z[0] = spectrum[0];
+            z[1] = 0.0;
+            for (int k = 1; k <= n / 2; k++) {
+                z[2 * k] = z[2 * (n - k)] = spectrum[2 * k];
+                z[2 * k + 1] = -spectrum[2 * k + 1];
+                z[2 * (n - k) + 1] = spectrum[2 * k + 1];
+            }
+            complex().forward(z, workspace.complex());
+            final double scale = 1.0 / n;
+            for (int k = 0; k < n; k++) {
+                destination[k] = z[2 * k] * scale;
+            }
+            return destination;
+        }
+        // Recover the transforms E and O of the even and odd elements, and invert E + iO, again as the conjugate of
+        // the forward transform of the conjugate.
+        final int h = n / 2;
+        for (int k = 0; k < h; k++) {
+            final double ar = spectrum[2 * k];
+            final double ai = (k == 0) ? 0.0 : spectrum[2 * k + 1];
+            final double br = spectrum[2 * (h - k)];
+            final double bi = (k == 0) ? 0.0 : -spectrum[2 * (h - k) + 1];
+            final double er = 0.5 * (ar + br);
+            final double ei = 0.5 * (ai + bi);
+            final double dr = 0.5 * (ar - br);
+            final double di = 0.5 * (ai - bi);
+            final double wr = halfRoots[2 * k];
+            final double wi = -halfRoots[2 * k + 1];
+            final double or = dr * wr - di * wi;
+            final double oi = dr * wi + di * wr;
+            z[2 * k] = er - oi;
+            z[2 * k + 1] = -(ei + or);
+        }
+        half.forward(z, workspace.half());
+        final double scale = 1.0 / h;
+        for (int k = 0; k < h; k++) {
+            destination[2 * k] = z[2 * k] * scale;
+            destination[2 * k + 1] = -z[2 * k + 1] * scale;
+        }
+        return destination;
+    }
+
+    private ComplexTransform complex() {
+        ComplexTransform transform = complex;
+        if (transform == null) {
+            synchronized (this) {
+                transform = complex;
+                if (transform == null) {
+                    transform = new ComplexTransform(n);
+                    complex = transform;
+                }
+            }
+        }
+        return transform;
+    }
+
+    private static void validateLength(final double[] array, final int length, final String name) {
+        if (array.length != length) {
+            throw new IllegalArgumentException("The " + name + " must have length " + length + ", but had length " +
+                                               array.length);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "FourierTransform(n=" + n + ")";
+    }
+
+    // The buffers one thread uses with this plan, created when first needed.
+    private final class Workspace {
+
+        private ComplexTransform.Workspace complex;
+        private ComplexTransform.Workspace half;
+        private double[] sequence;
+
+        private ComplexTransform.Workspace complex() {
+            if (complex == null) {
+                complex = FourierTransform.this.complex().workspace();
+            }
+            return complex;
+        }
+
+        private ComplexTransform.Workspace half() {
+            if (half == null) {
+                half = FourierTransform.this.half.workspace();
+            }
+            return half;
+        }
+
+        private double[] sequence() {
+            if (sequence == null) {
+                sequence = new double[2 * n];
+            }
+            return sequence;
+        }
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ * Copyright (c) 2017 Jacob Rachiele
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to
+ * do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+ * USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Contributors:
+ *
+ * Jacob Rachiele
+ */
+package math.linear.doubles;
+
+/**
+ * The Cholesky decomposition of a symmetric positive definite matrix A into the product L L<sup>T</sup>, where L
+ * is lower triangular.
+ * <p>
+ * An instance is a reusable workspace for matrices of a single dimension: each call to {@link #decompose} overwrites
+ * the previous factor in place, so a loop that factors many matrices of the same size allocates nothing. This class
+ * is therefore not thread-safe.
+ * </p>
+ *
+ * @author Jacob Rachiele
+ */
+public final class CholeskyDecomposition {
+
+    private final int n;
+    private final double[] lower;
+    private boolean positiveDefinite;
+
+    /**
+     * Create a new workspace for the Cholesky decomposition of n by n matrices.
+     *
+     * @param n the dimension of the matrices to decompose.
+     */
+    public CholeskyDecomposition(final int n) {
+        this.n = n;
+        this.lower = new double[n * n];
+    }
+
+    /**
+     * Decompose the given symmetric matrix. Only the lower triangle of the matrix is read.
+     *
+     * @param matrix the symmetric matrix to decompose.
+     * @return true if the matrix is positive definite and the decomposition succeeded, false otherwise.
+     */
+    public boolean decompose(final Matrix matrix) {
+        if (matrix.nrow() != n || matrix.ncol() != n) {
+            throw new IllegalArgumentException("This workspace decomposes " + n + " by " + n + " matrices, but the " +
+                                               "matrix has dimension (" + matrix.nrow() + ", " + matrix.ncol() + ")");
+        }
+        return decompose(matrix.array());
+    }
+
+    /**
+     * Decompose the given packed symmetric matrix.
+     *
+     * @param matrix the symmetric matrix to decompose.
+     * @return true if the matrix is positive definite and the decomposition succeeded, false otherwise.
+     */
+    public boolean decompose(final SymmetricMatrix matrix) {
+        if (matrix.dimension() != n) {
+            throw new IllegalArgumentException("This workspace decomposes " + n + " by " + n + " matrices, but the " +
+                                               "matrix has dimension " + matrix.dimension());
+        }
+        final double[] packed = matrix.array();
+        positiveDefinite = true;
+        for (int j = 0; j < n; j++) {
+            final int rowJ = j * n;
+            final int column = SymmetricMatrix.start(n, j) - j;
+            double d = packed[column + j] - MatrixOperations.dot(lower, rowJ, lower, rowJ, j);
+            if (!(d > 0.0)) {
+                positiveDefinite = false;
+                return false;
+            }
+            d = Math.sqrt(d);
+            lower[rowJ + j] = d;
+            for (int i = j + 1; i < n; i++) {
+                final int rowI = i * n;
+                lower[rowI + j] = (packed[column + i] - MatrixOperations.dot(lower, rowI, lower, rowJ, j)) / d;
+            }
+            for (int k = j + 1; k < n; k++) {
+                lower[rowJ + k] = 0.0;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Decompose the given symmetric n by n matrix, stored in row-major order. Only the lower triangle of the matrix
+     * is read, and the given array is not modified.
+     *
+     * @param a the symmetric matrix to decompose, in row-major order.
+     * @return true if the matrix is positive definite and the decomposition succeeded, false otherwise.
+     */
+    public boolean decompose(final double[] a) {
+        if (a.length < n * n) {
+            throw new IllegalArgumentException("The array must hold at least " + (n * n) + " elements.");
+        }
+        positiveDefinite = true;
+        for (int j = 0; j < n; j++) {
+            final int rowJ = j * n;
+            double d = a[rowJ + j] - MatrixOperations.dot(lower, rowJ, lower, rowJ, j);
+            if (!(d > 0.0)) {
+                positiveDefinite = false;
+                return false;
+            }
+            d = Math.sqrt(d);
+            lower[rowJ + j] = d;
+            for (int i = j + 1; i < n; i++) {
+                final int rowI = i * n;
+                lower[rowI + j] = (a[rowI + j] - MatrixOperations.dot(lower, rowI, lower, rowJ, j)) / d;
+            }
+            for (int k = j + 1; k < n; k++) {
+                lower[rowJ + k] = 0.0;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Whether the last matrix decomposed was positive definite.
+     *
+     * @return true if the last matrix decomposed was positive definite.
+     */
+    public boolean isPositiveDefinite() {
+        return this.positiveDefinite;
+    }
+
+    /**
+     * The lower triangular factor L.
+     *
+     * @return the lower triangular factor L.
+     */
+    public Matrix lower() {
+        requirePositiveDefinite();
+        return Matrix.create(n, n, lower);
+    }
+
+    /**
+     * Solve the system A x = b for x, where A is the last matrix decomposed, and store x in the destination. The
+     * destination may be the same array as b.
+     *
+     * @param destination the array of length n to store the solution in.
+     * @param b           the right-hand side of length n.
+     * @return the destination array, now holding the solution x.
+     */
+    public double[] solveInto(final double[] destination, final double[] b) {
+        requirePositiveDefinite();
+        if (b != destination) {
+            System.arraycopy(b, 0, destination, 0, n);
+        }
+        forwardSubstitute(destination);
+        backSubstitute(destination);
+        return destination;
+    }
+
+    /**
+     * Solve the system L y = b for y, where L is the lower triangular factor, and store y in the destination. The
+     * destination may be the same array as b. The squared norm of y is the quadratic form b<sup>T</sup> A<sup>-1</sup>
+     * b, which makes this the building block of Gaussian log-likelihoods.
+     *
+     * @param destination the array of length n to store the solution in.
+     * @param b           the right-hand side of length n.
+     * @return the destination array, now holding the solution y.
+     */
+    public double[] solveLowerInto(final double[] destination, final double[] b) {
+        requirePositiveDefinite();
+        if (b != destination) {
+            System.arraycopy(b, 0, destination, 0, n);
+        }
+        forwardSubstitute(destination);
+        return destination;
+    }
+
+    /**
+     * Solve the system A X = B for X, where A is the last matrix decomposed.
+     *
+     * @param b the right-hand side matrix, with n rows.
+     * @return the solution X.
+     */
+    public Matrix solve(final Matrix b) {
+        requirePositiveDefinite();
+        if (b.nrow() != n) {
+            throw new IllegalArgumentException("The right-hand side must have " + n + " rows, but had " + b.nrow());
+        }
+        final int m = b.ncol();
+        final double[] columnMajor = b.transposeInto(new double[n * m]);
+        final double[] column = new double[n];
+        for (int j = 0; j < m; j++) {
+            System.arraycopy(columnMajor, j * n, column, 0, n);
+            solveInto(column, column);
+            System.arraycopy(column, 0, columnMajor, j * n, n);
+        }
+        return Matrix.create(m, n, columnMajor).transpose();
+    }
+
+    /**
+     * The inverse of the last matrix decomposed.
+     *
+     * @return the inverse of the last matrix decomposed.
+     */
+    public Matrix inverse() {
+        return solve(Matrices.identity(n));
+    }
+
+    /**
+     * The natural logarithm of the determinant of the last matrix decomposed, computed without overflow as twice the
+     * sum of the logarithms of the diagonal of L.
+     *
+     * @return the natural logarithm of the determinant of the last matrix decomposed.
+     */
+    public double logDeterminant() {
+        requirePositiveDefinite();
+        double sum = 0.0;
+        for (int i = 0; i < n; i++) {
+            sum += Math.log(lower[i * n + i]);
+        }
+        return 2.0 * sum;
+    }
+
+    private void forwardSubstitute(final double[] x) {
+        for (int i = 0; i < n; i++) {
+            final int row = i * n;
+            x[i] = (x[i] - MatrixOperations.dot(lower, row, x, 0, i)) / lower[row + i];
+        }
+    }
+
+    private void backSubstitute(final double[] x) {
+        for (int i = n - 1; i >= 0; i--) {
+            double sum = x[i];
+            for (int k = i + 1; k < n; k++) {
+                sum -= lower[k * n + i] * x[k];
+            }
+            x[i] = sum / lower[i * n + i];
+        }
+    }
+
+    private void requirePositiveDefinite() {
+        if (!positiveDefinite) {
+            throw new IllegalStateException("No positive definite matrix has been decomposed.");
+        }
+    }
+}
@@ -0,0 +1,291 @@
+/*
+ * Copyright (c) 2017 Jacob Rachiele
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to
+ * do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+ * USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Contributors:
+ *
+ * Jacob Rachiele
+ */
+package math.linear.doubles;
+
+import math.Complex;
+import math.operations.ComplexOperators;
+
+import java.util.Arrays;
+
+/**
+ * An immutable and thread-safe implementation of a complex-valued matrix backed by a single array of primitive
+ * doubles. The elements are stored in row-major order, with the real and imaginary parts of each element next to
+ * one another, so each row is an interleaved complex array in the layout used by {@link ComplexOperators}.
+ *
+ * @author Jacob Rachiele
+ */
+public final class ComplexMatrix {
+
+    private final int nrow;
+    private final int ncol;
+    private final double[] data;
+
+    private ComplexMatrix(final int nrow, final int ncol, final double[] data) {
+        this.nrow = nrow;
+        this.ncol = ncol;
+        this.data = data;
+    }
+
+    /**
+     * Create a new complex matrix with the given dimensions from the given interleaved data in row-major order. The
+     * array is copied.
+     *
+     * @param nrow        the number of rows of the matrix.
+     * @param ncol        the number of columns of the matrix.
+     * @param interleaved the real and imaginary parts of the elements, alternating, in row-major order.
+     * @return a new complex matrix with the given elements.
+     */
+    public static ComplexMatrix create(final int nrow, final int ncol, final double[] interleaved) {
+        if (2 * nrow * ncol != interleaved.length) {
+            throw new IllegalArgumentException("A complex matrix with " + nrow + " rows and " + ncol + " columns " +
+                                               "needs " + (2 * nrow * ncol) + " interleaved values, but " +
+                                               interleaved.length + " were provided.");
+        }
+        return new ComplexMatrix(nrow, ncol, interleaved.clone());
+    }
+
+    /**
+     * Create a new complex matrix with the elements of the given real matrix as its real parts.
+     *
+     * @param matrix the real matrix.
+     * @return a new complex matrix with the given real parts and zero imaginary parts.
+     */
+    public static ComplexMatrix fromReal(final Matrix matrix) {
+        final double[] real = matrix.array();
+        final double[] data = new double[2 * real.length];
+        for (int k = 0; k < real.length; k++) {
+            data[2 * k] = real[k];
+        }
+        return new ComplexMatrix(matrix.nrow(), matrix.ncol(), data);
+    }
+
+    /**
+     * The number of rows of this matrix.
+     *
+     * @return the number of rows of this matrix.
+     */
+    public int nrow() {
+        return this.nrow;
+    }
+
+    /**
+     * The number of columns of this matrix.
+     *
+     * @return the number of columns of this matrix.
+     */
+    public int ncol() {
+        return this.ncol;
+    }
+
+    /**
+     * The real part of the element in the given row and column.
+     *
+     * @param i the row of the element.
+     * @param j the column of the element.
+     * @return the real part of the element in the given row and column.
+     */
+    public double real(final int i, final int j) {
+        return data[2 * (i * ncol + j)];
+    }
+
+    /**
+     * The imaginary part of the element in the given row and column.
+     *
+     * @param i the row of the element.
+     * @param j the column of the element.
+     * @return the imaginary part of the element in the given row and column.
+     */
+    public double imaginary(final int i, final int j) {
+        return data[2 * (i * ncol + j) + 1];
+    }
+
+    /**
+     * The element in the given row and column as a new complex number.
+     *
+     * @param i the row of the element.
+     * @param j the column of the element.
+     * @return the element in the given row and column.
+     */
+    public Complex at(final int i, final int j) {
+        return new Complex(real(i, j), imaginary(i, j));
+    }
+
+    /**
+     * The real and imaginary parts of the elements of this matrix, interleaved, in row-major order.
+     *
+     * @return the real and imaginary parts of the elements of this matrix, interleaved, in row-major order.
+     */
+    public double[] interleaved() {
+        return this.data.clone();
+    }
+
+    /**
+     * Add the given matrix to this matrix and return the result in a new matrix.
+     *
+     * @param other the matrix to add to this matrix.
+     * @return this matrix added to the given matrix.
+     */
+    public ComplexMatrix plus(final ComplexMatrix other) {
+        validateSameDimensions(other);
+        return new ComplexMatrix(nrow, ncol, ComplexOperators.addInto(new double[data.length], data, other.data));
+    }
+
+    /**
+     * Subtract the given matrix from this matrix and return the result in a new matrix.
+     *
+     * @param other the matrix to subtract from this matrix.
+     * @return this matrix minus the given matrix.
+     */
+    public ComplexMatrix minus(final ComplexMatrix other) {
+        validateSameDimensions(other);
+        return new ComplexMatrix(nrow, ncol,
+                                 ComplexOperators.subtractInto(new double[data.length], data, other.data));
+    }
+
+    /**
+     * Multiply this matrix by the given vector and return the result in a new vector.
+     *
+     * @param vector the vector to multiply this matrix by.
+     * @return this matrix times the given vector.
+     */
+    public ComplexVector times(final ComplexVector vector) {
+        return ComplexVector.wrap(timesInto(new double[2 * nrow], vector.array()));
+    }
+
+    /**
+     * Multiply this matrix by the given interleaved complex vector and store the interleaved result in the
+     * destination array.
+     *
+     * @param destination the interleaved array of nrow elements to store the result in. It must not be the same
+     *                    array as x.
+     * @param x           the interleaved array of ncol elements to multiply this matrix by.
+     * @return the destination array, now holding this matrix times x.
+     */
+    public double[] timesInto(final double[] destination, final double[] x) {
+        if (x.length != 2 * ncol || destination.length != 2 * nrow) {
+            throw new IllegalArgumentException("The vector must have " + ncol + " and the destination " + nrow +
+                                               " complex elements, but they had " + (x.length / 2) + " and " +
+                                               (destination.length / 2));
+        }
+        if (destination == x) {
+            throw new IllegalArgumentException("The destination must not be the same array as the vector.");
+        }
+        for (int i = 0; i < nrow; i++) {
+            final int row = 2 * i * ncol;
+            double re = 0.0;
+            double im = 0.0;
+            for (int j = 0; j < ncol; j++) {
+                final double aRe = data[row + 2 * j];
+                final double aIm = data[row + 2 * j + 1];
+                re += aRe * x[2 * j] - aIm * x[2 * j + 1];
+                im += aRe * x[2 * j + 1] + aIm * x[2 * j];
+            }
+            destination[2 * i] = re;
+            destination[2 * i + 1] = im;
+        }
+        return destination;
+    }
+
+    /**
+     * Multiply this matrix by the given matrix and return the result in a new matrix.
+     *
+     * @param other the matrix to multiply this matrix by.
+     * @return this matrix times the given matrix.
+     */
+    public ComplexMatrix times(final ComplexMatrix other) {
+        if (this.ncol != other.nrow) {
+            throw new IllegalArgumentException("The number of columns of this matrix, " + this.ncol + ", must equal " +
+                                               "the number of rows of the other matrix, " + other.nrow);
+        }
+        final int n = other.ncol;
+        final double[] product = new double[2 * nrow * n];
+        for (int i = 0; i < nrow; i++) {
+            final int rowC = 2 * i * n;
+            for (int p = 0; p < ncol; p++) {
+                final double aRe = data[2 * (i * ncol + p)];
+                final double aIm = data[2 * (i * ncol + p) + 1];
+                final int rowB = 2 * p * n;
+                for (int j = 0; j < 2 * n; j += 2) {
+                    final double bRe = other.data[rowB + j];
+                    final double bIm = other.data[rowB + j + 1];
+                    product[rowC + j] += aRe * bRe - aIm * bIm;
+                    product[rowC + j + 1] += aRe * bIm + aIm * bRe;
+                }
+            }
+        }
+        return new ComplexMatrix(nrow, n, product);
+    }
+
+    /**
+     * The conjugate transpose of this matrix.
+     *
+     * @return the conjugate transpose of this matrix.
+     */
+    public ComplexMatrix conjugateTranspose() {
+        final double[] transposed = new double[data.length];
+        for (int i = 0; i < nrow; i++) {
+            for (int j = 0; j < ncol; j++) {
+                transposed[2 * (j * nrow + i)] = data[2 * (i * ncol + j)];
+                transposed[2 * (j * nrow + i) + 1] = -data[2 * (i * ncol + j) + 1];
+            }
+        }
+        return new ComplexMatrix(ncol, nrow, transposed);
+    }
+
+    private void validateSameDimensions(final ComplexMatrix other) {
+        if (this.nrow != other.nrow || this.ncol != other.ncol) {
+            throw new IllegalArgumentException(
+                    "The dimensions of this matrix must equal the dimensions of the other matrix. " +
+                    "This matrix has dimension (" + this.nrow + ", " + this.ncol +
+                    ") and the other matrix has dimension (" + other.nrow + ", " + other.ncol + ")");
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder representation = new StringBuilder();
+        for (int i = 0; i < nrow; i++) {
+            representation.append(ComplexVector.wrap(Arrays.copyOfRange(data, 2 * i * ncol, 2 * (i + 1) * ncol)))
+                          .append(System.lineSeparator());
+        }
+        return representation.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        ComplexMatrix that = (ComplexMatrix) o;
+        return nrow == that.nrow && ncol == that.ncol && Arrays.equals(data, that.data);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = nrow;
+        result = 31 * result + ncol;
+        result = 31 * result + Arrays.hashCode(data);
+        return result;
+    }
+}
@@ -0,0 +1,339 @@
+/*
+ * Copyright (c) 2017 Jacob Rachiele
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to
+ * do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+ * USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Contributors:
+ *
+ * Jacob Rachiele
+ */
+package math.linear.doubles;
+
+import math.Complex;
+import math.operations.ComplexOperators;
+
+import java.util.Arrays;
+
+/**
+ * An immutable and thread-safe implementation of a complex-valued vector backed by a single array of primitive
+ * doubles, in which the real and imaginary parts of each element are stored next to one another.
+ * <p>
+ * No {@link Complex} objects are created by the arithmetic on this vector; they are only created on request by
+ * {@link #at(int)} and {@link #dotProduct(ComplexVector)}. The interleaved layout is the one used by
+ * {@link ComplexOperators}, so the {@code Into} methods of this class may be combined with those kernels to work on
+ * reused buffers.
+ * </p>
+ *
+ * @author Jacob Rachiele
+ */
+public final class ComplexVector {
+
+    private final double[] elements; // The real part of element k is at 2k and its imaginary part at 2k + 1.
+
+    private ComplexVector(final double[] elements) {
+        this.elements = elements;
+    }
+
+    /**
+     * Create a new complex vector from the given interleaved real and imaginary parts. The array is copied.
+     *
+     * @param interleaved the real and imaginary parts of the elements, alternating, starting with a real part.
+     * @return a new complex vector with the given elements.
+     */
+    public static ComplexVector fromInterleaved(final double... interleaved) {
+        if ((interleaved.length & 1) != 0) {
+            throw new IllegalArgumentException("An interleaved complex array must have even length, but had length " +
+                                               interleaved.length);
+        }
+        return new ComplexVector(interleaved.clone());
+    }
+
+    /**
+     * Create a new complex vector from separate arrays of real and imaginary parts.
+     *
+     * @param real      the real parts of the elements.
+     * @param imaginary the imaginary parts of the elements.
+     * @return a new complex vector with the given real and imaginary parts.
+     */
+    public static ComplexVector from(final double[] real, final double[] imaginary) {
+        if (real.length != imaginary.length) {
+            throw new IllegalArgumentException("There must be as many imaginary parts as real parts, but there were " +
+                                               real.length + " real parts and " + imaginary.length +
+                                               " imaginary parts.");
+        }
+        final double[] elements = new double[2 * real.length];
+        for (int k = 0; k < real.length; k++) {
+            elements[2 * k] = real[k];
+            elements[2 * k + 1] = imaginary[k];
+        }
+        return new ComplexVector(elements);
+    }
+
+    /**
+     * Create a new complex vector with the given real elements and zero imaginary parts.
+     *
+     * @param real the real parts of the elements.
+     * @return a new complex vector with the given real parts.
+     */
+    public static ComplexVector fromReal(final double... real) {
+        final double[] elements = new double[2 * real.length];
+        for (int k = 0; k < real.length; k++) {
+            elements[2 * k] = real[k];
+        }
+        return new ComplexVector(elements);
+    }
+
+    /**
+     * Create a new complex vector with the values of the given complex numbers.
+     *
+     * @param complexes the complex numbers to take the values of.
+     * @return a new complex vector with the values of the given complex numbers.
+     */
+    public static ComplexVector from(final Complex... complexes) {
+        final double[] elements = new double[2 * complexes.length];
+        for (int k = 0; k < complexes.length; k++) {
+            elements[2 * k] = complexes[k].real();
+            elements[2 * k + 1] = complexes[k].im();
+        }
+        return new ComplexVector(elements);
+    }
+
+    // Take ownership of a freshly computed interleaved array that no one else holds a reference to.
+    static ComplexVector wrap(final double[] interleaved) {
+        return new ComplexVector(interleaved);
+    }
+
+    // The backing array itself, for kernels in this package that only read it.
+    double[] array() {
+        return this.elements;
+    }
+
+    /**
+     * The number of complex elements in this vector.
+     *
+     * @return the number of complex elements in this vector.
+     */
+    public int size() {
+        return this.elements.length / 2;
+    }
+
+    /**
+     * The real part of the element at index k.
+     *
+     * @param k the index of the element.
+     * @return the real part of the element at index k.
+     */
+    public double real(final int k) {
+        return this.elements[2 * k];
+    }
+
+    /**
+     * The imaginary part of the element at index k.
+     *
+     * @param k the index of the element.
+     * @return the imaginary part of the element at index k.
+     */
+    public double imaginary(final int k) {
+        return this.elements[2 * k + 1];
+    }
+
+    /**
+     * The element at index k as a new complex number.
+     *
+     * @param k the index of the element.
+     * @return the element at index k.
+     */
+    public Complex at(final int k) {
+        return new Complex(real(k), imaginary(k));
+    }
+
+    /**
+     * The real parts of the elements of this vector.
+     *
+     * @return the real parts of the elements of this vector.
+     */
+    public double[] real() {
+        final double[] real = new double[size()];
+        for (int k = 0; k < real.length; k++) {
+            real[k] = elements[2 * k];
+        }
+        return real;
+    }
+
+    /**
+     * The imaginary parts of the elements of this vector.
+     *
+     * @return the imaginary parts of the elements of this vector.
+     */
+    public double[] imaginary() {
+        final double[] imaginary = new double[size()];
+        for (int k = 0; k < imaginary.length; k++) {
+            imaginary[k] = elements[2 * k + 1];
+        }
+        return imaginary;
+    }
+
+    /**
+     * The real and imaginary parts of the elements of this vector, interleaved.
+     *
+     * @return the real and imaginary parts of the elements of this vector, interleaved.
+     */
+    public double[] interleaved() {
+        return this.elements.clone();
+    }
+
+    /**
+     * Add this vector to the given vector and return the result in a new vector.
+     *
+     * @param other the vector to add to this vector.
+     * @return this vector added to the given vector.
+     */
+    public ComplexVector plus(final ComplexVector other) {
+        return new ComplexVector(plusInto(new double[elements.length], other));
+    }
+
+    /**
+     * Add this vector to the given vector and store the interleaved result in the destination array.
+     *
+     * @param destination the interleaved array to store the result in.
+     * @param other       the vector to add to this vector.
+     * @return the destination array, now holding this vector added to the given vector.
+     */
+    public double[] plusInto(final double[] destination, final ComplexVector other) {
+        return ComplexOperators.addInto(destination, this.elements, other.elements);
+    }
+
+    /**
+     * Subtract the given vector from this vector and return the result in a new vector.
+     *
+     * @param other the vector to subtract from this vector.
+     * @return this vector minus the given vector.
+     */
+    public ComplexVector minus(final ComplexVector other) {
+        return new ComplexVector(minusInto(new double[elements.length], other));
+    }
+
+    /**
+     * Subtract the given vector from this vector and store the interleaved result in the destination array.
+     *
+     * @param destination the interleaved array to store the result in.
+     * @param other       the vector to subtract from this vector.
+     * @return the destination array, now holding this vector minus the given vector.
+     */
+    public double[] minusInto(final double[] destination, final ComplexVector other) {
+        return ComplexOperators.subtractInto(destination, this.elements, other.elements);
+    }
+
+    /**
+     * Multiply this vector element by element with the given vector and return the result in a new vector.
+     *
+     * @param other the vector to multiply this vector with.
+     * @return the element-by-element product of this vector and the given vector.
+     */
+    public ComplexVector times(final ComplexVector other) {
+        return new ComplexVector(timesInto(new double[elements.length], other));
+    }
+
+    /**
+     * Multiply this vector element by element with the given vector and store the interleaved result in the
+     * destination array.
+     *
+     * @param destination the interleaved array to store the result in.
+     * @param other       the vector to multiply this vector with.
+     * @return the destination array, now holding the element-by-element product of the two vectors.
+     */
+    public double[] timesInto(final double[] destination, final ComplexVector other) {
+        return ComplexOperators.multiplyInto(destination, this.elements, other.elements);
+    }
+
+    /**
+     * Scale this vector by the complex number with the given real and imaginary parts.
+     *
+     * @param re the real part of the scalar.
+     * @param im the imaginary part of the scalar.
+     * @return this vector scaled by the given complex number.
+     */
+    public ComplexVector scaledBy(final double re, final double im) {
+        return new ComplexVector(ComplexOperators.scaleInto(new double[elements.length], elements, re, im));
+    }
+
+    /**
+     * The complex conjugate of this vector.
+     *
+     * @return the complex conjugate of this vector.
+     */
+    public ComplexVector conjugate() {
+        return new ComplexVector(ComplexOperators.conjugateInto(new double[elements.length], elements));
+    }
+
+    /**
+     * The modulus of every element of this vector.
+     *
+     * @return the modulus of every element of this vector.
+     */
+    public double[] abs() {
+        return ComplexOperators.absInto(new double[size()], elements);
+    }
+
+    /**
+     * The Euclidean norm of this vector.
+     *
+     * @return the Euclidean norm of this vector.
+     */
+    public double norm() {
+        return ComplexOperators.norm(elements);
+    }
+
+    /**
+     * The inner product of this vector with the given vector, the sum of the products of the conjugates of the
+     * elements of this vector with the elements of the given vector.
+     *
+     * @param other the vector to take the inner product with.
+     * @return the inner product of this vector with the given vector.
+     */
+    public Complex dotProduct(final ComplexVector other) {
+        final double[] product = ComplexOperators.dotInto(new double[2], this.elements, other.elements);
+        return new Complex(product[0], product[1]);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder representation = new StringBuilder("ComplexVector[");
+        for (int k = 0; k < size(); k++) {
+            if (k > 0) {
+                representation.append(", ");
+            }
+            representation.append(real(k)).append(imaginary(k) < 0 ? " - " : " + ")
+                          .append(Math.abs(imaginary(k))).append('i');
+        }
+        return representation.append(']').toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        ComplexVector that = (ComplexVector) o;
+        return Arrays.equals(elements, that.elements);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(elements);
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2017 Jacob Rachiele
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to
+ * do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+ * USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Contributors:
+ *
+ * Jacob Rachiele
+ */
+package math.linear.doubles;
+
+/**
+ * The LU decomposition with partial pivoting of a square matrix A into P A = L U, where P is a permutation matrix,
+ * L is unit lower triangular and U is upper triangular.
+ * <p>
+ * An instance is a reusable workspace for matrices of a single dimension: each call to {@link #decompose} overwrites
+ * the previous factors in place. This class is therefore not thread-safe.
+ * </p>
+ *
+ * @author Jacob Rachiele
+ */
+public final class LUDecomposition {
+
+    private final int n;
+    private final double[] lu;
+    private final int[] pivot;
+    private final double[] column;
+    private int pivotSign;
+    private boolean decomposed;
+
+    /**
+     * Create a new workspace for the LU decomposition of n by n matrices.
+     *
+     * @param n the dimension of the matrices to decompose.
+     */
+    public LUDecomposition(final int n) {
+        this.n = n;
+        this.lu = new double[n * n];
+        this.pivot = new int[n];
+        this.column = new double[n];
+    }
+
+    /**
+     * Decompose the given square matrix.
+     *
+     * @param matrix the square matrix to decompose.
+     * @return true if the matrix is nonsingular, false otherwise.
+     */
+    public boolean decompose(final Matrix matrix) {
+        if (matrix.nrow() != n || matrix.ncol() != n) {
+            throw new IllegalArgumentException("This workspace decomposes " + n + " by " + n + " matrices, but the " +
+                                               "matrix has dimension (" + matrix.nrow() + ", " + matrix.ncol() + ")");
+        }
+        return decompose(matrix.array());
+    }
+
+    /**
+     * Decompose the given n by n matrix, stored in row-major order. The given array is not modified.
+     *
+     * @param a the matrix to decompose, in row-major order.
+     * @return true if the matrix is nonsingular, false otherwise.
+     */
+    public boolean decompose(final double[] a) {
+        System.arraycopy(a, 0, lu, 0, n * n);
+        for (int i = 0; i < n; i++) {
+            pivot[i] = i;
+        }
+        pivotSign = 1;
+        // Crout's left-looking variant, which reads each row of the factor contiguously.
+        for (int j = 0; j < n; j++) {
+            for (int i = 0; i < n; i++) {
+                column[i] = lu[i * n + j];
+            }
+            for (int i = 0; i < n; i++) {
+                final int kMax = Math.min(i, j);
+                final double s = MatrixOperations.dot(lu, i * n, column, 0, kMax);
+                column[i] -= s;
+                lu[i * n + j] = column[i];
+            }
+            int p = j;
+            for (int i = j + 1; i < n; i++) {
+                if (Math.abs(column[i]) > Math.abs(column[p])) {
+                    p = i;
+                }
+            }
+            if (p != j) {
+                for (int k = 0; k < n; k++) {
+                    final double tmp = lu[p * n + k];
+                    lu[p * n + k] = lu[j * n + k];
+                    lu[j * n + k] = tmp;
+                }
+                final int tmp = pivot[p];
+                pivot[p] = pivot[j];
+                pivot[j] = tmp;
+                pivotSign = -pivotSign;
+            }
+            final double diagonal = lu[j * n + j];
+            if (diagonal != 0.0) {
+                for (int i = j + 1; i < n; i++) {
+                    lu[i * n + j] /= diagonal;
+                }
+            }
+        }
+        decomposed = true;
+        return !isSingular();
+    }
+
+    /**
+     * Whether the last matrix decomposed is singular.
+     *
+     * @return true if the last matrix decomposed is singular.
+     */
+    public boolean isSingular() {
+        requireDecomposed();
+        for (int j = 0; j < n; j++) {
+            if (lu[j * n + j] == 0.0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The determinant of the last matrix decomposed.
+     *
+     * @return the determinant of the last matrix decomposed.
+     */
+    public double determinant() {
+        requireDecomposed();
+        double determinant = pivotSign;
+        for (int j = 0; j < n; j++) {
+            determinant *= lu[j * n + j];
+        }
+        return determinant;
+    }
+
+    /**
+     * Solve the system A x = b for x, where A is the last matrix decomposed, and store x in the destination. The
+     * destination must not be the same array as b.
+     *
+     * @param destination the array of length n to store the solution in.
+     * @param b           the right-hand side of length n.
+     * @return the destination array, now holding the solution x.
+     */
+    public double[] solveInto(final double[] destination, final double[] b) {
+        requireNonsingular();
+        if (destination == b) {
+            throw new IllegalArgumentException("The destination must not be the right-hand side array.");
+        }
+        for (int i = 0; i < n; i++) {
+            destination[i] = b[pivot[i]];
+        }
+        for (int i = 0; i < n; i++) {
+            destination[i] -= MatrixOperations.dot(lu, i * n, destination, 0, i);
+        }
+        for (int i = n - 1; i >= 0; i--) {
+            double sum = destination[i];
+            for (int k = i + 1; k < n; k++) {
+                sum -= lu[i * n + k] * destination[k];
+            }
+            destination[i] = sum / lu[i * n + i];
+        }
+        return destination;
+    }
+
+    /**
+     * Solve the system A X = B for X, where A is the last matrix decomposed.
+     *
+     * @param b the right-hand side matrix, with n rows.
+     * @return the solution X.
+     */
+    public Matrix solve(final Matrix b) {
+        requireNonsingular();
+        if (b.nrow() != n) {
+            throw new IllegalArgumentException("The right-hand side must have " + n + " rows, but had " + b.nrow());
+        }
+        final int m = b.ncol();
+        final double[] columnMajor = b.transposeInto(new double[n * m]);
+        final double[] rhs = new double[n];
+        final double[] solution = new double[n];
+        for (int j = 0; j < m; j++) {
+            System.arraycopy(columnMajor, j * n, rhs, 0, n);
+            solveInto(solution, rhs);
+            System.arraycopy(solution, 0, columnMajor, j * n, n);
+        }
+        return Matrix.create(m, n, columnMajor).transpose();
+    }
+
+    /**
+     * The inverse of the last matrix decomposed.
+     *
+     * @return the inverse of the last matrix decomposed.
+     */
+    public Matrix inverse() {
+        return solve(Matrices.identity(n));
+    }
+
+    private void requireDecomposed() {
+        if (!decomposed) {
+            throw new IllegalStateException("No matrix has been decomposed.");
+        }
+    }
+
+    private void requireNonsingular() {
+        if (isSingular()) {
+            throw new IllegalStateException("The decomposed matrix is singular.");
+        }
+    }
+}
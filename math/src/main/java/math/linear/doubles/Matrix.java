@@ -23,6 +23,8 @@
  */
 package math.linear.doubles;
 
+import math.operations.Operators;
+
 import java.util.Arrays;
 
 /**
@@ -59,6 +61,13 @@ public final class Matrix {
         this.data = data.clone();
     }
 
+    // Take ownership of a freshly computed array that no one else holds a reference to.
+    private Matrix(final int nrow, final int ncol, final double[] data, final boolean copy) {
+        this.nrow = nrow;
+        this.ncol = ncol;
+        this.data = copy ? data.clone() : data;
+    }
+
     public int nrow() {
         return this.nrow;
     }
@@ -134,19 +143,19 @@ public final class Matrix {
      * @return this matrix added to the other matrix.
      */
     public Matrix plus(final Matrix other) {
-        if (this.nrow != other.nrow || this.ncol != other.ncol) {
-            throw new IllegalArgumentException(
-                    "The dimensions of this matrix must equal the dimensions of the other matrix. " +
-                    "This matrix has dimension (" + this.nrow + ", " + this.ncol +
-                    ") and the other matrix has dimension (" + other.nrow + ", " + other.ncol + ")");
-        }
-        final double[] sum = new double[nrow * ncol];
-        for (int i = 0; i < nrow; i++) {
-            for (int j = 0; j < ncol; j++) {
-                sum[i * ncol + j] = this.data[i * ncol + j] + other.data[i * ncol + j];
-            }
-        }
-        return new Matrix(this.nrow, this.ncol, sum);
+        return new Matrix(this.nrow, this.ncol, plusInto(new double[this.data.length], other), false);
+    }
+
+    /**
+     * Add this matrix to the given matrix and store the sum, in row-major order, in the destination array.
+     *
+     * @param destination the array to store the sum in.
+     * @param other       the matrix to add to this one.
+     * @return the destination array, now holding this matrix added to the other matrix.
+     */
+    public double[] plusInto(final double[] destination, final Matrix other) {
+        validateSameDimensions(other);
+        return Operators.sumInto(destination, this.data, other.data);
     }
 
     /**
@@ -156,20 +165,58 @@ public final class Matrix {
      * @return the product of this matrix with the given matrix.
      */
     public Matrix times(final Matrix other) {
+        return new Matrix(this.nrow, other.ncol, timesInto(new double[this.nrow * other.ncol], other), false);
+    }
+
+    /**
+     * Multiply this matrix by the given matrix and store the product, in row-major order, in the destination
+     * array. The destination must not be the data of either matrix.
+     *
+     * @param destination the array to store the product in.
+     * @param other       the matrix to multiply by.
+     * @return the destination array, now holding the product of this matrix with the given matrix.
+     */
+    public double[] timesInto(final double[] destination, final Matrix other) {
         if (this.ncol != other.nrow) {
             throw new IllegalArgumentException(
                     "The columns of this matrix must equal the rows of the other matrix. " + "This matrix has " +
                     this.ncol + " columns and the other matrix has " + other.nrow + " rows.");
         }
-        final double[] product = new double[this.nrow * other.ncol];
-        for (int i = 0; i < this.nrow; i++) {
-            for (int j = 0; j < other.ncol; j++) {
-                for (int k = 0; k < this.ncol; k++) {
-                    product[i * this.nrow + j] += this.data[i * this.ncol + k] * other.data[j + k * other.ncol];
-                }
-            }
+        return MatrixOperations.multiplyInto(destination, this.data, this.nrow, this.ncol, other.data, other.ncol);
+    }
+
+    /**
+     * Multiply this matrix by the transpose of the given matrix without forming the transpose.
+     *
+     * @param other the matrix whose transpose to multiply by.
+     * @return the product of this matrix with the transpose of the given matrix.
+     */
+    public Matrix timesTranspose(final Matrix other) {
+        if (this.ncol != other.ncol) {
+            throw new IllegalArgumentException(
+                    "The columns of this matrix must equal the columns of the other matrix. " + "This matrix has " +
+                    this.ncol + " columns and the other matrix has " + other.ncol + " columns.");
+        }
+        final double[] product = new double[this.nrow * other.nrow];
+        MatrixOperations.multiplyTransposedInto(product, this.data, this.nrow, this.ncol, other.data, other.nrow);
+        return new Matrix(this.nrow, other.nrow, product, false);
+    }
+
+    /**
+     * Multiply the transpose of this matrix by the given matrix without forming the transpose.
+     *
+     * @param other the matrix to multiply by.
+     * @return the product of the transpose of this matrix with the given matrix.
+     */
+    public Matrix transposeTimes(final Matrix other) {
+        if (this.nrow != other.nrow) {
+            throw new IllegalArgumentException(
+                    "The rows of this matrix must equal the rows of the other matrix. " + "This matrix has " +
+                    this.nrow + " rows and the other matrix has " + other.nrow + " rows.");
         }
-        return new Matrix(this.nrow, other.ncol, product);
+        final double[] product = new double[this.ncol * other.ncol];
+        MatrixOperations.transposeMultiplyInto(product, this.data, this.ncol, this.nrow, other.data, other.ncol);
+        return new Matrix(this.ncol, other.ncol, product, false);
     }
 
     /**
@@ -179,19 +226,39 @@ public final class Matrix {
      * @return the given vector multiplied by this matrix.
      */
     public Vector times(final Vector vector) {
-        double[] elements = vector.elements();
-        if (this.ncol != elements.length) {
+        return Vector.wrap(timesInto(new double[this.nrow], vector.array()));
+    }
+
+    /**
+     * Multiply this matrix by the given vector and store the result in the destination array.
+     *
+     * @param destination the array to store the product in.
+     * @param vector      the elements of the vector to multiply.
+     * @return the destination array, now holding the given vector multiplied by this matrix.
+     */
+    public double[] timesInto(final double[] destination, final double[] vector) {
+        if (this.ncol != vector.length) {
             throw new IllegalArgumentException(
                     "The columns of this matrix must equal the rows of the vector. " + "This matrix has " + this.ncol +
-                    " columns and the vector has " + elements.length + " rows.");
+                    " columns and the vector has " + vector.length + " rows.");
         }
-        final double[] product = new double[this.nrow];
-        for (int i = 0; i < this.nrow; i++) {
-            for (int k = 0; k < this.ncol; k++) {
-                product[i] += this.data[i * this.ncol + k] * elements[k];
-            }
+        return MatrixOperations.multiplyVectorInto(destination, this.data, this.nrow, this.ncol, vector);
+    }
+
+    /**
+     * Multiply the transpose of this matrix by the given vector and store the result in the destination array.
+     *
+     * @param destination the array to store the product in.
+     * @param vector      the elements of the vector to multiply.
+     * @return the destination array, now holding the given vector multiplied by the transpose of this matrix.
+     */
+    public double[] transposeTimesInto(final double[] destination, final double[] vector) {
+        if (this.nrow != vector.length) {
+            throw new IllegalArgumentException(
+                    "The rows of this matrix must equal the rows of the vector. " + "This matrix has " + this.nrow +
+                    " rows and the vector has " + vector.length + " rows.");
         }
-        return new Vector(product);
+        return MatrixOperations.transposeMultiplyVectorInto(destination, this.data, this.nrow, this.ncol, vector);
     }
 
     /**
@@ -201,11 +268,18 @@ public final class Matrix {
      * @return this matrix scaled by the given value.
      */
     public Matrix scaledBy(final double c) {
-        final double[] scaled = new double[this.data.length];
-        for (int i = 0; i < this.data.length; i++) {
-            scaled[i] = this.data[i] * c;
-        }
-        return new Matrix(this.nrow, this.ncol, scaled);
+        return new Matrix(this.nrow, this.ncol, scaledByInto(new double[this.data.length], c), false);
+    }
+
+    /**
+     * Scale this matrix by the given value and store the result, in row-major order, in the destination array.
+     *
+     * @param destination the array to store the scaled matrix in.
+     * @param c           the value to scale this matrix by.
+     * @return the destination array, now holding this matrix scaled by the given value.
+     */
+    public double[] scaledByInto(final double[] destination, final double c) {
+        return Operators.scaleInto(destination, this.data, c);
     }
 
     /**
@@ -215,19 +289,20 @@ public final class Matrix {
      * @return the difference of this matrix and the given matrix.
      */
     public Matrix minus(final Matrix other) {
-        if (this.nrow != other.nrow || this.ncol != other.ncol) {
-            throw new IllegalArgumentException(
-                    "The dimensions of this matrix must equal the dimensions of the other matrix. " +
-                    "This matrix has dimension (" + this.nrow + ", " + this.ncol +
-                    ") and the other matrix has dimension (" + other.nrow + ", " + other.ncol + ")");
-        }
-        final double[] minus = new double[nrow * ncol];
-        for (int i = 0; i < nrow; i++) {
-            for (int j = 0; j < ncol; j++) {
-                minus[i * ncol + j] = this.data[i * ncol + j] - other.data[i * ncol + j];
-            }
-        }
-        return new Matrix(this.nrow, this.ncol, minus);
+        return new Matrix(this.nrow, this.ncol, minusInto(new double[this.data.length], other), false);
+    }
+
+    /**
+     * Subtract the given matrix from this matrix and store the difference, in row-major order, in the destination
+     * array.
+     *
+     * @param destination the array to store the difference in.
+     * @param other       the matrix to subtract from this one.
+     * @return the destination array, now holding the difference of this matrix and the given matrix.
+     */
+    public double[] minusInto(final double[] destination, final Matrix other) {
+        validateSameDimensions(other);
+        return Operators.differenceInto(destination, this.data, other.data);
     }
 
     /**
@@ -245,13 +320,17 @@ public final class Matrix {
      * @return the transpose of this matrix.
      */
     public Matrix transpose() {
-        final double[] tData = new double[this.data.length];
-        for (int i = 0; i < this.nrow; i++) {
-            for (int j = 0; j < this.ncol; j++) {
-                tData[i + j * this.nrow] = this.data[j + i * ncol];
-            }
-        }
-        return new Matrix(this.ncol, this.nrow, tData);
+        return new Matrix(this.ncol, this.nrow, transposeInto(new double[this.data.length]), false);
+    }
+
+    /**
+     * Transpose this matrix and store the transposition, in row-major order, in the destination array.
+     *
+     * @param destination the array to store the transpose in.
+     * @return the destination array, now holding the transpose of this matrix.
+     */
+    public double[] transposeInto(final double[] destination) {
+        return MatrixOperations.transposeInto(destination, this.data, this.nrow, this.ncol);
     }
 
     /**
@@ -268,6 +347,78 @@ public final class Matrix {
         return diag;
     }
 
+    /**
+     * Compute the Cholesky decomposition of this symmetric positive definite matrix.
+     *
+     * @return the Cholesky decomposition of this matrix.
+     * @throws IllegalArgumentException if this matrix is not positive definite.
+     */
+    public CholeskyDecomposition cholesky() {
+        final CholeskyDecomposition decomposition = new CholeskyDecomposition(this.nrow);
+        if (!decomposition.decompose(this)) {
+            throw new IllegalArgumentException("The matrix is not positive definite.");
+        }
+        return decomposition;
+    }
+
+    /**
+     * Compute the LU decomposition with partial pivoting of this square matrix.
+     *
+     * @return the LU decomposition of this matrix.
+     */
+    public LUDecomposition lu() {
+        final LUDecomposition decomposition = new LUDecomposition(this.nrow);
+        decomposition.decompose(this);
+        return decomposition;
+    }
+
+    /**
+     * Compute the Householder QR decomposition of this matrix, which must have at least as many rows as columns.
+     *
+     * @return the QR decomposition of this matrix.
+     */
+    public QRDecomposition qr() {
+        final QRDecomposition decomposition = new QRDecomposition(this.nrow, this.ncol);
+        decomposition.decompose(this);
+        return decomposition;
+    }
+
+    /**
+     * Compute the eigen decomposition of this matrix, which is assumed to be symmetric.
+     *
+     * @return the eigen decomposition of this symmetric matrix.
+     */
+    public SymmetricEigenDecomposition symmetricEigen() {
+        final SymmetricEigenDecomposition decomposition = new SymmetricEigenDecomposition(this.nrow);
+        decomposition.decompose(this);
+        return decomposition;
+    }
+
+    /**
+     * Solve the system A X = B, where A is this matrix. Square systems are solved by LU decomposition, and
+     * overdetermined systems in the least squares sense by QR decomposition.
+     *
+     * @param b the right-hand side matrix, with as many rows as this matrix.
+     * @return the solution X.
+     */
+    public Matrix solve(final Matrix b) {
+        return isSquare() ? lu().solve(b) : qr().solve(b);
+    }
+
+    /**
+     * Compute the inverse of this square matrix.
+     *
+     * @return the inverse of this matrix.
+     * @throws IllegalStateException if this matrix is singular.
+     */
+    public Matrix inverse() {
+        if (!isSquare()) {
+            throw new IllegalArgumentException("Only a square matrix has an inverse, but this matrix has dimension (" +
+                                               this.nrow + ", " + this.ncol + ")");
+        }
+        return lu().inverse();
+    }
+
     /**
      * Obtain the array of data underlying this matrix in row-major order.
      *
@@ -277,6 +428,11 @@ public final class Matrix {
         return this.data.clone();
     }
 
+    // The backing array itself, for kernels in this package that only read it.
+    double[] array() {
+        return this.data;
+    }
+
     /**
      * Obtain the data in this matrix as a two-dimensional array.
      *
@@ -308,6 +464,15 @@ public final class Matrix {
         return twoD;
     }
 
+    private void validateSameDimensions(final Matrix other) {
+        if (this.nrow != other.nrow || this.ncol != other.ncol) {
+            throw new IllegalArgumentException(
+                    "The dimensions of this matrix must equal the dimensions of the other matrix. " +
+                    "This matrix has dimension (" + this.nrow + ", " + this.ncol +
+                    ") and the other matrix has dimension (" + other.nrow + ", " + other.ncol + ")");
+        }
+    }
+
     @Override
     public String toString() {
         String newLine = System.lineSeparator();
@@ -0,0 +1,311 @@
+/*
+ * Copyright (c) 2017 Jacob Rachiele
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to
+ * do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+ * USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Contributors:
+ *
+ * Jacob Rachiele
+ */
+package math.linear.doubles;
+
+import math.operations.DoubleKernels;
+
+import java.util.Arrays;
+
+/**
+ * Static kernels for dense matrices stored as row-major arrays of primitive doubles.
+ * <p>
+ * Every kernel writes its result to a caller-supplied destination array, so that loops which repeatedly multiply
+ * or update matrices of the same shape may reuse a single buffer instead of allocating a new matrix on each pass.
+ * Unless otherwise stated, the destination must not be one of the input arrays. The matrix products are tiled so
+ * that the working set of the innermost loops stays in cache, and the innermost loops always run over contiguous
+ * memory.
+ * </p>
+ *
+ * @author Jacob Rachiele
+ */
+public final class MatrixOperations {
+
+    // Chosen so that three tiles of doubles fit comfortably within a typical 256KB L2 cache.
+    private static final int TILE = 64;
+
+    private MatrixOperations() {}
+
+    /**
+     * Compute the product of the m by k matrix a with the k by n matrix b and store it in the destination.
+     *
+     * @param destination the m by n array to store the product in.
+     * @param a           the left matrix, with m rows and k columns.
+     * @param m           the number of rows of a.
+     * @param k           the number of columns of a and rows of b.
+     * @param b           the right matrix, with k rows and n columns.
+     * @param n           the number of columns of b.
+     * @return the destination array, now holding the product a times b.
+     */
+    public static double[] multiplyInto(final double[] destination, final double[] a, final int m, final int k,
+                                        final double[] b, final int n) {
+        validate(destination, m * n, a, m * k, b, k * n);
+        Arrays.fill(destination, 0, m * n, 0.0);
+        for (int i0 = 0; i0 < m; i0 += TILE) {
+            final int iMax = Math.min(i0 + TILE, m);
+            for (int p0 = 0; p0 < k; p0 += TILE) {
+                final int pMax = Math.min(p0 + TILE, k);
+                for (int j0 = 0; j0 < n; j0 += TILE) {
+                    final int jMax = Math.min(j0 + TILE, n);
+                    for (int i = i0; i < iMax; i++) {
+                        final int rowC = i * n;
+                        final int rowA = i * k;
+                        for (int p = p0; p < pMax; p++) {
+                            final double aip = a[rowA + p];
+                            final int rowB = p * n;
+                            DoubleKernels.axpy(aip, b, rowB + j0, destination, rowC + j0, jMax - j0);
+                        }
+                    }
+                }
+            }
+        }
+        return destination;
+    }
+
+    /**
+     * Compute the product of the m by k matrix a with the transpose of the n by k matrix b and store it in the
+     * destination. Both operands are read along their rows, so this is the fastest of the product kernels.
+     *
+     * @param destination the m by n array to store the product in.
+     * @param a           the left matrix, with m rows and k columns.
+     * @param m           the number of rows of a.
+     * @param k           the number of columns of both a and b.
+     * @param b           the matrix whose transpose is the right operand, with n rows and k columns.
+     * @param n           the number of rows of b.
+     * @return the destination array, now holding the product a times the transpose of b.
+     */
+    public static double[] multiplyTransposedInto(final double[] destination, final double[] a, final int m,
+                                                  final int k, final double[] b, final int n) {
+        validate(destination, m * n, a, m * k, b, n * k);
+        for (int i0 = 0; i0 < m; i0 += TILE) {
+            final int iMax = Math.min(i0 + TILE, m);
+            for (int j0 = 0; j0 < n; j0 += TILE) {
+                final int jMax = Math.min(j0 + TILE, n);
+                for (int i = i0; i < iMax; i++) {
+                    for (int j = j0; j < jMax; j++) {
+                        destination[i * n + j] = dot(a, i * k, b, j * k, k);
+                    }
+                }
+            }
+        }
+        return destination;
+    }
+
+    /**
+     * Compute the product of the transpose of the k by m matrix a with the k by n matrix b and store it in the
+     * destination.
+     *
+     * @param destination the m by n array to store the product in.
+     * @param a           the matrix whose transpose is the left operand, with k rows and m columns.
+     * @param m           the number of columns of a.
+     * @param k           the number of rows of both a and b.
+     * @param b           the right matrix, with k rows and n columns.
+     * @param n           the number of columns of b.
+     * @return the destination array, now holding the product of the transpose of a with b.
+     */
+    public static double[] transposeMultiplyInto(final double[] destination, final double[] a, final int m,
+                                                 final int k, final double[] b, final int n) {
+        validate(destination, m * n, a, k * m, b, k * n);
+        Arrays.fill(destination, 0, m * n, 0.0);
+        for (int p0 = 0; p0 < k; p0 += TILE) {
+            final int pMax = Math.min(p0 + TILE, k);
+            for (int i0 = 0; i0 < m; i0 += TILE) {
+                final int iMax = Math.min(i0 + TILE, m);
+                for (int p = p0; p < pMax; p++) {
+                    final int rowA = p * m;
+                    final int rowB = p * n;
+                    for (int i = i0; i < iMax; i++) {
+                        final double api = a[rowA + i];
+                        final int rowC = i * n;
+                        DoubleKernels.axpy(api, b, rowB, destination, rowC, n);
+                    }
+                }
+            }
+        }
+        return destination;
+    }
+
+    /**
+     * Perform the symmetric rank-k update c = alpha &times; a &times; a<sup>T</sup> + beta &times; c, where a is an
+     * n by k matrix and c is an n by n symmetric matrix. Only the lower triangle is computed; it is then mirrored
+     * into the upper triangle, so roughly half the work of a general product is done.
+     *
+     * @param c     the n by n symmetric matrix to update in place.
+     * @param n     the dimension of c and the number of rows of a.
+     * @param alpha the scalar multiplying the product of a with its transpose.
+     * @param a     the n by k matrix.
+     * @param k     the number of columns of a.
+     * @param beta  the scalar multiplying c before the update.
+     * @return the updated array c.
+     */
+    public static double[] symmetricRankKUpdate(final double[] c, final int n, final double alpha,
+                                                final double[] a, final int k, final double beta) {
+        validate(c, n * n, a, n * k, a, n * k);
+        for (int i = 0; i < n; i++) {
+            final int rowC = i * n;
+            for (int j = 0; j <= i; j++) {
+                final double product = alpha * dot(a, i * k, a, j * k, k);
+                c[rowC + j] = (beta == 0.0) ? product : beta * c[rowC + j] + product;
+            }
+        }
+        mirrorLower(c, n);
+        return c;
+    }
+
+    /**
+     * Perform the symmetric rank-2 update c = c + alpha &times; (x y<sup>T</sup> + y x<sup>T</sup>) on the n by n
+     * matrix c in place.
+     *
+     * @param c     the n by n symmetric matrix to update in place.
+     * @param n     the dimension of c.
+     * @param alpha the scalar multiplying the rank-2 term.
+     * @param x     the first vector, of length n.
+     * @param y     the second vector, of length n.
+     * @return the updated array c.
+     */
+    public static double[] symmetricRankTwoUpdate(final double[] c, final int n, final double alpha,
+                                                  final double[] x, final double[] y) {
+        validate(c, n * n, x, n, y, n);
+        for (int i = 0; i < n; i++) {
+            final double axi = alpha * x[i];
+            final double ayi = alpha * y[i];
+            final int rowC = i * n;
+            for (int j = 0; j < n; j++) {
+                c[rowC + j] += axi * y[j] + ayi * x[j];
+            }
+        }
+        return c;
+    }
+
+    /**
+     * Perform the rank-1 update c = c + alpha &times; x y<sup>T</sup> on the m by n matrix c in place.
+     *
+     * @param c     the m by n matrix to update in place.
+     * @param alpha the scalar multiplying the outer product.
+     * @param x     the column vector, of length m.
+     * @param y     the row vector, of length n.
+     * @return the updated array c.
+     */
+    public static double[] rankOneUpdate(final double[] c, final double alpha, final double[] x, final double[] y) {
+        validate(c, x.length * y.length, x, x.length, y, y.length);
+        final int n = y.length;
+        for (int i = 0; i < x.length; i++) {
+            final double axi = alpha * x[i];
+            final int rowC = i * n;
+            DoubleKernels.axpy(axi, y, 0, c, rowC, n);
+        }
+        return c;
+    }
+
+    /**
+     * Compute the product of the m by n matrix a with the vector x and store it in the destination.
+     *
+     * @param destination the array of length m to store the product in.
+     * @param a           the matrix, with m rows and n columns.
+     * @param m           the number of rows of a.
+     * @param n           the number of columns of a.
+     * @param x           the vector of length n.
+     * @return the destination array, now holding a times x.
+     */
+    public static double[] multiplyVectorInto(final double[] destination, final double[] a, final int m,
+                                              final int n, final double[] x) {
+        validate(destination, m, a, m * n, x, n);
+        for (int i = 0; i < m; i++) {
+            destination[i] = dot(a, i * n, x, 0, n);
+        }
+        return destination;
+    }
+
+    /**
+     * Compute the product of the transpose of the m by n matrix a with the vector x and store it in the
+     * destination. The matrix is still read along its rows.
+     *
+     * @param destination the array of length n to store the product in.
+     * @param a           the matrix, with m rows and n columns.
+     * @param m           the number of rows of a.
+     * @param n           the number of columns of a.
+     * @param x           the vector of length m.
+     * @return the destination array, now holding the transpose of a times x.
+     */
+    public static double[] transposeMultiplyVectorInto(final double[] destination, final double[] a, final int m,
+                                                       final int n, final double[] x) {
+        validate(destination, n, a, m * n, x, m);
+        Arrays.fill(destination, 0, n, 0.0);
+        for (int i = 0; i < m; i++) {
+            final double xi = x[i];
+            final int row = i * n;
+            for (int j = 0; j < n; j++) {
+                destination[j] += xi * a[row + j];
+            }
+        }
+        return destination;
+    }
+
+    /**
+     * Transpose the m by n matrix a and store the n by m result in the destination. The transpose is performed in
+     * square tiles so that neither the reads nor the writes stride across the whole matrix.
+     *
+     * @param destination the n by m array to store the transpose in.
+     * @param a           the matrix, with m rows and n columns.
+     * @param m           the number of rows of a.
+     * @param n           the number of columns of a.
+     * @return the destination array, now holding the transpose of a.
+     */
+    public static double[] transposeInto(final double[] destination, final double[] a, final int m, final int n) {
+        validate(destination, m * n, a, m * n, a, m * n);
+        for (int i0 = 0; i0 < m; i0 += TILE) {
+            final int iMax = Math.min(i0 + TILE, m);
+            for (int j0 = 0; j0 < n; j0 += TILE) {
+                final int jMax = Math.min(j0 + TILE, n);
+                for (int i = i0; i < iMax; i++) {
+                    for (int j = j0; j < jMax; j++) {
+                        destination[j * m + i] = a[i * n + j];
+                    }
+                }
+            }
+        }
+        return destination;
+    }
+
+    static void mirrorLower(final double[] c, final int n) {
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                c[i * n + j] = c[j * n + i];
+            }
+        }
+    }
+
+    static double dot(final double[] x, final int xOffset, final double[] y, final int yOffset, final int length) {
+        return DoubleKernels.dot(x, xOffset, y, yOffset, length);
+    }
+
+    private static void validate(final double[] destination, final int destinationLength, final double[] a,
+                                 final int aLength, final double[] b, final int bLength) {
+        if (destination.length < destinationLength || a.length < aLength || b.length < bLength) {
+            throw new IllegalArgumentException(
+                    "The arrays are too short for the given dimensions. The destination and operands have lengths " +
+                    destination.length + ", " + a.length + " and " + b.length + " but must have at least " +
+                    destinationLength + ", " + aLength + " and " + bLength + " elements respectively.");
+        }
+    }
+}
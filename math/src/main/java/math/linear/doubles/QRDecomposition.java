@@ -0,0 +1,287 @@
+/*
+ * Copyright (c) 2017 Jacob Rachiele
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to
+ * do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+ * USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Contributors:
+ *
+ * Jacob Rachiele
+ */
+package math.linear.doubles;
+
+/**
+ * The Householder QR decomposition of an m by n matrix A, with m at least n, into the product Q R, where Q has
+ * orthonormal columns and R is upper triangular.
+ * <p>
+ * The factors are stored in column-major order, so that each Householder reflection runs over contiguous memory.
+ * An instance is a reusable workspace for matrices of a single shape: each call to a decompose method overwrites
+ * the previous factors in place. This class is therefore not thread-safe.
+ * </p>
+ *
+ * @author Jacob Rachiele
+ */
+public final class QRDecomposition {
+
+    private final int m;
+    private final int n;
+    private final double[] qr;
+    private final double[] rDiagonal;
+    private final double[] work;
+    private boolean decomposed;
+
+    /**
+     * Create a new workspace for the QR decomposition of m by n matrices.
+     *
+     * @param m the number of rows of the matrices to decompose.
+     * @param n the number of columns of the matrices to decompose, at most m.
+     */
+    public QRDecomposition(final int m, final int n) {
+        if (m < n) {
+            throw new IllegalArgumentException("The matrix must have at least as many rows as columns, but had " + m +
+                                               " rows and " + n + " columns.");
+        }
+        this.m = m;
+        this.n = n;
+        this.qr = new double[m * n];
+        this.rDiagonal = new double[n];
+        this.work = new double[m];
+    }
+
+    /**
+     * Decompose the given matrix.
+     *
+     * @param matrix the matrix to decompose.
+     * @return true if the matrix has full column rank, false otherwise.
+     */
+    public boolean decompose(final Matrix matrix) {
+        if (matrix.nrow() != m || matrix.ncol() != n) {
+            throw new IllegalArgumentException("This workspace decomposes " + m + " by " + n + " matrices, but the " +
+                                               "matrix has dimension (" + matrix.nrow() + ", " + matrix.ncol() + ")");
+        }
+        MatrixOperations.transposeInto(qr, matrix.array(), m, n);
+        return factor();
+    }
+
+    /**
+     * Decompose the m by n matrix whose columns are stored one after another in the given array. This avoids any
+     * conversion when the matrix is naturally assembled column by column, as a design matrix is. The given array is
+     * not modified.
+     *
+     * @param columnMajor the matrix to decompose, in column-major order.
+     * @return true if the matrix has full column rank, false otherwise.
+     */
+    public boolean decomposeColumnMajor(final double[] columnMajor) {
+        if (columnMajor.length < m * n) {
+            throw new IllegalArgumentException("The array must hold at least " + (m * n) + " elements.");
+        }
+        System.arraycopy(columnMajor, 0, qr, 0, m * n);
+        return factor();
+    }
+
+    private boolean factor() {
+        for (int k = 0; k < n; k++) {
+            final int columnK = k * m;
+            double norm = norm(qr, columnK + k, m - k);
+            if (norm != 0.0) {
+                if (qr[columnK + k] < 0) {
+                    norm = -norm;
+                }
+                for (int i = k; i < m; i++) {
+                    qr[columnK + i] /= norm;
+                }
+                qr[columnK + k] += 1.0;
+                for (int j = k + 1; j < n; j++) {
+                    final int columnJ = j * m;
+                    double s = MatrixOperations.dot(qr, columnK + k, qr, columnJ + k, m - k);
+                    s = -s / qr[columnK + k];
+                    for (int i = k; i < m; i++) {
+                        qr[columnJ + i] += s * qr[columnK + i];
+                    }
+                }
+            }
+            rDiagonal[k] = -norm;
+        }
+        decomposed = true;
+        return isFullRank();
+    }
+
+    /**
+     * Whether the last matrix decomposed has full column rank.
+     *
+     * @return true if the last matrix decomposed has full column rank.
+     */
+    public boolean isFullRank() {
+        requireDecomposed();
+        for (int j = 0; j < n; j++) {
+            if (rDiagonal[j] == 0.0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The n by n upper triangular factor R.
+     *
+     * @return the upper triangular factor R.
+     */
+    public Matrix r() {
+        requireDecomposed();
+        final double[] r = new double[n * n];
+        for (int i = 0; i < n; i++) {
+            r[i * n + i] = rDiagonal[i];
+            for (int j = i + 1; j < n; j++) {
+                r[i * n + j] = qr[j * m + i];
+            }
+        }
+        return Matrix.create(n, n, r);
+    }
+
+    /**
+     * The m by n factor Q with orthonormal columns.
+     *
+     * @return the factor Q of the thin decomposition.
+     */
+    public Matrix q() {
+        requireDecomposed();
+        final double[] q = new double[m * n];
+        for (int k = n - 1; k >= 0; k--) {
+            final int columnK = k * m;
+            q[columnK + k] = 1.0;
+            for (int j = k; j < n; j++) {
+                final int columnJ = j * m;
+                if (qr[columnK + k] != 0) {
+                    double s = MatrixOperations.dot(qr, columnK + k, q, columnJ + k, m - k);
+                    s = -s / qr[columnK + k];
+                    for (int i = k; i < m; i++) {
+                        q[columnJ + i] += s * qr[columnK + i];
+                    }
+                }
+            }
+        }
+        return Matrix.create(n, m, q).transpose();
+    }
+
+    /**
+     * The inverse of the upper triangular factor R. The product R<sup>-1</sup> R<sup>-T</sup> is the inverse of
+     * A<sup>T</sup> A, which is how the covariance of least squares estimates is obtained without forming
+     * A<sup>T</sup> A.
+     *
+     * @return the inverse of the upper triangular factor R.
+     */
+    public Matrix rInverse() {
+        requireFullRank();
+        final double[] inverse = new double[n * n];
+        for (int j = n - 1; j >= 0; j--) {
+            inverse[j * n + j] = 1.0 / rDiagonal[j];
+            for (int i = j - 1; i >= 0; i--) {
+                double sum = 0.0;
+                for (int k = i + 1; k <= j; k++) {
+                    sum += qr[k * m + i] * inverse[k * n + j];
+                }
+                inverse[i * n + j] = -sum / rDiagonal[i];
+            }
+        }
+        return Matrix.create(n, n, inverse);
+    }
+
+    /**
+     * Find the x of length n that minimizes the norm of A x - b, where A is the last matrix decomposed, and store it
+     * in the destination.
+     *
+     * @param destination the array of length n to store the least squares solution in.
+     * @param b           the right-hand side of length m.
+     * @return the destination array, now holding the least squares solution.
+     */
+    public double[] solveInto(final double[] destination, final double[] b) {
+        requireFullRank();
+        if (b.length < m) {
+            throw new IllegalArgumentException("The right-hand side must have length " + m + ", but had " + b.length);
+        }
+        System.arraycopy(b, 0, work, 0, m);
+        // Compute Q'b by applying each reflection in turn.
+        for (int k = 0; k < n; k++) {
+            final int columnK = k * m;
+            double s = MatrixOperations.dot(qr, columnK + k, work, k, m - k);
+            s = -s / qr[columnK + k];
+            for (int i = k; i < m; i++) {
+                work[i] += s * qr[columnK + i];
+            }
+        }
+        // Solve R x = Q'b.
+        for (int k = n - 1; k >= 0; k--) {
+            work[k] /= rDiagonal[k];
+            for (int i = 0; i < k; i++) {
+                work[i] -= work[k] * qr[k * m + i];
+            }
+        }
+        System.arraycopy(work, 0, destination, 0, n);
+        return destination;
+    }
+
+    /**
+     * Find the X that minimizes the Frobenius norm of A X - B, where A is the last matrix decomposed.
+     *
+     * @param b the right-hand side matrix, with m rows.
+     * @return the least squares solution X.
+     */
+    public Matrix solve(final Matrix b) {
+        if (b.nrow() != m) {
+            throw new IllegalArgumentException("The right-hand side must have " + m + " rows, but had " + b.nrow());
+        }
+        final int p = b.ncol();
+        final double[] columnMajor = b.transposeInto(new double[m * p]);
+        final double[] column = new double[m];
+        final double[] solution = new double[n * p];
+        final double[] x = new double[n];
+        for (int j = 0; j < p; j++) {
+            System.arraycopy(columnMajor, j * m, column, 0, m);
+            solveInto(x, column);
+            System.arraycopy(x, 0, solution, j * n, n);
+        }
+        return Matrix.create(p, n, solution).transpose();
+    }
+
+    // The Euclidean norm, scaled by the largest magnitude to avoid overflow and underflow.
+    private static double norm(final double[] data, final int from, final int length) {
+        double scale = 0.0;
+        for (int i = from; i < from + length; i++) {
+            scale = Math.max(scale, Math.abs(data[i]));
+        }
+        if (scale == 0.0 || Double.isInfinite(scale)) {
+            return scale;
+        }
+        double sum = 0.0;
+        for (int i = from; i < from + length; i++) {
+            final double scaled = data[i] / scale;
+            sum += scaled * scaled;
+        }
+        return scale * Math.sqrt(sum);
+    }
+
+    private void requireDecomposed() {
+        if (!decomposed) {
+            throw new IllegalStateException("No matrix has been decomposed.");
+        }
+    }
+
+    private void requireFullRank() {
+        if (!isFullRank()) {
+            throw new IllegalStateException("The decomposed matrix is rank deficient.");
+        }
+    }
+}
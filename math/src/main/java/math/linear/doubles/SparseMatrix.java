@@ -0,0 +1,448 @@
+/*
+ * Copyright (c) 2017 Jacob Rachiele
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to
+ * do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+ * USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Contributors:
+ *
+ * Jacob Rachiele
+ */
+package math.linear.doubles;
+
+import java.util.Arrays;
+
+/**
+ * An immutable and thread-safe real-valued matrix that stores only its nonzero elements, in compressed sparse row
+ * (CSR) form.
+ * <p>
+ * The nonzero elements of each row are stored contiguously in order of increasing column, so products with dense
+ * vectors and matrices, and products of the transpose with dense vectors, cost time proportional to the number of
+ * nonzero elements rather than to the number of rows times the number of columns. The {@link #transpose() transpose}
+ * of a matrix in CSR form is the same matrix in compressed sparse column (CSC) form, so column-oriented access is
+ * available by transposing once.
+ * </p>
+ *
+ * @author Jacob Rachiele
+ */
+public final class SparseMatrix {
+
+    private final int nrow;
+    private final int ncol;
+    private final int[] rowStart; // Row i occupies indices rowStart[i] up to, but excluding, rowStart[i + 1].
+    private final int[] columns;
+    private final double[] values;
+
+    private SparseMatrix(final int nrow, final int ncol, final int[] rowStart, final int[] columns,
+                         final double[] values) {
+        this.nrow = nrow;
+        this.ncol = ncol;
+        this.rowStart = rowStart;
+        this.columns = columns;
+        this.values = values;
+    }
+
+    /**
+     * Create a new sparse matrix with the nonzero elements of the given matrix.
+     *
+     * @param matrix the matrix to store in sparse form.
+     * @return a new sparse matrix with the same elements as the given matrix.
+     */
+    public static SparseMatrix from(final Matrix matrix) {
+        final int nrow = matrix.nrow();
+        final int ncol = matrix.ncol();
+        final double[] data = matrix.array();
+        final int[] rowStart = new int[nrow + 1];
+        for (int i = 0; i < nrow; i++) {
+            int count = 0;
+            for (int j = 0; j < ncol; j++) {
+                if (data[i * ncol + j] != 0.0) {
+                    count++;
+                }
+            }
+            rowStart[i + 1] = rowStart[i] + count;
+        }
+        final int[] columns = new int[rowStart[nrow]];
+        final double[] values = new double[columns.length];
+        int k = 0;
+        for (int i = 0; i < nrow; i++) {
+            for (int j = 0; j < ncol; j++) {
+                final double value = data[i * ncol + j];
+                if (value != 0.0) {
+                    columns[k] = j;
+                    values[k++] = value;
+                }
+            }
+        }
+        return new SparseMatrix(nrow, ncol, rowStart, columns, values);
+    }
+
+    /**
+     * Create a new sparse matrix with the nonzero elements of the given data, stored column by column.
+     *
+     * @param nrow the number of rows of the matrix.
+     * @param ncol the number of columns of the matrix.
+     * @param data the elements of the matrix in column-major order.
+     * @return a new sparse matrix with the nonzero elements of the given data.
+     */
+    public static SparseMatrix fromColumnMajor(final int nrow, final int ncol, final double[] data) {
+        if (nrow * ncol != data.length) {
+            throw new IllegalArgumentException("The dimensions do not match the amount of data provided. There were " +
+                                               data.length + " data points provided but the number of rows and " +
+                                               "columns were " + nrow + " and " + ncol + " respectively.");
+        }
+        final int[] rowStart = new int[nrow + 1];
+        for (int k = 0; k < data.length; k++) {
+            if (data[k] != 0.0) {
+                rowStart[k % nrow + 1]++;
+            }
+        }
+        for (int i = 0; i < nrow; i++) {
+            rowStart[i + 1] += rowStart[i];
+        }
+        final int[] next = Arrays.copyOf(rowStart, nrow);
+        final int[] columns = new int[rowStart[nrow]];
+        final double[] values = new double[columns.length];
+        // Visiting the columns in order leaves the entries of every row sorted by column.
+        for (int j = 0; j < ncol; j++) {
+            for (int i = 0; i < nrow; i++) {
+                final double value = data[j * nrow + i];
+                if (value != 0.0) {
+                    columns[next[i]] = j;
+                    values[next[i]++] = value;
+                }
+            }
+        }
+        return new SparseMatrix(nrow, ncol, rowStart, columns, values);
+    }
+
+    /**
+     * Create a new sparse matrix from a list of (row, column, value) triplets. Values given for the same position
+     * are summed, and positions that are not given are zero.
+     *
+     * @param nrow   the number of rows of the matrix.
+     * @param ncol   the number of columns of the matrix.
+     * @param rows   the row of each value.
+     * @param cols   the column of each value.
+     * @param values the values.
+     * @return a new sparse matrix with the given values.
+     */
+    public static SparseMatrix fromTriplets(final int nrow, final int ncol, final int[] rows, final int[] cols,
+                                            final double[] values) {
+        if (rows.length != values.length || cols.length != values.length) {
+            throw new IllegalArgumentException("There must be as many rows and columns as values, but there were " +
+                                               rows.length + " rows, " + cols.length + " columns and " +
+                                               values.length + " values.");
+        }
+        for (int k = 0; k < values.length; k++) {
+            if (rows[k] < 0 || rows[k] >= nrow || cols[k] < 0 || cols[k] >= ncol) {
+                throw new IndexOutOfBoundsException("(" + rows[k] + ", " + cols[k] + ") is outside of a matrix " +
+                                                    "with dimension (" + nrow + ", " + ncol + ")");
+            }
+        }
+        // Two stable counting sorts, by column and then by row, order the triplets by row and then by column.
+        final int[] order = countingSort(rows, nrow, countingSort(cols, ncol, null));
+        final int[] rowStart = new int[nrow + 1];
+        final int[] columns = new int[values.length];
+        final double[] merged = new double[values.length];
+        int size = 0;
+        for (int position = 0; position < order.length; position++) {
+            final int k = order[position];
+            final int previous = (position > 0) ? order[position - 1] : -1;
+            if (previous >= 0 && rows[previous] == rows[k] && cols[previous] == cols[k]) {
+                merged[size - 1] += values[k];
+            } else {
+                columns[size] = cols[k];
+                merged[size++] = values[k];
+            }
+            rowStart[rows[k] + 1] = size;
+        }
+        // Rows without any entries end where the row before them ends.
+        for (int i = 0; i < nrow; i++) {
+            rowStart[i + 1] = Math.max(rowStart[i + 1], rowStart[i]);
+        }
+        return withoutZeros(nrow, ncol, rowStart, columns, merged);
+    }
+
+    // Return the indices of the given keys, listed in the given order if there is one, stably sorted by key.
+    private static int[] countingSort(final int[] keys, final int numKeys, final int[] order) {
+        final int[] next = new int[numKeys + 1];
+        for (int key : keys) {
+            next[key + 1]++;
+        }
+        for (int key = 0; key < numKeys; key++) {
+            next[key + 1] += next[key];
+        }
+        final int[] sorted = new int[keys.length];
+        for (int position = 0; position < keys.length; position++) {
+            final int k = (order == null) ? position : order[position];
+            sorted[next[keys[k]]++] = k;
+        }
+        return sorted;
+    }
+
+    private static SparseMatrix withoutZeros(final int nrow, final int ncol, final int[] rowStart,
+                                             final int[] columns, final double[] values) {
+        final int[] newRowStart = new int[nrow + 1];
+        int size = 0;
+        for (int i = 0; i < nrow; i++) {
+            for (int k = rowStart[i]; k < rowStart[i + 1]; k++) {
+                if (values[k] != 0.0) {
+                    columns[size] = columns[k];
+                    values[size++] = values[k];
+                }
+            }
+            newRowStart[i + 1] = size;
+        }
+        return new SparseMatrix(nrow, ncol, newRowStart, Arrays.copyOf(columns, size), Arrays.copyOf(values, size));
+    }
+
+    /**
+     * The number of rows of this matrix.
+     *
+     * @return the number of rows of this matrix.
+     */
+    public int nrow() {
+        return this.nrow;
+    }
+
+    /**
+     * The number of columns of this matrix.
+     *
+     * @return the number of columns of this matrix.
+     */
+    public int ncol() {
+        return this.ncol;
+    }
+
+    /**
+     * The number of nonzero elements stored in this matrix.
+     *
+     * @return the number of nonzero elements stored in this matrix.
+     */
+    public int nonZeros() {
+        return this.values.length;
+    }
+
+    /**
+     * Retrieve the element in the given row and column of this matrix.
+     *
+     * @param i the row of the element.
+     * @param j the column of the element.
+     * @return the element in the given row and column.
+     */
+    public double at(final int i, final int j) {
+        if (i < 0 || j < 0 || i >= nrow || j >= ncol) {
+            throw new IndexOutOfBoundsException("(" + i + ", " + j + ") is outside of a matrix with dimension (" +
+                                                nrow + ", " + ncol + ")");
+        }
+        final int k = Arrays.binarySearch(columns, rowStart[i], rowStart[i + 1], j);
+        return (k >= 0) ? values[k] : 0.0;
+    }
+
+    /**
+     * Compute the product of this matrix with the vector x and store it in the destination.
+     *
+     * @param destination the array of length nrow to store the product in. It must not be the same array as x.
+     * @param x           the vector of length ncol.
+     * @return the destination array, now holding this matrix times x.
+     */
+    public double[] timesInto(final double[] destination, final double[] x) {
+        validateLengths(destination, nrow, x, ncol);
+        for (int i = 0; i < nrow; i++) {
+            double sum = 0.0;
+            for (int k = rowStart[i]; k < rowStart[i + 1]; k++) {
+                sum += values[k] * x[columns[k]];
+            }
+            destination[i] = sum;
+        }
+        return destination;
+    }
+
+    /**
+     * Compute the product of this matrix with the given vector.
+     *
+     * @param vector the vector to multiply this matrix by.
+     * @return the product of this matrix with the given vector.
+     */
+    public Vector times(final Vector vector) {
+        return Vector.wrap(timesInto(new double[nrow], vector.array()));
+    }
+
+    /**
+     * Compute the product of the transpose of this matrix with the vector y, such as X<sup>T</sup>y for a design
+     * matrix X, and store it in the destination.
+     *
+     * @param destination the array of length ncol to store the product in. It must not be the same array as y.
+     * @param y           the vector of length nrow.
+     * @return the destination array, now holding the transpose of this matrix times y.
+     */
+    public double[] transposeTimesInto(final double[] destination, final double[] y) {
+        validateLengths(destination, ncol, y, nrow);
+        Arrays.fill(destination, 0, ncol, 0.0);
+        for (int i = 0; i < nrow; i++) {
+            final double yi = y[i];
+            for (int k = rowStart[i]; k < rowStart[i + 1]; k++) {
+                destination[columns[k]] += values[k] * yi;
+            }
+        }
+        return destination;
+    }
+
+    /**
+     * Compute the product of this matrix with the given dense matrix.
+     *
+     * @param other the dense matrix to multiply this matrix by.
+     * @return the product of this matrix with the given matrix.
+     */
+    public Matrix times(final Matrix other) {
+        if (other.nrow() != this.ncol) {
+            throw new IllegalArgumentException("The number of columns of this matrix, " + this.ncol + ", must equal " +
+                                               "the number of rows of the other matrix, " + other.nrow());
+        }
+        final int n = other.ncol();
+        final double[] b = other.array();
+        final double[] product = new double[nrow * n];
+        for (int i = 0; i < nrow; i++) {
+            final int row = i * n;
+            for (int k = rowStart[i]; k < rowStart[i + 1]; k++) {
+                final double a = values[k];
+                final int rowB = columns[k] * n;
+                for (int j = 0; j < n; j++) {
+                    product[row + j] += a * b[rowB + j];
+                }
+            }
+        }
+        return Matrix.create(nrow, n, product);
+    }
+
+    /**
+     * Compute the Gram matrix X<sup>T</sup>X, where X is this matrix. Each row contributes only the products of its
+     * own nonzero elements, so the cost is the sum over the rows of the square of the number of nonzero elements in
+     * the row, rather than the number of rows times the square of the number of columns.
+     *
+     * @return the symmetric matrix X<sup>T</sup>X.
+     */
+    public SymmetricMatrix gram() {
+        final SymmetricMatrix gram = new SymmetricMatrix(ncol);
+        final double[] packed = gram.array();
+        for (int i = 0; i < nrow; i++) {
+            final int end = rowStart[i + 1];
+            for (int q = rowStart[i]; q < end; q++) {
+                final int j = columns[q];
+                final int column = SymmetricMatrix.start(ncol, j) - j;
+                final double vj = values[q];
+                // The columns of a row are sorted, so every later entry lies on or below the diagonal of column j.
+                for (int p = q; p < end; p++) {
+                    packed[column + columns[p]] += values[p] * vj;
+                }
+            }
+        }
+        return gram;
+    }
+
+    /**
+     * Compute the transpose of this matrix. The transpose of a matrix in compressed sparse row form is the same
+     * matrix in compressed sparse column form.
+     *
+     * @return the transpose of this matrix.
+     */
+    public SparseMatrix transpose() {
+        final int[] tRowStart = new int[ncol + 1];
+        for (int column : columns) {
+            tRowStart[column + 1]++;
+        }
+        for (int j = 0; j < ncol; j++) {
+            tRowStart[j + 1] += tRowStart[j];
+        }
+        final int[] next = Arrays.copyOf(tRowStart, ncol);
+        final int[] tColumns = new int[columns.length];
+        final double[] tValues = new double[values.length];
+        for (int i = 0; i < nrow; i++) {
+            for (int k = rowStart[i]; k < rowStart[i + 1]; k++) {
+                final int position = next[columns[k]]++;
+                tColumns[position] = i;
+                tValues[position] = values[k];
+            }
+        }
+        return new SparseMatrix(ncol, nrow, tRowStart, tColumns, tValues);
+    }
+
+    /**
+     * Expand this matrix into a dense matrix.
+     *
+     * @return a dense matrix with the same elements as this matrix.
+     */
+    public Matrix toMatrix() {
+        final double[] data = new double[nrow * ncol];
+        for (int i = 0; i < nrow; i++) {
+            for (int k = rowStart[i]; k < rowStart[i + 1]; k++) {
+                data[i * ncol + columns[k]] = values[k];
+            }
+        }
+        return Matrix.create(nrow, ncol, data);
+    }
+
+    // The compressed rows, for kernels in this package that only read them.
+    int[] rowStart() {
+        return this.rowStart;
+    }
+
+    int[] columns() {
+        return this.columns;
+    }
+
+    double[] values() {
+        return this.values;
+    }
+
+    private static void validateLengths(final double[] destination, final int destinationLength,
+                                        final double[] x, final int xLength) {
+        if (destination.length != destinationLength || x.length != xLength) {
+            throw new IllegalArgumentException("The destination must have length " + destinationLength +
+                                               " and the vector length " + xLength + ", but they had lengths " +
+                                               destination.length + " and " + x.length);
+        }
+        if (destination == x) {
+            throw new IllegalArgumentException("The destination must not be the same array as the vector.");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "SparseMatrix(nrow=" + nrow + ", ncol=" + ncol + ", nonZeros=" + values.length + ")";
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        SparseMatrix that = (SparseMatrix) o;
+        return nrow == that.nrow && ncol == that.ncol && Arrays.equals(rowStart, that.rowStart) &&
+               Arrays.equals(columns, that.columns) && Arrays.equals(values, that.values);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = nrow;
+        result = 31 * result + ncol;
+        result = 31 * result + Arrays.hashCode(rowStart);
+        result = 31 * result + Arrays.hashCode(columns);
+        result = 31 * result + Arrays.hashCode(values);
+        return result;
+    }
+}
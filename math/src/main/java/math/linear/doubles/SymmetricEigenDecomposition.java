@@ -0,0 +1,302 @@
+/*
+ * Copyright (c) 2017 Jacob Rachiele
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to
+ * do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+ * USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Contributors:
+ *
+ * Jacob Rachiele
+ */
+package math.linear.doubles;
+
+/**
+ * The eigen decomposition of a real symmetric matrix A into V D V<sup>T</sup>, where D is the diagonal matrix of
+ * eigenvalues in ascending order and the columns of V are the corresponding orthonormal eigenvectors.
+ * <p>
+ * The matrix is first reduced to tridiagonal form by Householder reflections and then diagonalized by the
+ * implicit QL algorithm, following the EISPACK routines tred2 and tql2. An instance is a reusable workspace for
+ * matrices of a single dimension: each call to {@link #decompose} overwrites the previous result in place. This class
+ * is therefore not thread-safe.
+ * </p>
+ *
+ * @author Jacob Rachiele
+ */
+public final class SymmetricEigenDecomposition {
+
+    private static final double EPSILON = Math.ulp(1.0);
+
+    private final int n;
+    private final double[] v;
+    private final double[] d;
+    private final double[] e;
+    private boolean decomposed;
+
+    /**
+     * Create a new workspace for the eigen decomposition of n by n symmetric matrices.
+     *
+     * @param n the dimension of the matrices to decompose.
+     */
+    public SymmetricEigenDecomposition(final int n) {
+        this.n = n;
+        this.v = new double[n * n];
+        this.d = new double[n];
+        this.e = new double[n];
+    }
+
+    /**
+     * Decompose the given symmetric matrix. Symmetry is assumed, not checked.
+     *
+     * @param matrix the symmetric matrix to decompose.
+     */
+    public void decompose(final Matrix matrix) {
+        if (matrix.nrow() != n || matrix.ncol() != n) {
+            throw new IllegalArgumentException("This workspace decomposes " + n + " by " + n + " matrices, but the " +
+                                               "matrix has dimension (" + matrix.nrow() + ", " + matrix.ncol() + ")");
+        }
+        decompose(matrix.array());
+    }
+
+    /**
+     * Decompose the given symmetric n by n matrix, stored in row-major order. Symmetry is assumed, not checked, and
+     * the given array is not modified.
+     *
+     * @param a the symmetric matrix to decompose, in row-major order.
+     */
+    public void decompose(final double[] a) {
+        System.arraycopy(a, 0, v, 0, n * n);
+        if (n > 0) {
+            tridiagonalize();
+            diagonalize();
+        }
+        decomposed = true;
+    }
+
+    /**
+     * The eigenvalues of the last matrix decomposed, in ascending order.
+     *
+     * @return the eigenvalues of the last matrix decomposed.
+     */
+    public double[] eigenvalues() {
+        requireDecomposed();
+        return d.clone();
+    }
+
+    /**
+     * The matrix whose columns are the orthonormal eigenvectors of the last matrix decomposed, in the order of
+     * their eigenvalues.
+     *
+     * @return the matrix of eigenvectors of the last matrix decomposed.
+     */
+    public Matrix eigenvectors() {
+        requireDecomposed();
+        return Matrix.create(n, n, v);
+    }
+
+    private double vAt(final int i, final int j) {
+        return v[i * n + j];
+    }
+
+    private void tridiagonalize() {
+        for (int j = 0; j < n; j++) {
+            d[j] = vAt(n - 1, j);
+        }
+        for (int i = n - 1; i > 0; i--) {
+            double scale = 0.0;
+            double h = 0.0;
+            for (int k = 0; k < i; k++) {
+                scale += Math.abs(d[k]);
+            }
+            if (scale == 0.0) {
+                e[i] = d[i - 1];
+                for (int j = 0; j < i; j++) {
+                    d[j] = vAt(i - 1, j);
+                    v[i * n + j] = 0.0;
+                    v[j * n + i] = 0.0;
+                }
+            } else {
+                for (int k = 0; k < i; k++) {
+                    d[k] /= scale;
+                    h += d[k] * d[k];
+                }
+                double f = d[i - 1];
+                double g = Math.sqrt(h);
+                if (f > 0) {
+                    g = -g;
+                }
+                e[i] = scale * g;
+                h = h - f * g;
+                d[i - 1] = f - g;
+                for (int j = 0; j < i; j++) {
+                    e[j] = 0.0;
+                }
+                for (int j = 0; j < i; j++) {
+                    f = d[j];
+                    v[j * n + i] = f;
+                    g = e[j] + vAt(j, j) * f;
+                    for (int k = j + 1; k <= i - 1; k++) {
+                        g += vAt(k, j) * d[k];
+                        e[k] += vAt(k, j) * f;
+                    }
+                    e[j] = g;
+                }
+                f = 0.0;
+                for (int j = 0; j < i; j++) {
+                    e[j] /= h;
+                    f += e[j] * d[j];
+                }
+                final double hh = f / (h + h);
+                for (int j = 0; j < i; j++) {
+                    e[j] -= hh * d[j];
+                }
+                for (int j = 0; j < i; j++) {
+                    f = d[j];
+                    g = e[j];
+                    for (int k = j; k <= i - 1; k++) {
+                        v[k * n + j] -= (f * e[k] + g * d[k]);
+                    }
+                    d[j] = vAt(i - 1, j);
+                    v[i * n + j] = 0.0;
+                }
+            }
+            d[i] = h;
+        }
+        // Accumulate the transformations.
+        for (int i = 0; i < n - 1; i++) {
+            v[(n - 1) * n + i] = vAt(i, i);
+            v[i * n + i] = 1.0;
+            final double h = d[i + 1];
+            if (h != 0.0) {
+                for (int k = 0; k <= i; k++) {
+                    d[k] = vAt(k, i + 1) / h;
+                }
+                for (int j = 0; j <= i; j++) {
+                    double g = 0.0;
+                    for (int k = 0; k <= i; k++) {
+                        g += vAt(k, i + 1) * vAt(k, j);
+                    }
+                    for (int k = 0; k <= i; k++) {
+                        v[k * n + j] -= g * d[k];
+                    }
+                }
+            }
+            for (int k = 0; k <= i; k++) {
+                v[k * n + i + 1] = 0.0;
+            }
+        }
+        for (int j = 0; j < n; j++) {
+            d[j] = vAt(n - 1, j);
+            v[(n - 1) * n + j] = 0.0;
+        }
+        v[(n - 1) * n + n - 1] = 1.0;
+        e[0] = 0.0;
+    }
+
+    private void diagonalize() {
+        for (int i = 1; i < n; i++) {
+            e[i - 1] = e[i];
+        }
+        e[n - 1] = 0.0;
+        double f = 0.0;
+        double tst1 = 0.0;
+        for (int l = 0; l < n; l++) {
+            tst1 = Math.max(tst1, Math.abs(d[l]) + Math.abs(e[l]));
+            int m = l;
+            while (m < n) {
+                if (Math.abs(e[m]) <= EPSILON * tst1) {
+                    break;
+                }
+                m++;
+            }
+            if (m > l) {
+                do {
+                    double g = d[l];
+                    double p = (d[l + 1] - g) / (2.0 * e[l]);
+                    double r = Math.hypot(p, 1.0);
+                    if (p < 0) {
+                        r = -r;
+                    }
+                    d[l] = e[l] / (p + r);
+                    d[l + 1] = e[l] * (p + r);
+                    final double dl1 = d[l + 1];
+                    double h = g - d[l];
+                    for (int i = l + 2; i < n; i++) {
+                        d[i] -= h;
+                    }
+                    f = f + h;
+                    p = d[m];
+                    double c = 1.0;
+                    double c2 = c;
+                    double c3 = c;
+                    final double el1 = e[l + 1];
+                    double s = 0.0;
+                    double s2 = 0.0;
+                    for (int i = m - 1; i >= l; i--) {
+                        c3 = c2;
+                        c2 = c;
+                        s2 = s;
+                        g = c * e[i];
+                        h = c * p;
+                        r = Math.hypot(p, e[i]);
+                        e[i + 1] = s * r;
+                        s = e[i] / r;
+                        c = p / r;
+                        p = c * d[i] - s * g;
+                        d[i + 1] = h + s * (c * g + s * d[i]);
+                        for (int k = 0; k < n; k++) {
+                            final int row = k * n;
+                            h = v[row + i + 1];
+                            v[row + i + 1] = s * v[row + i] + c * h;
+                            v[row + i] = c * v[row + i] - s * h;
+                        }
+                    }
+                    p = -s * s2 * c3 * el1 * e[l] / dl1;
+                    e[l] = s * p;
+                    d[l] = c * p;
+                } while (Math.abs(e[l]) > EPSILON * tst1);
+            }
+            d[l] = d[l] + f;
+            e[l] = 0.0;
+        }
+        // Sort the eigenvalues, and their eigenvectors with them, in ascending order.
+        for (int i = 0; i < n - 1; i++) {
+            int k = i;
+            double p = d[i];
+            for (int j = i + 1; j < n; j++) {
+                if (d[j] < p) {
+                    k = j;
+                    p = d[j];
+                }
+            }
+            if (k != i) {
+                d[k] = d[i];
+                d[i] = p;
+                for (int j = 0; j < n; j++) {
+                    final int row = j * n;
+                    p = v[row + i];
+                    v[row + i] = v[row + k];
+                    v[row + k] = p;
+                }
+            }
+        }
+    }
+
+    private void requireDecomposed() {
+        if (!decomposed) {
+            throw new IllegalStateException("No matrix has been decomposed.");
+        }
+    }
+}
@@ -0,0 +1,586 @@
+/*
+ * Copyright (c) 2017 Jacob Rachiele
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to
+ * do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+ * USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Contributors:
+ *
+ * Jacob Rachiele
+ */
+package math.linear.doubles;
+
+import math.operations.DoubleKernels;
+
+import java.util.Arrays;
+
+/**
+ * A real symmetric matrix that stores only its lower triangle, packed column by column.
+ * <p>
+ * Packed storage holds n(n + 1)/2 elements rather than n<sup>2</sup>, and the updates that covariance computations
+ * rely on, the symmetric rank-1 and rank-2 updates and the congruence transform T P T<sup>T</sup>, touch only the
+ * stored triangle. The layout is the one produced by algorithm AS 154 and used by LAPACK's packed routines, so the
+ * element in row i and column j, with i &ge; j, is stored at index j(2n - j - 1)/2 + i.
+ * </p>
+ * <p>
+ * Unlike {@link Matrix}, this class is mutable: the update methods modify the matrix in place and return it, so
+ * that a loop over many updates of the same matrix allocates nothing. It is therefore not thread-safe.
+ * </p>
+ *
+ * @author Jacob Rachiele
+ */
+public final class SymmetricMatrix {
+
+    private static final int MAX_DOUBLINGS = 64;
+    private static final double EPSILON = Math.ulp(1.0);
+
+    private final int n;
+    private final double[] packed;
+    private double[] workspace; // Holds the intermediate product T P of a congruence transform.
+
+    /**
+     * Create a new n by n symmetric matrix of zeros.
+     *
+     * @param n the dimension of the matrix.
+     */
+    public SymmetricMatrix(final int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("The dimension of the matrix must be non-negative, but was " + n);
+        }
+        this.n = n;
+        this.packed = new double[n * (n + 1) / 2];
+    }
+
+    private SymmetricMatrix(final int n, final double[] packed) {
+        this.n = n;
+        this.packed = packed;
+    }
+
+    /**
+     * Create a new n by n symmetric matrix from its lower triangle, packed column by column. The given array is
+     * copied.
+     *
+     * @param n      the dimension of the matrix.
+     * @param packed the lower triangle of the matrix packed column by column, of length n(n + 1)/2.
+     * @return a new symmetric matrix with the given lower triangle.
+     */
+    public static SymmetricMatrix fromPacked(final int n, final double[] packed) {
+        if (n < 0 || packed.length != n * (n + 1) / 2) {
+            throw new IllegalArgumentException("A packed symmetric matrix of dimension " + n + " has " +
+                                               (n * (n + 1) / 2) + " elements, but " + packed.length +
+                                               " were provided.");
+        }
+        return new SymmetricMatrix(n, packed.clone());
+    }
+
+    /**
+     * Create a new symmetric matrix from the lower triangle of the given square matrix. The upper triangle of the
+     * given matrix is not read.
+     *
+     * @param matrix the square matrix whose lower triangle defines the symmetric matrix.
+     * @return a new symmetric matrix with the lower triangle of the given matrix.
+     */
+    public static SymmetricMatrix fromLower(final Matrix matrix) {
+        if (!matrix.isSquare()) {
+            throw new IllegalArgumentException("A symmetric matrix must be square, but the matrix has dimension (" +
+                                               matrix.nrow() + ", " + matrix.ncol() + ")");
+        }
+        final int n = matrix.nrow();
+        final double[] a = matrix.array();
+        final SymmetricMatrix symmetric = new SymmetricMatrix(n);
+        int index = 0;
+        for (int j = 0; j < n; j++) {
+            for (int i = j; i < n; i++) {
+                symmetric.packed[index++] = a[i * n + j];
+            }
+        }
+        return symmetric;
+    }
+
+    /**
+     * Create a new n by n identity matrix.
+     *
+     * @param n the dimension of the matrix.
+     * @return a new n by n identity matrix.
+     */
+    public static SymmetricMatrix identity(final int n) {
+        final SymmetricMatrix identity = new SymmetricMatrix(n);
+        for (int j = 0; j < n; j++) {
+            identity.packed[start(n, j)] = 1.0;
+        }
+        return identity;
+    }
+
+    /**
+     * Solve the discrete Lyapunov equation P = T P T<sup>T</sup> + Q for the symmetric matrix P, which is the
+     * stationary covariance of a state that evolves as x<sub>t+1</sub> = T x<sub>t</sub> + e<sub>t</sub> with
+     * disturbances of covariance Q.
+     * <p>
+     * The solution is the sum of T<sup>k</sup> Q T<sup>k</sup><sup>T</sup> over all k &ge; 0. The doubling
+     * algorithm adds the terms in blocks of doubling length, as P &larr; P + A P A<sup>T</sup> followed by A
+     * &larr; A<sup>2</sup>, so it takes O(n<sup>3</sup>) time per step and O(n<sup>2</sup>) memory. Iteration stops
+     * once a block no longer changes P to working precision, or after {@value #MAX_DOUBLINGS} steps. The equation
+     * has a unique solution only when every eigenvalue of T lies strictly inside the unit circle; otherwise the
+     * returned matrix is not meaningful.
+     * </p>
+     *
+     * @param t the n by n transition matrix T.
+     * @param q the n by n disturbance covariance matrix Q.
+     * @return the solution P of the discrete Lyapunov equation.
+     */
+    public static SymmetricMatrix discreteLyapunov(final Matrix t, final SymmetricMatrix q) {
+        final int n = q.n;
+        if (t.nrow() != n || t.ncol() != n) {
+            throw new IllegalArgumentException("The transition matrix must have dimension (" + n + ", " + n + "), " +
+                                               "but had dimension (" + t.nrow() + ", " + t.ncol() + ")");
+        }
+        SymmetricMatrix p = q.copy();
+        SymmetricMatrix next = new SymmetricMatrix(n);
+        Matrix a = t;
+        for (int k = 0; k < MAX_DOUBLINGS; k++) {
+            p.congruenceInto(next, a);
+            final double change = maxAbs(next.packed);
+            next.plus(1.0, p);
+            final SymmetricMatrix previous = p;
+            p = next;
+            next = previous;
+            if (!(change > EPSILON * maxAbs(p.packed))) {
+                break;
+            }
+            a = a.times(a);
+        }
+        return p;
+    }
+
+    private static double maxAbs(final double[] values) {
+        double max = 0.0;
+        for (double value : values) {
+            max = Math.max(max, Math.abs(value));
+        }
+        return max;
+    }
+
+    /**
+     * The number of rows, and of columns, of this matrix.
+     *
+     * @return the dimension of this matrix.
+     */
+    public int dimension() {
+        return this.n;
+    }
+
+    /**
+     * Retrieve the element in the given row and column of this matrix.
+     *
+     * @param i the row of the element.
+     * @param j the column of the element.
+     * @return the element in the given row and column.
+     */
+    public double at(final int i, final int j) {
+        return packed[index(i, j)];
+    }
+
+    /**
+     * Set the element in the given row and column, and by symmetry the element in the given column and row.
+     *
+     * @param i     the row of the element.
+     * @param j     the column of the element.
+     * @param value the new value of the element.
+     * @return this matrix.
+     */
+    public SymmetricMatrix set(final int i, final int j, final double value) {
+        packed[index(i, j)] = value;
+        return this;
+    }
+
+    /**
+     * Set every element of this matrix to the corresponding element of the given matrix.
+     *
+     * @param other the matrix to copy the elements of.
+     * @return this matrix.
+     */
+    public SymmetricMatrix setTo(final SymmetricMatrix other) {
+        validateSameDimension(other);
+        System.arraycopy(other.packed, 0, this.packed, 0, packed.length);
+        return this;
+    }
+
+    /**
+     * Create a copy of this matrix.
+     *
+     * @return a copy of this matrix.
+     */
+    public SymmetricMatrix copy() {
+        return new SymmetricMatrix(n, packed.clone());
+    }
+
+    /**
+     * Multiply every element of this matrix by the given scalar.
+     *
+     * @param alpha the scalar to multiply this matrix by.
+     * @return this matrix.
+     */
+    public SymmetricMatrix scale(final double alpha) {
+        DoubleKernels.scaleInto(packed, packed, alpha, packed.length);
+        return this;
+    }
+
+    /**
+     * Perform the update A = A + alpha &times; B, where A is this matrix.
+     *
+     * @param alpha the scalar multiplying the other matrix.
+     * @param other the matrix B to add to this one.
+     * @return this matrix.
+     */
+    public SymmetricMatrix plus(final double alpha, final SymmetricMatrix other) {
+        validateSameDimension(other);
+        DoubleKernels.axpy(alpha, other.packed, 0, packed, 0, packed.length);
+        return this;
+    }
+
+    /**
+     * Perform the symmetric rank-1 update A = A + alpha &times; x x<sup>T</sup>, where A is this matrix.
+     *
+     * @param alpha the scalar multiplying the outer product.
+     * @param x     the vector, of length n.
+     * @return this matrix.
+     */
+    public SymmetricMatrix rankOneUpdate(final double alpha, final double[] x) {
+        validateLength(x);
+        int index = 0;
+        for (int j = 0; j < n; j++) {
+            DoubleKernels.axpy(alpha * x[j], x, j, packed, index, n - j);
+            index += n - j;
+        }
+        return this;
+    }
+
+    /**
+     * Perform the symmetric rank-2 update A = A + alpha &times; (x y<sup>T</sup> + y x<sup>T</sup>), where A is this
+     * matrix.
+     *
+     * @param alpha the scalar multiplying the rank-2 term.
+     * @param x     the first vector, of length n.
+     * @param y     the second vector, of length n.
+     * @return this matrix.
+     */
+    public SymmetricMatrix rankTwoUpdate(final double alpha, final double[] x, final double[] y) {
+        validateLength(x);
+        validateLength(y);
+        int index = 0;
+        for (int j = 0; j < n; j++) {
+            DoubleKernels.axpy(alpha * x[j], y, j, packed, index, n - j);
+            DoubleKernels.axpy(alpha * y[j], x, j, packed, index, n - j);
+            index += n - j;
+        }
+        return this;
+    }
+
+    /**
+     * Compute the product of this matrix with the vector x and store it in the destination.
+     *
+     * @param destination the array of length n to store the product in. It must not be the same array as x.
+     * @param x           the vector of length n.
+     * @return the destination array, now holding this matrix times x.
+     */
+    public double[] timesInto(final double[] destination, final double[] x) {
+        validateLength(x);
+        validateLength(destination);
+        if (destination == x) {
+            throw new IllegalArgumentException("The destination must not be the same array as the vector.");
+        }
+        Arrays.fill(destination, 0, n, 0.0);
+        int index = 0;
+        for (int j = 0; j < n; j++) {
+            final double xj = x[j];
+            double sum = packed[index++] * xj;
+            for (int i = j + 1; i < n; i++) {
+                final double a = packed[index++];
+                destination[i] += a * xj;
+                sum += a * x[i];
+            }
+            destination[j] += sum;
+        }
+        return destination;
+    }
+
+    /**
+     * Compute the product of this matrix with the given vector.
+     *
+     * @param vector the vector to multiply this matrix by.
+     * @return the product of this matrix with the given vector.
+     */
+    public Vector times(final Vector vector) {
+        return Vector.wrap(timesInto(new double[n], vector.array()));
+    }
+
+    /**
+     * Compute the quadratic form x<sup>T</sup> A x, where A is this matrix.
+     *
+     * @param x the vector of length n.
+     * @return the quadratic form of x with respect to this matrix.
+     */
+    public double quadraticForm(final double[] x) {
+        validateLength(x);
+        double diagonal = 0.0;
+        double offDiagonal = 0.0;
+        int index = 0;
+        for (int j = 0; j < n; j++) {
+            final double xj = x[j];
+            diagonal += packed[index++] * xj * xj;
+            double sum = 0.0;
+            for (int i = j + 1; i < n; i++) {
+                sum += packed[index++] * x[i];
+            }
+            offDiagonal += xj * sum;
+        }
+        return diagonal + 2.0 * offDiagonal;
+    }
+
+    /**
+     * Copy the given column of this matrix into the destination.
+     *
+     * @param destination the array of length n to store the column in.
+     * @param j           the column to copy.
+     * @return the destination array, now holding the given column.
+     */
+    public double[] columnInto(final double[] destination, final int j) {
+        validateLength(destination);
+        for (int i = 0; i < j; i++) {
+            destination[i] = packed[start(n, i) + j - i];
+        }
+        System.arraycopy(packed, start(n, j), destination, j, n - j);
+        return destination;
+    }
+
+    /**
+     * Compute the congruence transform T A T<sup>T</sup>, where A is this matrix.
+     *
+     * @param t the m by n matrix T.
+     * @return a new m by m symmetric matrix holding the congruence transform of this matrix by T.
+     */
+    public SymmetricMatrix congruence(final Matrix t) {
+        return congruenceInto(new SymmetricMatrix(t.nrow()), t);
+    }
+
+    /**
+     * Compute the congruence transform T A T<sup>T</sup>, where A is this matrix, and store it in the destination.
+     * The product T A is formed once, in a workspace owned by this matrix, and only the lower triangle of the result
+     * is computed.
+     *
+     * @param destination the m by m matrix to store the result in. It must not be this matrix.
+     * @param t           the m by n matrix T.
+     * @return the destination matrix, now holding T A T<sup>T</sup>.
+     */
+    public SymmetricMatrix congruenceInto(final SymmetricMatrix destination, final Matrix t) {
+        if (t.ncol() != n || destination.n != t.nrow()) {
+            throw new IllegalArgumentException("The transform must have " + n + " columns and as many rows as the " +
+                                               "destination has dimension, but the transform has dimension (" +
+                                               t.nrow() + ", " + t.ncol() + ") and the destination has dimension " +
+                                               destination.n);
+        }
+        if (destination == this) {
+            throw new IllegalArgumentException("The destination must not be the matrix being transformed.");
+        }
+        final int m = t.nrow();
+        final double[] tData = t.array();
+        if (workspace == null || workspace.length < m * n) {
+            workspace = new double[m * n];
+        }
+        final double[] w = workspace;
+        Arrays.fill(w, 0, m * n, 0.0);
+        // Each stored element A(i, j) contributes to columns i and j of each row of W = T A.
+        for (int row = 0; row < m; row++) {
+            final int offset = row * n;
+            int index = 0;
+            for (int j = 0; j < n; j++) {
+                final double tj = tData[offset + j];
+                double sum = packed[index++] * tj;
+                for (int i = j + 1; i < n; i++) {
+                    final double a = packed[index++];
+                    w[offset + i] += a * tj;
+                    sum += a * tData[offset + i];
+                }
+                w[offset + j] += sum;
+            }
+        }
+        int index = 0;
+        for (int j = 0; j < m; j++) {
+            for (int i = j; i < m; i++) {
+                destination.packed[index++] = MatrixOperations.dot(w, i * n, tData, j * n, n);
+            }
+        }
+        return destination;
+    }
+
+    /**
+     * Compute the congruence transform T A T<sup>T</sup>, where A is this matrix and T is sparse, and store it in
+     * the destination. Each row of T contributes only its nonzero elements, which makes this the natural way to
+     * propagate a covariance matrix through a companion-form transition matrix.
+     *
+     * @param destination the m by m matrix to store the result in. It must not be this matrix.
+     * @param t           the sparse m by n matrix T.
+     * @return the destination matrix, now holding T A T<sup>T</sup>.
+     */
+    public SymmetricMatrix congruenceInto(final SymmetricMatrix destination, final SparseMatrix t) {
+        if (t.ncol() != n || destination.n != t.nrow()) {
+            throw new IllegalArgumentException("The transform must have " + n + " columns and as many rows as the " +
+                                               "destination has dimension, but the transform has dimension (" +
+                                               t.nrow() + ", " + t.ncol() + ") and the destination has dimension " +
+                                               destination.n);
+        }
+        if (destination == this) {
+            throw new IllegalArgumentException("The destination must not be the matrix being transformed.");
+        }
+        final int m = t.nrow();
+        final int[] rowStart = t.rowStart();
+        final int[] columns = t.columns();
+        final double[] values = t.values();
+        if (workspace == null || workspace.length < m * n) {
+            workspace = new double[m * n];
+        }
+        final double[] w = workspace;
+        Arrays.fill(w, 0, m * n, 0.0);
+        // Row i of W = T A is the combination of the rows of A selected by the nonzero elements of row i of T.
+        for (int i = 0; i < m; i++) {
+            final int offset = i * n;
+            for (int p = rowStart[i]; p < rowStart[i + 1]; p++) {
+                final int k = columns[p];
+                final double tik = values[p];
+                for (int l = 0; l < k; l++) {
+                    w[offset + l] += tik * packed[start(n, l) + k - l];
+                }
+                DoubleKernels.axpy(tik, packed, start(n, k), w, offset + k, n - k);
+            }
+        }
+        int index = 0;
+        for (int j = 0; j < m; j++) {
+            for (int i = j; i < m; i++) {
+                final int offset = i * n;
+                double sum = 0.0;
+                for (int p = rowStart[j]; p < rowStart[j + 1]; p++) {
+                    sum += w[offset + columns[p]] * values[p];
+                }
+                destination.packed[index++] = sum;
+            }
+        }
+        return destination;
+    }
+
+    /**
+     * Compute the Cholesky decomposition of this symmetric positive definite matrix.
+     *
+     * @return the Cholesky decomposition of this matrix.
+     * @throws IllegalArgumentException if this matrix is not positive definite.
+     */
+    public CholeskyDecomposition cholesky() {
+        final CholeskyDecomposition decomposition = new CholeskyDecomposition(this.n);
+        if (!decomposition.decompose(this)) {
+            throw new IllegalArgumentException("The matrix is not positive definite.");
+        }
+        return decomposition;
+    }
+
+    /**
+     * Retrieve the elements on the diagonal of this matrix.
+     *
+     * @return the elements on the diagonal of this matrix.
+     */
+    public double[] diagonal() {
+        final double[] diagonal = new double[n];
+        for (int j = 0; j < n; j++) {
+            diagonal[j] = packed[start(n, j)];
+        }
+        return diagonal;
+    }
+
+    /**
+     * Obtain a copy of the lower triangle of this matrix, packed column by column.
+     *
+     * @return a copy of the lower triangle of this matrix, packed column by column.
+     */
+    public double[] packed() {
+        return this.packed.clone();
+    }
+
+    // The packed array itself, for kernels in this package.
+    double[] array() {
+        return this.packed;
+    }
+
+    /**
+     * Expand this matrix into a full, immutable matrix.
+     *
+     * @return a full matrix with the same elements as this matrix.
+     */
+    public Matrix toMatrix() {
+        final double[] full = new double[n * n];
+        int index = 0;
+        for (int j = 0; j < n; j++) {
+            for (int i = j; i < n; i++) {
+                full[i * n + j] = packed[index];
+                full[j * n + i] = packed[index++];
+            }
+        }
+        return Matrix.create(n, n, full);
+    }
+
+    // The index of the diagonal element of column j, the first stored element of that column.
+    static int start(final int n, final int j) {
+        return j * (2 * n - j + 1) / 2;
+    }
+
+    private int index(final int i, final int j) {
+        if (i < 0 || j < 0 || i >= n || j >= n) {
+            throw new IndexOutOfBoundsException("(" + i + ", " + j + ") is outside of a matrix of dimension " + n);
+        }
+        return (i >= j) ? start(n, j) + i - j : start(n, i) + j - i;
+    }
+
+    private void validateLength(final double[] x) {
+        if (x.length != n) {
+            throw new IllegalArgumentException("The vector must have length " + n + ", but had length " + x.length);
+        }
+    }
+
+    private void validateSameDimension(final SymmetricMatrix other) {
+        if (other.n != this.n) {
+            throw new IllegalArgumentException("The dimension of this matrix is " + this.n +
+                                               ", but the dimension of the other matrix is " + other.n);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return toMatrix().toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        SymmetricMatrix that = (SymmetricMatrix) o;
+        return n == that.n && Arrays.equals(packed, that.packed);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = n;
+        result = 31 * result + Arrays.hashCode(packed);
+        return result;
+    }
+}
@@ -23,6 +23,8 @@
  */
 package math.linear.doubles;
 
+import math.operations.DoubleKernels;
+import math.operations.Operators;
 import math.stats.Statistics;
 
 import java.util.Arrays;
@@ -45,6 +47,20 @@ public final class Vector {
         this.elements = elements.clone();
     }
 
+    // Take ownership of a freshly computed array that no one else holds a reference to.
+    private Vector(final double[] elements, final boolean copy) {
+        this.elements = copy ? elements.clone() : elements;
+    }
+
+    static Vector wrap(final double[] elements) {
+        return new Vector(elements, false);
+    }
+
+    // The backing array itself, for kernels in this package that only read it.
+    double[] array() {
+        return this.elements;
+    }
+
     /**
      * Create a new vector from the given elements.
      *
@@ -90,14 +106,21 @@ public final class Vector {
      * @return this vector added to the given vector.
      */
     public Vector plus(final Vector other) {
-        if (other.elements().length == 0) {
+        if (other.elements.length == 0) {
             return this;
         }
-        final double[] summed = new double[this.size()];
-        for (int i = 0; i < summed.length; i++) {
-            summed[i] = this.elements[i] + other.elements[i];
-        }
-        return new Vector(summed);
+        return new Vector(Operators.sumInto(new double[this.size()], this.elements, other.elements), false);
+    }
+
+    /**
+     * Add this vector to the given vector and store the result in the destination array.
+     *
+     * @param destination the array to store the result in.
+     * @param other       the vector to add to this vector.
+     * @return the destination array, now holding this vector added to the given vector.
+     */
+    public double[] plusInto(final double[] destination, final Vector other) {
+        return Operators.sumInto(destination, this.elements, other.elements);
     }
 
     /**
@@ -107,11 +130,18 @@ public final class Vector {
      * @return this vector subtracted by the given vector.
      */
     public Vector minus(final Vector other) {
-        final double[] differenced = new double[this.size()];
-        for (int i = 0; i < differenced.length; i++) {
-            differenced[i] = this.elements[i] - other.elements[i];
-        }
-        return new Vector(differenced);
+        return new Vector(Operators.differenceInto(new double[this.size()], this.elements, other.elements), false);
+    }
+
+    /**
+     * Subtract the given vector from this vector and store the result in the destination array.
+     *
+     * @param destination the array to store the result in.
+     * @param other       the vector to subtract from this vector.
+     * @return the destination array, now holding this vector subtracted by the given vector.
+     */
+    public double[] minusInto(final double[] destination, final Vector other) {
+        return Operators.differenceInto(destination, this.elements, other.elements);
     }
 
     /**
@@ -121,11 +151,7 @@ public final class Vector {
      * @return this vector subtracted by the given scalar.
      */
     public Vector minus(final double scalar) {
-        final double[] differenced = new double[this.size()];
-        for (int i = 0; i < differenced.length; i++) {
-            differenced[i] = this.elements[i] - scalar;
-        }
-        return new Vector(differenced);
+        return new Vector(Operators.subtractInto(new double[this.size()], this.elements, scalar), false);
     }
 
     /**
@@ -135,11 +161,18 @@ public final class Vector {
      * @return this vector scaled by the given scalar.
      */
     public Vector scaledBy(final double alpha) {
-        final double[] scaled = new double[this.size()];
-        for (int i = 0; i < scaled.length; i++) {
-            scaled[i] = alpha * this.elements[i];
-        }
-        return new Vector(scaled);
+        return new Vector(Operators.scaleInto(new double[this.size()], this.elements, alpha), false);
+    }
+
+    /**
+     * Scale this vector by the given scalar and store the result in the destination array.
+     *
+     * @param destination the array to store the result in.
+     * @param alpha       the scalar to scale this vector by.
+     * @return the destination array, now holding this vector scaled by the given scalar.
+     */
+    public double[] scaledByInto(final double[] destination, final double alpha) {
+        return Operators.scaleInto(destination, this.elements, alpha);
     }
 
     /**
@@ -150,11 +183,7 @@ public final class Vector {
      */
     public double dotProduct(final Vector other) {
         if (other.elements.length > 0) {
-            double product = 0.0;
-            for (int i = 0; i < elements.length; i++) {
-                product += this.elements[i] * other.elements[i];
-            }
-            return product;
+            return DoubleKernels.dot(this.elements, 0, other.elements, 0, elements.length);
         }
         throw new IllegalArgumentException("The dot product is undefined for zero length vectors");
     }
@@ -176,12 +205,27 @@ public final class Vector {
 
     }
 
-    Vector axpy(final Vector other, final double alpha) {
-        final double[] result = new double[this.size()];
-        for (int i = 0; i < result.length; i++) {
-            result[i] = alpha * this.elements[i] + other.elements[i];
-        }
-        return new Vector(result);
+    /**
+     * Scale this vector by alpha and add the given vector to the result, without forming the scaled vector.
+     *
+     * @param other the vector to add to the scaled vector.
+     * @param alpha the scalar to scale this vector by.
+     * @return alpha times this vector plus the given vector.
+     */
+    public Vector axpy(final Vector other, final double alpha) {
+        return new Vector(axpyInto(new double[this.size()], other, alpha), false);
+    }
+
+    /**
+     * Scale this vector by alpha, add the given vector to the result, and store it in the destination array.
+     *
+     * @param destination the array to store the result in.
+     * @param other       the vector to add to the scaled vector.
+     * @param alpha       the scalar to scale this vector by.
+     * @return the destination array, now holding alpha times this vector plus the given vector.
+     */
+    public double[] axpyInto(final double[] destination, final Vector other, final double alpha) {
+        return Operators.axpyInto(destination, alpha, this.elements, other.elements);
     }
 
     /**
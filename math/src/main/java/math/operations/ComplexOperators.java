@@ -0,0 +1,255 @@
+/*
+ * Copyright (c) 2017 Jacob Rachiele
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to
+ * do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+ * USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Contributors:
+ *
+ * Jacob Rachiele
+ */
+package math.operations;
+
+/**
+ * Static methods for performing vector operations on arrays of complex numbers stored interleaved in primitive
+ * double arrays.
+ * <p>
+ * A complex array of n elements is a double array of length 2n in which the real part of element k is at index 2k
+ * and its imaginary part is at index 2k + 1. None of these methods allocate, so loops over complex data create no
+ * garbage. Unless stated otherwise, the destination may be the same array as any argument.
+ * </p>
+ *
+ * @author Jacob Rachiele
+ */
+public final class ComplexOperators {
+
+    private ComplexOperators() {
+    }
+
+    /**
+     * Take the element-by-element sum of the two complex arrays and store the result in the destination array.
+     *
+     * @param destination the interleaved array to store the result in.
+     * @param left        the first interleaved array to take the sum with.
+     * @param right       the second interleaved array to take the sum with.
+     * @return the destination array, now holding the element-by-element sum of the two arrays.
+     */
+    public static double[] addInto(final double[] destination, final double[] left, final double[] right) {
+        validate(destination, left, right);
+        DoubleKernels.addInto(destination, left, right, left.length);
+        return destination;
+    }
+
+    /**
+     * Take the element-by-element difference of the two complex arrays and store the result in the destination
+     * array.
+     *
+     * @param destination the interleaved array to store the result in.
+     * @param left        the interleaved array to subtract from.
+     * @param right       the interleaved array to subtract.
+     * @return the destination array, now holding the element-by-element difference of the two arrays.
+     */
+    public static double[] subtractInto(final double[] destination, final double[] left, final double[] right) {
+        validate(destination, left, right);
+        DoubleKernels.subtractInto(destination, left, right, left.length);
+        return destination;
+    }
+
+    /**
+     * Take the element-by-element complex product of the two complex arrays and store the result in the destination
+     * array.
+     *
+     * @param destination the interleaved array to store the result in.
+     * @param left        the first interleaved array to take the product with.
+     * @param right       the second interleaved array to take the product with.
+     * @return the destination array, now holding the element-by-element product of the two arrays.
+     */
+    public static double[] multiplyInto(final double[] destination, final double[] left, final double[] right) {
+        validate(destination, left, right);
+        for (int k = 0; k < left.length; k += 2) {
+            final double re = left[k] * right[k] - left[k + 1] * right[k + 1];
+            final double im = left[k] * right[k + 1] + left[k + 1] * right[k];
+            destination[k] = re;
+            destination[k + 1] = im;
+        }
+        return destination;
+    }
+
+    /**
+     * Take the element-by-element product of the first complex array with the complex conjugate of the second and
+     * store the result in the destination array. This is the kernel of cross-spectra and correlations computed in
+     * the frequency domain.
+     *
+     * @param destination the interleaved array to store the result in.
+     * @param left        the interleaved array to multiply.
+     * @param right       the interleaved array whose conjugate is multiplied by.
+     * @return the destination array, now holding the element-by-element product of left with the conjugate of right.
+     */
+    public static double[] multiplyConjugateInto(final double[] destination, final double[] left,
+                                                 final double[] right) {
+        validate(destination, left, right);
+        for (int k = 0; k < left.length; k += 2) {
+            final double re = left[k] * right[k] + left[k + 1] * right[k + 1];
+            final double im = left[k + 1] * right[k] - left[k] * right[k + 1];
+            destination[k] = re;
+            destination[k + 1] = im;
+        }
+        return destination;
+    }
+
+    /**
+     * Multiply every element of the complex array by the complex scalar alpha and store the result in the
+     * destination array.
+     *
+     * @param destination the interleaved array to store the result in.
+     * @param x           the interleaved array to scale.
+     * @param alphaRe     the real part of alpha.
+     * @param alphaIm     the imaginary part of alpha.
+     * @return the destination array, now holding alpha times x.
+     */
+    public static double[] scaleInto(final double[] destination, final double[] x, final double alphaRe,
+                                     final double alphaIm) {
+        validate(destination, x);
+        if (alphaIm == 0.0) {
+            DoubleKernels.scaleInto(destination, x, alphaRe, x.length);
+            return destination;
+        }
+        for (int k = 0; k < x.length; k += 2) {
+            final double re = alphaRe * x[k] - alphaIm * x[k + 1];
+            final double im = alphaRe * x[k + 1] + alphaIm * x[k];
+            destination[k] = re;
+            destination[k + 1] = im;
+        }
+        return destination;
+    }
+
+    /**
+     * Compute alpha times x plus y for the complex scalar alpha and store the result in the destination array.
+     *
+     * @param destination the interleaved array to store the result in.
+     * @param alphaRe     the real part of alpha.
+     * @param alphaIm     the imaginary part of alpha.
+     * @param x           the interleaved array to be scaled.
+     * @param y           the interleaved array to be added.
+     * @return the destination array, now holding alpha &times; x + y.
+     */
+    public static double[] axpyInto(final double[] destination, final double alphaRe, final double alphaIm,
+                                    final double[] x, final double[] y) {
+        validate(destination, x, y);
+        for (int k = 0; k < x.length; k += 2) {
+            final double re = alphaRe * x[k] - alphaIm * x[k + 1] + y[k];
+            final double im = alphaRe * x[k + 1] + alphaIm * x[k] + y[k + 1];
+            destination[k] = re;
+            destination[k + 1] = im;
+        }
+        return destination;
+    }
+
+    /**
+     * Take the complex conjugate of every element of the complex array and store the result in the destination
+     * array.
+     *
+     * @param destination the interleaved array to store the result in.
+     * @param x           the interleaved array to conjugate.
+     * @return the destination array, now holding the conjugate of x.
+     */
+    public static double[] conjugateInto(final double[] destination, final double[] x) {
+        validate(destination, x);
+        for (int k = 0; k < x.length; k += 2) {
+            destination[k] = x[k];
+            destination[k + 1] = -x[k + 1];
+        }
+        return destination;
+    }
+
+    /**
+     * Compute the modulus of every element of the complex array and store the result in the destination array,
+     * which holds one real number per complex element.
+     *
+     * @param destination the array of length n to store the moduli in.
+     * @param x           the interleaved array of n complex elements.
+     * @return the destination array, now holding the modulus of every element of x.
+     */
+    public static double[] absInto(final double[] destination, final double[] x) {
+        validateInterleaved(x);
+        if (destination.length != x.length / 2) {
+            throw new IllegalArgumentException("The destination must have one element for every complex element, " +
+                                               "but had length " + destination.length + " for " + (x.length / 2) +
+                                               " complex elements.");
+        }
+        for (int k = 0; k < destination.length; k++) {
+            final double re = x[2 * k];
+            final double im = x[2 * k + 1];
+            destination[k] = Math.sqrt(re * re + im * im);
+        }
+        return destination;
+    }
+
+    /**
+     * Compute the inner product of the two complex arrays, the sum of the products of the conjugates of the elements
+     * of x with the elements of y, and store it in the first two elements of the destination.
+     *
+     * @param destination the array to store the real and imaginary parts of the inner product in.
+     * @param x           the interleaved array whose conjugate is taken.
+     * @param y           the second interleaved array.
+     * @return the destination array, now holding the inner product of x and y in its first two elements.
+     */
+    public static double[] dotInto(final double[] destination, final double[] x, final double[] y) {
+        validate(x, y);
+        double re = 0.0;
+        double im = 0.0;
+        for (int k = 0; k < x.length; k += 2) {
+            re += x[k] * y[k] + x[k + 1] * y[k + 1];
+            im += x[k] * y[k + 1] - x[k + 1] * y[k];
+        }
+        destination[0] = re;
+        destination[1] = im;
+        return destination;
+    }
+
+    /**
+     * Compute the Euclidean norm of the complex array, the square root of the sum of the squared moduli of its
+     * elements.
+     *
+     * @param x the interleaved array to compute the norm of.
+     * @return the Euclidean norm of the complex array.
+     */
+    public static double norm(final double[] x) {
+        validateInterleaved(x);
+        return Math.sqrt(DoubleKernels.dot(x, 0, x, 0, x.length));
+    }
+
+    private static void validate(final double[] destination, final double[] left, final double[] right) {
+        if (left.length != right.length) {
+            throw new IllegalArgumentException("The data arrays must have the same length.");
+        }
+        validate(destination, left);
+    }
+
+    private static void validate(final double[] destination, final double[] data) {
+        validateInterleaved(data);
+        if (destination.length != data.length) {
+            throw new IllegalArgumentException("The destination array must have the same length as the data.");
+        }
+    }
+
+    private static void validateInterleaved(final double[] data) {
+        if ((data.length & 1) != 0) {
+            throw new IllegalArgumentException("An interleaved complex array must have even length, but had length " +
+                                               data.length);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2017 Jacob Rachiele
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to
+ * do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+ * USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Contributors:
+ *
+ * Jacob Rachiele
+ */
+package math.operations;
+
+/**
+ * Low-level kernels over ranges of primitive double arrays, on which the element-wise operations in
+ * {@link Operators}, vector dot products, and the dense and packed matrix kernels are built.
+ * <p>
+ * This is the Java 8 implementation, which is plain scalar code. The math jar is a multi-release jar, and on
+ * Java 17 and later this class is replaced by one that uses explicit SIMD instructions through the incubating
+ * {@code jdk.incubator.vector} module whenever that module has been added to the running JVM, for instance with
+ * {@code --add-modules jdk.incubator.vector}. The element-wise kernels give identical results in either case;
+ * the dot product may differ in the last few bits, since the SIMD version adds its products in a different order.
+ * </p>
+ * <p>
+ * Ranges written to must either be the same as or not overlap with the ranges read from.
+ * </p>
+ *
+ * @author Jacob Rachiele
+ */
+public final class DoubleKernels {
+
+    private DoubleKernels() {}
+
+    /**
+     * Whether the kernels in this class are using explicit SIMD instructions.
+     *
+     * @return true if the kernels in this class are using explicit SIMD instructions.
+     */
+    public static boolean isVectorized() {
+        return false;
+    }
+
+    /**
+     * Compute the dot product of the given ranges of x and y.
+     *
+     * @param x       the first array.
+     * @param xOffset the index of the first element of x to use.
+     * @param y       the second array.
+     * @param yOffset the index of the first element of y to use.
+     * @param length  the number of elements in each range.
+     * @return the sum of the products of the corresponding elements of the two ranges.
+     */
+    public static double dot(final double[] x, final int xOffset, final double[] y, final int yOffset,
+                             final int length) {
+        return ScalarKernels.dot(x, xOffset, y, yOffset, length);
+    }
+
+    /**
+     * Add alpha times the given range of x to the given range of y, overwriting that range of y. This is the BLAS
+     * level 1 axpy operation on contiguous ranges, which makes it the inner loop of matrix products and of
+     * rank-one updates.
+     *
+     * @param alpha   the scaling factor applied to x.
+     * @param x       the array to be scaled and added.
+     * @param xOffset the index of the first element of x to use.
+     * @param y       the array to be added to, which is overwritten with the result.
+     * @param yOffset the index of the first element of y to use.
+     * @param length  the number of elements in each range.
+     */
+    public static void axpy(final double alpha, final double[] x, final int xOffset, final double[] y,
+                            final int yOffset, final int length) {
+        ScalarKernels.axpy(alpha, x, xOffset, y, yOffset, length);
+    }
+
+    /**
+     * Store alpha times x plus y in the first length elements of the destination.
+     *
+     * @param destination the array to store the result in.
+     * @param alpha       the scaling factor applied to x.
+     * @param x           the array to be scaled.
+     * @param y           the array to be added.
+     * @param length      the number of elements to compute.
+     */
+    public static void axpyInto(final double[] destination, final double alpha, final double[] x,
+                                final double[] y, final int length) {
+        ScalarKernels.axpyInto(destination, alpha, x, y, length);
+    }
+
+    /**
+     * Store the element-by-element sum of left and right in the first length elements of the destination.
+     *
+     * @param destination the array to store the result in.
+     * @param left        the first array to take the sum with.
+     * @param right       the second array to take the sum with.
+     * @param length      the number of elements to compute.
+     */
+    public static void addInto(final double[] destination, final double[] left, final double[] right,
+                               final int length) {
+        ScalarKernels.addInto(destination, left, right, length);
+    }
+
+    /**
+     * Store the element-by-element difference of left and right in the first length elements of the destination.
+     *
+     * @param destination the array to store the result in.
+     * @param left        the array to subtract from.
+     * @param right       the array to subtract.
+     * @param length      the number of elements to compute.
+     */
+    public static void subtractInto(final double[] destination, final double[] left, final double[] right,
+                                    final int length) {
+        ScalarKernels.subtractInto(destination, left, right, length);
+    }
+
+    /**
+     * Store the element-by-element product of left and right in the first length elements of the destination.
+     *
+     * @param destination the array to store the result in.
+     * @param left        the first array to take the product with.
+     * @param right       the second array to take the product with.
+     * @param length      the number of elements to compute.
+     */
+    public static void multiplyInto(final double[] destination, final double[] left, final double[] right,
+                                    final int length) {
+        ScalarKernels.multiplyInto(destination, left, right, length);
+    }
+
+    /**
+     * Store alpha times x in the first length elements of the destination.
+     *
+     * @param destination the array to store the result in.
+     * @param x           the array to scale.
+     * @param alpha       the scaling factor.
+     * @param length      the number of elements to compute.
+     */
+    public static void scaleInto(final double[] destination, final double[] x, final double alpha,
+                                 final int length) {
+        ScalarKernels.scaleInto(destination, x, alpha, length);
+    }
+
+    /**
+     * Store alpha times the element-by-element difference of left and right in the first length elements of the
+     * destination.
+     *
+     * @param destination the array to store the result in.
+     * @param alpha       the scaling factor applied to the difference.
+     * @param left        the array to subtract from.
+     * @param right       the array to subtract.
+     * @param length      the number of elements to compute.
+     */
+    public static void scaledDifferenceInto(final double[] destination, final double alpha, final double[] left,
+                                            final double[] right, final int length) {
+        ScalarKernels.scaledDifferenceInto(destination, alpha, left, right, length);
+    }
+}
@@ -25,6 +25,10 @@ package math.operations;
 
 /**
  * Static methods for performing vector operations on arrays.
+ * <p>
+ * Methods whose names end in {@code Into} store their result in a destination array supplied by the caller, which
+ * must have the same length as the data and may be one of the input arrays.
+ * </p>
  *
  * @author Jacob Rachiele
  */
@@ -42,14 +46,22 @@ public final class Operators {
      * @return the element-by-element product of the two arrays.
      */
     public static double[] productOf(final double[] left, final double[] right) {
-        if (left.length != right.length) {
-            throw new IllegalArgumentException("The data arrays must have the same length.");
-        }
-        final double[] product = new double[left.length];
-        for (int i = 0; i < left.length; i++) {
-            product[i] = left[i] * right[i];
-        }
-        return product;
+        return productInto(new double[left.length], left, right);
+    }
+
+    /**
+     * Take the element-by-element product of the two arrays and store the result in the destination array. The
+     * destination may be the same array as either argument.
+     *
+     * @param destination the array to store the result in.
+     * @param left        the first array to take the product with.
+     * @param right       the second array to take the product with.
+     * @return the destination array, now holding the element-by-element product of the two arrays.
+     */
+    public static double[] productInto(final double[] destination, final double[] left, final double[] right) {
+        validate(destination, left, right);
+        DoubleKernels.multiplyInto(destination, left, right, left.length);
+        return destination;
     }
 
     /**
@@ -60,14 +72,22 @@ public final class Operators {
      * @return the element-by-element sum of the two arrays.
      */
     public static double[] sumOf(final double[] left, final double[] right) {
-        if (left.length != right.length) {
-            throw new IllegalArgumentException("The data arrays must have the same length.");
-        }
-        final double[] sum = new double[left.length];
-        for (int i = 0; i < left.length; i++) {
-            sum[i] = left[i] + right[i];
-        }
-        return sum;
+        return sumInto(new double[left.length], left, right);
+    }
+
+    /**
+     * Take the element-by-element sum of the two arrays and store the result in the destination array. The
+     * destination may be the same array as either argument.
+     *
+     * @param destination the array to store the result in.
+     * @param left        the first array to take the sum with.
+     * @param right       the second array to take the sum with.
+     * @return the destination array, now holding the element-by-element sum of the two arrays.
+     */
+    public static double[] sumInto(final double[] destination, final double[] left, final double[] right) {
+        validate(destination, left, right);
+        DoubleKernels.addInto(destination, left, right, left.length);
+        return destination;
     }
 
     /**
@@ -78,14 +98,22 @@ public final class Operators {
      * @return the element-by-element difference of the two arrays.
      */
     public static double[] differenceOf(final double[] left, final double[] right) {
-        if (left.length != right.length) {
-            throw new IllegalArgumentException("The data arrays must have the same length.");
-        }
-        final double[] difference = new double[left.length];
-        for (int i = 0; i < left.length; i++) {
-            difference[i] = left[i] - right[i];
-        }
-        return difference;
+        return differenceInto(new double[left.length], left, right);
+    }
+
+    /**
+     * Take the element-by-element difference of the two arrays and store the result in the destination array. The
+     * destination may be the same array as either argument.
+     *
+     * @param destination the array to store the result in.
+     * @param left        the first array to take the difference with.
+     * @param right       the second array to take the difference with.
+     * @return the destination array, now holding the element-by-element difference of the two arrays.
+     */
+    public static double[] differenceInto(final double[] destination, final double[] left, final double[] right) {
+        validate(destination, left, right);
+        DoubleKernels.subtractInto(destination, left, right, left.length);
+        return destination;
     }
 
 //  static List<Double> differenceOf(final List<Double> left, final List<Double> right) {
@@ -107,14 +135,25 @@ public final class Operators {
      * @return the element-by-element quotient of the two arrays.
      */
     public static double[] quotientOf(final double[] numerator, final double[] denominator) {
-        if (numerator.length != denominator.length) {
-            throw new IllegalArgumentException("The data arrays must have the same length.");
-        }
-        final double[] quotient = new double[numerator.length];
+        return quotientInto(new double[numerator.length], numerator, denominator);
+    }
+
+    /**
+     * Take the element-by-element quotient of the two arrays and store the result in the destination array. The
+     * destination may be the same array as either argument.
+     *
+     * @param destination the array to store the result in.
+     * @param numerator   the array of numerators.
+     * @param denominator the array of denominators.
+     * @return the destination array, now holding the element-by-element quotient of the two arrays.
+     */
+    public static double[] quotientInto(final double[] destination, final double[] numerator,
+                                        final double[] denominator) {
+        validate(destination, numerator, denominator);
         for (int i = 0; i < numerator.length; i++) {
-            quotient[i] = numerator[i] / denominator[i];
+            destination[i] = numerator[i] / denominator[i];
         }
-        return quotient;
+        return destination;
     }
 
     /**
@@ -125,11 +164,22 @@ public final class Operators {
      * @return the original data scaled by alpha.
      */
     public static double[] scale(final double[] original, final double alpha) {
-        final double[] scaled = new double[original.length];
-        for (int i = 0; i < original.length; i++) {
-            scaled[i] = original[i] * alpha;
-        }
-        return scaled;
+        return scaleInto(new double[original.length], original, alpha);
+    }
+
+    /**
+     * Scale the original data by alpha and store the result in the destination array. The destination may be the
+     * same array as the original, in which case the data is scaled in place.
+     *
+     * @param destination the array to store the result in.
+     * @param original    the data to be scaled.
+     * @param alpha       the scaling factor.
+     * @return the destination array, now holding the original data scaled by alpha.
+     */
+    public static double[] scaleInto(final double[] destination, final double[] original, final double alpha) {
+        validate(destination, original);
+        DoubleKernels.scaleInto(destination, original, alpha, original.length);
+        return destination;
     }
 
     /**
@@ -140,16 +190,84 @@ public final class Operators {
      * @return a new array with each element of the supplied data subtracted by the given value.
      */
     public static double[] subtract(final double[] data, final double value) {
-        final double[] diff = new double[data.length];
-        for (int i = 0; i < diff.length; i++) {
-            diff[i] = data[i] - value;
+        return subtractInto(new double[data.length], data, value);
+    }
+
+    /**
+     * Subtract the given value from each element of the supplied data and store the result in the destination array.
+     * The destination may be the same array as the data, in which case the value is subtracted in place.
+     *
+     * @param destination the array to store the result in.
+     * @param data        the data to subtract the value from.
+     * @param value       the value to be subtracted.
+     * @return the destination array, now holding each element of the data subtracted by the given value.
+     */
+    public static double[] subtractInto(final double[] destination, final double[] data, final double value) {
+        validate(destination, data);
+        for (int i = 0; i < data.length; i++) {
+            destination[i] = data[i] - value;
         }
-        return diff;
+        return destination;
     }
 
-//  private static void subtractBang(final double[] data, final double value) {
-//    for (int i = 0; i < data.length; i++) {
-//      data[i] -= value;
-//    }
-//  }
+    /**
+     * Add alpha times x to y, overwriting y with the result. This is the BLAS level 1 axpy operation.
+     *
+     * @param alpha the scaling factor applied to x.
+     * @param x     the array to be scaled and added.
+     * @param y     the array to be added to, which is overwritten with the result.
+     * @return the array y, now holding alpha &times; x + y.
+     */
+    public static double[] axpy(final double alpha, final double[] x, final double[] y) {
+        return axpyInto(y, alpha, x, y);
+    }
+
+    /**
+     * Compute alpha times x plus y and store the result in the destination array. The destination may be the same
+     * array as either x or y.
+     *
+     * @param destination the array to store the result in.
+     * @param alpha       the scaling factor applied to x.
+     * @param x           the array to be scaled.
+     * @param y           the array to be added.
+     * @return the destination array, now holding alpha &times; x + y.
+     */
+    public static double[] axpyInto(final double[] destination, final double alpha, final double[] x,
+                                    final double[] y) {
+        validate(destination, x, y);
+        DoubleKernels.axpyInto(destination, alpha, x, y, x.length);
+        return destination;
+    }
+
+    /**
+     * Compute alpha times the element-by-element difference of the two arrays and store the result in the
+     * destination array. The destination may be the same array as either argument.
+     *
+     * @param destination the array to store the result in.
+     * @param alpha       the scaling factor applied to the difference.
+     * @param left        the first array to take the difference with.
+     * @param right       the second array to take the difference with.
+     * @return the destination array, now holding alpha &times; (left - right).
+     */
+    public static double[] scaledDifferenceInto(final double[] destination, final double alpha, final double[] left,
+                                                final double[] right) {
+        validate(destination, left, right);
+        DoubleKernels.scaledDifferenceInto(destination, alpha, left, right, left.length);
+        return destination;
+    }
+
+    private static void validate(final double[] destination, final double[] left, final double[] right) {
+        if (left.length != right.length) {
+            throw new IllegalArgumentException("The data arrays must have the same length.");
+        }
+        validate(destination, left);
+    }
+
+    private static void validate(final double[] destination, final double[] data) {
+        if (destination.length != data.length) {
+            throw new IllegalArgumentException("The destination array must have the same length as the data, but " +
+                                               "had length " + destination.length + " for data of length " +
+                                               data.length);
+        }
+    }
 }
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2017 Jacob Rachiele
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to
+ * do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+ * USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Contributors:
+ *
+ * Jacob Rachiele
+ */
+package math.operations;
+
+/**
+ * The scalar implementations of the primitive array kernels, shared by every version of {@link DoubleKernels}.
+ * The loops keep independent accumulators or independent elements per iteration so that the JIT compiler is free
+ * to unroll and auto-vectorize them.
+ *
+ * @author Jacob Rachiele
+ */
+final class ScalarKernels {
+
+    private ScalarKernels() {}
+
+    // Four independent accumulators break the dependency chain of the additions.
+    static double dot(final double[] x, final int xOffset, final double[] y, final int yOffset, final int length) {
+        double s0 = 0.0;
+        double s1 = 0.0;
+        double s2 = 0.0;
+        double s3 = 0.0;
+        int p = 0;
+        for (; p + 3 < length; p += 4) {
+            s0 += x[xOffset + p] * y[yOffset + p];
+            s1 += x[xOffset + p + 1] * y[yOffset + p + 1];
+            s2 += x[xOffset + p + 2] * y[yOffset + p + 2];
+            s3 += x[xOffset + p + 3] * y[yOffset + p + 3];
+        }
+        for (; p < length; p++) {
+            s0 += x[xOffset + p] * y[yOffset + p];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    static void axpy(final double alpha, final double[] x, final int xOffset, final double[] y, final int yOffset,
+                     final int length) {
+        for (int i = 0; i < length; i++) {
+            y[yOffset + i] += alpha * x[xOffset + i];
+        }
+    }
+
+    static void axpyInto(final double[] destination, final double alpha, final double[] x, final double[] y,
+                         final int length) {
+        for (int i = 0; i < length; i++) {
+            destination[i] = alpha * x[i] + y[i];
+        }
+    }
+
+    static void addInto(final double[] destination, final double[] left, final double[] right, final int length) {
+        for (int i = 0; i < length; i++) {
+            destination[i] = left[i] + right[i];
+        }
+    }
+
+    static void subtractInto(final double[] destination, final double[] left, final double[] right,
+                             final int length) {
+        for (int i = 0; i < length; i++) {
+            destination[i] = left[i] - right[i];
+        }
+    }
+
+    static void multiplyInto(final double[] destination, final double[] left, final double[] right,
+                             final int length) {
+        for (int i = 0; i < length; i++) {
+            destination[i] = left[i] * right[i];
+        }
+    }
+
+    static void scaleInto(final double[] destination, final double[] x, final double alpha, final int length) {
+        for (int i = 0; i < length; i++) {
+            destination[i] = alpha * x[i];
+        }
+    }
+
+    static void scaledDifferenceInto(final double[] destination, final double alpha, final double[] left,
+                                     final double[] right, final int length) {
+        for (int i = 0; i < length; i++) {
+            destination[i] = alpha * (left[i] - right[i]);
+        }
+    }
+}
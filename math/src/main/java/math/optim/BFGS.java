@@ -25,6 +25,7 @@ package math.optim;
 
 import math.linear.doubles.Matrices;
 import math.linear.doubles.Matrix;
+import math.linear.doubles.SymmetricMatrix;
 import math.linear.doubles.Vector;
 import math.function.AbstractMultivariateFunction;
 
@@ -43,13 +44,13 @@ public final class BFGS {
     private static final double STEP_REDUCTION_FACTOR = 0.2;
     //private static final double c2 = 0.9;
 
-    private final Matrix identity;
+    private final SymmetricMatrix identity;
     private Vector iterate; // The point at which to evaluate the target function.
     private double functionValue; // The latest value of the target function.
     private double rho; // Defined as 1 divided by the dot product of y and s.
     private Vector s; // The difference between successive iterates.
     private Vector y; // The difference between successive gradients.
-    private Matrix H; // The inverse Hessian approximation.
+    private final SymmetricMatrix H; // The inverse Hessian approximation, updated in place.
 
     /**
      * Create a new BFGS object and run the algorithm with the supplied information.
@@ -71,12 +72,13 @@ public final class BFGS {
      * @param startingPoint           the initial guess of the minimum.
      * @param gradientNormTolerance   the tolerance for the norm of the gradient of the function.
      * @param relativeChangeTolerance the tolerance for the change in function value.
-     * @param initialHessian          The initial guess for the inverse Hessian approximation.
+     * @param initialHessian          The initial guess for the inverse Hessian approximation. Only its lower
+     *                                triangle is read.
      */
     public BFGS(final AbstractMultivariateFunction f, final Vector startingPoint, final double gradientNormTolerance,
                 final double relativeChangeTolerance, final Matrix initialHessian) {
-        this.identity = Matrices.identity(startingPoint.size());
-        this.H = initialHessian;
+        this.identity = SymmetricMatrix.identity(startingPoint.size());
+        this.H = SymmetricMatrix.fromLower(initialHessian);
         this.iterate = startingPoint;
         int k = 0;
         double priorFunctionValue;
@@ -98,14 +100,14 @@ public final class BFGS {
 
             while (!stop) {
                 if (iterationsSinceIdentityReset > 2 * iterate.size()) {
-                    H = identity;
+                    H.setTo(identity);
                     iterationsSinceIdentityReset = 0;
                 }
                 iterationsSinceIdentityReset++;
                 searchDirection = (H.times(gradient).scaledBy(-1.0));
                 slopeAt0 = searchDirection.dotProduct(gradient);
                 if (slopeAt0 > 0) {
-                    H = this.identity;
+                    H.setTo(this.identity);
                     searchDirection = (H.times(gradient).scaledBy(-1.0));
                     slopeAt0 = searchDirection.dotProduct(gradient);
                 }
@@ -146,9 +148,9 @@ public final class BFGS {
                 yDotS = y.dotProduct(s);
                 if (yDotS > 0) {
                     rho = 1 / yDotS;
-                    H = updateHessian();
+                    updateHessian();
                 } else if (!stop) {
-                    H = identity;
+                    H.setTo(identity);
                     iterationsSinceIdentityReset = 0;
                 }
                 iterate = nextIterate;
@@ -188,11 +190,18 @@ public final class BFGS {
 ////    return lineSearch.search();
 //  }
 
-    private Matrix updateHessian() {
-        Matrix a = identity.minus(s.outerProduct(y).scaledBy(rho));
-        Matrix b = identity.minus(y.outerProduct(s).scaledBy(rho));
-        Matrix c = s.outerProduct(s).scaledBy(rho);
-        return a.times(H).times(b).plus(c);
+    // Expanding (I - rho s y') H (I - rho y s') + rho s s' gives
+    // H - rho (s (Hy)' + (Hy) s') + (rho^2 y'Hy + rho) s s' for symmetric H, which is a symmetric rank-two update
+    // followed by a symmetric rank-one update of the stored lower triangle.
+    private void updateHessian() {
+        final double[] sElements = s.elements();
+        final double[] yElements = y.elements();
+        final double[] hy = H.timesInto(new double[sElements.length], yElements);
+        double yhy = 0.0;
+        for (int i = 0; i < hy.length; i++) {
+            yhy += yElements[i] * hy[i];
+        }
+        H.rankTwoUpdate(-rho, sElements, hy).rankOneUpdate(rho * rho * yhy + rho, sElements);
     }
 
     /**
@@ -219,7 +228,7 @@ public final class BFGS {
      * @return the final approximation to the inverse Hessian.
      */
     public Matrix inverseHessian() {
-        return this.H;
+        return this.H.toMatrix();
     }
 
 }
@@ -0,0 +1,385 @@
+/*
+ * Copyright (c) 2017 Jacob Rachiele
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to
+ * do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+ * USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Contributors:
+ *
+ * Jacob Rachiele
+ */
+package math.stats;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A mergeable sketch of a stream of observations from which approximate quantiles may be computed, based on the
+ * KLL sketch of Karnin, Lang and Liberty (2016).
+ * <p>
+ * The sketch keeps a hierarchy of compactors. The compactor at level h holds observations that each stand for
+ * 2<sup>h</sup> of the original observations. When a compactor fills up, it is sorted and every other observation
+ * is promoted to the next level, so the memory used grows only with the logarithm of the number of observations.
+ * With the default accuracy parameter of 200, the rank of a returned quantile is typically within about one
+ * percent of the number of observations of the requested rank. The minimum and maximum are tracked exactly.
+ * </p>
+ * <p>
+ * Sketches of disjoint parts of a series may be built independently and merged, which is how
+ * {@link #of(double[])} sketches large arrays in parallel. The choice of which half of a compactor to promote is
+ * driven by a fixed seed, so sketching the same observations in the same order always gives the same result.
+ * This class is not thread-safe.
+ * </p>
+ *
+ * @author Jacob Rachiele
+ */
+public final class QuantileSketch {
+
+    private static final int DEFAULT_K = 200;
+    private static final double CAPACITY_DECAY = 2.0 / 3.0;
+    private static final long SEED = 0x2545F4914F6CDD1DL;
+
+    private final int k;
+    private final Random random = new Random(SEED);
+    private double[][] levels;
+    private int[] sizes;
+    private int numLevels;
+    private int retained;
+    private int maxRetained;
+    private long n;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+
+    /**
+     * Create a new, empty sketch with the default accuracy parameter.
+     */
+    public QuantileSketch() {
+        this(DEFAULT_K);
+    }
+
+    /**
+     * Create a new, empty sketch with the given accuracy parameter. The rank error of the sketch is roughly
+     * inversely proportional to k, and its memory use is roughly proportional to k.
+     *
+     * @param k the accuracy parameter of the sketch, at least 8.
+     */
+    public QuantileSketch(final int k) {
+        if (k < 8) {
+            throw new IllegalArgumentException("The accuracy parameter must be at least 8, but was " + k);
+        }
+        this.k = k;
+        this.levels = new double[1][];
+        this.sizes = new int[1];
+        this.numLevels = 1;
+        this.levels[0] = new double[capacity(0)];
+        this.maxRetained = totalCapacity();
+    }
+
+    /**
+     * Sketch the given data with the default accuracy parameter. Large arrays are sketched in blocks on the common
+     * fork/join pool, and the sketches of the blocks are merged in an order that depends only on the length of the
+     * data.
+     *
+     * @param data the data to sketch.
+     * @return a sketch of the given data.
+     */
+    public static QuantileSketch of(final double[] data) {
+        return Statistics.reduce(data.length, (from, to) -> {
+            final QuantileSketch sketch = new QuantileSketch();
+            for (int i = from; i < to; i++) {
+                sketch.add(data[i]);
+            }
+            return sketch;
+        }, QuantileSketch::merge);
+    }
+
+    /**
+     * Add the given observation to this sketch. NaN values are ignored.
+     *
+     * @param value the observation to add.
+     */
+    public void add(final double value) {
+        if (value != value) {
+            return;
+        }
+        if (n == 0) {
+            min = value;
+            max = value;
+        } else {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        n++;
+        if (sizes[0] == levels[0].length) {
+            levels[0] = Arrays.copyOf(levels[0], levels[0].length * 2);
+        }
+        levels[0][sizes[0]++] = value;
+        retained++;
+        if (retained >= maxRetained) {
+            compress();
+        }
+    }
+
+    /**
+     * Add each of the given observations to this sketch.
+     *
+     * @param values the observations to add.
+     */
+    public void addAll(final double... values) {
+        for (double value : values) {
+            add(value);
+        }
+    }
+
+    /**
+     * Merge the given sketch into this one, so that this sketch summarizes the observations of both. The given
+     * sketch is not modified.
+     *
+     * @param other the sketch to merge into this one.
+     * @return this sketch.
+     */
+    public QuantileSketch merge(final QuantileSketch other) {
+        if (other.n == 0) {
+            return this;
+        }
+        if (this.n == 0) {
+            this.min = other.min;
+            this.max = other.max;
+        } else {
+            this.min = Math.min(this.min, other.min);
+            this.max = Math.max(this.max, other.max);
+        }
+        while (this.numLevels < other.numLevels) {
+            grow();
+        }
+        for (int h = 0; h < other.numLevels; h++) {
+            append(h, other.levels[h], other.sizes[h]);
+        }
+        this.n += other.n;
+        while (retained >= maxRetained) {
+            compress();
+        }
+        return this;
+    }
+
+    /**
+     * The number of observations summarized by this sketch.
+     *
+     * @return the number of observations summarized by this sketch.
+     */
+    public long size() {
+        return this.n;
+    }
+
+    /**
+     * The number of observations currently retained by this sketch.
+     *
+     * @return the number of observations currently retained by this sketch.
+     */
+    public int retained() {
+        return this.retained;
+    }
+
+    /**
+     * The exact minimum of the observations summarized by this sketch, or NaN if the sketch is empty.
+     *
+     * @return the exact minimum of the observations summarized by this sketch.
+     */
+    public double min() {
+        return this.min;
+    }
+
+    /**
+     * The exact maximum of the observations summarized by this sketch, or NaN if the sketch is empty.
+     *
+     * @return the exact maximum of the observations summarized by this sketch.
+     */
+    public double max() {
+        return this.max;
+    }
+
+    /**
+     * The approximate median of the observations summarized by this sketch.
+     *
+     * @return the approximate median of the observations summarized by this sketch.
+     */
+    public double median() {
+        return quantile(0.5);
+    }
+
+    /**
+     * The approximate quantile of the observations summarized by this sketch for the given probability, or NaN if
+     * the sketch is empty.
+     *
+     * @param probability the probability, between 0 and 1 inclusive, of the quantile to compute.
+     * @return the approximate quantile for the given probability.
+     */
+    public double quantile(final double probability) {
+        if (probability < 0.0 || probability > 1.0) {
+            throw new IllegalArgumentException("The probability must be between 0 and 1, but was " + probability);
+        }
+        if (n == 0) {
+            return Double.NaN;
+        }
+        if (probability == 0.0) {
+            return min;
+        }
+        if (probability == 1.0) {
+            return max;
+        }
+        final WeightedValues sorted = sortedValues();
+        final double target = probability * sorted.totalWeight;
+        long cumulative = 0;
+        for (int i = 0; i < sorted.values.length; i++) {
+            cumulative += sorted.weights[i];
+            if (cumulative >= target) {
+                return sorted.values[i];
+            }
+        }
+        return max;
+    }
+
+    /**
+     * The approximate fraction of the observations summarized by this sketch that are less than or equal to the
+     * given value.
+     *
+     * @param value the value to compute the normalized rank of.
+     * @return the approximate fraction of the observations less than or equal to the given value.
+     */
+    public double rank(final double value) {
+        if (n == 0) {
+            return Double.NaN;
+        }
+        long weight = 0;
+        long total = 0;
+        for (int h = 0; h < numLevels; h++) {
+            final long levelWeight = 1L << h;
+            for (int i = 0; i < sizes[h]; i++) {
+                if (levels[h][i] <= value) {
+                    weight += levelWeight;
+                }
+            }
+            total += levelWeight * sizes[h];
+        }
+        return (double) weight / total;
+    }
+
+    // Sort each level on its own and merge the sorted levels, carrying the weight of each observation along.
+    private WeightedValues sortedValues() {
+        double[] values = new double[0];
+        long[] weights = new long[0];
+        long total = 0;
+        for (int h = 0; h < numLevels; h++) {
+            final double[] level = Arrays.copyOf(levels[h], sizes[h]);
+            Arrays.sort(level);
+            final long levelWeight = 1L << h;
+            total += levelWeight * level.length;
+            final double[] mergedValues = new double[values.length + level.length];
+            final long[] mergedWeights = new long[mergedValues.length];
+            int i = 0;
+            int j = 0;
+            for (int m = 0; m < mergedValues.length; m++) {
+                if (j == level.length || (i < values.length && values[i] <= level[j])) {
+                    mergedValues[m] = values[i];
+                    mergedWeights[m] = weights[i++];
+                } else {
+                    mergedValues[m] = level[j++];
+                    mergedWeights[m] = levelWeight;
+                }
+            }
+            values = mergedValues;
+            weights = mergedWeights;
+        }
+        return new WeightedValues(values, weights, total);
+    }
+
+    // Compact the lowest level that is at capacity, promoting half of its observations to the level above.
+    private void compress() {
+        for (int h = 0; h < numLevels; h++) {
+            if (sizes[h] >= capacity(h)) {
+                if (h + 1 >= numLevels) {
+                    grow();
+                }
+                final double[] level = levels[h];
+                final int size = sizes[h];
+                Arrays.sort(level, 0, size);
+                // An odd observation out stays behind at this level.
+                final int pairs = size / 2;
+                final int start = size - 2 * pairs;
+                final int offset = random.nextBoolean() ? 1 : 0;
+                final double[] promoted = new double[pairs];
+                for (int i = 0; i < pairs; i++) {
+                    promoted[i] = level[start + 2 * i + offset];
+                }
+                sizes[h] = start;
+                retained -= size - start;
+                append(h + 1, promoted, pairs);
+                if (retained < maxRetained) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void append(final int h, final double[] values, final int count) {
+        if (sizes[h] + count > levels[h].length) {
+            levels[h] = Arrays.copyOf(levels[h], Math.max(levels[h].length * 2, sizes[h] + count));
+        }
+        System.arraycopy(values, 0, levels[h], sizes[h], count);
+        sizes[h] += count;
+        retained += count;
+    }
+
+    private void grow() {
+        if (numLevels == levels.length) {
+            levels = Arrays.copyOf(levels, numLevels * 2);
+            sizes = Arrays.copyOf(sizes, numLevels * 2);
+        }
+        levels[numLevels] = new double[8];
+        numLevels++;
+        maxRetained = totalCapacity();
+    }
+
+    // Lower levels get geometrically smaller capacities, so most of the memory goes to the heaviest observations.
+    private int capacity(final int h) {
+        return (int) Math.ceil(k * Math.pow(CAPACITY_DECAY, numLevels - h - 1)) + 1;
+    }
+
+    private int totalCapacity() {
+        int total = 0;
+        for (int h = 0; h < numLevels; h++) {
+            total += capacity(h);
+        }
+        return total;
+    }
+
+    private static final class WeightedValues {
+
+        private final double[] values;
+        private final long[] weights;
+        private final long totalWeight;
+
+        private WeightedValues(final double[] values, final long[] weights, final long totalWeight) {
+            this.values = values;
+            this.weights = weights;
+            this.totalWeight = totalWeight;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "QuantileSketch(k=" + k + ", n=" + n + ", retained=" + retained + ", levels=" + numLevels + ")";
+    }
+}
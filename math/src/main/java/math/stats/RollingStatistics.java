@@ -0,0 +1,355 @@
+/*
+ * Copyright (c) 2017 Jacob Rachiele
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to
+ * do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+ * USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Contributors:
+ *
+ * Jacob Rachiele
+ */
+package math.stats;
+
+import java.util.Arrays;
+
+/**
+ * Static methods for computing statistics over a window sliding across an array of data.
+ * <p>
+ * Every windowed method returns an array of length n - window + 1, where n is the length of the data. The element
+ * at index t of the result is the statistic computed over the data from index t to index t + window - 1 inclusive.
+ * The moments and extrema are updated in constant amortized time per element, and the order statistics in
+ * logarithmic time, so no method is proportional to the product of the data length and the window size.
+ * </p>
+ *
+ * @author Jacob Rachiele
+ */
+public final class RollingStatistics {
+
+    private RollingStatistics() {}
+
+    /**
+     * Compute the sum of every window of the given size. Compensated summation is used so that error does not
+     * accumulate as the window slides.
+     *
+     * @param data   the data to compute the rolling sum of.
+     * @param window the number of observations in each window.
+     * @return the sum of every window of the given size.
+     */
+    public static double[] sumOf(final double[] data, final int window) {
+        validate(data, window);
+        final double[] sums = new double[data.length - window + 1];
+        double sum = 0.0;
+        double compensation = 0.0;
+        for (int i = 0; i < data.length; i++) {
+            // Neumaier's variant of Kahan summation, applied to the entering and leaving values in turn.
+            double t = sum + data[i];
+            compensation += (Math.abs(sum) >= Math.abs(data[i])) ? (sum - t) + data[i] : (data[i] - t) + sum;
+            sum = t;
+            if (i >= window) {
+                final double leaving = -data[i - window];
+                t = sum + leaving;
+                compensation += (Math.abs(sum) >= Math.abs(leaving)) ? (sum - t) + leaving : (leaving - t) + sum;
+                sum = t;
+            }
+            if (i >= window - 1) {
+                sums[i - window + 1] = sum + compensation;
+            }
+        }
+        return sums;
+    }
+
+    /**
+     * Compute the mean of every window of the given size.
+     *
+     * @param data   the data to compute the rolling mean of.
+     * @param window the number of observations in each window.
+     * @return the mean of every window of the given size.
+     */
+    public static double[] meanOf(final double[] data, final int window) {
+        final double[] means = sumOf(data, window);
+        for (int t = 0; t < means.length; t++) {
+            means[t] /= window;
+        }
+        return means;
+    }
+
+    /**
+     * Compute the unbiased sample variance of every window of the given size using Welford's updates.
+     *
+     * @param data   the data to compute the rolling variance of.
+     * @param window the number of observations in each window.
+     * @return the unbiased sample variance of every window of the given size.
+     */
+    public static double[] varianceOf(final double[] data, final int window) {
+        validate(data, window);
+        final double[] variances = new double[data.length - window + 1];
+        double mean = 0.0;
+        double sumOfSquaredDeviations = 0.0;
+        for (int i = 0; i < window; i++) {
+            final double delta = data[i] - mean;
+            mean += delta / (i + 1);
+            sumOfSquaredDeviations += delta * (data[i] - mean);
+        }
+        variances[0] = sumOfSquaredDeviations / (window - 1);
+        for (int i = window; i < data.length; i++) {
+            final double entering = data[i];
+            final double leaving = data[i - window];
+            final double newMean = mean + (entering - leaving) / window;
+            sumOfSquaredDeviations += (entering - leaving) * (entering - newMean + leaving - mean);
+            mean = newMean;
+            variances[i - window + 1] = Math.max(sumOfSquaredDeviations, 0.0) / (window - 1);
+        }
+        return variances;
+    }
+
+    /**
+     * Compute the unbiased sample standard deviation of every window of the given size.
+     *
+     * @param data   the data to compute the rolling standard deviation of.
+     * @param window the number of observations in each window.
+     * @return the unbiased sample standard deviation of every window of the given size.
+     */
+    public static double[] stdDeviationOf(final double[] data, final int window) {
+        final double[] deviations = varianceOf(data, window);
+        for (int t = 0; t < deviations.length; t++) {
+            deviations[t] = Math.sqrt(deviations[t]);
+        }
+        return deviations;
+    }
+
+    /**
+     * Compute the minimum of every window of the given size using a monotonic deque.
+     *
+     * @param data   the data to compute the rolling minimum of.
+     * @param window the number of observations in each window.
+     * @return the minimum of every window of the given size.
+     */
+    public static double[] minOf(final double[] data, final int window) {
+        return extremaOf(data, window, true);
+    }
+
+    /**
+     * Compute the maximum of every window of the given size using a monotonic deque.
+     *
+     * @param data   the data to compute the rolling maximum of.
+     * @param window the number of observations in each window.
+     * @return the maximum of every window of the given size.
+     */
+    public static double[] maxOf(final double[] data, final int window) {
+        return extremaOf(data, window, false);
+    }
+
+    /**
+     * Compute the median of every window of the given size.
+     *
+     * @param data   the data to compute the rolling median of.
+     * @param window the number of observations in each window.
+     * @return the median of every window of the given size.
+     */
+    public static double[] medianOf(final double[] data, final int window) {
+        return quantileOf(data, window, 0.5);
+    }
+
+    /**
+     * Compute the given sample quantile of every window of the given size. The quantile is computed by linear
+     * interpolation between the two closest order statistics, the same definition as R's default (type 7), so that
+     * the 0.5 quantile is the median.
+     * <p>
+     * The data is ranked once up front, after which the window is maintained as a Fenwick tree of rank counts.
+     * Inserting, removing and selecting the k-th smallest value in the window each take logarithmic time.
+     * </p>
+     *
+     * @param data        the data to compute the rolling quantile of.
+     * @param window      the number of observations in each window.
+     * @param probability the probability, between 0 and 1 inclusive, of the quantile to compute.
+     * @return the given sample quantile of every window of the given size.
+     */
+    public static double[] quantileOf(final double[] data, final int window, final double probability) {
+        validate(data, window);
+        if (probability < 0.0 || probability > 1.0) {
+            throw new IllegalArgumentException("The probability must be between 0 and 1, but was " + probability);
+        }
+        final int n = data.length;
+        final int[] order = rankOrder(data);
+        final int[] ranks = new int[n];
+        for (int r = 0; r < n; r++) {
+            ranks[order[r]] = r;
+        }
+        final double h = (window - 1) * probability;
+        final int lowerRank = (int) Math.floor(h);
+        final int upperRank = Math.min(lowerRank + 1, window - 1);
+        final double weight = h - lowerRank;
+        final int[] tree = new int[n + 1];
+        final double[] quantiles = new double[n - window + 1];
+        for (int i = 0; i < n; i++) {
+            update(tree, ranks[i], 1);
+            if (i >= window) {
+                update(tree, ranks[i - window], -1);
+            }
+            if (i >= window - 1) {
+                final double lower = data[order[select(tree, lowerRank)]];
+                if (weight == 0.0) {
+                    quantiles[i - window + 1] = lower;
+                } else {
+                    final double upper = data[order[select(tree, upperRank)]];
+                    quantiles[i - window + 1] = lower + weight * (upper - lower);
+                }
+            }
+        }
+        return quantiles;
+    }
+
+    /**
+     * Compute the exponentially weighted moving average of the given data. The first element of the result is the
+     * first observation, and each subsequent element is the weighted combination
+     * alpha &times; x<sub>t</sub> + (1 - alpha) &times; m<sub>t-1</sub>.
+     *
+     * @param data  the data to compute the exponentially weighted moving average of.
+     * @param alpha the smoothing parameter, strictly greater than 0 and at most 1.
+     * @return the exponentially weighted moving average of the given data.
+     */
+    public static double[] exponentialMeanOf(final double[] data, final double alpha) {
+        validateAlpha(alpha);
+        final double[] means = new double[data.length];
+        if (data.length == 0) {
+            return means;
+        }
+        double mean = data[0];
+        means[0] = mean;
+        for (int t = 1; t < data.length; t++) {
+            mean += alpha * (data[t] - mean);
+            means[t] = mean;
+        }
+        return means;
+    }
+
+    /**
+     * Compute the exponentially weighted moving variance of the given data, using the incremental update of the
+     * weighted mean and variance given by West (1979). The first element of the result is 0.
+     *
+     * @param data  the data to compute the exponentially weighted moving variance of.
+     * @param alpha the smoothing parameter, strictly greater than 0 and at most 1.
+     * @return the exponentially weighted moving variance of the given data.
+     */
+    public static double[] exponentialVarianceOf(final double[] data, final double alpha) {
+        validateAlpha(alpha);
+        final double[] variances = new double[data.length];
+        if (data.length == 0) {
+            return variances;
+        }
+        double mean = data[0];
+        double variance = 0.0;
+        for (int t = 1; t < data.length; t++) {
+            final double delta = data[t] - mean;
+            final double increment = alpha * delta;
+            mean += increment;
+            variance = (1 - alpha) * (variance + delta * increment);
+            variances[t] = variance;
+        }
+        return variances;
+    }
+
+    private static double[] extremaOf(final double[] data, final int window, final boolean minimum) {
+        validate(data, window);
+        final double[] extrema = new double[data.length - window + 1];
+        // A ring buffer of indices whose values are monotone from head to tail.
+        final int[] deque = new int[window];
+        int head = 0;
+        int size = 0;
+        for (int i = 0; i < data.length; i++) {
+            if (size > 0 && deque[head] <= i - window) {
+                head = (head + 1) % window;
+                size--;
+            }
+            while (size > 0) {
+                final double last = data[deque[(head + size - 1) % window]];
+                if (minimum ? last >= data[i] : last <= data[i]) {
+                    size--;
+                } else {
+                    break;
+                }
+            }
+            deque[(head + size) % window] = i;
+            size++;
+            if (i >= window - 1) {
+                extrema[i - window + 1] = data[deque[head]];
+            }
+        }
+        return extrema;
+    }
+
+    // Return the indices of the data in ascending order of their values, with ties broken by index.
+    private static int[] rankOrder(final double[] data) {
+        final double[] sorted = data.clone();
+        Arrays.sort(sorted);
+        final int[] taken = new int[data.length];
+        final int[] order = new int[data.length];
+        for (int i = 0; i < data.length; i++) {
+            final int position = lowerBound(sorted, data[i]);
+            order[position + taken[position]] = i;
+            taken[position]++;
+        }
+        return order;
+    }
+
+    private static int lowerBound(final double[] sorted, final double value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (Double.compare(sorted[mid], value) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static void update(final int[] tree, final int rank, final int delta) {
+        for (int i = rank + 1; i < tree.length; i += i & (-i)) {
+            tree[i] += delta;
+        }
+    }
+
+    // Find the rank of the k-th smallest element (zero-based) currently counted in the tree.
+    private static int select(final int[] tree, int k) {
+        int position = 0;
+        int step = Integer.highestOneBit(tree.length - 1);
+        while (step > 0) {
+            final int next = position + step;
+            if (next < tree.length && tree[next] <= k) {
+                position = next;
+                k -= tree[next];
+            }
+            step >>= 1;
+        }
+        return position;
+    }
+
+    private static void validate(final double[] data, final int window) {
+        if (window < 1 || window > data.length) {
+            throw new IllegalArgumentException("The window size must be between 1 and the length of the data, " +
+                                               "but was " + window + " for data of length " + data.length);
+        }
+    }
+
+    private static void validateAlpha(final double alpha) {
+        if (alpha <= 0.0 || alpha > 1.0) {
+            throw new IllegalArgumentException("The smoothing parameter must be in (0, 1], but was " + alpha);
+        }
+    }
+}
@@ -24,24 +24,31 @@
 package math.stats;
 
 import java.util.Arrays;
-
-import static math.operations.Operators.productOf;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
 
 /**
  * Static methods for computing basic statistics.
+ * <p>
+ * The sums and moments are computed in a single pass with mergeable accumulators: compensated summation and
+ * Welford's updates within fixed-size blocks of the data, and pairwise merges (Chan's formulas for the moments)
+ * between blocks. Arrays of at least {@value #PARALLEL_THRESHOLD} elements are reduced in parallel on the common
+ * fork/join pool. The blocks and the order in which they are merged depend only on the length of the data, so the
+ * result is the same regardless of the number of threads used to compute it.
+ * </p>
  *
  * @author Jacob Rachiele
  */
 public final class Statistics {
 
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+    private static final int BLOCK_SIZE = 1 << 10;
+
     private Statistics() {}
 
     public static double sumOf(final double[] data) {
-        double sum = 0.0;
-        for (double element : data) {
-            sum += element;
-        }
-        return sum;
+        return reduce(data.length, (from, to) -> compensatedSumOf(data, from, to), Double::sum);
     }
 
     public static double meanOf(final double[] data) {
@@ -50,8 +57,7 @@ public final class Statistics {
     }
 
     public static double varianceOf(final double[] data) {
-        final int n = data.length;
-        return sumOfSquaredDifferences(data, meanOf(data)) / (n - 1);
+        return momentsOf(data).variance();
     }
 
     public static double stdDeviationOf(final double[] data) {
@@ -59,11 +65,32 @@ public final class Statistics {
     }
 
     public static double sumOfSquared(final double[] data) {
-        return sumOf(squared(data));
+        return reduce(data.length, (from, to) -> {
+            double sum = 0.0;
+            double compensation = 0.0;
+            for (int i = from; i < to; i++) {
+                final double square = data[i] * data[i];
+                final double t = sum + square;
+                compensation += (sum >= square) ? (sum - t) + square : (square - t) + sum;
+                sum = t;
+            }
+            return sum + compensation;
+        }, Double::sum);
     }
 
     static double sumOfSquaredDifferences(final double[] data, final double point) {
-        return sumOf(squared(differences(data, point)));
+        return reduce(data.length, (from, to) -> {
+            double sum = 0.0;
+            double compensation = 0.0;
+            for (int i = from; i < to; i++) {
+                final double difference = data[i] - point;
+                final double square = difference * difference;
+                final double t = sum + square;
+                compensation += (sum >= square) ? (sum - t) + square : (square - t) + sum;
+                sum = t;
+            }
+            return sum + compensation;
+        }, Double::sum);
     }
 
     static double[] squared(final double[] data) {
@@ -83,22 +110,310 @@ public final class Statistics {
     }
 
     public static double covarianceOf(final double[] data, final double[] data2) {
-        return sumOf(productOf(differences(data, meanOf(data)), differences(data2, meanOf(data2)))) / (data.length - 1);
+        return coMomentsOf(data, data2).covariance();
     }
 
     public static double correlationOf(final double[] data, final double[] data2) {
-        return covarianceOf(data, data2) / (stdDeviationOf(data) * stdDeviationOf(data2));
+        return coMomentsOf(data, data2).correlation();
     }
 
-    // Arrays.sort uses quicksort algorithm as of Java 8.
+    /**
+     * Compute the median of the given data by selection, in time linear in the length of the data. The given array
+     * is not modified.
+     *
+     * @param data the data to compute the median of.
+     * @return the median of the given data.
+     */
     public static double medianOf(final double[] data) {
-        double[] sorted = data.clone();
-        Arrays.sort(sorted);
-        if (sorted.length % 2 == 0) {
-            return (sorted[(sorted.length / 2) - 1] + sorted[(sorted.length / 2)]) / 2.0;
-        } else {
-            return sorted[(sorted.length - 1) / 2];
+        return quantileOf(data, 0.5);
+    }
+
+    /**
+     * Compute the given sample quantile of the data by selection, in time linear in the length of the data. The
+     * quantile is computed by linear interpolation between the two closest order statistics, the same definition as
+     * R's default (type 7), so that the 0.5 quantile is the median. NaN values are ordered after every other value,
+     * as they are by {@link Arrays#sort(double[])}. The given array is not modified.
+     *
+     * @param data        the data to compute the quantile of.
+     * @param probability the probability, between 0 and 1 inclusive, of the quantile to compute.
+     * @return the given sample quantile of the data.
+     */
+    public static double quantileOf(final double[] data, final double probability) {
+        if (probability < 0.0 || probability > 1.0) {
+            throw new IllegalArgumentException("The probability must be between 0 and 1, but was " + probability);
+        }
+        if (data.length == 0) {
+            return Double.NaN;
+        }
+        // Copy the data with any NaN values moved to the end, where a sort would have put them.
+        final double[] work = new double[data.length];
+        int numbers = 0;
+        int end = work.length;
+        for (double value : data) {
+            if (value != value) {
+                work[--end] = value;
+            } else {
+                work[numbers++] = value;
+            }
+        }
+        final double h = (data.length - 1) * probability;
+        final int lower = (int) Math.floor(h);
+        final double weight = h - lower;
+        if (lower >= numbers) {
+            return Double.NaN;
+        }
+        final double lowerValue = select(work, 0, numbers, lower);
+        if (weight == 0.0) {
+            return lowerValue;
+        }
+        if (lower + 1 >= numbers) {
+            return Double.NaN;
+        }
+        // After selection every element to the right of the lower order statistic is at least as large as it.
+        double upperValue = work[lower + 1];
+        for (int i = lower + 2; i < numbers; i++) {
+            upperValue = Math.min(upperValue, work[i]);
+        }
+        return lowerValue + weight * (upperValue - lowerValue);
+    }
+
+    // Rearrange the range so that the element at index k is the one a sort would put there, with no larger element
+    // to its left and no smaller element to its right. Quickselect with a median-of-three pivot, falling back to a
+    // sort of the remaining range if partitioning degrades, so the worst case stays O(n log n).
+    private static double select(final double[] data, int from, int to, final int k) {
+        int depthLimit = 2 * (32 - Integer.numberOfLeadingZeros(to - from));
+        while (to - from > 16) {
+            if (depthLimit-- == 0) {
+                Arrays.sort(data, from, to);
+                return data[k];
+            }
+            final int mid = (from + to) >>> 1;
+            final double pivot = medianOfThree(data[from], data[mid], data[to - 1]);
+            int i = from;
+            int j = to - 1;
+            while (i <= j) {
+                while (data[i] < pivot) {
+                    i++;
+                }
+                while (data[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    final double tmp = data[i];
+                    data[i] = data[j];
+                    data[j] = tmp;
+                    i++;
+                    j--;
+                }
+            }
+            // Elements between j and i are equal to the pivot.
+            if (k <= j) {
+                to = j + 1;
+            } else if (k >= i) {
+                from = i;
+            } else {
+                return data[k];
+            }
+        }
+        Arrays.sort(data, from, to);
+        return data[k];
+    }
+
+    private static double medianOfThree(final double a, final double b, final double c) {
+        return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+    }
+
+    private static Moments momentsOf(final double[] data) {
+        return reduce(data.length, (from, to) -> {
+            double mean = 0.0;
+            double sumOfSquaredDeviations = 0.0;
+            for (int i = from; i < to; i++) {
+                final double delta = data[i] - mean;
+                mean += delta / (i - from + 1);
+                sumOfSquaredDeviations += delta * (data[i] - mean);
+            }
+            return new Moments(to - from, mean, sumOfSquaredDeviations);
+        }, Moments::merge);
+    }
+
+    private static CoMoments coMomentsOf(final double[] data, final double[] data2) {
+        if (data.length != data2.length) {
+            throw new IllegalArgumentException("The data arrays must have the same length.");
+        }
+        return reduce(data.length, (from, to) -> {
+            double meanX = 0.0;
+            double meanY = 0.0;
+            double m2X = 0.0;
+            double m2Y = 0.0;
+            double coMoment = 0.0;
+            for (int i = from; i < to; i++) {
+                final int n = i - from + 1;
+                final double deltaX = data[i] - meanX;
+                final double deltaY = data2[i] - meanY;
+                meanX += deltaX / n;
+                meanY += deltaY / n;
+                m2X += deltaX * (data[i] - meanX);
+                m2Y += deltaY * (data2[i] - meanY);
+                coMoment += deltaX * (data2[i] - meanY);
+            }
+            return new CoMoments(to - from, meanX, meanY, m2X, m2Y, coMoment);
+        }, CoMoments::merge);
+    }
+
+    // Neumaier's variant of Kahan summation.
+    private static double compensatedSumOf(final double[] data, final int from, final int to) {
+        double sum = 0.0;
+        double compensation = 0.0;
+        for (int i = from; i < to; i++) {
+            final double t = sum + data[i];
+            compensation += (Math.abs(sum) >= Math.abs(data[i])) ? (sum - t) + data[i] : (data[i] - t) + sum;
+            sum = t;
+        }
+        return sum + compensation;
+    }
+
+    static <T> T reduce(final int length, final BlockReducer<T> reducer, final BinaryOperator<T> merger) {
+        if (length < PARALLEL_THRESHOLD) {
+            return reduce(0, length, reducer, merger);
+        }
+        return ForkJoinPool.commonPool().invoke(new Reduction<>(0, length, reducer, merger));
+    }
+
+    // Split at the midpoint of the blocks, rather than of the elements, so the tree depends only on the length.
+    private static <T> T reduce(final int from, final int to, final BlockReducer<T> reducer,
+                                final BinaryOperator<T> merger) {
+        if (to - from <= BLOCK_SIZE) {
+            return reducer.reduce(from, to);
         }
+        final int mid = midpoint(from, to);
+        return merger.apply(reduce(from, mid, reducer, merger), reduce(mid, to, reducer, merger));
     }
 
+    private static int midpoint(final int from, final int to) {
+        final int blocks = (to - from + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        return from + (blocks / 2) * BLOCK_SIZE;
+    }
+
+    @FunctionalInterface
+    interface BlockReducer<T> {
+        T reduce(int from, int to);
+    }
+
+    /**
+     * Reduces the same tree of blocks as the sequential reduction, forking the two halves of every node that is
+     * itself at least as large as the parallel threshold.
+     */
+    private static final class Reduction<T> extends RecursiveTask<T> {
+
+        private static final long serialVersionUID = 5728142730919374863L;
+
+        private final int from;
+        private final int to;
+        private final BlockReducer<T> reducer;
+        private final BinaryOperator<T> merger;
+
+        private Reduction(final int from, final int to, final BlockReducer<T> reducer,
+                          final BinaryOperator<T> merger) {
+            this.from = from;
+            this.to = to;
+            this.reducer = reducer;
+            this.merger = merger;
+        }
+
+        @Override
+        protected T compute() {
+            if (to - from < PARALLEL_THRESHOLD) {
+                return reduce(from, to, reducer, merger);
+            }
+            final int mid = midpoint(from, to);
+            final Reduction<T> left = new Reduction<>(from, mid, reducer, merger);
+            left.fork();
+            final T right = new Reduction<>(mid, to, reducer, merger).compute();
+            return merger.apply(left.join(), right);
+        }
+    }
+
+    /**
+     * The count, mean, and sum of squared deviations from the mean of a block of data.
+     */
+    private static final class Moments {
+
+        private final long n;
+        private final double mean;
+        private final double sumOfSquaredDeviations;
+
+        private Moments(final long n, final double mean, final double sumOfSquaredDeviations) {
+            this.n = n;
+            this.mean = mean;
+            this.sumOfSquaredDeviations = sumOfSquaredDeviations;
+        }
+
+        // Chan, Golub and LeVeque's pairwise update.
+        private Moments merge(final Moments other) {
+            if (other.n == 0) {
+                return this;
+            }
+            if (this.n == 0) {
+                return other;
+            }
+            final long count = this.n + other.n;
+            final double delta = other.mean - this.mean;
+            final double mean = this.mean + delta * other.n / count;
+            final double m2 = this.sumOfSquaredDeviations + other.sumOfSquaredDeviations +
+                              delta * delta * ((double) this.n * other.n / count);
+            return new Moments(count, mean, m2);
+        }
+
+        private double variance() {
+            return (n < 2) ? Double.NaN : sumOfSquaredDeviations / (n - 1);
+        }
+    }
+
+    /**
+     * The count, means, sums of squared deviations, and sum of cross deviations of a block of paired data.
+     */
+    private static final class CoMoments {
+
+        private final long n;
+        private final double meanX;
+        private final double meanY;
+        private final double m2X;
+        private final double m2Y;
+        private final double coMoment;
+
+        private CoMoments(final long n, final double meanX, final double meanY, final double m2X, final double m2Y,
+                          final double coMoment) {
+            this.n = n;
+            this.meanX = meanX;
+            this.meanY = meanY;
+            this.m2X = m2X;
+            this.m2Y = m2Y;
+            this.coMoment = coMoment;
+        }
+
+        private CoMoments merge(final CoMoments other) {
+            if (other.n == 0) {
+                return this;
+            }
+            if (this.n == 0) {
+                return other;
+            }
+            final long count = this.n + other.n;
+            final double deltaX = other.meanX - this.meanX;
+            final double deltaY = other.meanY - this.meanY;
+            final double weight = (double) this.n * other.n / count;
+            return new CoMoments(count, this.meanX + deltaX * other.n / count, this.meanY + deltaY * other.n / count,
+                                 this.m2X + other.m2X + deltaX * deltaX * weight,
+                                 this.m2Y + other.m2Y + deltaY * deltaY * weight,
+                                 this.coMoment + other.coMoment + deltaX * deltaY * weight);
+        }
+
+        private double covariance() {
+            return (n < 2) ? Double.NaN : coMoment / (n - 1);
+        }
+
+        private double correlation() {
+            return coMoment / Math.sqrt(m2X * m2Y);
+        }
+    }
 }
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2017 Jacob Rachiele
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to
+ * do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+ * USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Contributors:
+ *
+ * Jacob Rachiele
+ */
+package math.stats;
+
+/**
+ * The count, sum, sum of squares, mean, variance, and extrema of a collection of observations, all computed together
+ * in a single pass over the data. This class is immutable and thread-safe.
+ *
+ * @author Jacob Rachiele
+ */
+public final class SummaryStatistics {
+
+    private final long n;
+    private final double sum;
+    private final double sumOfSquares;
+    private final double runningMean;
+    private final double sumOfSquaredDeviations;
+    private final double min;
+    private final double max;
+
+    SummaryStatistics(final long n, final double sum, final double sumOfSquares, final double runningMean,
+                      final double sumOfSquaredDeviations, final double min, final double max) {
+        this.n = n;
+        this.sum = sum;
+        this.sumOfSquares = sumOfSquares;
+        this.runningMean = runningMean;
+        this.sumOfSquaredDeviations = sumOfSquaredDeviations;
+        this.min = min;
+        this.max = max;
+    }
+
+    /**
+     * Compute the summary statistics of the given data. The reduction is performed over the same blocks, and merged
+     * in the same order, as the individual methods of {@link Statistics}, so each statistic agrees exactly with the
+     * one computed by the corresponding method.
+     *
+     * @param data the data to summarize.
+     * @return the summary statistics of the given data.
+     */
+    public static SummaryStatistics of(final double[] data) {
+        return Statistics.reduce(data.length, (from, to) -> {
+            double sum = 0.0;
+            double sumCompensation = 0.0;
+            double sumOfSquares = 0.0;
+            double squaresCompensation = 0.0;
+            double mean = 0.0;
+            double sumOfSquaredDeviations = 0.0;
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            for (int i = from; i < to; i++) {
+                final double value = data[i];
+                double t = sum + value;
+                sumCompensation += (Math.abs(sum) >= Math.abs(value)) ? (sum - t) + value : (value - t) + sum;
+                sum = t;
+                final double square = value * value;
+                t = sumOfSquares + square;
+                squaresCompensation += (sumOfSquares >= square) ? (sumOfSquares - t) + square
+                                                                : (square - t) + sumOfSquares;
+                sumOfSquares = t;
+                final double delta = value - mean;
+                mean += delta / (i - from + 1);
+                sumOfSquaredDeviations += delta * (value - mean);
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+            return new SummaryStatistics(to - from, sum + sumCompensation, sumOfSquares + squaresCompensation, mean,
+                                         sumOfSquaredDeviations, min, max);
+        }, SummaryStatistics::merge);
+    }
+
+    // Sums are merged by plain addition and the moments by Chan, Golub and LeVeque's pairwise update.
+    private SummaryStatistics merge(final SummaryStatistics other) {
+        final long count = this.n + other.n;
+        if (other.n == 0 || this.n == 0) {
+            final SummaryStatistics nonEmpty = (other.n == 0) ? this : other;
+            return new SummaryStatistics(count, this.sum + other.sum, this.sumOfSquares + other.sumOfSquares,
+                                         nonEmpty.runningMean, nonEmpty.sumOfSquaredDeviations,
+                                         Math.min(this.min, other.min), Math.max(this.max, other.max));
+        }
+        final double delta = other.runningMean - this.runningMean;
+        return new SummaryStatistics(count, this.sum + other.sum, this.sumOfSquares + other.sumOfSquares,
+                                     this.runningMean + delta * other.n / count,
+                                     this.sumOfSquaredDeviations + other.sumOfSquaredDeviations +
+                                     delta * delta * ((double) this.n * other.n / count),
+                                     Math.min(this.min, other.min), Math.max(this.max, other.max));
+    }
+
+    /**
+     * The number of observations.
+     *
+     * @return the number of observations.
+     */
+    public long size() {
+        return this.n;
+    }
+
+    /**
+     * The sum of the observations.
+     *
+     * @return the sum of the observations.
+     */
+    public double sum() {
+        return this.sum;
+    }
+
+    /**
+     * The sum of the squared observations.
+     *
+     * @return the sum of the squared observations.
+     */
+    public double sumOfSquares() {
+        return this.sumOfSquares;
+    }
+
+    /**
+     * The mean of the observations, computed as the sum divided by the number of observations.
+     *
+     * @return the mean of the observations.
+     */
+    public double mean() {
+        return this.sum / this.n;
+    }
+
+    /**
+     * The unbiased sample variance of the observations.
+     *
+     * @return the unbiased sample variance of the observations.
+     */
+    public double variance() {
+        return (n < 2) ? Double.NaN : sumOfSquaredDeviations / (n - 1);
+    }
+
+    /**
+     * The unbiased sample standard deviation of the observations.
+     *
+     * @return the unbiased sample standard deviation of the observations.
+     */
+    public double stdDeviation() {
+        return Math.sqrt(variance());
+    }
+
+    /**
+     * The smallest observation, or positive infinity if there are no observations.
+     *
+     * @return the smallest observation.
+     */
+    public double min() {
+        return this.min;
+    }
+
+    /**
+     * The largest observation, or negative infinity if there are no observations.
+     *
+     * @return the largest observation.
+     */
+    public double max() {
+        return this.max;
+    }
+
+    @Override
+    public String toString() {
+        return "SummaryStatistics(n=" + n + ", mean=" + mean() + ", variance=" + variance() + ", min=" + min +
+               ", max=" + max + ")";
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2017 Jacob Rachiele
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to
+ * do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+ * USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Contributors:
+ *
+ * Jacob Rachiele
+ */
+package math.operations;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD implementations of the kernels in {@link DoubleKernels}, written against the incubating vector API. This
+ * class must only be loaded once the {@code jdk.incubator.vector} module is known to be present.
+ * <p>
+ * Each element-wise kernel performs the same multiplications and additions on each element as its scalar
+ * counterpart, rounding after each one, so the results are identical. Fused multiply-adds are deliberately not
+ * used: they would change the results, and are emulated slowly on hardware without them.
+ * </p>
+ *
+ * @author Jacob Rachiele
+ */
+final class VectorKernels {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    private static final int LANES = SPECIES.length();
+
+    private VectorKernels() {}
+
+    // Two vector accumulators hide the latency of the additions, much as the scalar version's four do.
+    static double dot(final double[] x, final int xOffset, final double[] y, final int yOffset, final int length) {
+        DoubleVector s0 = DoubleVector.zero(SPECIES);
+        DoubleVector s1 = DoubleVector.zero(SPECIES);
+        int i = 0;
+        for (; i + 2 * LANES <= length; i += 2 * LANES) {
+            s0 = DoubleVector.fromArray(SPECIES, x, xOffset + i)
+                             .mul(DoubleVector.fromArray(SPECIES, y, yOffset + i)).add(s0);
+            s1 = DoubleVector.fromArray(SPECIES, x, xOffset + i + LANES)
+                             .mul(DoubleVector.fromArray(SPECIES, y, yOffset + i + LANES)).add(s1);
+        }
+        double sum = s0.add(s1).reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) {
+            sum += x[xOffset + i] * y[yOffset + i];
+        }
+        return sum;
+    }
+
+    static void axpy(final double alpha, final double[] x, final int xOffset, final double[] y, final int yOffset,
+                     final int length) {
+        final int bound = SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += LANES) {
+            DoubleVector.fromArray(SPECIES, x, xOffset + i).mul(alpha)
+                        .add(DoubleVector.fromArray(SPECIES, y, yOffset + i))
+                        .intoArray(y, yOffset + i);
+        }
+        for (; i < length; i++) {
+            y[yOffset + i] += alpha * x[xOffset + i];
+        }
+    }
+
+    static void axpyInto(final double[] destination, final double alpha, final double[] x, final double[] y,
+                         final int length) {
+        final int bound = SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += LANES) {
+            DoubleVector.fromArray(SPECIES, x, i).mul(alpha)
+                        .add(DoubleVector.fromArray(SPECIES, y, i))
+                        .intoArray(destination, i);
+        }
+        for (; i < length; i++) {
+            destination[i] = alpha * x[i] + y[i];
+        }
+    }
+
+    static void addInto(final double[] destination, final double[] left, final double[] right, final int length) {
+        final int bound = SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += LANES) {
+            DoubleVector.fromArray(SPECIES, left, i).add(DoubleVector.fromArray(SPECIES, right, i))
+                        .intoArray(destination, i);
+        }
+        for (; i < length; i++) {
+            destination[i] = left[i] + right[i];
+        }
+    }
+
+    static void subtractInto(final double[] destination, final double[] left, final double[] right,
+                             final int length) {
+        final int bound = SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += LANES) {
+            DoubleVector.fromArray(SPECIES, left, i).sub(DoubleVector.fromArray(SPECIES, right, i))
+                        .intoArray(destination, i);
+        }
+        for (; i < length; i++) {
+            destination[i] = left[i] - right[i];
+        }
+    }
+
+    static void multiplyInto(final double[] destination, final double[] left, final double[] right,
+                             final int length) {
+        final int bound = SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += LANES) {
+            DoubleVector.fromArray(SPECIES, left, i).mul(DoubleVector.fromArray(SPECIES, right, i))
+                        .intoArray(destination, i);
+        }
+        for (; i < length; i++) {
+            destination[i] = left[i] * right[i];
+        }
+    }
+
+    static void scaleInto(final double[] destination, final double[] x, final double alpha, final int length) {
+        final int bound = SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += LANES) {
+            DoubleVector.fromArray(SPECIES, x, i).mul(alpha).intoArray(destination, i);
+        }
+        for (; i < length; i++) {
+            destination[i] = alpha * x[i];
+        }
+    }
+
+    static void scaledDifferenceInto(final double[] destination, final double alpha, final double[] left,
+                                     final double[] right, final int length) {
+        final int bound = SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += LANES) {
+            DoubleVector.fromArray(SPECIES, left, i).sub(DoubleVector.fromArray(SPECIES, right, i)).mul(alpha)
+                        .intoArray(destination, i);
+        }
+        for (; i < length; i++) {
+            destination[i] = alpha * (left[i] - right[i]);
+        }
+    }
+}
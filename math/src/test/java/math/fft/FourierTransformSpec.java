@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2017 Jacob Rachiele
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to
+ * do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+ * USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Contributors:
+ *
+ * Jacob Rachiele
+ */
+package math.fft;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertArrayEquals;
+
+public class FourierTransformSpec {
+
+    // Powers of two, mixed radices, lengths needing Bluestein's algorithm, and even lengths whose halves need it.
+    private static final int[] LENGTHS = {1, 2, 3, 4, 5, 6, 7, 8, 9, 12, 13, 15, 16, 17, 19, 22, 26, 34, 49, 97,
+                                          100, 128, 210, 254, 1000};
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    private final Random random = new Random(7);
+
+    @Test
+    public void whenForwardTransformThenSameAsDirectTransform() {
+        for (int n : LENGTHS) {
+            double[] x = randomArray(2 * n);
+            assertArrayEquals("n = " + n, directTransform(x), FourierTransform.of(n).forward(x), 1E-10 * n);
+        }
+    }
+
+    @Test
+    public void whenInverseOfForwardThenOriginalSequence() {
+        for (int n : LENGTHS) {
+            FourierTransform transform = FourierTransform.of(n);
+            double[] x = randomArray(2 * n);
+            assertArrayEquals("n = " + n, x, transform.inverse(transform.forward(x)), 1E-12 * n);
+        }
+    }
+
+    @Test
+    public void whenTransformedInPlaceThenSameAsIntoNewArray() {
+        for (int n : LENGTHS) {
+            FourierTransform transform = FourierTransform.of(n);
+            double[] x = randomArray(2 * n);
+            double[] expected = transform.forward(x);
+            assertArrayEquals(expected, transform.forwardInto(x, x), 0.0);
+            double[] inverse = transform.inverse(x);
+            assertArrayEquals(inverse, transform.inverseInto(x, x), 0.0);
+        }
+    }
+
+    @Test
+    public void whenRealForwardTransformThenFirstHalfOfComplexTransform() {
+        for (int n : LENGTHS) {
+            double[] x = randomArray(n);
+            double[] complex = new double[2 * n];
+            for (int k = 0; k < n; k++) {
+                complex[2 * k] = x[k];
+            }
+            double[] expected = Arrays.copyOf(directTransform(complex), 2 * (n / 2 + 1));
+            assertArrayEquals("n = " + n, expected, FourierTransform.of(n).realForward(x), 1E-10 * n);
+        }
+    }
+
+    @Test
+    public void whenRealInverseOfRealForwardThenOriginalSequence() {
+        for (int n : LENGTHS) {
+            FourierTransform transform = FourierTransform.of(n);
+            double[] x = randomArray(n);
+            assertArrayEquals("n = " + n, x, transform.realInverse(transform.realForward(x)), 1E-12 * n);
+        }
+    }
+
+    @Test
+    public void whenTransformedOnManyThreadsThenSameAsOnOneThread() {
+        FourierTransform transform = FourierTransform.of(97);
+        double[][] sequences = new double[64][];
+        double[][] expected = new double[64][];
+        for (int i = 0; i < sequences.length; i++) {
+            sequences[i] = randomArray(194);
+            expected[i] = transform.forward(sequences[i]);
+        }
+        double[][] results = new double[64][];
+        IntStream.range(0, 64).parallel().forEach(i -> results[i] = transform.forward(sequences[i]));
+        for (int i = 0; i < sequences.length; i++) {
+            assertArrayEquals(expected[i], results[i], 0.0);
+        }
+    }
+
+    @Test
+    public void whenPlanRequestedTwiceThenCachedPlanReturned() {
+        assertThat(FourierTransform.of(24), is(sameInstance(FourierTransform.of(24))));
+        assertThat(FourierTransform.of(24).length(), is(24));
+    }
+
+    @Test
+    public void whenFastLengthThenSmallestProductOfTwoThreeAndFive() {
+        assertThat(FourierTransform.fastLength(1), is(1));
+        assertThat(FourierTransform.fastLength(7), is(8));
+        assertThat(FourierTransform.fastLength(11), is(12));
+        assertThat(FourierTransform.fastLength(97), is(100));
+        assertThat(FourierTransform.fastLength(1025), is(1080));
+    }
+
+    @Test
+    public void whenLengthNotPositiveThenIllegalArgument() {
+        exception.expect(IllegalArgumentException.class);
+        FourierTransform.of(0);
+    }
+
+    @Test
+    public void whenSequenceLengthWrongThenIllegalArgument() {
+        exception.expect(IllegalArgumentException.class);
+        FourierTransform.of(8).realForward(new double[7]);
+    }
+
+    private double[] randomArray(final int length) {
+        double[] array = new double[length];
+        for (int i = 0; i < length; i++) {
+            array[i] = random.nextGaussian();
+        }
+        return array;
+    }
+
+    private static double[] directTransform(final double[] x) {
+        final int n = x.length / 2;
+        final double[] transform = new double[2 * n];
+        for (int j = 0; j < n; j++) {
+            for (int k = 0; k < n; k++) {
+                final double angle = -2.0 * Math.PI * (((long) j * k) % n) / n;
+                transform[2 * j] += x[2 * k] * Math.cos(angle) - x[2 * k + 1] * Math.sin(angle);
+                transform[2 * j + 1] += x[2 * k] * Math.sin(angle) + x[2 * k + 1] * Math.cos(angle);
+            }
+        }
+        return transform;
+    }
+}
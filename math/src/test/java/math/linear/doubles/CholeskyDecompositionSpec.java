@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2017 Jacob Rachiele
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to
+ * do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+ * USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Contributors:
+ *
+ * Jacob Rachiele
+ */
+package math.linear.doubles;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class CholeskyDecompositionSpec {
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    private final Matrix A = Matrix.create(3, 3, new double[] {4.0, 12.0, -16.0, 12.0, 37.0, -43.0, -16.0, -43.0, 98.0});
+
+    @Test
+    public void whenDecomposedThenLowerFactorCorrect() {
+        Matrix expected = Matrix.create(3, 3, new double[] {2.0, 0.0, 0.0, 6.0, 1.0, 0.0, -8.0, 5.0, 3.0});
+        assertThat(A.cholesky().lower(), is(expected));
+        assertThat(A.cholesky().logDeterminant(), is(closeTo(Math.log(36.0), 1E-12)));
+    }
+
+    @Test
+    public void whenSolvedThenSolutionSatisfiesSystem() {
+        double[] b = {1.0, 2.0, 3.0};
+        double[] x = A.cholesky().solveInto(new double[3], b);
+        double[] Ax = A.timesInto(new double[3], x);
+        for (int i = 0; i < 3; i++) {
+            assertThat(Ax[i], is(closeTo(b[i], 1E-10)));
+        }
+    }
+
+    @Test
+    public void whenWorkspaceReusedThenNewFactorComputed() {
+        CholeskyDecomposition workspace = new CholeskyDecomposition(3);
+        assertThat(workspace.decompose(A), is(true));
+        assertThat(workspace.decompose(Matrices.identity(3)), is(true));
+        assertThat(workspace.lower(), is(Matrices.identity(3)));
+        assertThat(workspace.decompose(Matrix.create(3, 3, new double[] {1, 2, 0, 2, 1, 0, 0, 0, 1})), is(false));
+    }
+
+    @Test
+    public void whenNotPositiveDefiniteThenException() {
+        exception.expect(IllegalArgumentException.class);
+        Matrix.create(2, 2, new double[] {1.0, 2.0, 2.0, 1.0}).cholesky();
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2017 Jacob Rachiele
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to
+ * do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+ * USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Contributors:
+ *
+ * Jacob Rachiele
+ */
+package math.linear.doubles;
+
+import math.Complex;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class ComplexMatrixSpec {
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    // [1 + i,  2    ]
+    // [0,      3 - i]
+    // [-i,     1    ]
+    private final ComplexMatrix a = ComplexMatrix.create(3, 2, new double[] {1.0, 1.0, 2.0, 0.0,
+                                                                               0.0, 0.0, 3.0, -1.0,
+                                                                               0.0, -1.0, 1.0, 0.0});
+
+    @Test
+    public void whenElementRetrievedThenCorrectComplexNumber() {
+        assertThat(a.at(1, 1), is(new Complex(3.0, -1.0)));
+        assertThat(a.real(0, 0), is(1.0));
+        assertThat(a.imaginary(2, 0), is(-1.0));
+    }
+
+    @Test
+    public void whenTimesVectorThenComplexMatrixVectorProduct() {
+        ComplexVector x = ComplexVector.fromInterleaved(1.0, -1.0, 0.0, 2.0);
+        // (1 + i)(1 - i) + 2(2i) = 2 + 4i, (3 - i)(2i) = 2 + 6i, -i(1 - i) + 2i = -1 + i
+        assertThat(a.times(x), is(ComplexVector.fromInterleaved(2.0, 4.0, 2.0, 6.0, -1.0, 1.0)));
+    }
+
+    @Test
+    public void whenTimesMatrixThenSameAsColumnByColumnVectorProducts() {
+        ComplexMatrix b = a.conjugateTranspose();
+        ComplexMatrix product = a.times(b);
+        assertThat(product.nrow(), is(3));
+        assertThat(product.ncol(), is(3));
+        for (int j = 0; j < 3; j++) {
+            ComplexVector column = ComplexVector.from(b.at(0, j), b.at(1, j));
+            ComplexVector expected = a.times(column);
+            for (int i = 0; i < 3; i++) {
+                assertThat(product.at(i, j), is(expected.at(i)));
+            }
+        }
+    }
+
+    @Test
+    public void whenConjugateTransposedThenTransposedAndConjugated() {
+        ComplexMatrix transposed = a.conjugateTranspose();
+        assertThat(transposed.nrow(), is(2));
+        assertThat(transposed.at(0, 2), is(new Complex(0.0, 1.0)));
+        assertThat(transposed.at(1, 1), is(new Complex(3.0, 1.0)));
+        assertThat(transposed.conjugateTranspose(), is(a));
+    }
+
+    @Test
+    public void whenCreatedFromRealThenImaginaryPartsZero() {
+        ComplexMatrix real = ComplexMatrix.fromReal(Matrix.create(1, 2, new double[] {1.0, 2.0}));
+        assertThat(real.interleaved(), is(new double[] {1.0, 0.0, 2.0, 0.0}));
+    }
+
+    @Test
+    public void whenAddedAndSubtractedThenOriginalMatrix() {
+        assertThat(a.plus(a).minus(a), is(a));
+    }
+
+    @Test
+    public void whenDataLengthWrongThenIllegalArgument() {
+        exception.expect(IllegalArgumentException.class);
+        ComplexMatrix.create(2, 2, new double[4]);
+    }
+
+    @Test
+    public void whenDimensionsMismatchedThenIllegalArgument() {
+        exception.expect(IllegalArgumentException.class);
+        a.times(a);
+    }
+}
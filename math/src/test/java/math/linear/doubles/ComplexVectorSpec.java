@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2017 Jacob Rachiele
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to
+ * do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+ * USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Contributors:
+ *
+ * Jacob Rachiele
+ */
+package math.linear.doubles;
+
+import math.Complex;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class ComplexVectorSpec {
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    private final ComplexVector x = ComplexVector.from(new double[] {1.0, -3.0}, new double[] {2.0, 0.5});
+    private final ComplexVector y = ComplexVector.fromInterleaved(0.5, -1.0, 2.0, 4.0);
+
+    @Test
+    public void whenCreatedFromPartsThenInterleaved() {
+        assertThat(x.interleaved(), is(new double[] {1.0, 2.0, -3.0, 0.5}));
+        assertThat(x.size(), is(2));
+        assertThat(x.real(), is(new double[] {1.0, -3.0}));
+        assertThat(x.imaginary(), is(new double[] {2.0, 0.5}));
+    }
+
+    @Test
+    public void whenCreatedFromComplexNumbersThenSameAsFromParts() {
+        assertThat(ComplexVector.from(new Complex(1.0, 2.0), new Complex(-3.0, 0.5)), is(x));
+    }
+
+    @Test
+    public void whenCreatedFromRealThenImaginaryPartsZero() {
+        ComplexVector real = ComplexVector.fromReal(1.0, 2.0);
+        assertThat(real.interleaved(), is(new double[] {1.0, 0.0, 2.0, 0.0}));
+    }
+
+    @Test
+    public void whenElementRetrievedThenCorrectComplexNumber() {
+        assertThat(x.at(1), is(new Complex(-3.0, 0.5)));
+        assertThat(x.real(0), is(1.0));
+        assertThat(x.imaginary(0), is(2.0));
+    }
+
+    @Test
+    public void whenInterleavedArrayModifiedThenVectorUnchanged() {
+        double[] data = {1.0, 2.0};
+        ComplexVector vector = ComplexVector.fromInterleaved(data);
+        data[0] = 5.0;
+        vector.interleaved()[1] = 5.0;
+        assertThat(vector.interleaved(), is(new double[] {1.0, 2.0}));
+    }
+
+    @Test
+    public void whenArithmeticThenSameAsComplexArithmetic() {
+        for (int k = 0; k < x.size(); k++) {
+            assertThat(x.plus(y).at(k), is(x.at(k).plus(y.at(k))));
+            assertThat(x.minus(y).at(k), is(x.at(k).minus(y.at(k))));
+            assertThat(x.times(y).at(k), is(x.at(k).times(y.at(k))));
+            assertThat(x.conjugate().at(k), is(x.at(k).conjugate()));
+            assertThat(x.abs()[k], is(closeTo(x.at(k).abs(), 1E-15)));
+        }
+    }
+
+    @Test
+    public void whenIntoMethodsThenDestinationHoldsResult() {
+        double[] destination = new double[4];
+        assertThat(x.plusInto(destination, y), is(sameInstance(destination)));
+        assertThat(destination, is(x.plus(y).interleaved()));
+        x.timesInto(destination, y);
+        assertThat(destination, is(x.times(y).interleaved()));
+    }
+
+    @Test
+    public void whenScaledThenEachElementMultiplied() {
+        ComplexVector scaled = x.scaledBy(0.0, 1.0);
+        assertThat(scaled, is(ComplexVector.fromInterleaved(-2.0, 1.0, -0.5, -3.0)));
+    }
+
+    @Test
+    public void whenDotProductThenFirstVectorConjugated() {
+        Complex dot = x.dotProduct(y);
+        assertThat(dot.real(), is(closeTo(-5.5, 1E-15)));
+        assertThat(dot.im(), is(closeTo(-15.0, 1E-15)));
+        assertThat(x.norm(), is(closeTo(Math.sqrt(x.dotProduct(x).real()), 1E-15)));
+    }
+
+    @Test
+    public void whenSizesDifferThenIllegalArgument() {
+        exception.expect(IllegalArgumentException.class);
+        x.plus(ComplexVector.fromReal(1.0));
+    }
+
+    @Test
+    public void whenInterleavedLengthOddThenIllegalArgument() {
+        exception.expect(IllegalArgumentException.class);
+        ComplexVector.fromInterleaved(1.0, 2.0, 3.0);
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2017 Jacob Rachiele
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to
+ * do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+ * USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Contributors:
+ *
+ * Jacob Rachiele
+ */
+package math.linear.doubles;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class LUDecompositionSpec {
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    private final Matrix A = Matrix.create(3, 3, new double[] {0.0, 2.0, 1.0, 1.0, 1.0, 1.0, 2.0, 1.0, 3.0});
+
+    @Test
+    public void whenInverseThenProductIsIdentity() {
+        Matrix product = A.times(A.inverse());
+        double[] data = product.data();
+        double[] identity = Matrices.identity(3).data();
+        for (int i = 0; i < data.length; i++) {
+            assertThat(data[i], is(closeTo(identity[i], 1E-12)));
+        }
+    }
+
+    @Test
+    public void whenDeterminantThenCorrectWithPivoting() {
+        assertThat(A.lu().determinant(), is(closeTo(-3.0, 1E-12)));
+    }
+
+    @Test
+    public void whenSolveThenSolutionSatisfiesSystem() {
+        Matrix b = Matrix.create(3, 2, new double[] {1.0, 0.0, 2.0, 1.0, 3.0, -1.0});
+        Matrix x = A.solve(b);
+        double[] residual = A.times(x).minus(b).data();
+        for (double r : residual) {
+            assertThat(r, is(closeTo(0.0, 1E-12)));
+        }
+    }
+
+    @Test
+    public void whenSingularThenException() {
+        exception.expect(IllegalStateException.class);
+        Matrix.create(2, 2, new double[] {1.0, 2.0, 2.0, 4.0}).inverse();
+    }
+}
@@ -183,4 +183,66 @@ public final class MatrixSpec {
         assertThat(A.equals(C), is(false));
     }
 
+    @Test
+    public void whenNonSquareProductThenResultCorrect() {
+        Matrix product = A.times(B.transpose());
+        Matrix expected = new Matrix(3, 3, 38.0, 18.0, 29.0, 30.0, 15.5, 24.0, 32.0, 17.0, 26.0);
+        assertThat(product, is(expected));
+        assertThat(A.timesTranspose(B), is(expected));
+    }
+
+    @Test
+    public void whenTransposeTimesThenSameAsExplicitTranspose() {
+        assertThat(A.transposeTimes(B), is(A.transpose().times(B)));
+    }
+
+    @Test
+    public void whenLargeProductThenBlockedKernelMatchesNaiveProduct() {
+        final int m = 70;
+        final int k = 131;
+        final int n = 67;
+        double[] a = new double[m * k];
+        double[] b = new double[k * n];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = (i % 7) - 3.0;
+        }
+        for (int i = 0; i < b.length; i++) {
+            b[i] = (i % 5) * 0.5;
+        }
+        double[] expected = new double[m * n];
+        for (int i = 0; i < m; i++) {
+            for (int j = 0; j < n; j++) {
+                for (int p = 0; p < k; p++) {
+                    expected[i * n + j] += a[i * k + p] * b[p * n + j];
+                }
+            }
+        }
+        assertThat(Matrix.create(m, k, a).times(Matrix.create(k, n, b)), is(Matrix.create(m, n, expected)));
+    }
+
+    @Test
+    public void whenIntoVariantsThenDestinationHoldsResult() {
+        double[] destination = new double[6];
+        A.plusInto(destination, B);
+        assertThat(destination, is(A.plus(B).data()));
+        A.minusInto(destination, B);
+        assertThat(destination, is(A.minus(B).data()));
+        A.scaledByInto(destination, 2.0);
+        assertThat(destination, is(A.scaledBy(2.0).data()));
+        A.transposeInto(destination);
+        assertThat(destination, is(A.transpose().data()));
+        double[] product = A.timesInto(new double[3], new double[] {1.0, 2.0});
+        assertThat(product, is(new double[] {8.0, 6.5, 7.0}));
+        assertThat(A.transposeTimesInto(new double[2], new double[] {1.0, 1.0, 1.0}), is(new double[] {6.5, 7.5}));
+    }
+
+    @Test
+    public void whenSymmetricRankKUpdateThenSameAsGeneralProduct() {
+        double[] c = new double[] {1.0, 2.0, 3.0, 2.0, 4.0, 5.0, 3.0, 5.0, 6.0};
+        MatrixOperations.symmetricRankKUpdate(c, 3, 2.0, A.data(), 2, 0.5);
+        Matrix expected = A.timesTranspose(A).scaledBy(2.0)
+                           .plus(new Matrix(3, 3, 0.5, 1.0, 1.5, 1.0, 2.0, 2.5, 1.5, 2.5, 3.0));
+        assertThat(Matrix.create(3, 3, c), is(expected));
+    }
+
 }
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2017 Jacob Rachiele
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to
+ * do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+ * USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Contributors:
+ *
+ * Jacob Rachiele
+ */
+package math.linear.doubles;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class QRDecompositionSpec {
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    private final Matrix A = Matrix.create(4, 2, new double[] {1.0, 1.0, 1.0, 2.0, 1.0, 3.0, 1.0, 4.0});
+
+    @Test
+    public void whenDecomposedThenQTimesREqualsMatrix() {
+        QRDecomposition qr = A.qr();
+        double[] product = qr.q().times(qr.r()).data();
+        double[] expected = A.data();
+        for (int i = 0; i < expected.length; i++) {
+            assertThat(product[i], is(closeTo(expected[i], 1E-12)));
+        }
+        double[] qtq = qr.q().transposeTimes(qr.q()).data();
+        assertThat(qtq[0], is(closeTo(1.0, 1E-12)));
+        assertThat(qtq[1], is(closeTo(0.0, 1E-12)));
+    }
+
+    @Test
+    public void whenLeastSquaresSolvedThenLineFitCorrect() {
+        double[] y = {6.0, 5.0, 7.0, 10.0};
+        double[] beta = A.qr().solveInto(new double[2], y);
+        assertThat(beta[0], is(closeTo(3.5, 1E-12)));
+        assertThat(beta[1], is(closeTo(1.4, 1E-12)));
+    }
+
+    @Test
+    public void whenRInverseThenGivesInverseOfGramMatrix() {
+        Matrix rInverse = A.qr().rInverse();
+        double[] product = rInverse.timesTranspose(rInverse).times(A.transposeTimes(A)).data();
+        double[] identity = Matrices.identity(2).data();
+        for (int i = 0; i < identity.length; i++) {
+            assertThat(product[i], is(closeTo(identity[i], 1E-12)));
+        }
+    }
+
+    @Test
+    public void whenFewerRowsThanColumnsThenException() {
+        exception.expect(IllegalArgumentException.class);
+        new QRDecomposition(2, 3);
+    }
+}
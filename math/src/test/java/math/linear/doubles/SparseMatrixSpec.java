@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2017 Jacob Rachiele
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to
+ * do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+ * USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Contributors:
+ *
+ * Jacob Rachiele
+ */
+package math.linear.doubles;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class SparseMatrixSpec {
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    private final Matrix dense = Matrix.create(4, 3, new double[] {1.0, 0.0, 2.0,
+                                                                    0.0, 0.0, 3.0,
+                                                                    1.0, 0.0, 0.0,
+                                                                    0.0, 4.0, 0.0});
+    private final SparseMatrix sparse = SparseMatrix.from(dense);
+
+    @Test
+    public void whenCreatedFromDenseThenOnlyNonZerosStored() {
+        assertThat(sparse.nonZeros(), is(5));
+        assertThat(sparse.at(1, 2), is(3.0));
+        assertThat(sparse.at(1, 0), is(0.0));
+        assertThat(sparse.toMatrix(), is(dense));
+    }
+
+    @Test
+    public void whenCreatedFromColumnsThenSameAsFromDense() {
+        double[] columnMajor = dense.transposeInto(new double[12]);
+        assertThat(SparseMatrix.fromColumnMajor(4, 3, columnMajor), is(sparse));
+    }
+
+    @Test
+    public void whenCreatedFromTripletsThenDuplicatesSummedAndZerosDropped() {
+        SparseMatrix fromTriplets = SparseMatrix.fromTriplets(4, 3, new int[] {3, 0, 2, 1, 0, 0, 1, 1},
+                                                              new int[] {1, 2, 0, 2, 0, 1, 0, 0},
+                                                              new double[] {4.0, 2.0, 1.0, 3.0, 1.0, 0.0, 5.0, -5.0});
+        assertThat(fromTriplets, is(sparse));
+    }
+
+    @Test
+    public void whenMultipliedThenSameAsDense() {
+        double[] x = {1.0, -1.0, 0.5};
+        double[] y = {2.0, 1.0, -1.0, 0.5};
+        assertThat(sparse.timesInto(new double[4], x), is(dense.timesInto(new double[4], x)));
+        assertThat(sparse.transposeTimesInto(new double[3], y), is(dense.transposeTimesInto(new double[3], y)));
+        Matrix other = Matrix.create(3, 2, new double[] {1.0, 2.0, 3.0, 4.0, 5.0, 6.0});
+        assertThat(sparse.times(other), is(dense.times(other)));
+    }
+
+    @Test
+    public void whenGramComputedThenTransposeTimesSelf() {
+        assertThat(sparse.gram().toMatrix(), is(dense.transposeTimes(dense)));
+    }
+
+    @Test
+    public void whenTransposedThenColumnsBecomeRows() {
+        assertThat(sparse.transpose().toMatrix(), is(dense.transpose()));
+        assertThat(sparse.transpose().transpose(), is(sparse));
+    }
+
+    @Test
+    public void whenVectorLengthWrongThenException() {
+        exception.expect(IllegalArgumentException.class);
+        sparse.timesInto(new double[4], new double[4]);
+    }
+}
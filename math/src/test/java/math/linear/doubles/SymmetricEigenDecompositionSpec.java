@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2017 Jacob Rachiele
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to
+ * do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+ * USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Contributors:
+ *
+ * Jacob Rachiele
+ */
+package math.linear.doubles;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class SymmetricEigenDecompositionSpec {
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    @Test
+    public void whenDecomposedThenEigenvaluesAscending() {
+        Matrix A = Matrix.create(2, 2, new double[] {2.0, 1.0, 1.0, 2.0});
+        double[] eigenvalues = A.symmetricEigen().eigenvalues();
+        assertThat(eigenvalues[0], is(closeTo(1.0, 1E-12)));
+        assertThat(eigenvalues[1], is(closeTo(3.0, 1E-12)));
+    }
+
+    @Test
+    public void whenDecomposedThenEigenvectorsSatisfyDefinition() {
+        final int n = 6;
+        double[] data = new double[n * n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j <= i; j++) {
+                data[i * n + j] = data[j * n + i] = 1.0 / (i + j + 1) + ((i == j) ? i : 0.0);
+            }
+        }
+        Matrix A = Matrix.create(n, n, data);
+        SymmetricEigenDecomposition eigen = A.symmetricEigen();
+        Matrix V = eigen.eigenvectors();
+        double[] eigenvalues = eigen.eigenvalues();
+        double[] av = A.times(V).data();
+        double[] v = V.data();
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                assertThat(av[i * n + j], is(closeTo(eigenvalues[j] * v[i * n + j], 1E-10)));
+            }
+        }
+        double[] vtv = V.transposeTimes(V).data();
+        double[] identity = Matrices.identity(n).data();
+        for (int i = 0; i < identity.length; i++) {
+            assertThat(vtv[i], is(closeTo(identity[i], 1E-10)));
+        }
+    }
+
+    @Test
+    public void whenNotDecomposedThenException() {
+        exception.expect(IllegalStateException.class);
+        new SymmetricEigenDecomposition(2).eigenvalues();
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2017 Jacob Rachiele
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to
+ * do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+ * USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Contributors:
+ *
+ * Jacob Rachiele
+ */
+package math.linear.doubles;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class SymmetricMatrixSpec {
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    private final Matrix full = Matrix.create(3, 3, new double[] {4.0, 12.0, -16.0, 12.0, 37.0, -43.0, -16.0, -43.0, 98.0});
+    private final SymmetricMatrix A = SymmetricMatrix.fromPacked(3, new double[] {4.0, 12.0, -16.0, 37.0, -43.0, 98.0});
+
+    @Test
+    public void whenCreatedFromLowerTriangleThenPackedByColumns() {
+        assertThat(SymmetricMatrix.fromLower(full), is(A));
+        assertThat(A.toMatrix(), is(full));
+        assertThat(A.at(0, 2), is(-16.0));
+        assertThat(A.at(2, 0), is(-16.0));
+        assertThat(A.diagonal(), is(new double[] {4.0, 37.0, 98.0}));
+        assertThat(A.columnInto(new double[3], 1), is(new double[] {12.0, 37.0, -43.0}));
+    }
+
+    @Test
+    public void whenElementSetThenMirrorElementSet() {
+        SymmetricMatrix matrix = A.copy().set(0, 1, 5.0);
+        assertThat(matrix.at(1, 0), is(5.0));
+        assertThat(A.at(1, 0), is(12.0));
+    }
+
+    @Test
+    public void whenMultipliedByVectorThenSameAsFullMatrix() {
+        double[] x = {1.0, -2.0, 0.5};
+        assertThat(A.timesInto(new double[3], x), is(full.timesInto(new double[3], x)));
+        assertThat(A.quadraticForm(x), is(closeTo(1.0 * -28.0 + -2.0 * -83.5 + 0.5 * 119.0, 1E-12)));
+    }
+
+    @Test
+    public void whenRankOneUpdatedThenOuterProductAdded() {
+        double[] x = {1.0, 2.0, 3.0};
+        Matrix expected = full.plus(Matrix.create(3, 1, x).timesTranspose(Matrix.create(3, 1, x)).scaledBy(0.5));
+        assertThat(A.copy().rankOneUpdate(0.5, x).toMatrix(), is(expected));
+    }
+
+    @Test
+    public void whenRankTwoUpdatedThenSymmetricOuterProductsAdded() {
+        double[] x = {1.0, 2.0, 3.0};
+        double[] y = {-1.0, 0.0, 2.0};
+        double[] expected = full.data();
+        MatrixOperations.symmetricRankTwoUpdate(expected, 3, 2.0, x, y);
+        assertThat(A.copy().rankTwoUpdate(2.0, x, y).toMatrix(), is(Matrix.create(3, 3, expected)));
+    }
+
+    @Test
+    public void whenCongruenceTransformedThenSameAsFullProduct() {
+        Matrix t = Matrix.create(2, 3, new double[] {0.5, 1.0, 0.0, 1.0, 0.0, 0.0});
+        Matrix expected = t.times(full).timesTranspose(t);
+        SymmetricMatrix result = A.congruence(t);
+        assertThat(result.dimension(), is(2));
+        for (int i = 0; i < 2; i++) {
+            for (int j = 0; j < 2; j++) {
+                assertThat(result.at(i, j), is(closeTo(expected.data()[i * 2 + j], 1E-12)));
+            }
+        }
+    }
+
+    @Test
+    public void whenCongruenceTransformedBySparseMatrixThenSameAsDense() {
+        Matrix t = Matrix.create(3, 3, new double[] {0.5, 1.0, 0.0, -0.3, 0.0, 1.0, 0.2, 0.0, 0.0});
+        SymmetricMatrix expected = A.congruence(t);
+        SymmetricMatrix result = A.congruenceInto(new SymmetricMatrix(3), SparseMatrix.from(t));
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                assertThat(result.at(i, j), is(closeTo(expected.at(i, j), 1E-12)));
+            }
+        }
+    }
+
+    @Test
+    public void whenCongruenceIntoSelfThenException() {
+        exception.expect(IllegalArgumentException.class);
+        A.congruenceInto(A, Matrices.identity(3));
+    }
+
+    @Test
+    public void whenCholeskyDecomposedThenSameFactorAsFullMatrix() {
+        assertThat(A.cholesky().lower(), is(full.cholesky().lower()));
+        assertThat(new CholeskyDecomposition(2).decompose(SymmetricMatrix.fromPacked(2, new double[] {1.0, 2.0, 1.0})),
+                   is(false));
+    }
+
+    @Test
+    public void whenPackedLengthWrongThenException() {
+        exception.expect(IllegalArgumentException.class);
+        SymmetricMatrix.fromPacked(3, new double[5]);
+    }
+
+    @Test
+    public void whenScalarLyapunovEquationSolvedThenGeometricSum() {
+        SymmetricMatrix q = SymmetricMatrix.fromPacked(1, new double[] {1.0});
+        SymmetricMatrix p = SymmetricMatrix.discreteLyapunov(Matrix.create(1, 1, new double[] {0.5}), q);
+        assertThat(p.at(0, 0), is(closeTo(4.0 / 3.0, 1E-15)));
+    }
+
+    @Test
+    public void whenLyapunovEquationSolvedThenSolutionSatisfiesEquation() {
+        Matrix t = Matrix.create(3, 3, new double[] {0.5, 1.0, 0.0,
+                                                     -0.3, 0.0, 1.0,
+                                                     0.1, 0.0, 0.0});
+        SymmetricMatrix p = SymmetricMatrix.discreteLyapunov(t, A);
+        SymmetricMatrix residual = p.congruence(t).plus(1.0, A).plus(-1.0, p);
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j <= i; j++) {
+                assertThat(residual.at(i, j), is(closeTo(0.0, 1E-12)));
+            }
+        }
+    }
+
+    @Test
+    public void whenLyapunovTransitionNotSquareThenException() {
+        exception.expect(IllegalArgumentException.class);
+        SymmetricMatrix.discreteLyapunov(Matrix.create(3, 2, new double[6]), A);
+    }
+}
@@ -56,6 +56,24 @@ public final class VectorSpec {
     MatcherAssert.assertThat(result, is(equalTo(expected)));
   }
 
+  @Test
+  public void whenAxpyIntoThenDestinationHoldsResult() {
+    double[] destination = new double[3];
+    vec1.axpyInto(destination, vec3, 5.0);
+    MatcherAssert.assertThat(destination, is(equalTo(new double[] {21.0, 22.5, 47.5})));
+  }
+
+  @Test
+  public void whenPlusAndMinusIntoThenDestinationHoldsResult() {
+    double[] destination = new double[3];
+    vec1.plusInto(destination, vec3);
+    MatcherAssert.assertThat(destination, is(equalTo(new double[] {9.0, 6.5, 17.5})));
+    vec1.minusInto(destination, vec3);
+    MatcherAssert.assertThat(destination, is(equalTo(new double[] {-3.0, 1.5, -2.5})));
+    vec1.scaledByInto(destination, 2.0);
+    MatcherAssert.assertThat(destination, is(equalTo(new double[] {6.0, 8.0, 15.0})));
+  }
+
   @Test
   public void whenSumThenResultCorrect() {
     double result = vec1.sum();
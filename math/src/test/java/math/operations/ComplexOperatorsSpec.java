@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2017 Jacob Rachiele
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to
+ * do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+ * USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Contributors:
+ *
+ * Jacob Rachiele
+ */
+package math.operations;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class ComplexOperatorsSpec {
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    private final double[] x = {1.0, 2.0, -3.0, 0.5};
+    private final double[] y = {0.5, -1.0, 2.0, 4.0};
+
+    @Test
+    public void whenAddedThenRealAndImaginaryPartsAdded() {
+        double[] expected = {1.5, 1.0, -1.0, 4.5};
+        assertThat(ComplexOperators.addInto(new double[4], x, y), is(expected));
+    }
+
+    @Test
+    public void whenSubtractedThenRealAndImaginaryPartsSubtracted() {
+        double[] expected = {0.5, 3.0, -5.0, -3.5};
+        assertThat(ComplexOperators.subtractInto(new double[4], x, y), is(expected));
+    }
+
+    @Test
+    public void whenMultipliedThenComplexProductComputed() {
+        // (1 + 2i)(0.5 - i) = 2.5 + 0i and (-3 + 0.5i)(2 + 4i) = -8 - 11i
+        double[] expected = {2.5, 0.0, -8.0, -11.0};
+        assertThat(ComplexOperators.multiplyInto(new double[4], x, y), is(expected));
+    }
+
+    @Test
+    public void whenMultipliedInPlaceThenSameAsIntoNewArray() {
+        double[] expected = ComplexOperators.multiplyInto(new double[4], x, y);
+        double[] left = x.clone();
+        assertThat(ComplexOperators.multiplyInto(left, left, y), is(expected));
+    }
+
+    @Test
+    public void whenMultipliedByConjugateThenComplexProductWithConjugateComputed() {
+        // (1 + 2i)(0.5 + i) = -1.5 + 2i and (-3 + 0.5i)(2 - 4i) = -4 + 13i
+        double[] expected = {-1.5, 2.0, -4.0, 13.0};
+        assertThat(ComplexOperators.multiplyConjugateInto(new double[4], x, y), is(expected));
+    }
+
+    @Test
+    public void whenScaledThenEachElementMultipliedByScalar() {
+        // i(1 + 2i) = -2 + i and i(-3 + 0.5i) = -0.5 - 3i
+        double[] expected = {-2.0, 1.0, -0.5, -3.0};
+        assertThat(ComplexOperators.scaleInto(new double[4], x, 0.0, 1.0), is(expected));
+    }
+
+    @Test
+    public void whenAxpyThenScaledXAddedToY() {
+        // -i(1 + 2i) + (0.5 - i) = 2.5 - 2i and -i(-3 + 0.5i) + (2 + 4i) = 2.5 + 7i
+        double[] expected = {2.5, -2.0, 2.5, 7.0};
+        assertThat(ComplexOperators.axpyInto(new double[4], 0.0, -1.0, x, y), is(expected));
+    }
+
+    @Test
+    public void whenConjugatedThenImaginaryPartsNegated() {
+        double[] expected = {1.0, -2.0, -3.0, -0.5};
+        assertThat(ComplexOperators.conjugateInto(new double[4], x), is(expected));
+    }
+
+    @Test
+    public void whenAbsoluteValueThenModulusOfEachElement() {
+        double[] abs = ComplexOperators.absInto(new double[2], new double[] {3.0, 4.0, 0.0, -2.0});
+        assertThat(abs, is(new double[] {5.0, 2.0}));
+    }
+
+    @Test
+    public void whenDotProductThenFirstArgumentConjugated() {
+        // conj(1 + 2i)(0.5 - i) + conj(-3 + 0.5i)(2 + 4i) = (-1.5 - 2i) + (-4 - 13i)
+        double[] dot = ComplexOperators.dotInto(new double[2], x, y);
+        assertThat(dot[0], is(closeTo(-5.5, 1E-15)));
+        assertThat(dot[1], is(closeTo(-15.0, 1E-15)));
+    }
+
+    @Test
+    public void whenNormThenSquareRootOfSelfDotProduct() {
+        double[] dot = ComplexOperators.dotInto(new double[2], x, x);
+        assertThat(dot[1], is(0.0));
+        assertThat(ComplexOperators.norm(x), is(closeTo(Math.sqrt(dot[0]), 1E-15)));
+    }
+
+    @Test
+    public void whenArrayOddLengthThenIllegalArgument() {
+        exception.expect(IllegalArgumentException.class);
+        ComplexOperators.conjugateInto(new double[3], new double[3]);
+    }
+
+    @Test
+    public void whenArraysDifferentLengthsThenIllegalArgument() {
+        exception.expect(IllegalArgumentException.class);
+        ComplexOperators.addInto(new double[4], x, new double[2]);
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2017 Jacob Rachiele
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to
+ * do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+ * USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Contributors:
+ *
+ * Jacob Rachiele
+ */
+package math.operations;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Checks every kernel against a plain reference loop. The same tests run against the scalar kernels in the regular
+ * test task and against the SIMD kernels in the testVectorized task, which sets the math.kernels.vectorized
+ * property and adds the incubating vector module.
+ */
+public class DoubleKernelsSpec {
+
+    private static final int[] LENGTHS = {0, 1, 3, 7, 15, 16, 17, 31, 64, 100, 1027};
+
+    private final Random random = new Random(42);
+
+    @Test
+    public void whenVectorizationExpectedThenVectorKernelsSelected() {
+        assertThat(DoubleKernels.isVectorized(), is(Boolean.getBoolean("math.kernels.vectorized")));
+    }
+
+    @Test
+    public void whenDotProductThenSameAsReferenceLoop() {
+        for (int length : LENGTHS) {
+            double[] x = randomArray(length + 3);
+            double[] y = randomArray(length + 5);
+            double expected = 0.0;
+            for (int i = 0; i < length; i++) {
+                expected += x[i + 3] * y[i + 5];
+            }
+            assertThat(DoubleKernels.dot(x, 3, y, 5, length), is(closeTo(expected, 1E-12 * (length + 1))));
+        }
+    }
+
+    @Test
+    public void whenAxpyThenSameAsReferenceLoop() {
+        for (int length : LENGTHS) {
+            double[] x = randomArray(length + 2);
+            double[] y = randomArray(length + 1);
+            double[] expected = y.clone();
+            for (int i = 0; i < length; i++) {
+                expected[i + 1] += 0.7 * x[i + 2];
+            }
+            DoubleKernels.axpy(0.7, x, 2, y, 1, length);
+            assertThat(y, is(expected));
+        }
+    }
+
+    @Test
+    public void whenElementWiseKernelsThenSameAsReferenceLoops() {
+        for (int length : LENGTHS) {
+            double[] left = randomArray(length);
+            double[] right = randomArray(length);
+            double[] axpy = new double[length];
+            double[] sum = new double[length];
+            double[] difference = new double[length];
+            double[] product = new double[length];
+            double[] scaled = new double[length];
+            double[] scaledDifference = new double[length];
+            for (int i = 0; i < length; i++) {
+                axpy[i] = -1.5 * left[i] + right[i];
+                sum[i] = left[i] + right[i];
+                difference[i] = left[i] - right[i];
+                product[i] = left[i] * right[i];
+                scaled[i] = 3.0 * left[i];
+                scaledDifference[i] = 0.25 * (left[i] - right[i]);
+            }
+            double[] destination = new double[length];
+            DoubleKernels.axpyInto(destination, -1.5, left, right, length);
+            assertThat(destination, is(axpy));
+            DoubleKernels.addInto(destination, left, right, length);
+            assertThat(destination, is(sum));
+            DoubleKernels.subtractInto(destination, left, right, length);
+            assertThat(destination, is(difference));
+            DoubleKernels.multiplyInto(destination, left, right, length);
+            assertThat(destination, is(product));
+            DoubleKernels.scaleInto(destination, left, 3.0, length);
+            assertThat(destination, is(scaled));
+            DoubleKernels.scaledDifferenceInto(destination, 0.25, left, right, length);
+            assertThat(destination, is(scaledDifference));
+        }
+    }
+
+    @Test
+    public void whenDestinationIsAnOperandThenSameAsReferenceLoop() {
+        double[] left = randomArray(100);
+        double[] right = randomArray(100);
+        double[] expected = new double[100];
+        for (int i = 0; i < 100; i++) {
+            expected[i] = left[i] + right[i];
+        }
+        DoubleKernels.addInto(left, left, right, 100);
+        assertThat(left, is(expected));
+    }
+
+    private double[] randomArray(final int length) {
+        double[] array = new double[length];
+        for (int i = 0; i < length; i++) {
+            array[i] = random.nextGaussian();
+        }
+        return array;
+    }
+}
@@ -32,6 +32,7 @@ import org.junit.rules.ExpectedException;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
 
 public class OperatorsSpec {
 	
@@ -99,4 +100,36 @@ public class OperatorsSpec {
 	  assertThat(Operators.quotientOf(data1, new double[] {2.0, 4.0}), is(equalTo(expected)));
 	}
 
+	@Test
+	public void whenSumIntoSameArrayThenDataUpdatedInPlace() {
+	  double[] result = Operators.sumInto(data1, data1, new double[] {1.0, 2.0});
+	  assertThat(result, is(sameInstance(data1)));
+	  assertThat(data1, is(equalTo(new double[] {4.0, 7.0})));
+	}
+
+	@Test
+	public void whenAxpyThenScaledSumStoredInY() {
+	  double[] y = new double[] {1.0, 1.0};
+	  Operators.axpy(2.0, data1, y);
+	  assertThat(y, is(equalTo(new double[] {7.0, 11.0})));
+	}
+
+	@Test
+	public void whenScaledDifferenceIntoThenResultCorrect() {
+	  double[] result = Operators.scaledDifferenceInto(new double[2], 0.5, data1, new double[] {1.0, 1.0});
+	  assertThat(result, is(equalTo(new double[] {1.0, 2.0})));
+	}
+
+	@Test
+	public void whenDestinationTooShortThenExceptionThrown() {
+	  exception.expect(IllegalArgumentException.class);
+	  Operators.scaleInto(new double[1], data1, 2.0);
+	}
+
+	@Test
+	public void whenDestinationTooLongThenExceptionThrown() {
+	  exception.expect(IllegalArgumentException.class);
+	  Operators.scaleInto(new double[data1.length + 1], data1, 2.0);
+	}
+
 }
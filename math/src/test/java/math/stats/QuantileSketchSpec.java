@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2017 Jacob Rachiele
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to
+ * do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+ * USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Contributors:
+ *
+ * Jacob Rachiele
+ */
+package math.stats;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class QuantileSketchSpec {
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    private static double[] shuffledRange(final int n) {
+        double[] data = new double[n];
+        for (int i = 0; i < n; i++) {
+            data[i] = i;
+        }
+        Random random = new Random(42);
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            double tmp = data[i];
+            data[i] = data[j];
+            data[j] = tmp;
+        }
+        return data;
+    }
+
+    @Test
+    public void whenManyValuesAddedThenQuantilesWithinRankError() {
+        final int n = 1000000;
+        QuantileSketch sketch = new QuantileSketch();
+        sketch.addAll(shuffledRange(n));
+        assertThat(sketch.size(), is((long) n));
+        assertThat(sketch.retained(), is(lessThan(2000)));
+        for (double p : new double[] {0.01, 0.25, 0.5, 0.75, 0.99}) {
+            assertThat(sketch.quantile(p), is(closeTo(p * n, 0.02 * n)));
+        }
+        assertThat(sketch.min(), is(0.0));
+        assertThat(sketch.max(), is(n - 1.0));
+        assertThat(sketch.rank(n / 2.0), is(closeTo(0.5, 0.02)));
+    }
+
+    @Test
+    public void whenSketchesMergedThenSameAccuracyAsSingleSketch() {
+        final int n = 200000;
+        double[] data = shuffledRange(n);
+        QuantileSketch left = new QuantileSketch();
+        QuantileSketch right = new QuantileSketch();
+        for (int i = 0; i < n; i++) {
+            (i % 2 == 0 ? left : right).add(data[i]);
+        }
+        QuantileSketch merged = left.merge(right);
+        assertThat(merged.size(), is((long) n));
+        assertThat(merged.median(), is(closeTo(n / 2.0, 0.02 * n)));
+        assertThat(right.size(), is((long) n / 2));
+    }
+
+    @Test
+    public void whenSketchOfLargeArrayThenParallelResultRepeatable() {
+        double[] data = shuffledRange(Statistics.PARALLEL_THRESHOLD * 4);
+        QuantileSketch sketch = QuantileSketch.of(data);
+        assertThat(sketch.median(), is(closeTo(data.length / 2.0, 0.02 * data.length)));
+        assertThat(QuantileSketch.of(data).median(), is(equalTo(sketch.median())));
+    }
+
+    @Test
+    public void whenFewValuesThenQuantilesExact() {
+        QuantileSketch sketch = new QuantileSketch();
+        sketch.addAll(5.0, 1.0, Double.NaN, 3.0);
+        assertThat(sketch.size(), is(3L));
+        assertThat(sketch.median(), is(3.0));
+        assertThat(sketch.quantile(0.0), is(1.0));
+        assertThat(sketch.quantile(1.0), is(5.0));
+    }
+
+    @Test
+    public void whenEmptyThenNaN() {
+        assertThat(new QuantileSketch().median(), is(Double.NaN));
+    }
+
+    @Test
+    public void whenProbabilityOutOfRangeThenIllegalArgument() {
+        exception.expect(IllegalArgumentException.class);
+        new QuantileSketch().quantile(1.5);
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2017 Jacob Rachiele
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to
+ * do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+ * USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Contributors:
+ *
+ * Jacob Rachiele
+ */
+
+package math.stats;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertArrayEquals;
+
+public final class RollingStatisticsSpec {
+
+    private static final double TOL = 1E-8;
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    private final double[] data = randomData(500);
+
+    @Test
+    public void whenRollingSumComputedThenMatchesWindowedSum() {
+        assertArrayEquals(naive(data, 24, Statistics::sumOf), RollingStatistics.sumOf(data, 24), TOL);
+    }
+
+    @Test
+    public void whenRollingMeanComputedThenMatchesWindowedMean() {
+        assertArrayEquals(naive(data, 7, Statistics::meanOf), RollingStatistics.meanOf(data, 7), TOL);
+    }
+
+    @Test
+    public void whenRollingVarianceComputedThenMatchesWindowedVariance() {
+        assertArrayEquals(naive(data, 30, Statistics::varianceOf), RollingStatistics.varianceOf(data, 30), TOL);
+        assertArrayEquals(naive(data, 30, Statistics::stdDeviationOf), RollingStatistics.stdDeviationOf(data, 30),
+                          TOL);
+    }
+
+    @Test
+    public void whenRollingExtremaComputedThenMatchWindowedExtrema() {
+        double[] expectedMin = naive(data, 12, window -> Arrays.stream(window).min().getAsDouble());
+        double[] expectedMax = naive(data, 12, window -> Arrays.stream(window).max().getAsDouble());
+        assertArrayEquals(expectedMin, RollingStatistics.minOf(data, 12), 0.0);
+        assertArrayEquals(expectedMax, RollingStatistics.maxOf(data, 12), 0.0);
+    }
+
+    @Test
+    public void whenRollingMedianComputedThenMatchesWindowedMedian() {
+        assertArrayEquals(naive(data, 11, Statistics::medianOf), RollingStatistics.medianOf(data, 11), 0.0);
+        assertArrayEquals(naive(data, 10, Statistics::medianOf), RollingStatistics.medianOf(data, 10), TOL);
+    }
+
+    @Test
+    public void whenRollingMedianOfRepeatedValuesThenMatchesWindowedMedian() {
+        double[] repeated = {1.0, 3.0, 3.0, 2.0, 3.0, 1.0, 1.0, 2.0, 3.0, 3.0, 2.0};
+        assertArrayEquals(naive(repeated, 4, Statistics::medianOf), RollingStatistics.medianOf(repeated, 4), TOL);
+    }
+
+    @Test
+    public void whenRollingQuantileComputedThenInterpolatedBetweenOrderStatistics() {
+        double[] values = {4.0, 1.0, 3.0, 2.0, 5.0};
+        double[] expected = {1.75, 1.75};
+        assertArrayEquals(expected, RollingStatistics.quantileOf(values, 4, 0.25), TOL);
+    }
+
+    @Test
+    public void whenExponentialMeanComputedThenRecursionSatisfied() {
+        double[] values = {2.0, 4.0, 8.0};
+        double[] expected = {2.0, 3.0, 5.5};
+        assertArrayEquals(expected, RollingStatistics.exponentialMeanOf(values, 0.5), TOL);
+    }
+
+    @Test
+    public void whenExponentialVarianceComputedThenRecursionSatisfied() {
+        double[] values = {2.0, 4.0, 8.0};
+        double[] expected = {0.0, 1.0, 6.75};
+        assertArrayEquals(expected, RollingStatistics.exponentialVarianceOf(values, 0.5), TOL);
+    }
+
+    @Test
+    public void whenWindowLargerThanDataThenIllegalArgument() {
+        exception.expect(IllegalArgumentException.class);
+        RollingStatistics.meanOf(new double[] {1.0, 2.0}, 3);
+    }
+
+    @Test
+    public void whenWindowIsWholeDataThenSingleStatistic() {
+        assertThat(RollingStatistics.varianceOf(data, data.length)[0],
+                   is(closeTo(Statistics.varianceOf(data), TOL)));
+    }
+
+    private interface WindowStatistic {
+        double of(double[] window);
+    }
+
+    private static double[] naive(final double[] data, final int window, final WindowStatistic statistic) {
+        double[] result = new double[data.length - window + 1];
+        for (int t = 0; t < result.length; t++) {
+            result[t] = statistic.of(Arrays.copyOfRange(data, t, t + window));
+        }
+        return result;
+    }
+
+    private static double[] randomData(final int n) {
+        Random random = new Random(42);
+        double[] data = new double[n];
+        for (int i = 0; i < n; i++) {
+            data[i] = 100 + 10 * random.nextGaussian();
+        }
+        return data;
+    }
+}
@@ -27,6 +27,9 @@ package math.stats;
 import org.hamcrest.MatcherAssert;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.Random;
+
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 
@@ -126,4 +129,55 @@ public final class StatisticsSpec {
         assertThat(Statistics.medianOf(data2), is(equalTo(expected2)));
     }
 
+    @Test
+    public void whenLargeDataThenParallelSumAccurateAndRepeatable() {
+        double[] data = new double[Statistics.PARALLEL_THRESHOLD * 4 + 17];
+        Arrays.fill(data, 0.1);
+        double sum = Statistics.sumOf(data);
+        assertThat(sum, is(closeTo(data.length * 0.1, 1E-9)));
+        for (int i = 0; i < 5; i++) {
+            assertThat(Statistics.sumOf(data), is(equalTo(sum)));
+        }
+    }
+
+    @Test
+    public void whenLargeOffsetDataThenVarianceAccurate() {
+        final int n = Statistics.PARALLEL_THRESHOLD * 3 + 1;
+        double[] data = new double[n];
+        double[] data2 = new double[n];
+        for (int i = 0; i < n; i++) {
+            data[i] = 1E9 + (i % 2);
+            data2[i] = -1E9 - (i % 2);
+        }
+        double expected = 0.25 * (n - 1) * (n + 1) / ((double) n * (n - 1));
+        assertThat(Statistics.varianceOf(data), is(closeTo(expected, 1E-9)));
+        assertThat(Statistics.covarianceOf(data, data2), is(closeTo(-expected, 1E-9)));
+        assertThat(Statistics.correlationOf(data, data2), is(closeTo(-1.0, 1E-12)));
+    }
+
+    @Test
+    public void whenQuantileComputedThenMatchesSortedInterpolation() {
+        Random random = new Random(7);
+        double[] data = new double[1001];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = random.nextInt(50);
+        }
+        double[] original = data.clone();
+        double[] sorted = data.clone();
+        Arrays.sort(sorted);
+        for (double p : new double[] {0.0, 0.1, 0.2537, 0.5, 0.9, 1.0}) {
+            double h = (data.length - 1) * p;
+            int lower = (int) Math.floor(h);
+            double expected = sorted[lower] + (h - lower) * (sorted[Math.min(lower + 1, data.length - 1)] - sorted[lower]);
+            assertThat(Statistics.quantileOf(data, p), is(closeTo(expected, 1E-12)));
+        }
+        assertThat(data, is(equalTo(original)));
+    }
+
+    @Test
+    public void whenMedianOfDataWithNaNThenNaNOrderedLast() {
+        assertThat(Statistics.medianOf(new double[] {Double.NaN, 2.0, 1.0}), is(equalTo(2.0)));
+        assertThat(Statistics.medianOf(new double[] {Double.NaN, Double.NaN, 1.0}), is(Double.NaN));
+    }
+
 }
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2017 Jacob Rachiele
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to
+ * do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+ * USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Contributors:
+ *
+ * Jacob Rachiele
+ */
+package math.stats;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class SummaryStatisticsSpec {
+
+    @Test
+    public void whenSummaryComputedThenAgreesExactlyWithStatistics() {
+        Random random = new Random(11);
+        double[] data = new double[Statistics.PARALLEL_THRESHOLD * 2 + 513];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = 100 + random.nextGaussian();
+        }
+        SummaryStatistics summary = SummaryStatistics.of(data);
+        assertThat(summary.size(), is((long) data.length));
+        assertThat(summary.sum(), is(equalTo(Statistics.sumOf(data))));
+        assertThat(summary.sumOfSquares(), is(equalTo(Statistics.sumOfSquared(data))));
+        assertThat(summary.mean(), is(equalTo(Statistics.meanOf(data))));
+        assertThat(summary.variance(), is(equalTo(Statistics.varianceOf(data))));
+        assertThat(summary.stdDeviation(), is(equalTo(Statistics.stdDeviationOf(data))));
+    }
+
+    @Test
+    public void whenSmallDataThenExtremaAndMomentsCorrect() {
+        SummaryStatistics summary = SummaryStatistics.of(new double[] {3.5, 7.0, 11.5});
+        assertThat(summary.min(), is(3.5));
+        assertThat(summary.max(), is(11.5));
+        assertThat(summary.sum(), is(22.0));
+        assertThat(summary.variance(), is(closeTo(16.08333, 1E-4)));
+    }
+
+    @Test
+    public void whenSingleObservationThenVarianceNaN() {
+        assertThat(SummaryStatistics.of(new double[] {2.0}).variance(), is(Double.NaN));
+    }
+}
@@ -26,6 +26,7 @@ package data;
 import math.operations.Operators;
 
 import math.stats.Statistics;
+import math.stats.SummaryStatistics;
 
 import java.text.DecimalFormat;
 import java.util.Arrays;
@@ -38,6 +39,8 @@ import java.util.Arrays;
 public final class DoubleDataSet implements DataSet {
 
     private final double[] data;
+    private volatile SummaryStatistics summary;
+    private volatile Double median;
 
     /**
      * Construct a new data set from the given data.
@@ -53,22 +56,27 @@ public final class DoubleDataSet implements DataSet {
 
     @Override
     public final double sum() {
-        return Statistics.sumOf(this.data);
+        return summary().sum();
     }
 
     @Override
     public final double sumOfSquares() {
-        return Statistics.sumOfSquared(this.data);
+        return summary().sumOfSquares();
     }
 
     @Override
     public final double mean() {
-        return Statistics.meanOf(this.data);
+        return summary().mean();
     }
 
     @Override
     public final double median() {
-        return Statistics.medianOf(this.data);
+        Double median = this.median;
+        if (median == null) {
+            median = Statistics.medianOf(this.data);
+            this.median = median;
+        }
+        return median;
     }
 
     @Override
@@ -88,12 +96,26 @@ public final class DoubleDataSet implements DataSet {
 
     @Override
     public final double variance() {
-        return Statistics.varianceOf(this.data);
+        return summary().variance();
     }
 
     @Override
     public final double stdDeviation() {
-        return Statistics.stdDeviationOf(this.data);
+        return summary().stdDeviation();
+    }
+
+    /**
+     * The summary statistics of this data set, computed in a single pass on first request and then reused.
+     *
+     * @return the summary statistics of this data set.
+     */
+    public final SummaryStatistics summary() {
+        SummaryStatistics summary = this.summary;
+        if (summary == null) {
+            summary = SummaryStatistics.of(this.data);
+            this.summary = summary;
+        }
+        return summary;
     }
 
     @Override
@@ -31,6 +31,10 @@ import java.util.List;
 
 /**
  * Static methods for creating, manipulating, and operating on arrays of primitive doubles.
+ * <p>
+ * Methods whose names end in {@code Into} store their result in a destination array supplied by the caller, which
+ * must have the same length as the data and may be the data array itself.
+ * </p>
  *
  * @author Jacob Rachiele
  */
@@ -193,18 +197,32 @@ public final class DoubleFunctions {
      * @return the data transformed using a Box-Cox transformation with the given lambda value.
      */
     public static double[] boxCox(final double[] data, final double lambda) {
-        final double[] boxCoxed = new double[data.length];
+        return boxCoxInto(new double[data.length], data, lambda);
+    }
+
+    /**
+     * Transform the given data using a Box-Cox transformation with the given lambda value and store the result in
+     * the destination array. The destination may be the data array itself, in which case the data is transformed
+     * in place.
+     *
+     * @param destination the array to store the transformed data in.
+     * @param data        the data to transform.
+     * @param lambda      the Box-Cox parameter.
+     * @return the destination array, now holding the transformed data.
+     */
+    public static double[] boxCoxInto(final double[] destination, final double[] data, final double lambda) {
+        validate(destination, data);
         if (Math.abs(lambda) < EPSILON) {
-            for (int i = 0; i < boxCoxed.length; i++) {
-                boxCoxed[i] = Math.log(data[i]);
+            for (int i = 0; i < data.length; i++) {
+                destination[i] = Math.log(data[i]);
             }
 
         } else {
-            for (int i = 0; i < boxCoxed.length; i++) {
-                boxCoxed[i] = (Math.pow(data[i], lambda) - 1) / lambda;
+            for (int i = 0; i < data.length; i++) {
+                destination[i] = (Math.pow(data[i], lambda) - 1) / lambda;
             }
         }
-        return boxCoxed;
+        return destination;
     }
 
     /**
@@ -215,17 +233,30 @@ public final class DoubleFunctions {
      * @return the original, untransformed data in a new array.
      */
     public static double[] inverseBoxCox(final double[] data, final double lambda) {
-        final double[] invBoxCoxed = new double[data.length];
+        return inverseBoxCoxInto(new double[data.length], data, lambda);
+    }
+
+    /**
+     * Invert the Box-Cox transformation and store the original untransformed data in the destination array. The
+     * destination may be the data array itself, in which case the data is transformed in place.
+     *
+     * @param destination the array to store the untransformed data in.
+     * @param data        the transformed data to invert.
+     * @param lambda      the Box-Cox parameter used in the transformation.
+     * @return the destination array, now holding the original, untransformed data.
+     */
+    public static double[] inverseBoxCoxInto(final double[] destination, final double[] data, final double lambda) {
+        validate(destination, data);
         if (Math.abs(lambda) < EPSILON) {
-            for (int i = 0; i < invBoxCoxed.length; i++) {
-                invBoxCoxed[i] = Math.exp(data[i]);
+            for (int i = 0; i < data.length; i++) {
+                destination[i] = Math.exp(data[i]);
             }
         } else {
-            for (int i = 0; i < invBoxCoxed.length; i++) {
-                invBoxCoxed[i] = Math.pow(data[i] * lambda + 1, 1 / lambda);
+            for (int i = 0; i < data.length; i++) {
+                destination[i] = Math.pow(data[i] * lambda + 1, 1 / lambda);
             }
         }
-        return invBoxCoxed;
+        return destination;
     }
 
     /**
@@ -235,11 +266,23 @@ public final class DoubleFunctions {
      * @return a new array containing the square root of each element.
      */
     public static double[] sqrt(final double... data) {
-        final double[] sqrtData = new double[data.length];
-        for (int i = 0; i < sqrtData.length; i++) {
-            sqrtData[i] = Math.sqrt(data[i]);
+        return sqrtInto(new double[data.length], data);
+    }
+
+    /**
+     * Take the square root of each element of the given array and store the result in the destination array. The
+     * destination may be the data array itself, in which case the square root is taken in place.
+     *
+     * @param destination the array to store the square roots in.
+     * @param data        the data to take the square root of.
+     * @return the destination array, now holding the square root of each element.
+     */
+    public static double[] sqrtInto(final double[] destination, final double[] data) {
+        validate(destination, data);
+        for (int i = 0; i < data.length; i++) {
+            destination[i] = Math.sqrt(data[i]);
         }
-        return sqrtData;
+        return destination;
     }
 
 //    public static double[] reverse(final double... data) {
@@ -333,4 +376,12 @@ public final class DoubleFunctions {
         }
         return negative;
     }
+
+    private static void validate(final double[] destination, final double[] data) {
+        if (destination.length != data.length) {
+            throw new IllegalArgumentException("The destination array must have the same length as the data, but " +
+                                               "had length " + destination.length + " for data of length " +
+                                               data.length);
+        }
+    }
 }
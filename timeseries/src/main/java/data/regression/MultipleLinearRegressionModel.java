@@ -26,13 +26,8 @@ package data.regression;
 import com.google.common.collect.ImmutableList;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
-import org.ejml.alg.dense.mult.MatrixVectorMult;
-import org.ejml.data.D1Matrix64F;
-import org.ejml.data.DenseMatrix64F;
-import org.ejml.factory.LinearSolverFactory;
-import org.ejml.interfaces.decomposition.QRDecomposition;
-import org.ejml.interfaces.linsol.LinearSolver;
-import org.ejml.ops.CommonOps;
+import math.linear.doubles.Matrix;
+import math.linear.doubles.QRDecomposition;
 import math.stats.Statistics;
 
 import java.util.ArrayList;
@@ -216,59 +211,47 @@ public final class MultipleLinearRegressionModel implements LinearRegressionMode
 
     private class MatrixFormulation {
 
-        private final DenseMatrix64F A; // The design matrix.
-        private final DenseMatrix64F At; // The transpose of A.
-        private final DenseMatrix64F AtAInv; // The inverse of At times A.
-        private final DenseMatrix64F b; // The parameter estimate vector.
-        private final DenseMatrix64F y; // The response vector.
-        private final D1Matrix64F fitted;
+        private final double[] A; // The design matrix, stored column by column.
+        private final Matrix AtAInv; // The inverse of At times A.
+        private final double[] b; // The parameter estimate vector.
+        private final double[] fitted;
         private final List<Double> residuals;
         private final double sigma2;
-        private final DenseMatrix64F covarianceMatrix;
+        private final Matrix covarianceMatrix;
 
         private MatrixFormulation() {
             int numRows = response.size();
             int numCols = predictors.size() + ((hasIntercept()) ? 1 : 0);
-            this.A = createMatrixA(numRows, numCols);
-            this.At = new DenseMatrix64F(numCols, numRows);
-            CommonOps.transpose(A, At);
-            this.AtAInv = new DenseMatrix64F(numCols, numCols);
-            this.b = new DenseMatrix64F(numCols, 1);
-            this.y = new DenseMatrix64F(numRows, 1);
-            solveSystem(numRows, numCols);
+            this.A = createMatrixA(numRows);
+            QRDecomposition decomposition = new QRDecomposition(numRows, numCols);
+            decomposition.decomposeColumnMajor(A);
+            this.b = decomposition.solveInto(new double[numCols], arrayFrom(response));
+            // (A'A)^-1 = (R'R)^-1 = R^-1 R^-T, so A'A is never formed.
+            Matrix Rinverse = decomposition.rInverse();
+            this.AtAInv = Rinverse.timesTranspose(Rinverse);
             this.fitted = computeFittedValues();
             this.residuals = computeResiduals();
             this.sigma2 = estimateSigma2(numCols);
-            this.covarianceMatrix = new DenseMatrix64F(numCols, numCols);
-            CommonOps.scale(sigma2, AtAInv, covarianceMatrix);
+            this.covarianceMatrix = AtAInv.scaledBy(sigma2);
         }
 
-        private void solveSystem(int numRows, int numCols) {
-            LinearSolver<DenseMatrix64F> qrSolver = LinearSolverFactory.qr(numRows, numCols);
-            QRDecomposition<DenseMatrix64F> decomposition = qrSolver.getDecomposition();
-            qrSolver.setA(A);
-            y.setData(arrayFrom(response));
-            qrSolver.solve(this.y, this.b);
-            DenseMatrix64F R = decomposition.getR(null, true);
-            LinearSolver<DenseMatrix64F> linearSolver = LinearSolverFactory.linear(numCols);
-            linearSolver.setA(R);
-            DenseMatrix64F Rinverse = new DenseMatrix64F(numCols, numCols);
-            linearSolver.invert(Rinverse); // stores solver's solution inside of Rinverse.
-            CommonOps.multOuter(Rinverse, this.AtAInv);
-        }
-
-        private DenseMatrix64F createMatrixA(int numRows, int numCols) {
+        private double[] createMatrixA(int numRows) {
             double[] data = hasIntercept ? fill(numRows, 1.0) : arrayFrom();
             for (List<Double> predictor : predictors) {
                 data = combine(data, arrayFrom(predictor));
             }
-            boolean isRowMajor = false;
-            return new DenseMatrix64F(numRows, numCols, isRowMajor, data);
+            return data;
         }
 
-        private D1Matrix64F computeFittedValues() {
-            D1Matrix64F fitted = new DenseMatrix64F(response.size(), 1);
-            MatrixVectorMult.mult(A, b, fitted);
+        private double[] computeFittedValues() {
+            final int numRows = response.size();
+            final double[] fitted = new double[numRows];
+            for (int j = 0; j < b.length; j++) {
+                final int column = j * numRows;
+                for (int i = 0; i < numRows; i++) {
+                    fitted[i] += A[column + i] * b[j];
+                }
+            }
             return fitted;
         }
 
@@ -287,7 +270,7 @@ public final class MultipleLinearRegressionModel implements LinearRegressionMode
         }
 
         private List<Double> getFittedvalues() {
-            return listFrom(fitted.getData());
+            return listFrom(fitted);
         }
 
         private List<Double> getResiduals() {
@@ -295,13 +278,11 @@ public final class MultipleLinearRegressionModel implements LinearRegressionMode
         }
 
         private List<Double> getBetaEstimates() {
-            return listFrom(b.getData());
+            return listFrom(b);
         }
 
         private List<Double> getBetaStandardErrors(int numCols) {
-            DenseMatrix64F diag = new DenseMatrix64F(numCols, 1);
-            CommonOps.extractDiag(this.covarianceMatrix, diag);
-            return listFrom(sqrt(diag.getData()));
+            return listFrom(sqrt(this.covarianceMatrix.diagonal()));
         }
 
         private double getSigma2() {
@@ -25,13 +25,10 @@ package data.regression.primitive;
 
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
-import org.ejml.alg.dense.mult.MatrixVectorMult;
-import org.ejml.data.D1Matrix64F;
-import org.ejml.data.DenseMatrix64F;
-import org.ejml.factory.LinearSolverFactory;
-import org.ejml.interfaces.decomposition.QRDecomposition;
-import org.ejml.interfaces.linsol.LinearSolver;
-import org.ejml.ops.CommonOps;
+import math.linear.doubles.CholeskyDecomposition;
+import math.linear.doubles.Matrix;
+import math.linear.doubles.QRDecomposition;
+import math.linear.doubles.SparseMatrix;
 import math.stats.Statistics;
 
 import static data.DoubleFunctions.*;
@@ -43,6 +40,12 @@ import static data.DoubleFunctions.*;
 @EqualsAndHashCode @ToString
 public final class MultipleLinearRegressionModel implements LinearRegressionModel {
 
+    // The largest fraction of nonzero elements in the design matrix for which it is treated as sparse.
+    private static final double SPARSE_DENSITY = 0.25;
+    // The largest estimated condition number of A'A for which the normal equations are solved. Solving them loses
+    // about as many digits as the condition number of A'A has, against half as many for the QR decomposition.
+    private static final double MAX_NORMAL_CONDITION = 1E8;
+
     private final double[][] predictors;
     private final double[] response;
     private final double[] beta;
@@ -208,65 +211,93 @@ public final class MultipleLinearRegressionModel implements LinearRegressionMode
 
     private class MatrixFormulation {
 
-        private final DenseMatrix64F A; // The design matrix.
-        private final DenseMatrix64F At; // The transpose of A.
-        private final DenseMatrix64F AtAInv; // The inverse of At times A.
-        private final DenseMatrix64F b; // The parameter estimate vector.
-        private final DenseMatrix64F y; // The response vector.
+        private final double[] A; // The design matrix, stored column by column.
+        private final Matrix AtAInv; // The inverse of At times A.
+        private final double[] b; // The parameter estimate vector.
         private final double[] fitted;
         private final double[] residuals;
         private final double sigma2;
-        private final DenseMatrix64F covarianceMatrix;
+        private final Matrix covarianceMatrix;
 
         MatrixFormulation() {
             int numRows = response.length;
             int numCols = predictors.length + ((hasIntercept) ? 1 : 0);
-            this.A = createMatrixA(numRows, numCols);
-            this.At = new DenseMatrix64F(numCols, numRows);
-            CommonOps.transpose(A, At);
-            this.AtAInv = new DenseMatrix64F(numCols, numCols);
-            this.b = new DenseMatrix64F(numCols, 1);
-            this.y = new DenseMatrix64F(numRows, 1);
-            solveSystem(numRows, numCols);
+            this.A = createMatrixA(numRows);
+            // Designs that are mostly zeros, such as those with seasonal dummies, are solved through the normal
+            // equations, since A'A then costs only the products of the nonzeros within each row. Forming A'A squares
+            // the condition number of A, so the QR decomposition is used instead whenever A'A is estimated to be
+            // ill-conditioned, or turns out not to be numerically positive definite at all. The sparse copy of A and
+            // the Cholesky workspace are only built once the nonzeros show that the design is sparse.
+            double[] estimate = null;
+            Matrix inverse = null;
+            if (countNonZeros(A) <= SPARSE_DENSITY * A.length) {
+                final SparseMatrix sparseA = SparseMatrix.fromColumnMajor(numRows, numCols, A);
+                final CholeskyDecomposition cholesky = new CholeskyDecomposition(numCols);
+                if (cholesky.decompose(sparseA.gram()) && isWellConditioned(cholesky)) {
+                    estimate = cholesky.solveInto(new double[numCols],
+                                                  sparseA.transposeTimesInto(new double[numCols], response));
+                    inverse = cholesky.inverse();
+                }
+            }
+            if (estimate == null) {
+                QRDecomposition decomposition = new QRDecomposition(numRows, numCols);
+                decomposition.decomposeColumnMajor(A);
+                estimate = decomposition.solveInto(new double[numCols], response);
+                // (A'A)^-1 = (R'R)^-1 = R^-1 R^-T, so A'A is never formed.
+                Matrix Rinverse = decomposition.rInverse();
+                inverse = Rinverse.timesTranspose(Rinverse);
+            }
+            this.b = estimate;
+            this.AtAInv = inverse;
             this.fitted = computeFittedValues();
             this.residuals = computeResiduals();
             this.sigma2 = estimateSigma2(numCols);
-            this.covarianceMatrix = new DenseMatrix64F(numCols, numCols);
-            CommonOps.scale(sigma2, AtAInv, covarianceMatrix);
+            this.covarianceMatrix = AtAInv.scaledBy(sigma2);
         }
 
-        private void solveSystem(int numRows, int numCols) {
-            LinearSolver<DenseMatrix64F> qrSolver = LinearSolverFactory.qr(numRows, numCols);
-            QRDecomposition<DenseMatrix64F> decomposition = qrSolver.getDecomposition();
-            qrSolver.setA(A);
-            y.setData(response);
-            qrSolver.solve(this.y, this.b);
-            DenseMatrix64F R = decomposition.getR(null, true);
-            LinearSolver<DenseMatrix64F> linearSolver = LinearSolverFactory.linear(numCols);
-            linearSolver.setA(R);
-            DenseMatrix64F Rinverse = new DenseMatrix64F(numCols, numCols);
-            linearSolver.invert(Rinverse); // stores solver's solution inside of Rinverse.
-            CommonOps.multOuter(Rinverse, this.AtAInv);
+        private int countNonZeros(final double[] data) {
+            int count = 0;
+            for (double d : data) {
+                if (d != 0.0) {
+                    count++;
+                }
+            }
+            return count;
         }
 
-        private DenseMatrix64F createMatrixA(int numRows, int numCols) {
-            double[] data;
-            if (hasIntercept) {
-                data = fill(numRows, 1.0);
-            } else {
-                data = arrayFrom();
+        // The squared ratio of the largest to the smallest diagonal element of the Cholesky factor is a lower bound
+        // on the condition number of A'A, and a good estimate of it when the ill-conditioning comes from nearly
+        // collinear columns, such as an intercept and a long time trend.
+        private boolean isWellConditioned(final CholeskyDecomposition cholesky) {
+            final double[] diagonal = cholesky.lower().diagonal();
+            double max = 0.0;
+            double min = Double.POSITIVE_INFINITY;
+            for (double d : diagonal) {
+                max = Math.max(max, d);
+                min = Math.min(min, d);
             }
+            final double ratio = max / min;
+            return ratio * ratio <= MAX_NORMAL_CONDITION;
+        }
+
+        private double[] createMatrixA(int numRows) {
+            double[] data = hasIntercept ? fill(numRows, 1.0) : arrayFrom();
             for (double[] predictor : predictors) {
                 data = combine(data, arrayFrom(predictor));
             }
-            boolean isRowMajor = false;
-            return new DenseMatrix64F(numRows, numCols, isRowMajor, data);
+            return data;
         }
 
-        private double[] computeFittedValues() {
-            D1Matrix64F fitted = new DenseMatrix64F(response.length, 1);
-            MatrixVectorMult.mult(A, b, fitted);
-            return fitted.getData();
+        double[] computeFittedValues() {
+            final int numRows = response.length;
+            final double[] fitted = new double[numRows];
+            for (int j = 0; j < b.length; j++) {
+                final int column = j * numRows;
+                for (int i = 0; i < numRows; i++) {
+                    fitted[i] += A[column + i] * b[j];
+                }
+            }
+            return fitted;
         }
 
         private double[] computeResiduals() {
@@ -287,13 +318,11 @@ public final class MultipleLinearRegressionModel implements LinearRegressionMode
         }
 
         private double[] getBetaStandardErrors(int numCols) {
-            DenseMatrix64F diag = new DenseMatrix64F(numCols, 1);
-            CommonOps.extractDiag(this.covarianceMatrix, diag);
-            return sqrt(diag.getData());
+            return sqrt(this.covarianceMatrix.diagonal());
         }
 
         private double[] getBetaEstimates() {
-            return b.getData().clone();
+            return b.clone();
         }
 
         private double getSigma2() {
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2017 Jacob Rachiele
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to
+ * do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+ * USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Contributors:
+ *
+ * Jacob Rachiele
+ */
+package timeseries;
+
+/**
+ * A set of constants representing the functions that may be used to summarize the observations falling within
+ * a single time period when resampling a time series.
+ *
+ * @author Jacob Rachiele
+ * @see TimeSeries#resample(TimePeriod, Aggregation...)
+ */
+public enum Aggregation {
+
+    /** The sum of the observations, or 0 if there are none. */
+    SUM,
+    /** The mean of the observations. */
+    MEAN,
+    /** The smallest observation. */
+    MIN,
+    /** The largest observation. */
+    MAX,
+    /** The earliest observation. */
+    FIRST,
+    /** The latest observation. */
+    LAST,
+    /** The number of observations. */
+    COUNT,
+    /** The unbiased sample standard deviation of the observations. */
+    STD;
+
+    @Override
+    public String toString() {
+        return this.name().toLowerCase();
+    }
+}
@@ -0,0 +1,311 @@
+/*
+ * Copyright (c) 2017 Jacob Rachiele
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to
+ * do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+ * USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Contributors:
+ *
+ * Jacob Rachiele
+ */
+package timeseries;
+
+import java.time.OffsetDateTime;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A sequence of observations taken at regular time intervals that may grow over time.
+ * <p>
+ * Observations are appended by a single writer thread to fixed-size primitive segments, so an append never copies
+ * the existing data. Any number of reader threads may concurrently obtain immutable {@link TimeSeries} snapshots
+ * of the observations appended so far. A snapshot shares the observation times already computed by this series
+ * and is memoized until the next append, so repeated requests for the same snapshot cost nothing. The running sum,
+ * mean, and variance are maintained incrementally as observations are appended.
+ * </p>
+ * <p>
+ * The append methods are not thread-safe with respect to one another and must only be called from a single writer
+ * thread. Every other method is thread-safe.
+ * </p>
+ *
+ * @author Jacob Rachiele
+ */
+public final class AppendableTimeSeries {
+
+    private static final int SEGMENT_SHIFT = 12;
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+    private static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    private final TimePeriod timePeriod;
+    private final long periodLength;
+
+    // Segments are only ever written at indices at or beyond the published size, and the segment tables are
+    // replaced, never mutated in place below the published size, before the state that covers them is published.
+    private double[][] values;
+    private OffsetDateTime[][] times;
+    private OffsetDateTime nextTime;
+
+    private volatile State state;
+    private volatile TimeSeries snapshot;
+
+    /**
+     * Create a new, empty appendable time series with the given time period and time of first observation.
+     *
+     * @param timePeriod the period of time between observations.
+     * @param startTime  the time at which the first observation will be made.
+     */
+    public AppendableTimeSeries(final TimePeriod timePeriod, final OffsetDateTime startTime) {
+        if (timePeriod == null || startTime == null) {
+            throw new NullPointerException("The time period and start time must not be null.");
+        }
+        this.timePeriod = timePeriod;
+        this.periodLength = timePeriod.periodLength() * timePeriod.timeUnit().unitLength();
+        this.values = new double[1][];
+        this.times = new OffsetDateTime[1][];
+        this.nextTime = startTime;
+        this.state = State.EMPTY;
+    }
+
+    /**
+     * Create a new appendable time series initialized with the observations of the given time series.
+     *
+     * @param timeSeries the time series whose observations this series starts with.
+     */
+    public AppendableTimeSeries(final TimeSeries timeSeries) {
+        this(timeSeries.timePeriod(), timeSeries.startTime());
+        append(timeSeries.asArray());
+    }
+
+    /**
+     * Append a single observation, made one time period after the last, to the end of this series.
+     * This method must only be called from the writer thread.
+     *
+     * @param value the observation to append.
+     */
+    public void append(final double value) {
+        final State current = this.state;
+        final int index = current.size;
+        ensureSegment(index);
+        values[index >>> SEGMENT_SHIFT][index & SEGMENT_MASK] = value;
+        times[index >>> SEGMENT_SHIFT][index & SEGMENT_MASK] = nextTime;
+        nextTime = nextTime.plus(periodLength, timePeriod.timeUnit().temporalUnit());
+        this.state = current.plus(value);
+    }
+
+    /**
+     * Append the given observations, in order, to the end of this series. Readers see either none or all of the
+     * given observations. This method must only be called from the writer thread.
+     *
+     * @param values the observations to append.
+     */
+    public void append(final double... values) {
+        State current = this.state;
+        int index = current.size;
+        for (double value : values) {
+            ensureSegment(index);
+            this.values[index >>> SEGMENT_SHIFT][index & SEGMENT_MASK] = value;
+            this.times[index >>> SEGMENT_SHIFT][index & SEGMENT_MASK] = nextTime;
+            nextTime = nextTime.plus(periodLength, timePeriod.timeUnit().temporalUnit());
+            current = current.plus(value);
+            index++;
+        }
+        this.state = current;
+    }
+
+    /**
+     * Retrieve the value of the observation at the given index.
+     *
+     * @param index the index of the value to return.
+     * @return the value of the observation at the given index.
+     *
+     * @throws IndexOutOfBoundsException if the index is negative or not less than the current size.
+     */
+    public double at(final int index) {
+        final int size = this.state.size;
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return values[index >>> SEGMENT_SHIFT][index & SEGMENT_MASK];
+    }
+
+    /**
+     * Obtain an immutable snapshot of every observation appended so far. The snapshot is consistent: it reflects
+     * a point in time between two appends, and the observations it contains never change.
+     *
+     * @return an immutable snapshot of every observation appended so far.
+     */
+    public TimeSeries snapshot() {
+        final State current = this.state;
+        final TimeSeries cached = this.snapshot;
+        if (cached != null && cached.size() == current.size) {
+            return cached;
+        }
+        final double[][] values = this.values;
+        final double[] series = new double[current.size];
+        int copied = 0;
+        for (int segment = 0; copied < series.length; segment++) {
+            final int length = Math.min(SEGMENT_SIZE, series.length - copied);
+            System.arraycopy(values[segment], 0, series, copied, length);
+            copied += length;
+        }
+        final TimeSeries fresh = new TimeSeries(timePeriod, new ObservationTimes(this.times, current.size),
+                                                series, current.mean(), null);
+        if (cached == null || cached.size() < fresh.size()) {
+            this.snapshot = fresh;
+        }
+        return fresh;
+    }
+
+    /**
+     * The number of observations appended so far.
+     *
+     * @return the number of observations appended so far.
+     */
+    public int size() {
+        return this.state.size;
+    }
+
+    /**
+     * The sum of the observations appended so far.
+     *
+     * @return the sum of the observations appended so far.
+     */
+    public double sum() {
+        return this.state.sum;
+    }
+
+    /**
+     * The mean of the observations appended so far.
+     *
+     * @return the mean of the observations appended so far.
+     */
+    public double mean() {
+        return this.state.mean();
+    }
+
+    /**
+     * The unbiased sample variance of the observations appended so far.
+     *
+     * @return the unbiased sample variance of the observations appended so far.
+     */
+    public double variance() {
+        return this.state.variance();
+    }
+
+    /**
+     * The unbiased sample standard deviation of the observations appended so far.
+     *
+     * @return the unbiased sample standard deviation of the observations appended so far.
+     */
+    public double stdDeviation() {
+        return Math.sqrt(variance());
+    }
+
+    /**
+     * Retrieve the time period at which observations are made for this series.
+     *
+     * @return the time period at which observations are made for this series.
+     */
+    public TimePeriod timePeriod() {
+        return this.timePeriod;
+    }
+
+    private void ensureSegment(final int index) {
+        final int segment = index >>> SEGMENT_SHIFT;
+        if (segment == values.length) {
+            // Publish fresh tables rather than mutating the ones readers may currently hold.
+            final double[][] newValues = Arrays.copyOf(values, segment * 2);
+            final OffsetDateTime[][] newTimes = Arrays.copyOf(times, segment * 2);
+            newValues[segment] = new double[SEGMENT_SIZE];
+            newTimes[segment] = new OffsetDateTime[SEGMENT_SIZE];
+            this.values = newValues;
+            this.times = newTimes;
+        } else if (values[segment] == null) {
+            // The slot is beyond every published size, so no reader can observe this write.
+            values[segment] = new double[SEGMENT_SIZE];
+            times[segment] = new OffsetDateTime[SEGMENT_SIZE];
+        }
+    }
+
+    /**
+     * An immutable view of the running statistics. A single instance is published per append, so readers always see
+     * a size and set of moments that agree with one another.
+     */
+    private static final class State {
+
+        private static final State EMPTY = new State(0, 0.0, 0.0, 0.0);
+
+        private final int size;
+        private final double sum;
+        private final double runningMean;
+        private final double sumOfSquaredDeviations;
+
+        private State(final int size, final double sum, final double runningMean,
+                      final double sumOfSquaredDeviations) {
+            this.size = size;
+            this.sum = sum;
+            this.runningMean = runningMean;
+            this.sumOfSquaredDeviations = sumOfSquaredDeviations;
+        }
+
+        // Welford's update of the mean and the sum of squared deviations from the mean.
+        private State plus(final double value) {
+            final int newSize = size + 1;
+            final double delta = value - runningMean;
+            final double newMean = runningMean + delta / newSize;
+            return new State(newSize, sum + value, newMean,
+                             sumOfSquaredDeviations + delta * (value - newMean));
+        }
+
+        private double mean() {
+            return (size == 0) ? Double.NaN : runningMean;
+        }
+
+        private double variance() {
+            return (size < 2) ? Double.NaN : sumOfSquaredDeviations / (size - 1);
+        }
+    }
+
+    /**
+     * An immutable list view of the first size observation times. The backing entries are never modified once
+     * written, so the view may be shared freely between snapshots and threads.
+     */
+    private static final class ObservationTimes extends AbstractList<OffsetDateTime> implements RandomAccess {
+
+        private final OffsetDateTime[][] times;
+        private final int size;
+
+        private ObservationTimes(final OffsetDateTime[][] times, final int size) {
+            this.times = times;
+            this.size = size;
+        }
+
+        @Override
+        public OffsetDateTime get(final int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            return times[index >>> SEGMENT_SHIFT][index & SEGMENT_MASK];
+        }
+
+        @Override
+        public int size() {
+            return this.size;
+        }
+    }
+}
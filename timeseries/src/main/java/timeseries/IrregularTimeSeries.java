@@ -0,0 +1,403 @@
+/*
+ * Copyright (c) 2017 Jacob Rachiele
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to
+ * do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+ * USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Contributors:
+ *
+ * Jacob Rachiele
+ */
+package timeseries;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable sequence of observations taken at arbitrary, strictly increasing points in time.
+ * <p>
+ * Observation times are kept as sorted primitive instants, so lookups by time use binary search rather than a hash
+ * index and never require an exact match. Two series may be joined as-of, taking the last known value of one at
+ * each observation time of the other, or aligned onto the union or intersection of their observation times. Both
+ * operations are a single linear merge over the two sets of observation times. This class is immutable and
+ * thread-safe.
+ * </p>
+ *
+ * @author Jacob Rachiele
+ */
+public final class IrregularTimeSeries {
+
+    /**
+     * Specifies the observation times onto which two series are aligned.
+     */
+    public enum Join {
+        /**
+         * Every time at which either series has an observation. A series with no observation at a time has the
+         * value NaN there.
+         */
+        UNION,
+        /**
+         * Only the times at which both series have an observation.
+         */
+        INTERSECTION
+    }
+
+    private final OffsetDateTime[] times;
+    private final long[] seconds;
+    private final int[] nanos;
+    private final double[] values;
+
+    /**
+     * Create a new irregular time series with the given observation times and observation data.
+     *
+     * @param observationTimes the strictly increasing times at which the observations were made.
+     * @param values           the observation data.
+     */
+    public IrregularTimeSeries(final List<OffsetDateTime> observationTimes, final double... values) {
+        this(observationTimes.toArray(new OffsetDateTime[observationTimes.size()]), values.clone());
+    }
+
+    private IrregularTimeSeries(final OffsetDateTime[] times, final double[] values) {
+        if (times.length != values.length) {
+            throw new IllegalArgumentException("There must be exactly one observation time for each value.");
+        }
+        this.times = times;
+        this.values = values;
+        this.seconds = new long[times.length];
+        this.nanos = new int[times.length];
+        for (int i = 0; i < times.length; i++) {
+            seconds[i] = times[i].toEpochSecond();
+            nanos[i] = times[i].getNano();
+            if (i > 0 && compare(seconds[i - 1], nanos[i - 1], seconds[i], nanos[i]) >= 0) {
+                throw new IllegalArgumentException("The observation times must be strictly increasing, but " +
+                                                   times[i] + " came after " + times[i - 1]);
+            }
+        }
+    }
+
+    /**
+     * Create a new irregular time series with the same observation times and observations as the given series.
+     *
+     * @param timeSeries the time series to convert.
+     * @return a new irregular time series with the same observation times and observations as the given series.
+     */
+    public static IrregularTimeSeries from(final TimeSeries timeSeries) {
+        return new IrregularTimeSeries(timeSeries.observationTimes(), timeSeries.asArray());
+    }
+
+    /**
+     * The number of observations in this series.
+     *
+     * @return the number of observations in this series.
+     */
+    public int size() {
+        return this.values.length;
+    }
+
+    /**
+     * Retrieve the value of the observation at the given index.
+     *
+     * @param index the index of the value to return.
+     * @return the value of the observation at the given index.
+     */
+    public double at(final int index) {
+        return this.values[index];
+    }
+
+    /**
+     * Retrieve the time of the observation at the given index.
+     *
+     * @param index the index of the observation time to return.
+     * @return the time of the observation at the given index.
+     */
+    public OffsetDateTime timeAt(final int index) {
+        return this.times[index];
+    }
+
+    /**
+     * Retrieve the value of the observation made at exactly the given time.
+     *
+     * @param dateTime the time of the observation.
+     * @return the value of the observation made at exactly the given time.
+     *
+     * @throws IllegalArgumentException if there is no observation at the given time.
+     */
+    public double at(final OffsetDateTime dateTime) {
+        final int index = floorIndex(dateTime);
+        if (index < 0 || compare(seconds[index], nanos[index], dateTime.toEpochSecond(), dateTime.getNano()) != 0) {
+            throw new IllegalArgumentException("There is no observation at " + dateTime);
+        }
+        return values[index];
+    }
+
+    /**
+     * The index of the last observation made at or before the given time, or -1 if there is none.
+     *
+     * @param dateTime the time to search for.
+     * @return the index of the last observation made at or before the given time, or -1 if there is none.
+     */
+    public int floorIndex(final OffsetDateTime dateTime) {
+        return upperBound(dateTime.toEpochSecond(), dateTime.getNano()) - 1;
+    }
+
+    /**
+     * The index of the first observation made at or after the given time, or the size of this series if there is
+     * none.
+     *
+     * @param dateTime the time to search for.
+     * @return the index of the first observation made at or after the given time, or the size of this series if
+     * there is none.
+     */
+    public int ceilingIndex(final OffsetDateTime dateTime) {
+        return lowerBound(dateTime.toEpochSecond(), dateTime.getNano());
+    }
+
+    /**
+     * Return the observations made from start (inclusive) to end (inclusive). Neither time needs to coincide with
+     * an observation.
+     *
+     * @param start the beginning of the time range.
+     * @param end   the end of the time range.
+     * @return the observations made from start (inclusive) to end (inclusive).
+     */
+    public IrregularTimeSeries between(final OffsetDateTime start, final OffsetDateTime end) {
+        final int from = ceilingIndex(start);
+        final int to = Math.max(floorIndex(end) + 1, from);
+        return new IrregularTimeSeries(Arrays.copyOfRange(times, from, to), Arrays.copyOfRange(values, from, to));
+    }
+
+    /**
+     * The last value known at the given time, that is, the value of the last observation made at or before the
+     * given time, or NaN if there is none.
+     *
+     * @param dateTime the time at which to find the last known value.
+     * @return the last value known at the given time.
+     */
+    public double asOf(final OffsetDateTime dateTime) {
+        final int index = floorIndex(dateTime);
+        return (index < 0) ? Double.NaN : values[index];
+    }
+
+    /**
+     * Join the given series to this one as-of this series' observation times. The result has this series'
+     * observation times and, at each of them, the last value of the given series known at that time.
+     *
+     * @param other the series whose last known values are to be taken.
+     * @return a new series with this series' observation times and the given series' last known values.
+     */
+    public IrregularTimeSeries asOfJoin(final IrregularTimeSeries other) {
+        final double[] joined = new double[size()];
+        int j = -1;
+        for (int i = 0; i < joined.length; i++) {
+            while (j + 1 < other.size() &&
+                   compare(other.seconds[j + 1], other.nanos[j + 1], seconds[i], nanos[i]) <= 0) {
+                j++;
+            }
+            joined[i] = (j < 0) ? Double.NaN : other.values[j];
+        }
+        return new IrregularTimeSeries(times, joined);
+    }
+
+    /**
+     * Align this series and the given series onto a common set of observation times.
+     *
+     * @param other the series to align with this one.
+     * @param join  which observation times to align the two series onto.
+     * @return a list of two series with identical observation times, this series first.
+     */
+    public List<IrregularTimeSeries> align(final IrregularTimeSeries other, final Join join) {
+        final int capacity = (join == Join.UNION) ? size() + other.size() : Math.min(size(), other.size());
+        final OffsetDateTime[] alignedTimes = new OffsetDateTime[capacity];
+        final double[] left = new double[capacity];
+        final double[] right = new double[capacity];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < size() || j < other.size()) {
+            final int comparison;
+            if (i == size()) {
+                comparison = 1;
+            } else if (j == other.size()) {
+                comparison = -1;
+            } else {
+                comparison = compare(seconds[i], nanos[i], other.seconds[j], other.nanos[j]);
+            }
+            if (comparison == 0) {
+                alignedTimes[k] = times[i];
+                left[k] = values[i++];
+                right[k++] = other.values[j++];
+            } else if (comparison < 0) {
+                if (join == Join.UNION) {
+                    alignedTimes[k] = times[i];
+                    left[k] = values[i];
+                    right[k++] = Double.NaN;
+                }
+                i++;
+            } else {
+                if (join == Join.UNION) {
+                    alignedTimes[k] = other.times[j];
+                    left[k] = Double.NaN;
+                    right[k++] = other.values[j];
+                }
+                j++;
+            }
+        }
+        final OffsetDateTime[] sharedTimes = Arrays.copyOf(alignedTimes, k);
+        final List<IrregularTimeSeries> aligned = new ArrayList<>(2);
+        aligned.add(new IrregularTimeSeries(sharedTimes, Arrays.copyOf(left, k)));
+        aligned.add(new IrregularTimeSeries(sharedTimes, Arrays.copyOf(right, k)));
+        return aligned;
+    }
+
+    /**
+     * Add the given series to this one at every time both have an observation.
+     *
+     * @param other the series to add to this one.
+     * @return the sum of the two series over the intersection of their observation times.
+     */
+    public IrregularTimeSeries plus(final IrregularTimeSeries other) {
+        final List<IrregularTimeSeries> aligned = align(other, Join.INTERSECTION);
+        final double[] sum = aligned.get(0).values;
+        for (int t = 0; t < sum.length; t++) {
+            sum[t] += aligned.get(1).values[t];
+        }
+        return aligned.get(0);
+    }
+
+    /**
+     * Subtract the given series from this one at every time both have an observation.
+     *
+     * @param other the series to subtract from this one.
+     * @return the difference of the two series over the intersection of their observation times.
+     */
+    public IrregularTimeSeries minus(final IrregularTimeSeries other) {
+        final List<IrregularTimeSeries> aligned = align(other, Join.INTERSECTION);
+        final double[] difference = aligned.get(0).values;
+        for (int t = 0; t < difference.length; t++) {
+            difference[t] -= aligned.get(1).values[t];
+        }
+        return aligned.get(0);
+    }
+
+    /**
+     * Multiply this series by the given one at every time both have an observation.
+     *
+     * @param other the series to multiply this one by.
+     * @return the product of the two series over the intersection of their observation times.
+     */
+    public IrregularTimeSeries times(final IrregularTimeSeries other) {
+        final List<IrregularTimeSeries> aligned = align(other, Join.INTERSECTION);
+        final double[] product = aligned.get(0).values;
+        for (int t = 0; t < product.length; t++) {
+            product[t] *= aligned.get(1).values[t];
+        }
+        return aligned.get(0);
+    }
+
+    /**
+     * Summarize the observations in this series over calendar-aligned periods of the given length.
+     *
+     * @param timePeriod   the time period to summarize observations over.
+     * @param aggregations the aggregations to compute.
+     * @return a map from each of the given aggregations to the resampled, regularly spaced, time series it produced.
+     * @see Resampler
+     */
+    public Map<Aggregation, TimeSeries> resample(final TimePeriod timePeriod, final Aggregation... aggregations) {
+        return new Resampler(timePeriod, true).resample(observationTimes(), values, null, aggregations);
+    }
+
+    /**
+     * Retrieve the list of observation times for this series.
+     *
+     * @return the list of observation times for this series.
+     */
+    public List<OffsetDateTime> observationTimes() {
+        return Collections.unmodifiableList(Arrays.asList(times));
+    }
+
+    /**
+     * The observations.
+     *
+     * @return the observations.
+     */
+    public double[] asArray() {
+        return this.values.clone();
+    }
+
+    // The index of the first observation made at or after the given instant.
+    private int lowerBound(final long second, final int nano) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (compare(seconds[mid], nanos[mid], second, nano) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // The index of the first observation made strictly after the given instant.
+    private int upperBound(final long second, final int nano) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (compare(seconds[mid], nanos[mid], second, nano) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int compare(final long firstSecond, final int firstNano, final long secondSecond,
+                               final int secondNano) {
+        final int comparison = Long.compare(firstSecond, secondSecond);
+        return (comparison != 0) ? comparison : Integer.compare(firstNano, secondNano);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        IrregularTimeSeries that = (IrregularTimeSeries) o;
+
+        if (!Arrays.equals(times, that.times)) return false;
+        return Arrays.equals(values, that.values);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Arrays.hashCode(times);
+        result = 31 * result + Arrays.hashCode(values);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "IrregularTimeSeries{size=" + values.length +
+               (values.length > 0 ? ", start=" + times[0] + ", end=" + times[values.length - 1] : "") + "}";
+    }
+}
@@ -0,0 +1,357 @@
+/*
+ * Copyright (c) 2017 Jacob Rachiele
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to
+ * do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+ * USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Contributors:
+ *
+ * Jacob Rachiele
+ */
+package timeseries;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Summarizes observations over calendar-aligned time periods. Every requested {@link Aggregation} is computed in a
+ * single pass over the data.
+ * <p>
+ * Periods are aligned to the calendar rather than to the first observation: years, decades and centuries begin on
+ * the first of January of a year divisible by the period length in years, months and quarters begin on the first
+ * of a month whose index since year 0 is divisible by the period length in months, weeks begin on a Monday, and
+ * shorter periods are aligned to the start of the epoch in the offset of the first observation. The observation
+ * times need not be regularly spaced but must be in ascending order. Periods containing no observations are included
+ * in the result so that it is regularly spaced, with a count and sum of zero and a value of NaN for every other
+ * aggregation. Large inputs are split at period boundaries and summarized in parallel. Since each period is
+ * summarized entirely by one thread, the result does not depend on the number of threads.
+ * </p>
+ *
+ * @author Jacob Rachiele
+ */
+public final class Resampler {
+
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+    private static final int NANOS_PER_SECOND = 1_000_000_000;
+
+    private final TimePeriod timePeriod;
+    private final boolean includePartial;
+
+    /**
+     * Create a new resampler that summarizes observations over the given time period.
+     *
+     * @param timePeriod     the time period to summarize observations over.
+     * @param includePartial whether to include the first and last periods in the result if the observations do not
+     *                       cover them completely.
+     */
+    public Resampler(final TimePeriod timePeriod, final boolean includePartial) {
+        if (timePeriod == null) {
+            throw new NullPointerException("The time period must not be null.");
+        }
+        this.timePeriod = timePeriod;
+        this.includePartial = includePartial;
+    }
+
+    /**
+     * Summarize the given time series with each of the given aggregations.
+     *
+     * @param timeSeries   the time series to summarize.
+     * @param aggregations the aggregations to compute.
+     * @return a map from each of the given aggregations to the resampled time series it produced.
+     */
+    public Map<Aggregation, TimeSeries> resample(final TimeSeries timeSeries, final Aggregation... aggregations) {
+        return resample(timeSeries.observationTimes(), timeSeries.asArray(), timeSeries.timePeriod(),
+                        aggregations);
+    }
+
+    /**
+     * Summarize the given observations with each of the given aggregations.
+     *
+     * @param observationTimes the times at which the observations were made, in ascending order.
+     * @param values           the observations.
+     * @param sourcePeriod     the period of time between the given observations, used to decide whether the last
+     *                         period is completely covered. May be null if the observations are irregularly spaced,
+     *                         in which case the last period is always considered complete.
+     * @param aggregations     the aggregations to compute.
+     * @return a map from each of the given aggregations to the resampled time series it produced.
+     */
+    public Map<Aggregation, TimeSeries> resample(final List<OffsetDateTime> observationTimes, final double[] values,
+                                                 final TimePeriod sourcePeriod,
+                                                 final Aggregation... aggregations) {
+        if (observationTimes.size() != values.length) {
+            throw new IllegalArgumentException("There must be exactly one observation time for each value.");
+        }
+        final Map<Aggregation, TimeSeries> resampled = new EnumMap<>(Aggregation.class);
+        if (values.length == 0) {
+            return resampled;
+        }
+        final int n = values.length;
+        final ZoneOffset offset = observationTimes.get(0).getOffset();
+        final LocalDateTime anchor = observationTimes.get(0).withOffsetSameInstant(offset).toLocalDate()
+                                                     .atStartOfDay();
+        final long[] buckets = new long[n];
+        if (n >= PARALLEL_THRESHOLD) {
+            Arrays.parallelSetAll(buckets, i -> bucketOf(observationTimes.get(i), offset, anchor));
+        } else {
+            for (int i = 0; i < n; i++) {
+                buckets[i] = bucketOf(observationTimes.get(i), offset, anchor);
+            }
+        }
+        for (int i = 1; i < n; i++) {
+            if (buckets[i] < buckets[i - 1]) {
+                throw new IllegalArgumentException("The observation times must be in ascending order, but " +
+                                                   observationTimes.get(i) + " came after " +
+                                                   observationTimes.get(i - 1));
+            }
+        }
+        final long firstBucket = buckets[0];
+        final int periods = Math.toIntExact(buckets[n - 1] - firstBucket + 1);
+        final Summary summary = new Summary(periods, aggregations);
+        final int chunks = (n >= PARALLEL_THRESHOLD) ? Runtime.getRuntime().availableProcessors() * 4 : 1;
+        final int[] boundaries = chunkBoundaries(buckets, chunks);
+        if (boundaries.length > 2) {
+            IntStream.range(0, boundaries.length - 1).parallel()
+                     .forEach(c -> summary.accumulate(values, buckets, firstBucket, boundaries[c],
+                                                      boundaries[c + 1]));
+        } else {
+            summary.accumulate(values, buckets, firstBucket, 0, n);
+        }
+
+        int from = 0;
+        int to = periods;
+        if (!includePartial) {
+            final OffsetDateTime first = observationTimes.get(0);
+            if (!first.isEqual(startOf(firstBucket, offset, anchor))) {
+                from++;
+            }
+            if (sourcePeriod != null && to > from) {
+                final OffsetDateTime last = observationTimes.get(n - 1);
+                final OffsetDateTime next = last.plus(sourcePeriod.periodLength() *
+                                                      sourcePeriod.timeUnit().unitLength(),
+                                                      sourcePeriod.timeUnit().temporalUnit());
+                if (next.isBefore(startOf(firstBucket + periods, offset, anchor))) {
+                    to--;
+                }
+            }
+        }
+        final List<OffsetDateTime> times = new ArrayList<>(Math.max(to - from, 0));
+        for (int p = from; p < to; p++) {
+            times.add(startOf(firstBucket + p, offset, anchor));
+        }
+        final List<OffsetDateTime> sharedTimes = Collections.unmodifiableList(times);
+        for (Aggregation aggregation : aggregations) {
+            final double[] aggregated = Arrays.copyOfRange(summary.valuesOf(aggregation), from, Math.max(to, from));
+            resampled.put(aggregation, new TimeSeries(timePeriod, sharedTimes, aggregated));
+        }
+        return resampled;
+    }
+
+    // Split the data into at most the given number of chunks, moving each boundary forward so that no period
+    // is split between two chunks.
+    private static int[] chunkBoundaries(final long[] buckets, final int chunks) {
+        final int n = buckets.length;
+        final int[] boundaries = new int[chunks + 1];
+        int count = 1;
+        for (int c = 1; c < chunks; c++) {
+            int boundary = Math.max((int) ((long) n * c / chunks), boundaries[count - 1]);
+            while (boundary > 0 && boundary < n && buckets[boundary] == buckets[boundary - 1]) {
+                boundary++;
+            }
+            if (boundary > boundaries[count - 1] && boundary < n) {
+                boundaries[count++] = boundary;
+            }
+        }
+        boundaries[count++] = n;
+        return Arrays.copyOf(boundaries, count);
+    }
+
+    // The index of the period containing the given time, counted from an origin fixed by the calendar.
+    private long bucketOf(final OffsetDateTime dateTime, final ZoneOffset offset, final LocalDateTime anchor) {
+        final LocalDateTime local = dateTime.withOffsetSameInstant(offset).toLocalDateTime();
+        final long length = timePeriod.periodLength() * timePeriod.timeUnit().unitLength();
+        switch (timePeriod.timeUnit()) {
+            case CENTURY:
+                return Math.floorDiv(local.getYear(), 100 * length);
+            case DECADE:
+                return Math.floorDiv(local.getYear(), 10 * length);
+            case YEAR:
+                return Math.floorDiv(local.getYear(), length);
+            case QUARTER:
+            case MONTH:
+                return Math.floorDiv(local.getYear() * 12L + local.getMonthValue() - 1, length);
+            case WEEK:
+                // The epoch day 4, January 5th 1970, is a Monday.
+                return Math.floorDiv(local.toLocalDate().toEpochDay() - 4, 7 * length);
+            case DAY:
+                return Math.floorDiv(local.toLocalDate().toEpochDay(), length);
+            case HOUR:
+            case MINUTE:
+            case SECOND:
+                return Math.floorDiv(local.toEpochSecond(ZoneOffset.UTC), secondsIn(timePeriod.timeUnit()) * length);
+            default:
+                return Math.floorDiv(ChronoUnit.NANOS.between(anchor, local), nanosIn(timePeriod.timeUnit()) * length);
+        }
+    }
+
+    // The start time of the period with the given index.
+    private OffsetDateTime startOf(final long bucket, final ZoneOffset offset, final LocalDateTime anchor) {
+        final long length = timePeriod.periodLength() * timePeriod.timeUnit().unitLength();
+        final LocalDateTime start;
+        switch (timePeriod.timeUnit()) {
+            case CENTURY:
+                start = LocalDate.of(Math.toIntExact(bucket * 100 * length), 1, 1).atStartOfDay();
+                break;
+            case DECADE:
+                start = LocalDate.of(Math.toIntExact(bucket * 10 * length), 1, 1).atStartOfDay();
+                break;
+            case YEAR:
+                start = LocalDate.of(Math.toIntExact(bucket * length), 1, 1).atStartOfDay();
+                break;
+            case QUARTER:
+            case MONTH:
+                final long month = bucket * length;
+                start = LocalDate.of(Math.toIntExact(Math.floorDiv(month, 12)), (int) Math.floorMod(month, 12) + 1, 1)
+                                 .atStartOfDay();
+                break;
+            case WEEK:
+                start = LocalDate.ofEpochDay(bucket * 7 * length + 4).atStartOfDay();
+                break;
+            case DAY:
+                start = LocalDate.ofEpochDay(bucket * length).atStartOfDay();
+                break;
+            case HOUR:
+            case MINUTE:
+            case SECOND:
+                start = LocalDateTime.ofEpochSecond(bucket * secondsIn(timePeriod.timeUnit()) * length, 0,
+                                                    ZoneOffset.UTC);
+                break;
+            default:
+                start = anchor.plusNanos(bucket * nanosIn(timePeriod.timeUnit()) * length);
+        }
+        return OffsetDateTime.of(start, offset);
+    }
+
+    private static long secondsIn(final TimeUnit timeUnit) {
+        return timeUnit.temporalUnit().getDuration().getSeconds();
+    }
+
+    private static long nanosIn(final TimeUnit timeUnit) {
+        return timeUnit.temporalUnit().getDuration().getNano() +
+               timeUnit.temporalUnit().getDuration().getSeconds() * NANOS_PER_SECOND;
+    }
+
+    /**
+     * The aggregated values of every period. Each chunk writes only to the periods it owns, so chunks may be
+     * accumulated concurrently without synchronization.
+     */
+    private static final class Summary {
+
+        private final double[] sums;
+        private final double[] means;
+        private final double[] mins;
+        private final double[] maxes;
+        private final double[] firsts;
+        private final double[] lasts;
+        private final double[] counts;
+        private final double[] stds;
+
+        private Summary(final int periods, final Aggregation... aggregations) {
+            final List<Aggregation> requested = Arrays.asList(aggregations);
+            this.sums = requested.contains(Aggregation.SUM) ? new double[periods] : null;
+            this.counts = requested.contains(Aggregation.COUNT) ? new double[periods] : null;
+            this.means = requested.contains(Aggregation.MEAN) ? filledWithNaN(periods) : null;
+            this.mins = requested.contains(Aggregation.MIN) ? filledWithNaN(periods) : null;
+            this.maxes = requested.contains(Aggregation.MAX) ? filledWithNaN(periods) : null;
+            this.firsts = requested.contains(Aggregation.FIRST) ? filledWithNaN(periods) : null;
+            this.lasts = requested.contains(Aggregation.LAST) ? filledWithNaN(periods) : null;
+            this.stds = requested.contains(Aggregation.STD) ? filledWithNaN(periods) : null;
+        }
+
+        private void accumulate(final double[] values, final long[] buckets, final long firstBucket,
+                                final int start, final int end) {
+            int i = start;
+            while (i < end) {
+                final long bucket = buckets[i];
+                final double first = values[i];
+                int count = 0;
+                double sum = 0.0;
+                double mean = 0.0;
+                double sumOfSquaredDeviations = 0.0;
+                double min = Double.POSITIVE_INFINITY;
+                double max = Double.NEGATIVE_INFINITY;
+                double last = first;
+                while (i < end && buckets[i] == bucket) {
+                    final double value = values[i];
+                    count++;
+                    sum += value;
+                    final double delta = value - mean;
+                    mean += delta / count;
+                    sumOfSquaredDeviations += delta * (value - mean);
+                    min = Math.min(min, value);
+                    max = Math.max(max, value);
+                    last = value;
+                    i++;
+                }
+                final int p = (int) (bucket - firstBucket);
+                if (sums != null) sums[p] = sum;
+                if (counts != null) counts[p] = count;
+                if (means != null) means[p] = mean;
+                if (mins != null) mins[p] = min;
+                if (maxes != null) maxes[p] = max;
+                if (firsts != null) firsts[p] = first;
+                if (lasts != null) lasts[p] = last;
+                if (stds != null && count > 1) stds[p] = Math.sqrt(sumOfSquaredDeviations / (count - 1));
+            }
+        }
+
+        private double[] valuesOf(final Aggregation aggregation) {
+            switch (aggregation) {
+                case SUM:
+                    return sums;
+                case MEAN:
+                    return means;
+                case MIN:
+                    return mins;
+                case MAX:
+                    return maxes;
+                case FIRST:
+                    return firsts;
+                case LAST:
+                    return lasts;
+                case COUNT:
+                    return counts;
+                default:
+                    return stds;
+            }
+        }
+
+        private static double[] filledWithNaN(final int length) {
+            final double[] values = new double[length];
+            Arrays.fill(values, Double.NaN);
+            return values;
+        }
+    }
+}
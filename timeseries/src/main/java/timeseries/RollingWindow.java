@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2017 Jacob Rachiele
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to
+ * do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+ * USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Contributors:
+ *
+ * Jacob Rachiele
+ */
+package timeseries;
+
+import math.stats.RollingStatistics;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * A view of a time series for computing statistics over a window of fixed size sliding across it. Each statistic is
+ * returned as a new time series whose observation at time t is computed from the window ending at time t, so the
+ * first window - 1 observation times of the original series are not included. This class is immutable and
+ * thread-safe.
+ *
+ * @author Jacob Rachiele
+ * @see RollingStatistics
+ */
+public final class RollingWindow {
+
+    private final TimeSeries timeSeries;
+    private final int window;
+
+    RollingWindow(final TimeSeries timeSeries, final int window) {
+        if (window < 1 || window > timeSeries.size()) {
+            throw new IllegalArgumentException("The window size must be between 1 and the length of the series, " +
+                                               "but was " + window + " for a series of length " + timeSeries.size());
+        }
+        this.timeSeries = timeSeries;
+        this.window = window;
+    }
+
+    /**
+     * The number of observations in each window.
+     *
+     * @return the number of observations in each window.
+     */
+    public int window() {
+        return this.window;
+    }
+
+    /**
+     * The sum of the observations in each window.
+     *
+     * @return the sum of the observations in each window.
+     */
+    public TimeSeries sum() {
+        return aligned(RollingStatistics.sumOf(timeSeries.asArray(), window));
+    }
+
+    /**
+     * The mean of the observations in each window.
+     *
+     * @return the mean of the observations in each window.
+     */
+    public TimeSeries mean() {
+        return aligned(RollingStatistics.meanOf(timeSeries.asArray(), window));
+    }
+
+    /**
+     * The unbiased sample variance of the observations in each window.
+     *
+     * @return the unbiased sample variance of the observations in each window.
+     */
+    public TimeSeries variance() {
+        return aligned(RollingStatistics.varianceOf(timeSeries.asArray(), window));
+    }
+
+    /**
+     * The unbiased sample standard deviation of the observations in each window.
+     *
+     * @return the unbiased sample standard deviation of the observations in each window.
+     */
+    public TimeSeries stdDeviation() {
+        return aligned(RollingStatistics.stdDeviationOf(timeSeries.asArray(), window));
+    }
+
+    /**
+     * The minimum of the observations in each window.
+     *
+     * @return the minimum of the observations in each window.
+     */
+    public TimeSeries min() {
+        return aligned(RollingStatistics.minOf(timeSeries.asArray(), window));
+    }
+
+    /**
+     * The maximum of the observations in each window.
+     *
+     * @return the maximum of the observations in each window.
+     */
+    public TimeSeries max() {
+        return aligned(RollingStatistics.maxOf(timeSeries.asArray(), window));
+    }
+
+    /**
+     * The median of the observations in each window.
+     *
+     * @return the median of the observations in each window.
+     */
+    public TimeSeries median() {
+        return aligned(RollingStatistics.medianOf(timeSeries.asArray(), window));
+    }
+
+    /**
+     * The sample quantile of the observations in each window for the given probability.
+     *
+     * @param probability the probability, between 0 and 1 inclusive, of the quantile to compute.
+     * @return the sample quantile of the observations in each window for the given probability.
+     */
+    public TimeSeries quantile(final double probability) {
+        return aligned(RollingStatistics.quantileOf(timeSeries.asArray(), window, probability));
+    }
+
+    private TimeSeries aligned(final double[] statistics) {
+        final List<OffsetDateTime> times = timeSeries.observationTimes().subList(window - 1, timeSeries.size());
+        return new TimeSeries(timeSeries.timePeriod(), times, statistics);
+    }
+}
@@ -23,10 +23,13 @@
  */
 package timeseries;
 
-import data.DoubleDataSet;
 import data.DataSet;
 import data.DoubleFunctions;
+import math.fft.FourierTransform;
 import math.operations.Operators;
+import math.stats.RollingStatistics;
+import math.stats.Statistics;
+import math.stats.SummaryStatistics;
 import org.knowm.xchart.XChartPanel;
 import org.knowm.xchart.XYChart;
 import org.knowm.xchart.XYChartBuilder;
@@ -54,13 +57,17 @@ import java.util.List;
  */
 public final class TimeSeries implements DataSet {
 
+    // Beyond this many lags the autocovariances are computed together from the periodogram, in O(n log n) time.
+    private static final int FFT_MIN_LAGS = 32;
+
     private final TimePeriod timePeriod;
     private final int n;
     private final double mean;
     private final double[] series;
     private final List<OffsetDateTime> observationTimes;
-    private final Map<OffsetDateTime, Integer> dateTimeIndex;
-    private final DoubleDataSet dataSet;
+    private volatile Map<OffsetDateTime, Integer> dateTimeIndex;
+    private volatile SummaryStatistics summary;
+    private volatile Double median;
 
     /**
      * Create a new time series from the given data without regard to when the observations were made. Use this
@@ -94,10 +101,9 @@ public final class TimeSeries implements DataSet {
      * @param series     the observation data.
      */
     public TimeSeries(final TimePeriod timePeriod, final String startTime, final double... series) {
-        this.dataSet = new DoubleDataSet(series);
         this.series = series.clone();
         this.n = series.length;
-        this.mean = this.dataSet.mean();
+        this.mean = Statistics.meanOf(this.series);
         this.timePeriod = timePeriod;
         Map<OffsetDateTime, Integer> dateTimeIndex = new HashMap<>(series.length);
         List<OffsetDateTime> dateTimes = new ArrayList<>(series.length);
@@ -129,10 +135,9 @@ public final class TimeSeries implements DataSet {
      * @param series     the observation data.
      */
     public TimeSeries(final TimePeriod timePeriod, final OffsetDateTime startTime, final double... series) {
-        this.dataSet = new DoubleDataSet(series);
         this.series = series.clone();
         this.n = series.length;
-        this.mean = this.dataSet.mean();
+        this.mean = Statistics.meanOf(this.series);
         this.timePeriod = timePeriod;
         List<OffsetDateTime> dateTimes = new ArrayList<>(series.length);
         Map<OffsetDateTime, Integer> dateTimeIndex = new HashMap<>(series.length);
@@ -181,19 +186,32 @@ public final class TimeSeries implements DataSet {
      */
     public TimeSeries(final TimePeriod timePeriod, final List<OffsetDateTime> observationTimes,
                       final double... series) {
-        this.dataSet = new DoubleDataSet(series);
         this.series = series.clone();
         this.n = series.length;
-        this.mean = this.dataSet.mean();
+        this.mean = Statistics.meanOf(this.series);
         this.timePeriod = timePeriod;
         this.observationTimes = Collections.unmodifiableList(observationTimes);
-        Map<OffsetDateTime, Integer> dateTimeIndex = new HashMap<>(series.length);
-        int i = 0;
-        for (OffsetDateTime dt : observationTimes) {
-            dateTimeIndex.put(dt, i);
-            i++;
-        }
-        this.dateTimeIndex = Collections.unmodifiableMap(dateTimeIndex);
+    }
+
+    /**
+     * Create a new time series that shares the given observation data without copying it. The mean and, optionally,
+     * the date-time index are supplied by the caller, who has already computed them.
+     *
+     * @param timePeriod       the period of time between observations.
+     * @param observationTimes the immutable sequence of dates and times at which the observations are made.
+     * @param series           the observation data. Must not be modified after this constructor is called.
+     * @param mean             the mean of the observation data.
+     * @param dateTimeIndex    the immutable mapping of observation times to array indices, or null to build it on
+     *                         first use.
+     */
+    TimeSeries(final TimePeriod timePeriod, final List<OffsetDateTime> observationTimes, final double[] series,
+               final double mean, final Map<OffsetDateTime, Integer> dateTimeIndex) {
+        this.series = series;
+        this.n = series.length;
+        this.mean = mean;
+        this.timePeriod = timePeriod;
+        this.observationTimes = Collections.unmodifiableList(observationTimes);
+        this.dateTimeIndex = dateTimeIndex;
     }
 
     /**
@@ -243,6 +261,37 @@ public final class TimeSeries implements DataSet {
         return new TimeSeries(timePeriod, obsTimes, aggregated);
     }
 
+    /**
+     * Summarize the observations in this series over calendar-aligned periods of the given length, computing every
+     * given aggregation in a single pass. Periods only partially covered by this series are included.
+     *
+     * @param timePeriod   the time period to summarize observations over.
+     * @param aggregations the aggregations to compute.
+     * @return a map from each of the given aggregations to the resampled time series it produced.
+     * @see Resampler
+     */
+    public final Map<Aggregation, TimeSeries> resample(final TimePeriod timePeriod,
+                                                       final Aggregation... aggregations) {
+        return resample(timePeriod, true, aggregations);
+    }
+
+    /**
+     * Summarize the observations in this series over calendar-aligned periods of the given length, computing every
+     * given aggregation in a single pass.
+     *
+     * @param timePeriod     the time period to summarize observations over.
+     * @param includePartial whether to include the first and last periods if this series does not cover them
+     *                       completely.
+     * @param aggregations   the aggregations to compute.
+     * @return a map from each of the given aggregations to the resampled time series it produced.
+     * @see Resampler
+     */
+    public final Map<Aggregation, TimeSeries> resample(final TimePeriod timePeriod, final boolean includePartial,
+                                                       final Aggregation... aggregations) {
+        return new Resampler(timePeriod, includePartial).resample(this.observationTimes, this.series,
+                                                                  this.timePeriod, aggregations);
+    }
+
     /**
      * Retrieve the value of the time series at the given index.
      *
@@ -260,7 +309,7 @@ public final class TimeSeries implements DataSet {
      * @return the value of the time series at the given date and time.
      */
     public final double at(final OffsetDateTime dateTime) {
-        return this.series[dateTimeIndex.get(dateTime)];
+        return this.series[dateTimeIndex().get(dateTime)];
     }
 
     /**
@@ -281,9 +330,10 @@ public final class TimeSeries implements DataSet {
      * @return every correlation coefficient of this series with itself up to the given lag.
      */
     public final double[] autoCorrelationUpToLag(final int k) {
-        final double[] autoCorrelation = new double[Math.min(k + 1, n)];
-        for (int i = 0; i < Math.min(k + 1, n); i++) {
-            autoCorrelation[i] = autoCorrelationAtLag(i);
+        final double[] autoCorrelation = autoCovarianceUpToLag(k);
+        final double variance = (autoCorrelation.length > 0) ? autoCorrelation[0] : 0.0;
+        for (int i = 0; i < autoCorrelation.length; i++) {
+            autoCorrelation[i] /= variance;
         }
         return autoCorrelation;
     }
@@ -312,13 +362,34 @@ public final class TimeSeries implements DataSet {
      * @return every covariance measure of this series with itself up to the given lag.
      */
     public final double[] autoCovarianceUpToLag(final int k) {
-        final double[] acv = new double[Math.min(k + 1, n)];
-        for (int i = 0; i < Math.min(k + 1, n); i++) {
+        final int lags = Math.min(k + 1, n);
+        if (lags > FFT_MIN_LAGS) {
+            return autoCovarianceFromPeriodogram(lags);
+        }
+        final double[] acv = new double[lags];
+        for (int i = 0; i < lags; i++) {
             acv[i] = autoCovarianceAtLag(i);
         }
         return acv;
     }
 
+    // The autocovariances are the inverse transform of the squared moduli of the transform of the deviations from
+    // the mean. Padding to at least n + lags - 1 keeps the circular products from wrapping around.
+    private double[] autoCovarianceFromPeriodogram(final int lags) {
+        final FourierTransform transform = FourierTransform.of(FourierTransform.fastLength(n + lags - 1));
+        final double[] deviations = new double[transform.length()];
+        for (int t = 0; t < n; t++) {
+            deviations[t] = series[t] - mean;
+        }
+        final double[] spectrum = transform.realForward(deviations);
+        for (int j = 0; j < spectrum.length; j += 2) {
+            spectrum[j] = spectrum[j] * spectrum[j] + spectrum[j + 1] * spectrum[j + 1];
+            spectrum[j + 1] = 0.0;
+        }
+        final double[] acv = Arrays.copyOf(transform.realInverseInto(deviations, spectrum), lags);
+        return Operators.scaleInto(acv, acv, 1.0 / n);
+    }
+
     /**
      * Transform the series using a Box-Cox transformation with the given parameter value.
      * <p>
@@ -370,20 +441,43 @@ public final class TimeSeries implements DataSet {
     public final TimeSeries movingAverage(final int m) {
         final int c = m % 2;
         final int k = (m - c) / 2;
-        final double[] average;
-        average = new double[this.n - m + 1];
-        double sum;
-        for (int t = 0; t < average.length; t++) {
-            sum = 0;
-            for (int j = -k; j < k + c; j++) {
-                sum += series[t + k + j];
-            }
-            average[t] = sum / m;
-        }
+        final double[] average = RollingStatistics.meanOf(this.series, m);
         final List<OffsetDateTime> times = this.observationTimes.subList(k + c - 1, n - k);
         return new TimeSeries(this.timePeriod, times, average);
     }
 
+    /**
+     * Create a view of this series for computing statistics over a window of the given size sliding across it.
+     *
+     * @param window the number of observations in each window.
+     * @return a view of this series for computing statistics over a sliding window of the given size.
+     */
+    public final RollingWindow rolling(final int window) {
+        return new RollingWindow(this, window);
+    }
+
+    /**
+     * Compute the exponentially weighted moving average of this series with the given smoothing parameter.
+     *
+     * @param alpha the smoothing parameter, strictly greater than 0 and at most 1.
+     * @return a new time series with the exponentially weighted moving average of this series.
+     */
+    public final TimeSeries exponentialMovingAverage(final double alpha) {
+        return new TimeSeries(this.timePeriod, this.observationTimes,
+                              RollingStatistics.exponentialMeanOf(this.series, alpha));
+    }
+
+    /**
+     * Compute the exponentially weighted moving variance of this series with the given smoothing parameter.
+     *
+     * @param alpha the smoothing parameter, strictly greater than 0 and at most 1.
+     * @return a new time series with the exponentially weighted moving variance of this series.
+     */
+    public final TimeSeries exponentialMovingVariance(final double alpha) {
+        return new TimeSeries(this.timePeriod, this.observationTimes,
+                              RollingStatistics.exponentialVarianceOf(this.series, alpha));
+    }
+
     /**
      * Return a moving average of order m if m is odd and of order 2 &times; m if m is even.
      *
@@ -552,8 +646,9 @@ public final class TimeSeries implements DataSet {
      * @return a slice of this time series from start (inclusive) to end (inclusive).
      */
     public final TimeSeries from(final OffsetDateTime start, final OffsetDateTime end) {
-        final int startIdx = this.dateTimeIndex.get(start);
-        final int endIdx = this.dateTimeIndex.get(end);
+        final Map<OffsetDateTime, Integer> dateTimeIndex = dateTimeIndex();
+        final int startIdx = dateTimeIndex.get(start);
+        final int endIdx = dateTimeIndex.get(end);
         final double[] sliced = new double[endIdx - startIdx + 1];
         System.arraycopy(series, startIdx, sliced, 0, endIdx - startIdx + 1);
         final List<OffsetDateTime> obsTimes = this.observationTimes.subList(startIdx, endIdx + 1);
@@ -625,7 +720,18 @@ public final class TimeSeries implements DataSet {
      * @return the mapping of observation times to array indices for this series.
      */
     public final Map<OffsetDateTime, Integer> dateTimeIndex() {
-        return this.dateTimeIndex;
+        Map<OffsetDateTime, Integer> index = this.dateTimeIndex;
+        if (index == null) {
+            Map<OffsetDateTime, Integer> dateTimeIndex = new HashMap<>(n);
+            int i = 0;
+            for (OffsetDateTime dt : observationTimes) {
+                dateTimeIndex.put(dt, i);
+                i++;
+            }
+            index = Collections.unmodifiableMap(dateTimeIndex);
+            this.dateTimeIndex = index;
+        }
+        return index;
     }
 
     // ********** Plots ********** //
@@ -642,27 +748,32 @@ public final class TimeSeries implements DataSet {
 
     @Override
     public double sum() {
-        return this.dataSet.sum();
+        return summary().sum();
     }
 
     @Override
     public double sumOfSquares() {
-        return this.dataSet.sumOfSquares();
+        return summary().sumOfSquares();
     }
 
     @Override
     public double mean() {
-        return this.dataSet.mean();
+        return this.mean;
     }
 
     @Override
     public double median() {
-        return this.dataSet.median();
+        Double median = this.median;
+        if (median == null) {
+            median = Statistics.medianOf(this.series);
+            this.median = median;
+        }
+        return median;
     }
 
     @Override
     public int size() {
-        return this.dataSet.size();
+        return this.n;
     }
 
     @Override
@@ -679,22 +790,38 @@ public final class TimeSeries implements DataSet {
 
     @Override
     public double variance() {
-        return this.dataSet.variance();
+        return summary().variance();
     }
 
     @Override
     public double stdDeviation() {
-        return this.dataSet.stdDeviation();
+        return summary().stdDeviation();
+    }
+
+    /**
+     * The summary statistics of this series. They are computed in a single pass on first request and then reused,
+     * so the sum, variance, and related statistics of a series are never computed more than once.
+     *
+     * @return the summary statistics of this series.
+     */
+    public SummaryStatistics summary() {
+        SummaryStatistics summary = this.summary;
+        if (summary == null) {
+            // Racing threads compute equal, immutable summaries, so whichever write wins is correct.
+            summary = SummaryStatistics.of(this.series);
+            this.summary = summary;
+        }
+        return summary;
     }
 
     @Override
     public double covariance(DataSet otherData) {
-        return this.dataSet.covariance(otherData);
+        return Statistics.covarianceOf(this.series, otherData.asArray());
     }
 
     @Override
     public double correlation(DataSet otherData) {
-        return this.dataSet.correlation(otherData);
+        return Statistics.correlationOf(this.series, otherData.asArray());
     }
 
     /**
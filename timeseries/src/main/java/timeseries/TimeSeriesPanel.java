@@ -0,0 +1,324 @@
+/*
+ * Copyright (c) 2017 Jacob Rachiele
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to
+ * do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+ * USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Contributors:
+ *
+ * Jacob Rachiele
+ */
+package timeseries;
+
+import math.stats.Statistics;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * A collection of time series that share a single set of observation times. The observation times and their index
+ * are stored once for the whole panel, and the observations are stored by column, one contiguous array per series.
+ * Operations applied to every column are executed in parallel across columns. This class is immutable and
+ * thread-safe.
+ *
+ * @author Jacob Rachiele
+ */
+public final class TimeSeriesPanel {
+
+    private final TimePeriod timePeriod;
+    private final List<OffsetDateTime> observationTimes;
+    private final double[][] columns;
+    private final double[] means;
+    private volatile Map<OffsetDateTime, Integer> dateTimeIndex;
+
+    /**
+     * Create a new panel with the given time period, time of first observation, and columns of observation data.
+     *
+     * @param timePeriod the period of time between observations.
+     * @param startTime  the time at which the first observation in every column was made.
+     * @param columns    the observation data, one array per series. Every array must have the same length.
+     */
+    public TimeSeriesPanel(final TimePeriod timePeriod, final OffsetDateTime startTime, final double[]... columns) {
+        this(timePeriod, observationTimesFrom(timePeriod, startTime, rowsIn(columns)), copyOf(columns));
+    }
+
+    private TimeSeriesPanel(final TimePeriod timePeriod, final List<OffsetDateTime> observationTimes,
+                            final double[][] columns) {
+        for (double[] column : columns) {
+            if (column.length != observationTimes.size()) {
+                throw new IllegalArgumentException("Every column must have one observation per observation time.");
+            }
+        }
+        this.timePeriod = timePeriod;
+        this.observationTimes = Collections.unmodifiableList(observationTimes);
+        this.columns = columns;
+        this.means = new double[columns.length];
+        IntStream.range(0, columns.length).parallel().forEach(j -> means[j] = Statistics.meanOf(columns[j]));
+    }
+
+    /**
+     * Create a new panel from the given time series. Every series must have the same time period and observation
+     * times.
+     *
+     * @param series the time series making up the columns of the panel.
+     * @return a new panel whose columns are the given time series.
+     */
+    public static TimeSeriesPanel of(final List<TimeSeries> series) {
+        if (series.isEmpty()) {
+            throw new IllegalArgumentException("A panel must contain at least one time series.");
+        }
+        final TimeSeries first = series.get(0);
+        final double[][] columns = new double[series.size()][];
+        for (int j = 0; j < columns.length; j++) {
+            final TimeSeries column = series.get(j);
+            if (!column.timePeriod().equals(first.timePeriod()) ||
+                !column.observationTimes().equals(first.observationTimes())) {
+                throw new IllegalArgumentException("Every series in a panel must have the same time period and " +
+                                                   "observation times, but series " + j + " did not.");
+            }
+            columns[j] = column.asArray();
+        }
+        return new TimeSeriesPanel(first.timePeriod(), new ArrayList<>(first.observationTimes()), columns);
+    }
+
+    /**
+     * Create a new panel from the given time series. Every series must have the same time period and observation
+     * times.
+     *
+     * @param series the time series making up the columns of the panel.
+     * @return a new panel whose columns are the given time series.
+     */
+    public static TimeSeriesPanel of(final TimeSeries... series) {
+        return of(Arrays.asList(series));
+    }
+
+    /**
+     * The number of observations in each series.
+     *
+     * @return the number of observations in each series.
+     */
+    public int rows() {
+        return this.observationTimes.size();
+    }
+
+    /**
+     * The number of series in this panel.
+     *
+     * @return the number of series in this panel.
+     */
+    public int columns() {
+        return this.columns.length;
+    }
+
+    /**
+     * Retrieve the observation at the given row and column.
+     *
+     * @param row    the index of the observation time.
+     * @param column the index of the series.
+     * @return the observation at the given row and column.
+     */
+    public double at(final int row, final int column) {
+        return this.columns[column][row];
+    }
+
+    /**
+     * Retrieve the series at the given column as a time series. The returned series shares its observations and
+     * observation times with this panel, so no data is copied.
+     *
+     * @param column the index of the series.
+     * @return the series at the given column as a time series.
+     */
+    public TimeSeries column(final int column) {
+        return new TimeSeries(timePeriod, observationTimes, columns[column], means[column], dateTimeIndex());
+    }
+
+    /**
+     * Retrieve every series in this panel as a time series. No data is copied.
+     *
+     * @return every series in this panel as a time series.
+     */
+    public List<TimeSeries> asList() {
+        final List<TimeSeries> series = new ArrayList<>(columns.length);
+        for (int j = 0; j < columns.length; j++) {
+            series.add(column(j));
+        }
+        return series;
+    }
+
+    /**
+     * Apply the given function to every series in this panel, in parallel across series.
+     *
+     * @param function the function to apply to each series.
+     * @param <T>      the type of result produced by the function.
+     * @return the results of applying the function to every series, in column order.
+     */
+    public <T> List<T> mapColumns(final Function<TimeSeries, T> function) {
+        return IntStream.range(0, columns.length).parallel().mapToObj(j -> function.apply(column(j)))
+                        .collect(Collectors.toList());
+    }
+
+    /**
+     * The mean of every series in this panel.
+     *
+     * @return the mean of every series in this panel.
+     */
+    public double[] columnMeans() {
+        return this.means.clone();
+    }
+
+    /**
+     * The mean across every series at each observation time.
+     *
+     * @return a new time series of the mean across every series at each observation time.
+     */
+    public TimeSeries crossSectionalMean() {
+        final double[] sums = new double[rows()];
+        for (double[] column : columns) {
+            for (int t = 0; t < sums.length; t++) {
+                sums[t] += column[t];
+            }
+        }
+        for (int t = 0; t < sums.length; t++) {
+            sums[t] /= columns.length;
+        }
+        return new TimeSeries(timePeriod, observationTimes, sums, Statistics.meanOf(sums), dateTimeIndex());
+    }
+
+    /**
+     * The unbiased sample variance across every series at each observation time.
+     *
+     * @return a new time series of the variance across every series at each observation time.
+     */
+    public TimeSeries crossSectionalVariance() {
+        final int n = rows();
+        final double[] means = new double[n];
+        final double[] sumOfSquaredDeviations = new double[n];
+        // Welford's update applied row-wise so that each column is still read sequentially.
+        for (int j = 0; j < columns.length; j++) {
+            final double[] column = columns[j];
+            for (int t = 0; t < n; t++) {
+                final double delta = column[t] - means[t];
+                means[t] += delta / (j + 1);
+                sumOfSquaredDeviations[t] += delta * (column[t] - means[t]);
+            }
+        }
+        for (int t = 0; t < n; t++) {
+            sumOfSquaredDeviations[t] /= (columns.length - 1);
+        }
+        return new TimeSeries(timePeriod, observationTimes, sumOfSquaredDeviations,
+                              Statistics.meanOf(sumOfSquaredDeviations), dateTimeIndex());
+    }
+
+    /**
+     * Difference every series in this panel at the given lag.
+     *
+     * @param lag the lag at which to take differences.
+     * @return a new panel with every series differenced at the given lag.
+     */
+    public TimeSeriesPanel difference(final int lag) {
+        final double[][] differenced = new double[columns.length][];
+        IntStream.range(0, columns.length).parallel()
+                 .forEach(j -> differenced[j] = TimeSeries.difference(columns[j], lag, 1));
+        return new TimeSeriesPanel(timePeriod, observationTimes.subList(lag, rows()), differenced);
+    }
+
+    /**
+     * Difference every series in this panel once at lag 1.
+     *
+     * @return a new panel with every series differenced once at lag 1.
+     */
+    public TimeSeriesPanel difference() {
+        return difference(1);
+    }
+
+    /**
+     * Every correlation coefficient of each series with itself up to the given lag, computed in parallel across
+     * series.
+     *
+     * @param k the maximum lag to compute the autocorrelation at.
+     * @return the autocorrelations of each series, indexed first by column and then by lag.
+     */
+    public double[][] autoCorrelationUpToLag(final int k) {
+        final double[][] acf = new double[columns.length][];
+        IntStream.range(0, columns.length).parallel().forEach(j -> acf[j] = column(j).autoCorrelationUpToLag(k));
+        return acf;
+    }
+
+    /**
+     * Retrieve the time period at which observations are made for every series.
+     *
+     * @return the time period at which observations are made for every series.
+     */
+    public TimePeriod timePeriod() {
+        return this.timePeriod;
+    }
+
+    /**
+     * Retrieve the list of observation times shared by every series.
+     *
+     * @return the list of observation times shared by every series.
+     */
+    public List<OffsetDateTime> observationTimes() {
+        return this.observationTimes;
+    }
+
+    private Map<OffsetDateTime, Integer> dateTimeIndex() {
+        Map<OffsetDateTime, Integer> index = this.dateTimeIndex;
+        if (index == null) {
+            final Map<OffsetDateTime, Integer> dateTimeIndex = new HashMap<>(rows());
+            int i = 0;
+            for (OffsetDateTime dt : observationTimes) {
+                dateTimeIndex.put(dt, i);
+                i++;
+            }
+            index = Collections.unmodifiableMap(dateTimeIndex);
+            this.dateTimeIndex = index;
+        }
+        return index;
+    }
+
+    private static int rowsIn(final double[][] columns) {
+        return (columns.length == 0) ? 0 : columns[0].length;
+    }
+
+    private static double[][] copyOf(final double[][] columns) {
+        final double[][] copy = new double[columns.length][];
+        for (int j = 0; j < columns.length; j++) {
+            copy[j] = columns[j].clone();
+        }
+        return copy;
+    }
+
+    private static List<OffsetDateTime> observationTimesFrom(final TimePeriod timePeriod,
+                                                             final OffsetDateTime startTime, final int rows) {
+        final List<OffsetDateTime> times = new ArrayList<>(rows);
+        OffsetDateTime dateTime = startTime;
+        for (int i = 0; i < rows; i++) {
+            times.add(dateTime);
+            dateTime = dateTime.plus(timePeriod.periodLength() * timePeriod.timeUnit().unitLength(),
+                                     timePeriod.timeUnit().temporalUnit());
+        }
+        return times;
+    }
+}
@@ -35,7 +35,7 @@ import timeseries.models.Model;
 public interface Arima extends Model {
     /**
      * Create a new ARIMA model from the given observations and model order. This constructor sets the
-     * model {@link FittingStrategy} to unconditional sum-of-squares and the seasonal cycle to one year.
+     * model {@link FittingStrategy} to maximum likelihood and the seasonal cycle to one year.
      *
      * @param observations the time series of observations.
      * @param order        the order of the ARIMA model.
@@ -43,12 +43,12 @@ public interface Arima extends Model {
      * @return a new ARIMA model from the given observations and model order.
      */
     static Arima model(TimeSeries observations, ArimaOrder order) {
-        return new ArimaModel(observations, order, TimePeriod.oneYear(), FittingStrategy.CSSML);
+        return new ArimaModel(observations, order, TimePeriod.oneYear(), FittingStrategy.ML);
     }
 
     /**
      * Create a new ARIMA model from the given observations, model order, and seasonal cycle. This method sets the
-     * model {@link FittingStrategy} to unconditional sum-of-squares.
+     * model {@link FittingStrategy} to maximum likelihood.
      *
      * @param observations  the time series of observations.
      * @param order         the order of the ARIMA model.
@@ -59,7 +59,7 @@ public interface Arima extends Model {
      * @return a new ARIMA model from the given observations, model order, and seasonal cycle.
      */
     static Arima model(TimeSeries observations, ArimaOrder order, TimePeriod seasonalCycle) {
-        return new ArimaModel(observations, order, seasonalCycle, FittingStrategy.CSSML);
+        return new ArimaModel(observations, order, seasonalCycle, FittingStrategy.ML);
     }
 
     /**
@@ -97,6 +97,25 @@ public interface Arima extends Model {
         return new ArimaModel(observations, order, seasonalCycle, fittingStrategy);
     }
 
+    /**
+     * Create a new ARIMA model from the given observations, model order, seasonal cycle, and fitting strategy,
+     * running the Kalman filter for the exact likelihood in the given way.
+     *
+     * @param observations    the time series of observations.
+     * @param order           the order of the ARIMA model.
+     * @param seasonalCycle   the amount of time it takes for the seasonal pattern to complete one cycle. For example,
+     *                        monthly data usually has a cycle of one year, hourly data a cycle of one day, etc...
+     *                        However, a seasonal cycle may be an arbitrary amount of time.
+     * @param fittingStrategy the strategy to use to fit the model to the data.
+     * @param filtering       how to run the Kalman filter that evaluates the exact likelihood.
+     *
+     * @return a new ARIMA model from the given observations, model order, seasonal cycle, and fitting strategy.
+     */
+    static Arima model(TimeSeries observations, ArimaOrder order, TimePeriod seasonalCycle,
+                       FittingStrategy fittingStrategy, Filtering filtering) {
+        return new ArimaModel(observations, order, seasonalCycle, fittingStrategy, filtering);
+    }
+
     /**
      * Create a new ARIMA model from the given observations, model coefficients, and fitting strategy. This constructor
      * sets the seasonal cycle to one year.
@@ -115,7 +134,7 @@ public interface Arima extends Model {
 
     /**
      * Create a new ARIMA model from the given observations, model coefficients, and seasonal cycle. This constructor
-     * sets the model {@link FittingStrategy} to conditional sum-of-squares followed by maximum likelihood.
+     * sets the model {@link FittingStrategy} to maximum likelihood.
      *
      * @param observations  the time series of observations.
      * @param coeffs        the coefficients of the model.
@@ -126,7 +145,7 @@ public interface Arima extends Model {
      * @return a new ARIMA model from the given observations, model coefficients, and seasonal cycle.
      */
     static Arima model(TimeSeries observations, ArimaCoefficients coeffs, TimePeriod seasonalCycle) {
-        return new ArimaModel(observations, coeffs, seasonalCycle, FittingStrategy.CSSML);
+        return new ArimaModel(observations, coeffs, seasonalCycle, FittingStrategy.ML);
     }
 
     /**
@@ -254,6 +273,26 @@ public interface Arima extends Model {
         }
     }
 
+    /**
+     * How the Kalman filter that evaluates the exact likelihood of an ARIMA model is run.
+     */
+    enum Filtering {
+
+        /**
+         * Filter the observations one after another. This is the default.
+         */
+        SEQUENTIAL,
+
+        /**
+         * Filter long series with the {@link timeseries.models.statespace.ParallelKalmanFilter}, which splits them
+         * into blocks that are filtered in parallel. It does about twice the work of the sequential filter, so it
+         * is only worthwhile for series with hundreds of thousands of observations on a machine with several cores.
+         * The likelihood agrees with that of the sequential filter up to rounding error, and does not depend on the
+         * number of cores.
+         */
+        PARALLEL
+    }
+
     /**
      * The strategy to be used for fitting an ARIMA model.
      *
@@ -263,9 +302,32 @@ public interface Arima extends Model {
 
         CSS("conditional sum-of-squares"),
 
+        /**
+         * Maximize the exact likelihood, starting from closed-form Yule-Walker or Hannan-Rissanen estimates of the
+         * coefficients. If the optimization ends with a non-invertible moving-average polynomial, its roots inside
+         * the unit circle are reflected outside, which gives the invertible model with the same likelihood.
+         */
         ML("maximum likelihood"),
 
-        CSSML("conditional sum-of-squares, then maximum likelihood");
+        /**
+         * Maximize the exact likelihood, starting from the estimates of a full conditional sum-of-squares fit.
+         *
+         * @deprecated the conditional sum-of-squares fit has been replaced by the closed-form starting values of
+         * {@link #ML}, without a second optimization, so this strategy now fits exactly as {@link #ML} does. Use
+         * {@link #ML} instead.
+         */
+        @Deprecated
+        CSSML("maximum likelihood"),
+
+        /**
+         * Maximize the Whittle approximation to the likelihood, a sum over the Fourier frequencies of the
+         * differenced series, then compute the model information with a single pass of the Kalman filter. The
+         * periodogram is computed once, so each evaluation of the objective is cheap even for series with millions
+         * of observations. The mean and drift do not enter the approximation, so they are left out of the
+         * optimization and kept at their least-squares regression estimates, and the standard errors reported for
+         * them are those of the regression.
+         */
+        WHITTLE("Whittle approximate likelihood");
 
         private final String description;
 
@@ -31,6 +31,7 @@ import org.knowm.xchart.XYSeries;
 import org.knowm.xchart.XYSeries.XYSeriesRenderStyle;
 import org.knowm.xchart.style.Styler.ChartTheme;
 import org.knowm.xchart.style.markers.Circle;
+import math.operations.Operators;
 import math.stats.distributions.Normal;
 import timeseries.TimeSeries;
 import timeseries.models.Forecast;
@@ -43,6 +44,7 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
+import static data.DoubleFunctions.slice;
 import static java.lang.Math.sqrt;
 
 /**
@@ -59,12 +61,14 @@ public final class ArimaForecast implements Forecast {
     private final double alpha;
     private final double criticalValue;
     private final TimeSeries fcstErrors;
+    private final double[] stdErrors;
 
     private ArimaForecast(final Arima model, final int steps, final double alpha) {
         this.model = model;
         this.forecast = model.pointForecast(steps);
         this.alpha = alpha;
         this.criticalValue = new Normal().quantile(1 - alpha / 2);
+        this.stdErrors = getStdErrors();
         this.fcstErrors = getFcstErrors(this.criticalValue);
         this.upperValues = computeUpperPredictionBounds(steps, alpha);
         this.lowerValues = computeLowerPredictionBounds(steps, alpha);
@@ -127,23 +131,21 @@ public final class ArimaForecast implements Forecast {
     @Override
     public TimeSeries computeUpperPredictionBounds(final int steps, final double alpha) {
         final double criticalValue = new Normal().quantile(1 - alpha / 2);
-        double[] upperPredictionValues = new double[steps];
-        double[] errors = getStdErrors(criticalValue);
-        for (int t = 0; t < steps; t++) {
-            upperPredictionValues[t] = forecast.at(t) + errors[t];
-        }
-        return new TimeSeries(forecast.timePeriod(), forecast.observationTimes().get(0), upperPredictionValues);
+        return predictionBounds(steps, criticalValue);
     }
 
     @Override
     public TimeSeries computeLowerPredictionBounds(final int steps, final double alpha) {
         final double criticalValue = new Normal().quantile(alpha / 2);
-        double[] lowerPredictionValues = new double[steps];
-        double[] errors = getStdErrors(criticalValue);
-        for (int t = 0; t < steps; t++) {
-            lowerPredictionValues[t] = forecast.at(t) + errors[t];
-        }
-        return new TimeSeries(forecast.timePeriod(), forecast.observationTimes().get(0), lowerPredictionValues);
+        return predictionBounds(steps, criticalValue);
+    }
+
+    // The forecast plus the critical value times the standard error, fused into a single pass over the steps.
+    private TimeSeries predictionBounds(final int steps, final double criticalValue) {
+        final double[] bounds = new double[steps];
+        Operators.axpyInto(bounds, criticalValue, slice(this.stdErrors, 0, steps),
+                           slice(this.forecast.asArray(), 0, steps));
+        return new TimeSeries(forecast.timePeriod(), forecast.observationTimes().get(0), bounds);
     }
 
     private double[] getPsiCoefficients() {
@@ -179,20 +181,18 @@ public final class ArimaForecast implements Forecast {
     }
 
     private TimeSeries getFcstErrors(final double criticalValue) {
-        double[] errors = getStdErrors(criticalValue);
+        final double[] errors = Operators.scaleInto(new double[this.stdErrors.length], this.stdErrors, criticalValue);
         return new TimeSeries(forecast.timePeriod(), forecast.observationTimes().get(0), errors);
     }
 
-    private double[] getStdErrors(final double criticalValue) {
+    private double[] getStdErrors() {
         double[] psiCoeffs = getPsiCoefficients();
         double[] stdErrors = new double[this.forecast.size()];
         double sigma = sqrt(model.sigma2());
-        double sd;
         double psiWeightSum = 0.0;
         for (int i = 0; i < stdErrors.length; i++) {
             psiWeightSum += psiCoeffs[i] * psiCoeffs[i];
-            sd = sigma * sqrt(psiWeightSum);
-            stdErrors[i] = criticalValue * sd;
+            stdErrors[i] = sigma * sqrt(psiWeightSum);
         }
         return stdErrors;
     }
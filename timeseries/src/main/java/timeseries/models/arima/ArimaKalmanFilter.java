@@ -24,156 +24,79 @@
 
 package timeseries.models.arima;
 
-import org.ejml.data.DenseMatrix64F;
-import org.ejml.data.RowD1Matrix64F;
+import math.linear.doubles.Matrix;
+import math.linear.doubles.SymmetricMatrix;
+import timeseries.models.statespace.FilterResult;
+import timeseries.models.statespace.KalmanFilter;
+import timeseries.models.statespace.ParallelKalmanFilter;
 
 import static java.lang.Math.PI;
 import static java.lang.Math.log;
-import static org.ejml.ops.CommonOps.*;
 
+/**
+ * The Kalman filter of an {@link ArimaStateSpace}, run by the general {@link KalmanFilter}. The innovation variance
+ * of the state space is fixed at one, so the likelihood reported here is concentrated with respect to it.
+ *
+ * @author Jacob Rachiele
+ */
 class ArimaKalmanFilter {
 
-    private final double[] y;
-    private final int r; // r = max(p, q + 1);
-    private final int d;
-    private final int rd;
-    private final DenseMatrix64F transitionMatrix;
-    private final RowD1Matrix64F stateDisturbance;
-    private final RowD1Matrix64F predictedState;
-    private final RowD1Matrix64F filteredState;
-    private final DenseMatrix64F predictedStateCovariance;
-    private final RowD1Matrix64F filteredStateCovariance;
-    private final double[] predictionErrorVariance;
     private final double[] predictionError;
-
-    private final DenseMatrix64F Z;
-    private final DenseMatrix64F Zt;
-    private final DenseMatrix64F ZP;
-    private DenseMatrix64F PZtf;
-    private final DenseMatrix64F PZtfZ;
     private final KalmanOutput kalmanOutput;
 
     ArimaKalmanFilter(final ArimaStateSpace ss) {
-        this.y = ss.observations();
-        this.r = ss.r();
-        this.d = ss.d();
-        this.rd = r + d;
-
-        this.transitionMatrix = new DenseMatrix64F(ss.transitionMatrix());
-        final RowD1Matrix64F R = new DenseMatrix64F(rd, 1, true, ss.movingAverageVector());
-        this.stateDisturbance = new DenseMatrix64F(rd, rd);
-        multOuter(R, stateDisturbance);
-        this.predictedState = new DenseMatrix64F(rd, 1, true, new double[rd]);
-        this.filteredState = new DenseMatrix64F(rd, 1, true, new double[rd]);
-        this.predictedStateCovariance = initializePredictedCovariance(ss);
-        this.filteredStateCovariance = new DenseMatrix64F(rd, rd);
-        this.predictionErrorVariance = new double[y.length];
-        this.predictionError = new double[y.length];
-        this.Z = new DenseMatrix64F(1, rd, true, ss.stateEffectsVector());
-        this.Zt = new DenseMatrix64F(rd, 1, true, new double[rd]);
-        this.ZP = new DenseMatrix64F(1, rd, true, new double[rd]);
-        this.PZtf = new DenseMatrix64F(rd, 1, true, new double[rd]);
-        this.PZtfZ = new DenseMatrix64F(rd, rd, true, new double[rd * rd]);
-        this.kalmanOutput = filter();
+        this(ss, new KalmanFilter(ss.stateDimension()));
     }
 
-    private KalmanOutput filter() {
-
-        int n = 0;
-        double f;
-        predictionError[0] = y[0];
-        // f[t] is always the first element of the first column of the predicted covariance matrix,
-        // because f[t] = Z * M, where Z is a row vector with a 1 in the first (index 0) position and zeros elsewhere,
-        // and M is the first column of the predicted covariance matrix.
-        mult(Z, predictedStateCovariance, ZP);
-        transpose(Z, Zt);
-        predictionErrorVariance[0] = dot(ZP, Zt);
-        f = predictionErrorVariance[0];
-
-        double ssq = 0.0;
-        double sumlog = 0.0;
-        if (f < 1E4) {
-            n++;
-            ssq = ((predictionError[0] * predictionError[0]) / f);
-            sumlog = log(f);
+    /**
+     * Filter the observations of the given state space sequentially, reusing the given workspace.
+     *
+     * @param ss     the state space to filter.
+     * @param engine a workspace for state spaces of the same dimension.
+     */
+    ArimaKalmanFilter(final ArimaStateSpace ss, final KalmanFilter engine) {
+        this(engine.filter(ss, ss.observations()));
+    }
 
-        }
-        // Initialize filteredState.
-        DenseMatrix64F newInfo = new DenseMatrix64F(rd, 1, true, new double[rd]);
-        transpose(ZP, newInfo);
-        divide(newInfo, f);
-        PZtf = newInfo.copy();
-        scale(predictionError[0], newInfo);
-        add(predictedState, newInfo, filteredState);
-
-        // Initialize filteredCovariance.
-        final RowD1Matrix64F adjustedPredictionCovariance = new DenseMatrix64F(rd, rd);
-        mult(PZtf, Z, PZtfZ);
-        mult(PZtfZ, predictedStateCovariance, adjustedPredictionCovariance);
-        //multOuter(predictedCovarianceFirstColumn, adjustedPredictionCovariance);
-        //divide(adjustedPredictionCovariance, predictionErrorVariance[0]);
-        subtract(predictedStateCovariance, adjustedPredictionCovariance, filteredStateCovariance);
-
-        final RowD1Matrix64F filteredCovarianceTransition = new DenseMatrix64F(rd, rd);
-        final RowD1Matrix64F stateCovarianceTransition = new DenseMatrix64F(rd, rd);
-        final DenseMatrix64F transitionTranspose = transitionMatrix.copy();
-        transpose(transitionTranspose);
-
-        predictionError[0] /= Math.sqrt(f);
-
-
-        for (int t = 1; t < y.length; t++) {
-
-            // Update predicted mean of the state vector.
-            mult(transitionMatrix, filteredState, predictedState);
-
-            // Update predicted covariance of the state vector.
-            mult(transitionMatrix, filteredStateCovariance, filteredCovarianceTransition);
-            mult(filteredCovarianceTransition, transitionTranspose, stateCovarianceTransition);
-            add(stateCovarianceTransition, stateDisturbance, predictedStateCovariance);
-
-            predictionError[t] = y[t] - dot(Z, predictedState);
-            mult(Z, predictedStateCovariance, ZP);
-            predictionErrorVariance[t] = dot(ZP, Zt);
-            f = predictionErrorVariance[t];
-            if (f < 1E4) {
-                n++;
-                ssq += ((predictionError[t] * predictionError[t]) / f);
-                sumlog += log(f);
-            }
+    private ArimaKalmanFilter(final FilterResult result) {
+        this.predictionError = result.standardizedPredictionErrors();
+        this.kalmanOutput = new KalmanOutput(result.n(), result.ssq(), result.sumLog(), predictionError);
+    }
 
-            // Update filteredState.
-            transpose(ZP, newInfo);
-            //mult(predictedStateCovariance, Zt, newInfo);
-            divide(newInfo, f);
-            PZtf = newInfo.copy();
-            scale(predictionError[t], newInfo);
-            add(predictedState, newInfo, filteredState);
-
-            // Update filteredCovariance.
-            mult(PZtf, Z, PZtfZ);
-            mult(PZtfZ, predictedStateCovariance, adjustedPredictionCovariance);
-            //multOuter(predictedCovarianceFirstColumn, adjustedPredictionCovariance);
-            //divide(adjustedPredictionCovariance, predictionErrorVariance[0]);
-            subtract(predictedStateCovariance, adjustedPredictionCovariance, filteredStateCovariance);
-
-            predictionError[t] /= Math.sqrt(f);
-        }
-        return new KalmanOutput(n, ssq, sumlog, predictionError);
+    /**
+     * Filter the observations of the given state space with the {@link ParallelKalmanFilter}, which splits long
+     * series into blocks that are filtered in parallel.
+     *
+     * @param ss the state space to filter.
+     * @return the filter of the given state space.
+     */
+    static ArimaKalmanFilter parallel(final ArimaStateSpace ss) {
+        return new ArimaKalmanFilter(ParallelKalmanFilter.filter(ss, ss.observations()));
     }
 
-    private DenseMatrix64F initializePredictedCovariance(final ArimaStateSpace ss) {
-        DenseMatrix64F P0 = new DenseMatrix64F(rd, rd);
-        double[] P = getInitialStateCovariance(ss.arParams(), ss.maParams());
-        DenseMatrix64F arMatrix = new DenseMatrix64F(r, r, true, unpack(P));
-        double[] kappa = new double[d * d];
-        for (int i = 0; i < d; i++) {
-            kappa[i * d + i] = 1E6;
+    /**
+     * The stationary covariance of the ARMA block of the state, the solution of P = T P T' + R R', where T and R are
+     * the transition matrix and disturbance vector of the block. It takes O(r<sup>3</sup>) time and
+     * O(r<sup>2</sup>) memory.
+     *
+     * @param phi   the autoregressive parameters.
+     * @param theta the moving-average parameters.
+     * @param r     the dimension of the ARMA block, max(p, q + 1).
+     * @return the stationary covariance of the ARMA block of the state.
+     */
+    static SymmetricMatrix stationaryCovariance(final double[] phi, final double[] theta, final int r) {
+        final double[] T = new double[r * r];
+        for (int i = 0; i < phi.length; i++) {
+            T[i * r] = phi[i];
+        }
+        for (int i = 1; i < r; i++) {
+            T[(i - 1) * r + i] = 1.0;
         }
-        DenseMatrix64F kappaMatrix = new DenseMatrix64F(d, d, true, kappa);
-        insert(arMatrix, P0, 0, 0);
-        insert(kappaMatrix, P0, r, r);
-        return P0;
+        final double[] R = new double[r];
+        R[0] = 1.0;
+        System.arraycopy(theta, 0, R, 1, theta.length);
+        final SymmetricMatrix RRt = new SymmetricMatrix(r).rankOneUpdate(1.0, R);
+        return SymmetricMatrix.discreteLyapunov(Matrix.create(r, r, T), RRt);
     }
 
     /**
@@ -184,7 +107,7 @@ class ArimaKalmanFilter {
      * @param theta the moving-average parameters.
      * @return the initial covariance matrix of the state variables as a lower triangular matrix in a 1D array.
      */
-    private static double[] getInitialStateCovariance(final double[] phi, final double[] theta) {
+    static double[] getInitialStateCovariance(final double[] phi, final double[] theta) {
         final int p = phi.length;
         final int q = theta.length;
         if (p == 0 && q == 0) {
@@ -370,26 +293,6 @@ class ArimaKalmanFilter {
         }
     }
 
-    private static double[] unpack(final double[] triangularMatrix) {
-        int c = triangularMatrix.length;
-        //x^2 + x - 2c = 0
-        int r = (-1 + (int) Math.sqrt(1 + 4 * 2 * c)) / 2;
-        double[] full = new double[r * r];
-        int k = 0;
-        int indext = 0;
-        for (int i = 0; i < r; i++, k++) {
-            for (int j = 0; j < r - k; j++) {
-                full[j + k + i * r] = triangularMatrix[indext++];
-            }
-        }
-        for (int i = 0; i < r - 1; i++) {
-            for (int j = i + 1; j < r; j++) {
-                full[i + r * j] = full[j + i * r];
-            }
-        }
-        return full;
-    }
-
     KalmanOutput output() {
         return this.kalmanOutput;
     }
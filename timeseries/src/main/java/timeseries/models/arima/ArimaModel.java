@@ -33,6 +33,7 @@ import math.linear.doubles.Matrix;
 import math.linear.doubles.Vector;
 import math.function.AbstractMultivariateFunction;
 import math.optim.BFGS;
+import math.operations.ComplexOperators;
 import org.ejml.data.Complex64F;
 import org.ejml.data.DenseMatrix64F;
 import org.ejml.factory.DecompositionFactory;
@@ -41,6 +42,7 @@ import timeseries.TimePeriod;
 import timeseries.TimeSeries;
 import timeseries.models.Forecast;
 import timeseries.models.regression.primitive.TimeSeriesLinearRegressionModel;
+import timeseries.models.statespace.KalmanFilter;
 import timeseries.operators.LagPolynomial;
 
 import java.text.DecimalFormat;
@@ -51,13 +53,19 @@ import java.util.Arrays;
 import static data.DoubleFunctions.combine;
 import static data.DoubleFunctions.fill;
 import static data.DoubleFunctions.slice;
-import static math.operations.Operators.differenceOf;
-import static math.operations.Operators.scale;
+import static data.DoubleFunctions.sqrtInto;
+import static math.operations.Operators.differenceInto;
+import static math.operations.Operators.scaleInto;
+import static math.operations.Operators.sumInto;
 import static java.lang.Math.*;
-import static math.stats.Statistics.sumOfSquared;
 
 /**
  * A seasonal autoregressive integrated moving average (ARIMA) model. This class is immutable and thread-safe.
+ * <p>
+ * Missing observations, represented by NaN, are allowed. They are skipped by both the conditional sum-of-squares
+ * and the maximum-likelihood fits, and the residuals and fitted values are NaN wherever they cannot be computed
+ * because of them.
+ * </p>
  *
  * @author Jacob Rachiele
  */
@@ -74,6 +82,7 @@ final class ArimaModel implements Arima {
     private final ModelInformation modelInfo;
     private final ArimaCoefficients arimaCoefficients;
     private final FittingStrategy fittingStrategy;
+    private final Filtering filtering;
     private final int seasonalFrequency;
     private final double[] arSarCoeffs;
     private final double[] maSmaCoeffs;
@@ -81,24 +90,27 @@ final class ArimaModel implements Arima {
 
     ArimaModel(final TimeSeries observations, final ArimaOrder order, final TimePeriod seasonalCycle,
                final FittingStrategy fittingStrategy) {
-        this(observations, order, seasonalCycle, fittingStrategy, null);
+        this(observations, order, seasonalCycle, fittingStrategy, Filtering.SEQUENTIAL);
     }
 
-    private ArimaModel(final TimeSeries observations, final ArimaOrder order, final TimePeriod seasonalCycle,
-                       final FittingStrategy fittingStrategy, LinearRegressionModel regression) {
+    ArimaModel(final TimeSeries observations, final ArimaOrder order, final TimePeriod seasonalCycle,
+               final FittingStrategy fittingStrategy, final Filtering filtering) {
         this.observations = observations;
         this.order = order;
         this.fittingStrategy = fittingStrategy;
+        this.filtering = filtering;
         this.seasonalFrequency = (int) (observations.timePeriod().frequencyPer(seasonalCycle));
         this.differencedSeries = observations.difference(1, order.d).difference(seasonalFrequency, order.D);
 
+        // Under the Whittle likelihood the mean and drift have no effect on the objective, so only the ARMA
+        // parameters are optimized, and the regression estimates of the mean and drift are kept.
+        final boolean optimizeRegressors = fittingStrategy != FittingStrategy.WHITTLE;
+        final int numOptimized = optimizeRegressors ? order.npar() : order.sumARMA();
         final Vector initParams;
         final Matrix initHessian;
         ArimaParameters parameters = ArimaParameters.initializePars(order.p, order.q, order.P, order.Q);
         Matrix regressionMatrix = getRegressionMatrix(observations.size(), order);
-        if (regression == null) {
-            regression = getLinearRegression(differencedSeries, regressionMatrix);
-        }
+        final LinearRegressionModel regression = getLinearRegression(differencedSeries, regressionMatrix);
         if (order.constant.include()) {
             parameters.setMean(regression.beta()[0]);
             parameters.setMeanParScale(10 * regression.standardErrors()[0]);
@@ -107,49 +119,67 @@ final class ArimaModel implements Arima {
             parameters.setDrift(regression.beta()[order.constant.asInt()]);
             parameters.setDriftParScale(10 * regression.standardErrors()[order.constant.asInt()]);
         }
-        if (fittingStrategy == FittingStrategy.CSSML) {
-            final FittingStrategy subStrategy = FittingStrategy.CSS;
-            final ArimaModel firstModel = new ArimaModel(observations, order, seasonalCycle, subStrategy, regression);
-            double meanParScale = parameters.getMeanParScale();
-            double driftParScale = parameters.getDriftParScale();
-            parameters = ArimaParameters.fromCoefficients(firstModel.coefficients());
-            parameters.setMeanParScale(meanParScale);
-            parameters.setDriftParScale(driftParScale);
-            //parameters.setMean(firstModel.coefficients().mean());
-            //parameters.setDrift(firstModel.coefficients().drift());
-            initParams = new Vector(parameters.getAllScaled(order));
-            initHessian = getInitialHessian(firstModel);
+        if (fittingStrategy != FittingStrategy.CSS) {
+            // Start from closed-form estimates, computed from the differenced series with the regression effects
+            // at their least-squares estimates removed.
+            Vector regressionEffects = regressionMatrix.times(Vector.from(parameters.getRegressors(order)));
+            TimeSeries armaSeries = observations.minus(regressionEffects.elements())
+                                                .difference(1, order.d)
+                                                .difference(seasonalFrequency, order.D);
+            final HannanRissanen initial = HannanRissanen.estimate(armaSeries.asArray(), order, seasonalFrequency);
+            parameters.setAutoRegressivePars(initial.arCoeffs());
+            parameters.setMovingAveragePars(initial.maCoeffs());
+            parameters.setSeasonalAutoRegressivePars(initial.sarCoeffs());
+            parameters.setSeasonalMovingAveragePars(initial.smaCoeffs());
+            initParams = new Vector(slice(parameters.getAllScaled(order), 0, numOptimized));
+            initHessian = getInitialHessian(initial, regression, parameters, numOptimized);
         } else {
             initParams = new Vector(parameters.getAllScaled(order));
             initHessian = getInitialHessian(initParams.size());
         }
 
         final AbstractMultivariateFunction function = new OptimFunction(observations, order, parameters,
-                                                                        fittingStrategy, regressionMatrix,
-                                                                        seasonalFrequency);
+                                                                        fittingStrategy, filtering,
+                                                                        regressionMatrix, seasonalFrequency);
         final BFGS optimizer = new BFGS(function, initParams, DEFAULT_TOLERANCE, DEFAULT_TOLERANCE, initHessian);
         final Vector optimizedParams = optimizer.parameters();
         final Matrix inverseHessian = optimizer.inverseHessian();
 
-        this.stdErrors = DoubleFunctions.sqrt(scale(inverseHessian.diagonal(), 1.0 / differencedSeries.size()));
-        if (order.constant.include()) {
-            this.stdErrors[order.sumARMA()] *= parameters.getMeanParScale();
-        }
-        if (order.drift.include()) {
-            this.stdErrors[order.sumARMA() + order.constant.asInt()] *= parameters.getDriftParScale();
+        final double[] variances = inverseHessian.diagonal();
+        this.stdErrors = Arrays.copyOf(sqrtInto(variances, scaleInto(variances, variances,
+                                                                     1.0 / differencedSeries.size())), order.npar());
+        if (!optimizeRegressors) {
+            System.arraycopy(regression.standardErrors(), 0, this.stdErrors, order.sumARMA(),
+                             order.npar() - order.sumARMA());
+        } else {
+            if (order.constant.include()) {
+                this.stdErrors[order.sumARMA()] *= parameters.getMeanParScale();
+            }
+            if (order.drift.include()) {
+                this.stdErrors[order.sumARMA() + order.constant.asInt()] *= parameters.getDriftParScale();
+            }
         }
 
         final double[] arCoeffs = getArCoeffs(optimizedParams);
-        final double[] maCoeffs = getMaCoeffs(optimizedParams);
         final double[] sarCoeffs = getSarCoeffs(optimizedParams);
-        final double[] smaCoeffs = getSmaCoeffs(optimizedParams);
+        final double[] maCoeffs;
+        final double[] smaCoeffs;
+        if (fittingStrategy == FittingStrategy.CSS) {
+            maCoeffs = getMaCoeffs(optimizedParams);
+            smaCoeffs = getSmaCoeffs(optimizedParams);
+        } else {
+            // The likelihood does not change when a moving-average root is reflected across the unit circle, so
+            // the optimizer may converge to a non-invertible mirror of the optimum. Take the invertible one.
+            maCoeffs = invertMovingAverage(getMaCoeffs(optimizedParams));
+            smaCoeffs = invertMovingAverage(getSmaCoeffs(optimizedParams));
+        }
 
         this.arSarCoeffs = ArimaCoefficients.expandArCoefficients(arCoeffs, sarCoeffs, seasonalFrequency);
         this.maSmaCoeffs = ArimaCoefficients.expandMaCoefficients(maCoeffs, smaCoeffs, seasonalFrequency);
-        if (order.constant.include()) {
+        if (optimizeRegressors && order.constant.include()) {
             parameters.setAndScaleMean(optimizedParams.at(order.sumARMA()));
         }
-        if (order.drift.include()) {
+        if (optimizeRegressors && order.drift.include()) {
             parameters.setAndScaleDrift(optimizedParams.at(order.sumARMA() + order.constant.asInt()));
         }
         this.arimaCoefficients = new ArimaCoefficients(arCoeffs, maCoeffs, sarCoeffs, smaCoeffs, order.d,
@@ -167,7 +197,7 @@ final class ArimaModel implements Arima {
             this.residuals = observations.minus(this.fittedSeries);
         } else {
             double[] delta = getDelta(this.order, this.seasonalFrequency);
-            this.modelInfo = fitML(armaSeries, arSarCoeffs, maSmaCoeffs, delta, order.npar());
+            this.modelInfo = fitML(armaSeries, arSarCoeffs, maSmaCoeffs, delta, order.npar(), filtering);
             final double[] residuals = modelInfo.residuals;
             this.fittedSeries = observations.minus(new TimeSeries(residuals));
             this.residuals = observations.minus(this.fittedSeries);
@@ -179,6 +209,7 @@ final class ArimaModel implements Arima {
         this.observations = observations;
         this.arimaCoefficients = coeffs;
         this.fittingStrategy = fittingStrategy;
+        this.filtering = Filtering.SEQUENTIAL;
         this.order = coeffs.extractModelOrder();
         this.seasonalFrequency = (int) (observations.timePeriod().frequencyPer(seasonalCycle));
         this.differencedSeries = observations.difference(1, order.d).difference(seasonalFrequency, order.D);
@@ -201,7 +232,7 @@ final class ArimaModel implements Arima {
             this.residuals = observations.minus(this.fittedSeries);
         } else {
             double[] delta = getDelta(this.order, this.seasonalFrequency);
-            this.modelInfo = fitML(armaSeries, arSarCoeffs, maSmaCoeffs, delta, order.npar());
+            this.modelInfo = fitML(armaSeries, arSarCoeffs, maSmaCoeffs, delta, order.npar(), filtering);
             final double[] residuals = modelInfo.residuals;
             this.fittedSeries = observations.minus(new TimeSeries(residuals));
             this.residuals = observations.minus(this.fittedSeries);
@@ -240,8 +271,35 @@ final class ArimaModel implements Arima {
         for (int i = 0; i < diffedMatrix.length; i++) {
             diffedMatrix[i] = TimeSeries.difference(diffedMatrix[i], seasonalFrequency, order.D);
         }
+        TimeSeries response = differencedSeries;
+        final double[] series = differencedSeries.asArray();
+        int present = 0;
+        for (double value : series) {
+            if (!Double.isNaN(value)) {
+                present++;
+            }
+        }
+        // Missing observations are dropped, along with their rows of the design matrix, before regressing.
+        if (present < series.length) {
+            final double[] observed = new double[present];
+            for (int i = 0; i < diffedMatrix.length; i++) {
+                final double[] column = new double[present];
+                for (int t = 0, k = 0; t < series.length; t++) {
+                    if (!Double.isNaN(series[t])) {
+                        column[k++] = diffedMatrix[i][t];
+                    }
+                }
+                diffedMatrix[i] = column;
+            }
+            for (int t = 0, k = 0; t < series.length; t++) {
+                if (!Double.isNaN(series[t])) {
+                    observed[k++] = series[t];
+                }
+            }
+            response = new TimeSeries(observed);
+        }
         TimeSeriesLinearRegressionModel.Builder regressionBuilder = TimeSeriesLinearRegressionModel.builder();
-        regressionBuilder.response(differencedSeries);
+        regressionBuilder.response(response);
         regressionBuilder.hasIntercept(TimeSeriesLinearRegressionModel.Intercept.EXCLUDE);
         regressionBuilder.timeTrend(TimeSeriesLinearRegressionModel.TimeTrend.EXCLUDE);
         regressionBuilder.externalRegressors(new Matrix(diffedMatrix, Matrix.Order.COLUMN_MAJOR));
@@ -249,7 +307,9 @@ final class ArimaModel implements Arima {
     }
 
     /**
-     * Fit an ARIMA model using conditional sum-of-squares.
+     * Fit an ARIMA model using conditional sum-of-squares. Missing values in the series are replaced by their
+     * one-step predictions when they appear as lagged terms, their residuals are treated as zero in the
+     * moving-average recursion, and they are left out of the sum of squares.
      *
      * @param differencedSeries the time series of observations to model.
      * @param arCoeffs          the autoregressive coefficients of the model.
@@ -262,47 +322,68 @@ final class ArimaModel implements Arima {
         final int offset = arCoeffs.length;
         final int n = differencedSeries.size();
 
+        final double[] series = differencedSeries.asArray();
         final double[] fitted = new double[n];
         final double[] residuals = new double[n];
+        int missing = 0;
+        for (int t = 0; t < offset; t++) {
+            if (Double.isNaN(series[t])) {
+                series[t] = 0.0;
+                residuals[t] = Double.NaN;
+                missing++;
+            }
+        }
 
+        int m = 0;
+        double ssq = 0.0;
         for (int t = offset; t < fitted.length; t++) {
             //fitted[t] = mean;
             for (int i = 0; i < arCoeffs.length; i++) {
                 if (abs(arCoeffs[i]) > 0.0) {
-                    fitted[t] += arCoeffs[i] * differencedSeries.at(t - i - 1);
+                    fitted[t] += arCoeffs[i] * series[t - i - 1];
                 }
             }
             for (int j = 0; j < Math.min(t, maCoeffs.length); j++) {
-                if (abs(maCoeffs[j]) > 0.0) {
-                    fitted[t] += maCoeffs[j] * residuals[t - j - 1];
+                final double residual = residuals[t - j - 1];
+                if (abs(maCoeffs[j]) > 0.0 && !Double.isNaN(residual)) {
+                    fitted[t] += maCoeffs[j] * residual;
                 }
             }
-            residuals[t] = differencedSeries.at(t) - fitted[t];
+            if (Double.isNaN(series[t])) {
+                series[t] = fitted[t];
+                residuals[t] = Double.NaN;
+                missing++;
+            } else {
+                residuals[t] = series[t] - fitted[t];
+                ssq += residuals[t] * residuals[t];
+                m++;
+            }
         }
-        final int m = differencedSeries.size() - arCoeffs.length;
-        final double sigma2 = sumOfSquared(residuals) / m;
-        final double logLikelihood = (-n / 2.0) * (log(2 * PI * sigma2) + 1);
+        final double sigma2 = ssq / m;
+        final double logLikelihood = (-(n - missing) / 2.0) * (log(2 * PI * sigma2) + 1);
         return new ModelInformation(npar, sigma2, logLikelihood, residuals, fitted);
     }
 
     private static ModelInformation fitML(final TimeSeries observations, final double[] arCoeffs,
-                                          final double[] maCoeffs, final double[] delta, int npar) {
+                                          final double[] maCoeffs, final double[] delta, int npar,
+                                          final Filtering filtering) {
         final double[] series = observations.asArray();
-        ArimaKalmanFilter.KalmanOutput output = kalmanFit(observations, arCoeffs, maCoeffs, delta);
+        ArimaStateSpace ss = new ArimaStateSpace(series, arCoeffs, maCoeffs, delta);
+        ArimaKalmanFilter.KalmanOutput output = kalmanFit(ss, new KalmanFilter(ss.stateDimension()), filtering);
         final double sigma2 = output.sigma2();
         final double logLikelihood = output.logLikelihood();
         final double[] residuals = output.residuals();
-        final double[] fitted = differenceOf(series, residuals);
+        final double[] fitted = differenceInto(series, series, residuals);
         npar += 1; // Add 1 for the variance estimate.
         return new ModelInformation(npar, sigma2, logLikelihood, residuals, fitted);
     }
 
-    private static KalmanOutput kalmanFit(final TimeSeries observations, final double[] arCoeffs,
-                                          final double[] maCoeffs, final double[] delta) {
-        final double[] series = observations.asArray();
-        ArimaStateSpace ss = new ArimaStateSpace(series, arCoeffs, maCoeffs, delta);
-        ArimaKalmanFilter kalmanFilter = new ArimaKalmanFilter(ss);
-        return kalmanFilter.output();
+    private static KalmanOutput kalmanFit(final ArimaStateSpace ss, final KalmanFilter workspace,
+                                          final Filtering filtering) {
+        if (filtering == Filtering.PARALLEL) {
+            return ArimaKalmanFilter.parallel(ss).output();
+        }
+        return new ArimaKalmanFilter(ss, workspace).output();
     }
 
     static double[] getDelta(ArimaOrder order, int observationFrequency) {
@@ -310,10 +391,11 @@ final class ArimaModel implements Arima {
         LagPolynomial seasonalDifferencesPolynomial = LagPolynomial.seasonalDifferences(observationFrequency, order.D);
 
         final LagPolynomial finalPolynomial = differencesPolynomial.times(seasonalDifferencesPolynomial);
-        return scale(finalPolynomial.parameters(), -1.0);
+        final double[] delta = finalPolynomial.parameters();
+        return scaleInto(delta, delta, -1.0);
     }
 
-    private static boolean isInvertible(double[] ma) {
+    static boolean isInvertible(double[] ma) {
         if (ma.length > 0) {
             double[] maCoeffs = new double[ma.length + 1];
             maCoeffs[0] = 1.0;
@@ -327,7 +409,7 @@ final class ArimaModel implements Arima {
         return true;
     }
 
-    private static boolean isStationary(double[] ar) {
+    static boolean isStationary(double[] ar) {
         if (ar.length > 0) {
             double[] arCoeffs = new double[ar.length + 1];
             arCoeffs[0] = 1.0;
@@ -344,17 +426,69 @@ final class ArimaModel implements Arima {
         return true;
     }
 
-    private static double[] roots(double[] arCoeffs) {
-        final Complex64F[] complexRoots = findRoots(arCoeffs);
-        final double[] absoluteRoots = new double[complexRoots.length];
-        for (int i = 0; i < complexRoots.length; i++) {
-            absoluteRoots[i] = complexRoots[i].getMagnitude();
+    /**
+     * Reflect the roots of the moving-average polynomial that lie inside the unit circle to their reciprocals
+     * outside it, which leaves the spectral density, and so the likelihood, unchanged up to the innovation variance.
+     *
+     * @param ma the moving-average coefficients.
+     * @return the coefficients of the invertible moving-average polynomial with the reflected roots.
+     */
+    static double[] invertMovingAverage(final double[] ma) {
+        int q = ma.length;
+        while (q > 0 && ma[q - 1] == 0.0) {
+            q--;
+        }
+        if (q == 0) {
+            return ma.clone();
+        }
+        final double[] maCoeffs = new double[q + 1];
+        maCoeffs[0] = 1.0;
+        System.arraycopy(ma, 0, maCoeffs, 1, q);
+        final double[] roots = findRoots(maCoeffs);
+
+        // Rebuild the polynomial as the product of (1 - z/r) over the roots r, with interleaved complex
+        // coefficients. For a root inside the unit circle, the reflected root is r/|r|^2, whose reciprocal is
+        // the conjugate of r.
+        final double[] product = new double[2 * (q + 1)];
+        product[0] = 1.0;
+        boolean reflected = false;
+        for (int i = 0; i < q; i++) {
+            final double re = roots[2 * i];
+            final double im = roots[2 * i + 1];
+            final double modulus2 = re * re + im * im;
+            double reciprocalRe = re;
+            double reciprocalIm = -im;
+            if (modulus2 < 1.0) {
+                reflected = true;
+            } else {
+                reciprocalRe /= modulus2;
+                reciprocalIm /= modulus2;
+            }
+            for (int k = i + 1; k > 0; k--) {
+                final double prevRe = product[2 * (k - 1)];
+                final double prevIm = product[2 * (k - 1) + 1];
+                product[2 * k] -= prevRe * reciprocalRe - prevIm * reciprocalIm;
+                product[2 * k + 1] -= prevRe * reciprocalIm + prevIm * reciprocalRe;
+            }
+        }
+        if (!reflected) {
+            return ma.clone();
+        }
+        final double[] inverted = new double[ma.length];
+        for (int j = 0; j < q; j++) {
+            inverted[j] = product[2 * (j + 1)];
         }
-        return absoluteRoots;
+        return inverted;
+    }
+
+    private static double[] roots(double[] arCoeffs) {
+        final double[] complexRoots = findRoots(arCoeffs);
+        return ComplexOperators.absInto(new double[complexRoots.length / 2], complexRoots);
     }
 
     // Source: https://stackoverflow.com/questions/13805644/finding-roots-of-polynomial-in-java
-    private static Complex64F[] findRoots(double... coefficients) {
+    // The roots are returned as an interleaved complex array.
+    private static double[] findRoots(double... coefficients) {
         int N = coefficients.length - 1;
 
         // Construct the companion matrix. This is a square N x N matrix.
@@ -373,10 +507,12 @@ final class ArimaModel implements Arima {
 
         evd.decompose(c);
 
-        final Complex64F[] roots = new Complex64F[N];
+        final double[] roots = new double[2 * N];
 
         for (int i = 0; i < N; i++) {
-            roots[i] = evd.getEigenvalue(i);
+            final Complex64F eigenvalue = evd.getEigenvalue(i);
+            roots[2 * i] = eigenvalue.getReal();
+            roots[2 * i + 1] = eigenvalue.getImaginary();
         }
 
         return roots;
@@ -409,20 +545,26 @@ final class ArimaModel implements Arima {
         LagPolynomial seasDiffPolynomial = LagPolynomial.seasonalDifferences(seasonalFrequency, D);
         LagPolynomial lagPolynomial = diffPolynomial.times(seasDiffPolynomial);
         for (int t = 0; t < steps; t++) {
-            fcst[m + t] = lagPolynomial.fit(fcst, m + t);
             for (int i = 0; i < arSarCoeffs.length; i++) {
                 diffedFcst[n + t] += arSarCoeffs[i] * diffedFcst[n + t - i - 1];
-                fcst[m + t] += arSarCoeffs[i] * diffedFcst[n + t - i - 1];
             }
             for (int j = maSmaCoeffs.length; j > 0 && t < j; j--) {
-                diffedFcst[n + t] += maSmaCoeffs[j - 1] * resid[m + t - j];
-                fcst[m + t] += maSmaCoeffs[j - 1] * resid[m + t - j];
+                // The residual of a missing observation is unknown, so it takes its expected value of zero.
+                if (!Double.isNaN(resid[m + t - j])) {
+                    diffedFcst[n + t] += maSmaCoeffs[j - 1] * resid[m + t - j];
+                }
             }
         }
+        // Integrate the differenced forecasts back onto the level of the series.
+        System.arraycopy(diffedFcst, n, fcst, m, steps);
+        lagPolynomial.solveInPlace(fcst, m);
         Matrix forecastRegressionMatrix = getForecastRegressionMatrix(steps, this.order);
         Vector forecastRegressionEffects = forecastRegressionMatrix.times(regressionParameters);
-        Vector forecast = Vector.from(slice(fcst, m, m + steps));
-        return forecast.plus(forecastRegressionEffects).elements();
+        final double[] forecast = slice(fcst, m, m + steps);
+        if (forecastRegressionEffects.size() == 0) {
+            return forecast;
+        }
+        return sumInto(forecast, forecast, forecastRegressionEffects.elements());
     }
 
     @Override
@@ -482,11 +624,26 @@ final class ArimaModel implements Arima {
 //    return builder.build();
     }
 
-    private Matrix getInitialHessian(final ArimaModel model) {
-        double[] stdErrors = model.stdErrors;
-        Matrix.IdentityBuilder builder = new Matrix.IdentityBuilder(stdErrors.length);
-        for (int i = 0; i < stdErrors.length; i++) {
-            builder.set(i, i, stdErrors[i] * stdErrors[i] * observations.size());
+    private Matrix getInitialHessian(final HannanRissanen initial, final LinearRegressionModel regression,
+                                     final ArimaParameters parameters, final int n) {
+        double[] variances = initial.variances();
+        Matrix.IdentityBuilder builder = new Matrix.IdentityBuilder(n);
+        for (int i = 0; i < variances.length; i++) {
+            builder.set(i, i, variances[i]);
+        }
+        // The regression parameters are optimized on the scale of their parScale, so their asymptotic variances,
+        // like those of the ARMA coefficients, are n times the squared regression standard error over the
+        // squared parScale.
+        final double[] regressionStdErrors = regression.standardErrors();
+        final int size = differencedSeries.size();
+        if (n > order.sumARMA() && order.constant.include() && abs(parameters.getMeanParScale()) > EPSILON) {
+            final double scaled = regressionStdErrors[0] / parameters.getMeanParScale();
+            builder.set(order.sumARMA(), order.sumARMA(), size * scaled * scaled);
+        }
+        final int driftIndex = order.sumARMA() + order.constant.asInt();
+        if (n > driftIndex && order.drift.include() && abs(parameters.getDriftParScale()) > EPSILON) {
+            final double scaled = regressionStdErrors[order.constant.asInt()] / parameters.getDriftParScale();
+            builder.set(driftIndex, driftIndex, size * scaled * scaled);
         }
         return builder.build();
     }
@@ -670,17 +827,31 @@ final class ArimaModel implements Arima {
         private final ArimaOrder order;
         private final ArimaParameters parameters;
         private final FittingStrategy fittingStrategy;
+        private final Filtering filtering;
         private final int seasonalFrequency;
         private final Matrix externalRegressors;
+        private KalmanFilter kalmanFilter;
+        private WhittleLikelihood whittle;
 
         private OptimFunction(TimeSeries observations, ArimaOrder order, ArimaParameters parameters,
-                              FittingStrategy fittingStrategy, Matrix externalRegressors, int seasonalFrequency) {
+                              FittingStrategy fittingStrategy, Filtering filtering, Matrix externalRegressors,
+                              int seasonalFrequency) {
             this.observations = observations;
             this.order = order;
             this.parameters = parameters;
             this.fittingStrategy = fittingStrategy;
+            this.filtering = filtering;
             this.externalRegressors = externalRegressors;
             this.seasonalFrequency = seasonalFrequency;
+            if (fittingStrategy == FittingStrategy.WHITTLE) {
+                // The periodogram is computed once, with the regression effects fixed at their initial estimates.
+                Vector regressionParameters = Vector.from(parameters.getRegressors(order));
+                Vector regressionEffects = externalRegressors.times(regressionParameters);
+                TimeSeries armaSeries = this.observations.minus(regressionEffects.elements());
+                TimeSeries differencedSeries = armaSeries.difference(1, order.d).difference(seasonalFrequency,
+                                                                                            order.D);
+                this.whittle = new WhittleLikelihood(differencedSeries.asArray());
+            }
         }
 
         @Override
@@ -694,10 +865,10 @@ final class ArimaModel implements Arima {
             parameters.setSeasonalMovingAveragePars(slice(params, order.p + order.q + order.P, order.p + order.q +
                                                          order.P + order.Q));
 
-            if (order.constant.include()) {
+            if (fittingStrategy != FittingStrategy.WHITTLE && order.constant.include()) {
                 parameters.setAndScaleMean(params[order.sumARMA()]);
             }
-            if (order.drift.include()) {
+            if (fittingStrategy != FittingStrategy.WHITTLE && order.drift.include()) {
                 parameters.setAndScaleDrift(params[order.sumARMA() + order.constant.asInt()]);
             }
             final double[] arCoeffs = ArimaCoefficients.expandArCoefficients(parameters.getAutoRegressivePars(),
@@ -706,14 +877,22 @@ final class ArimaModel implements Arima {
             final double[] maCoeffs = ArimaCoefficients.expandMaCoefficients(parameters.getMovingAveragePars(),
                                                                              parameters.getSeasonalMovingAveragePars(),
                                                                              seasonalFrequency);
+            if (fittingStrategy == FittingStrategy.WHITTLE) {
+                return whittle.objective(arCoeffs, maCoeffs);
+            }
 
             Vector regressionParameters = Vector.from(parameters.getRegressors(order));
             Vector regressionEffects = externalRegressors.times(regressionParameters);
             TimeSeries armaSeries = this.observations.minus(regressionEffects.elements());
 
-            if (fittingStrategy == FittingStrategy.ML || fittingStrategy == FittingStrategy.CSSML) {
+            if (fittingStrategy != FittingStrategy.CSS) {
                 double[] delta = getDelta(this.order, this.seasonalFrequency);
-                ArimaKalmanFilter.KalmanOutput output = ArimaModel.kalmanFit(armaSeries, arCoeffs, maCoeffs, delta);
+                ArimaStateSpace ss = new ArimaStateSpace(armaSeries.asArray(), arCoeffs, maCoeffs, delta);
+                // Every evaluation filters a state space of the same dimension, so one workspace serves them all.
+                if (kalmanFilter == null || kalmanFilter.dimension() != ss.stateDimension()) {
+                    kalmanFilter = new KalmanFilter(ss.stateDimension());
+                }
+                ArimaKalmanFilter.KalmanOutput output = ArimaModel.kalmanFit(ss, kalmanFilter, filtering);
                 return 0.5 * (log(output.sigma2()) + output.sumLog() / output.n());
             }
 
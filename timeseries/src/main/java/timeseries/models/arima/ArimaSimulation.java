@@ -107,10 +107,7 @@ public class ArimaSimulation {
         LagPolynomial poly = LagPolynomial.differences(coefficients.d())
                                           .times(LagPolynomial.seasonalDifferences(seasonalFrequency,
                                                                                    coefficients.D()));
-        end = n + burnin;
-        for (int t = diffOffset; t < end; t++) {
-            series[t] += poly.fit(series, t);
-        }
+        poly.solveInPlace(series, diffOffset);
         series = DoubleFunctions.slice(series, burnin, n + burnin);
         return new TimeSeries(period, OffsetDateTime.of(1, 1, 1, 0, 0, 0, 0, ZoneOffset.ofHours(0)), series);
     }
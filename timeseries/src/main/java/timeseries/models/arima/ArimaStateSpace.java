@@ -1,14 +1,29 @@
 package timeseries.models.arima;
 
+import math.linear.doubles.Matrix;
+import math.linear.doubles.SymmetricMatrix;
+import timeseries.models.statespace.StateSpaceModel;
+
 import static data.DoubleFunctions.combine;
 
-final class ArimaStateSpace {
+/**
+ * The state-space form of an ARIMA model with unit innovation variance (Durbin and Koopman 2012, 3.4). The state
+ * holds r = max(p, q + 1) elements of the ARMA process, followed by the last d values of the undifferenced series,
+ * whose prior is diffuse.
+ *
+ * @author Jacob Rachiele
+ */
+final class ArimaStateSpace implements StateSpaceModel {
+
+    // AS 154 solves for all r(r + 1) / 2 elements of the initial covariance at once, with O(r^4) memory. Above this
+    // dimension the covariance is found by solving the discrete Lyapunov equation instead.
+    private static final int AS154_MAX_DIMENSION = 16;
+    private static final double DIFFUSE_VARIANCE = 1E6;
 
     private final double[] observations;
     private final double[] arParams;
     private final double[] maParams;
     private final double[] delta;
-    private final double[][] transitionMatrix;
     private final double[] disturbanceVector;
     private final double[] observationVector;
     private final int r; // r = max(p, q + 1).
@@ -21,7 +36,6 @@ final class ArimaStateSpace {
         this.delta = delta.clone();
         this.r = Math.max(arParams.length, maParams.length + 1);
         this.d = delta.length;
-        this.transitionMatrix = createTransitionMatrix();
         this.disturbanceVector = createMovingAverageVector();
         this.observationVector = createStateEffectsVector();
     }
@@ -40,27 +54,6 @@ final class ArimaStateSpace {
         return R;
     }
 
-    private double[][] createTransitionMatrix() {
-        double[][] T = new double[r + d][r + d];
-        for (int i = 0; i < arParams.length; i++) {
-            T[i][0] = arParams[i];
-        }
-        for (int i = 1; i < r; i++) {
-            T[i - 1][i] = 1;
-        }
-        for (int i = 0; i < d; i++) {
-            T[r][r + i] = delta[i];
-        }
-        if (d > 0) {
-            T[r][0] = 1.0;
-        }
-        for (int i = 0; i < d - 1; i++) {
-            T[r + i + 1][r + i] = 1.0;
-            T[r][r + i] = delta[i];
-        }
-        return T;
-    }
-
     double[] observations() {
         return observations.clone();
     }
@@ -73,8 +66,93 @@ final class ArimaStateSpace {
         return maParams.clone();
     }
 
-    final double[][] transitionMatrix() {
-        return this.transitionMatrix.clone();
+    @Override
+    public int stateDimension() {
+        return r + d;
+    }
+
+    @Override
+    public double[] observationVector() {
+        return this.observationVector.clone();
+    }
+
+    @Override
+    public double observationVariance() {
+        return 0.0;
+    }
+
+    @Override
+    public Matrix transitionMatrix() {
+        final int rd = r + d;
+        final double[] basis = new double[rd];
+        final double[] column = new double[rd];
+        final double[] columnMajor = new double[rd * rd];
+        final ArimaTransition transition = transition();
+        for (int j = 0; j < rd; j++) {
+            basis[j] = 1.0;
+            transition.timesInto(column, basis);
+            System.arraycopy(column, 0, columnMajor, j * rd, rd);
+            basis[j] = 0.0;
+        }
+        return Matrix.create(rd, rd, columnMajor).transpose();
+    }
+
+    @Override
+    public Matrix disturbanceLoading() {
+        return Matrix.create(r + d, 1, this.disturbanceVector.clone());
+    }
+
+    @Override
+    public SymmetricMatrix disturbanceCovariance() {
+        return new SymmetricMatrix(1).set(0, 0, 1.0);
+    }
+
+    @Override
+    public SymmetricMatrix stateDisturbanceCovariance() {
+        return new SymmetricMatrix(r + d).rankOneUpdate(1.0, disturbanceVector);
+    }
+
+    @Override
+    public double[] initialState() {
+        return new double[r + d];
+    }
+
+    // AS 154 produces the ARMA block in the same packed lower triangle the covariance is stored in, so it is
+    // copied column by column without ever being expanded to a full matrix.
+    @Override
+    public SymmetricMatrix initialCovariance() {
+        final SymmetricMatrix P0 = new SymmetricMatrix(r + d);
+        if (arParams.length > 0 && r > AS154_MAX_DIMENSION) {
+            final SymmetricMatrix P = ArimaKalmanFilter.stationaryCovariance(arParams, maParams, r);
+            for (int j = 0; j < r; j++) {
+                for (int i = j; i < r; i++) {
+                    P0.set(i, j, P.at(i, j));
+                }
+            }
+        } else {
+            final double[] P = ArimaKalmanFilter.getInitialStateCovariance(arParams, maParams);
+            int index = 0;
+            for (int j = 0; j < r; j++) {
+                for (int i = j; i < r; i++) {
+                    P0.set(i, j, P[index++]);
+                }
+            }
+        }
+        for (int i = r; i < r + d; i++) {
+            P0.set(i, i, DIFFUSE_VARIANCE);
+        }
+        return P0;
+    }
+
+    @Override
+    public int diffuseDimension() {
+        return this.d;
+    }
+
+    // The transition matrix is never formed; its structure is applied directly.
+    @Override
+    public ArimaTransition transition() {
+        return new ArimaTransition(arParams, delta, r);
     }
 
     final double[] movingAverageVector() {
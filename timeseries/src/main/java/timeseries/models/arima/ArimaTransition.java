@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2017 Jacob Rachiele
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to
+ * do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+ * USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Contributors:
+ *
+ * Jacob Rachiele
+ */
+package timeseries.models.arima;
+
+import math.linear.doubles.SymmetricMatrix;
+import math.operations.DoubleKernels;
+import timeseries.models.statespace.StateTransition;
+
+/**
+ * The transition matrix T of an {@link ArimaStateSpace}, applied through its structure instead of being formed.
+ * <p>
+ * The first r rows of T shift the ARMA block of the state up by one and add the autoregressive coefficients times
+ * its first element. Row r combines the first element with the differencing coefficients, and the remaining d - 1
+ * rows shift the differencing block down by one. Multiplying a vector by T therefore takes O(r + d) operations, and
+ * the covariance update T P T<sup>T</sup> takes O((r + d)<sup>2</sup>), however long the seasonal period.
+ * </p>
+ * <p>
+ * The congruence keeps its workspace between calls, so an instance is not thread-safe.
+ * </p>
+ *
+ * @author Jacob Rachiele
+ */
+final class ArimaTransition implements StateTransition {
+
+    private final int r;
+    private final int d;
+    private final int rd;
+    private final double[] phi; // The autoregressive coefficients, padded with zeros to length r.
+    private final int[] deltaLags; // The positions of the nonzero differencing coefficients.
+    private final double[] deltaValues;
+    private double[] full;
+    private double[] product;
+    private double[] row;
+
+    ArimaTransition(final double[] arParams, final double[] delta, final int r) {
+        this.r = r;
+        this.d = delta.length;
+        this.rd = r + d;
+        this.phi = new double[r];
+        System.arraycopy(arParams, 0, phi, 0, arParams.length);
+        int nonZeros = 0;
+        for (double coefficient : delta) {
+            if (coefficient != 0.0) {
+                nonZeros++;
+            }
+        }
+        this.deltaLags = new int[nonZeros];
+        this.deltaValues = new double[nonZeros];
+        for (int j = 0, k = 0; j < d; j++) {
+            if (delta[j] != 0.0) {
+                deltaLags[k] = j;
+                deltaValues[k++] = delta[j];
+            }
+        }
+    }
+
+    @Override
+    public int dimension() {
+        return this.rd;
+    }
+
+    /**
+     * Compute T x and store it in the destination, which must not be x.
+     *
+     * @param destination the array of length r + d to store the product in.
+     * @param x           the array of length r + d to multiply.
+     * @return the destination array, now holding T x.
+     */
+    @Override
+    public double[] timesInto(final double[] destination, final double[] x) {
+        return timesInto(destination, x, 0);
+    }
+
+    // Multiply the vector of length r + d that starts at the given offset of x.
+    private double[] timesInto(final double[] destination, final double[] x, final int offset) {
+        final double x0 = x[offset];
+        for (int i = 0; i < r - 1; i++) {
+            destination[i] = phi[i] * x0 + x[offset + i + 1];
+        }
+        destination[r - 1] = phi[r - 1] * x0;
+        if (d > 0) {
+            double sum = x0;
+            for (int k = 0; k < deltaLags.length; k++) {
+                sum += deltaValues[k] * x[offset + r + deltaLags[k]];
+            }
+            destination[r] = sum;
+            System.arraycopy(x, offset + r, destination, r + 1, d - 1);
+        }
+        return destination;
+    }
+
+    /**
+     * Compute T<sup>T</sup> x and store it in the destination, which must not be x.
+     *
+     * @param destination the array of length r + d to store the product in.
+     * @param x           the array of length r + d to multiply.
+     * @return the destination array, now holding T<sup>T</sup> x.
+     */
+    @Override
+    public double[] transposeTimesInto(final double[] destination, final double[] x) {
+        // Column 0 of T holds the autoregressive coefficients and a one in row r, column k < r the shift from row
+        // k - 1, and column r + j the differencing coefficient in row r and the shift into row r + j + 1.
+        double sum = 0.0;
+        for (int i = 0; i < r; i++) {
+            sum += phi[i] * x[i];
+        }
+        System.arraycopy(x, 0, destination, 1, r - 1);
+        if (d > 0) {
+            destination[0] = sum + x[r];
+            System.arraycopy(x, r + 1, destination, r, d - 1);
+            destination[rd - 1] = 0.0;
+            for (int k = 0; k < deltaLags.length; k++) {
+                destination[r + deltaLags[k]] += deltaValues[k] * x[r];
+            }
+        } else {
+            destination[0] = sum;
+        }
+        return destination;
+    }
+
+    /**
+     * Compute T P T<sup>T</sup> and store it in the destination, which must not be P.
+     *
+     * @param destination the symmetric matrix of dimension r + d to store the result in.
+     * @param p           the symmetric matrix of dimension r + d to transform.
+     * @return the destination matrix, now holding T P T<sup>T</sup>.
+     */
+    @Override
+    public SymmetricMatrix congruenceInto(final SymmetricMatrix destination, final SymmetricMatrix p) {
+        if (full == null) {
+            full = new double[rd * rd];
+            product = new double[rd * rd];
+            row = new double[rd];
+        }
+        for (int j = 0; j < rd; j++) {
+            p.columnInto(row, j);
+            System.arraycopy(row, 0, full, j * rd, rd);
+        }
+        // Row i of W = T P is the combination of the rows of P picked out by row i of T.
+        for (int i = 0; i < r - 1; i++) {
+            System.arraycopy(full, (i + 1) * rd, product, i * rd, rd);
+            if (phi[i] != 0.0) {
+                DoubleKernels.axpy(phi[i], full, 0, product, i * rd, rd);
+            }
+        }
+        final int last = (r - 1) * rd;
+        for (int l = 0; l < rd; l++) {
+            product[last + l] = phi[r - 1] * full[l];
+        }
+        if (d > 0) {
+            System.arraycopy(full, 0, product, r * rd, rd);
+            for (int k = 0; k < deltaLags.length; k++) {
+                DoubleKernels.axpy(deltaValues[k], full, (r + deltaLags[k]) * rd, product, r * rd, rd);
+            }
+            System.arraycopy(full, r * rd, product, (r + 1) * rd, (d - 1) * rd);
+        }
+        // Row i of T P T' is T times row i of W, of which only the lower triangle is kept.
+        for (int i = 0; i < rd; i++) {
+            timesInto(row, product, i * rd);
+            for (int k = 0; k <= i; k++) {
+                destination.set(i, k, row[k]);
+            }
+        }
+        return destination;
+    }
+}
@@ -0,0 +1,330 @@
+/*
+ * Copyright (c) 2017 Jacob Rachiele
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to
+ * do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+ * USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Contributors:
+ *
+ * Jacob Rachiele
+ */
+package timeseries.models.arima;
+
+import math.linear.doubles.CholeskyDecomposition;
+import timeseries.TimeSeries;
+
+import java.util.Arrays;
+
+/**
+ * Closed-form initial estimates of the coefficients of a seasonal ARMA model, used to start the numerical
+ * optimization of the likelihood close to its optimum.
+ * <p>
+ * Pure non-seasonal autoregressions are estimated from the Yule-Walker equations, solved with the Durbin-Levinson
+ * recursion. All other models are estimated with the two-stage method of Hannan and Rissanen (1982). First, a long
+ * autoregression, of order the larger of (log n)<sup>2</sup> and twice the largest lag of the model, is fit with the
+ * Durbin-Levinson recursion, and its residuals are taken as estimates of the innovations. Then the series is
+ * regressed by least squares on its own lags and on the lags of the estimated innovations, at the non-seasonal and
+ * seasonal lags of the model. The seasonal and non-seasonal polynomials are treated as additive in the regression,
+ * so their products are ignored.
+ * </p>
+ * <p>
+ * Along with the coefficients, each estimate carries the diagonal of its asymptotic covariance, scaled by the
+ * length of the series, which serves as the diagonal of the initial inverse Hessian for the optimizer. A polynomial
+ * whose estimate is not stationary or not invertible falls back to zero coefficients with unit scaled variances, as
+ * do all the polynomials of a model whose series is too short to estimate. Starting near the boundary of the
+ * parameter space tends to leave the optimizer at a spurious optimum where the autoregressive and moving-average
+ * roots cancel.
+ * </p>
+ *
+ * @author Jacob Rachiele
+ */
+final class HannanRissanen {
+
+    private final double[] arCoeffs;
+    private final double[] maCoeffs;
+    private final double[] sarCoeffs;
+    private final double[] smaCoeffs;
+    private final double[] variances;
+
+    private HannanRissanen(final ArimaOrder order) {
+        this.arCoeffs = new double[order.p];
+        this.maCoeffs = new double[order.q];
+        this.sarCoeffs = new double[order.P];
+        this.smaCoeffs = new double[order.Q];
+        this.variances = new double[order.sumARMA()];
+        Arrays.fill(variances, 1.0);
+    }
+
+    /**
+     * Estimate the ARMA coefficients of a model of the given order from the given series. The series should already
+     * be differenced and have any regression effects removed. Missing values are replaced by the mean of the series.
+     *
+     * @param series            the stationary series to estimate the coefficients from.
+     * @param order             the order of the model.
+     * @param seasonalFrequency the number of observations per seasonal cycle.
+     * @return the initial estimates of the ARMA coefficients.
+     */
+    static HannanRissanen estimate(final double[] series, final ArimaOrder order, final int seasonalFrequency) {
+        final HannanRissanen estimate = new HannanRissanen(order);
+        if (order.sumARMA() == 0) {
+            return estimate;
+        }
+        final double[] x = centered(series);
+        if (order.q == 0 && order.P == 0 && order.Q == 0) {
+            estimate.yuleWalker(x);
+        } else {
+            estimate.hannanRissanen(x, order, seasonalFrequency);
+        }
+        if (!ArimaModel.isStationary(estimate.arCoeffs)) {
+            estimate.reset(estimate.arCoeffs, 0);
+        }
+        if (!ArimaModel.isInvertible(estimate.maCoeffs)) {
+            estimate.reset(estimate.maCoeffs, order.p);
+        }
+        if (!ArimaModel.isStationary(estimate.sarCoeffs)) {
+            estimate.reset(estimate.sarCoeffs, order.p + order.q);
+        }
+        if (!ArimaModel.isInvertible(estimate.smaCoeffs)) {
+            estimate.reset(estimate.smaCoeffs, order.p + order.q + order.P);
+        }
+        return estimate;
+    }
+
+    double[] arCoeffs() {
+        return this.arCoeffs.clone();
+    }
+
+    double[] maCoeffs() {
+        return this.maCoeffs.clone();
+    }
+
+    double[] sarCoeffs() {
+        return this.sarCoeffs.clone();
+    }
+
+    double[] smaCoeffs() {
+        return this.smaCoeffs.clone();
+    }
+
+    /**
+     * The diagonal of the asymptotic covariance of the estimates, multiplied by the length of the series, in the
+     * order autoregressive, moving-average, seasonal autoregressive, then seasonal moving-average.
+     *
+     * @return the scaled asymptotic variances of the estimates.
+     */
+    double[] variances() {
+        return this.variances.clone();
+    }
+
+    private void yuleWalker(final double[] x) {
+        final int p = arCoeffs.length;
+        if (x.length <= p) {
+            return;
+        }
+        final double[] acv = new TimeSeries(x).autoCovarianceUpToLag(p);
+        final double[] phi = durbinLevinson(acv, p);
+        if (phi.length < p) {
+            return;
+        }
+        // The asymptotic covariance of the Yule-Walker estimates is sigma2 times the inverse autocovariance matrix.
+        double sigma2 = acv[0];
+        for (int i = 0; i < p; i++) {
+            sigma2 -= phi[i] * acv[i + 1];
+        }
+        final double[] toeplitz = new double[p * p];
+        for (int i = 0; i < p; i++) {
+            for (int j = 0; j < p; j++) {
+                toeplitz[i * p + j] = acv[Math.abs(i - j)];
+            }
+        }
+        final CholeskyDecomposition cholesky = new CholeskyDecomposition(p);
+        if (!(sigma2 > 0.0) || !cholesky.decompose(toeplitz)) {
+            return;
+        }
+        final double[] inverseDiagonal = cholesky.inverse().diagonal();
+        System.arraycopy(phi, 0, arCoeffs, 0, p);
+        for (int i = 0; i < p; i++) {
+            variances[i] = sigma2 * inverseDiagonal[i];
+        }
+    }
+
+    private void hannanRissanen(final double[] x, final ArimaOrder order, final int s) {
+        final int n = x.length;
+        final int[] arLags = lags(order.p, order.P, s);
+        final int[] maLags = lags(order.q, order.Q, s);
+        final int k = arLags.length + maLags.length;
+        final int maxArLag = (order.P > 0) ? order.P * s : order.p;
+        final int maxMaLag = (order.Q > 0) ? order.Q * s : order.q;
+
+        // Stage one: estimate the innovations by the residuals of a long autoregression.
+        final double[] innovations = new double[n];
+        int longOrder = 0;
+        if (maLags.length > 0) {
+            final double logN = Math.log(n);
+            longOrder = Math.min((n - 1) / 3, Math.max((int) (logN * logN), 2 * Math.max(maxArLag, maxMaLag)));
+            if (longOrder < 1) {
+                return;
+            }
+            final double[] acv = new TimeSeries(x).autoCovarianceUpToLag(longOrder);
+            final double[] longAr = durbinLevinson(acv, longOrder);
+            if (longAr.length < longOrder) {
+                return;
+            }
+            for (int t = longOrder; t < n; t++) {
+                double residual = x[t];
+                for (int i = 0; i < longOrder; i++) {
+                    residual -= longAr[i] * x[t - i - 1];
+                }
+                innovations[t] = residual;
+            }
+        }
+
+        // Stage two: regress the series on its own lags and the lags of the estimated innovations.
+        final int start = Math.max(maxArLag, longOrder + maxMaLag);
+        final int rows = n - start;
+        if (rows <= k) {
+            return;
+        }
+        final double[] xtx = new double[k * k];
+        final double[] xty = new double[k];
+        final double[] row = new double[k];
+        for (int t = start; t < n; t++) {
+            fillRow(row, x, innovations, t, arLags, maLags);
+            for (int i = 0; i < k; i++) {
+                xty[i] += row[i] * x[t];
+                for (int j = 0; j <= i; j++) {
+                    xtx[i * k + j] += row[i] * row[j];
+                }
+            }
+        }
+        final CholeskyDecomposition cholesky = new CholeskyDecomposition(k);
+        if (!cholesky.decompose(xtx)) {
+            return;
+        }
+        final double[] beta = cholesky.solveInto(new double[k], xty);
+        double ssq = 0.0;
+        for (int t = start; t < n; t++) {
+            fillRow(row, x, innovations, t, arLags, maLags);
+            double residual = x[t];
+            for (int i = 0; i < k; i++) {
+                residual -= beta[i] * row[i];
+            }
+            ssq += residual * residual;
+        }
+        final double sigma2 = ssq / rows;
+        final double[] inverseDiagonal = cholesky.inverse().diagonal();
+
+        // Unpack the regression coefficients, which are ordered as the lags were, into the four polynomials.
+        final int[] positions = new int[k];
+        for (int i = 0; i < order.p; i++) {
+            arCoeffs[i] = beta[i];
+            positions[i] = i;
+        }
+        for (int i = 0; i < order.P; i++) {
+            sarCoeffs[i] = beta[order.p + i];
+            positions[order.p + i] = order.p + order.q + i;
+        }
+        for (int j = 0; j < order.q; j++) {
+            maCoeffs[j] = beta[arLags.length + j];
+            positions[arLags.length + j] = order.p + j;
+        }
+        for (int j = 0; j < order.Q; j++) {
+            smaCoeffs[j] = beta[arLags.length + order.q + j];
+            positions[arLags.length + order.q + j] = order.p + order.q + order.P + j;
+        }
+        for (int i = 0; i < k; i++) {
+            variances[positions[i]] = rows * sigma2 * inverseDiagonal[i];
+        }
+    }
+
+    private void reset(final double[] coefficients, final int offset) {
+        Arrays.fill(coefficients, 0.0);
+        Arrays.fill(variances, offset, offset + coefficients.length, 1.0);
+    }
+
+    private static void fillRow(final double[] row, final double[] x, final double[] innovations, final int t,
+                                final int[] arLags, final int[] maLags) {
+        for (int i = 0; i < arLags.length; i++) {
+            row[i] = x[t - arLags[i]];
+        }
+        for (int j = 0; j < maLags.length; j++) {
+            row[arLags.length + j] = innovations[t - maLags[j]];
+        }
+    }
+
+    // The non-seasonal lags 1 to p followed by the seasonal lags s to Ps.
+    private static int[] lags(final int p, final int P, final int s) {
+        final int[] lags = new int[p + P];
+        for (int i = 0; i < p; i++) {
+            lags[i] = i + 1;
+        }
+        for (int i = 0; i < P; i++) {
+            lags[p + i] = (i + 1) * s;
+        }
+        return lags;
+    }
+
+    /**
+     * Solve the Yule-Walker equations of the given order with the Durbin-Levinson recursion. If the autocovariances
+     * are degenerate, so that the recursion cannot reach the given order, no coefficients are returned.
+     *
+     * @param acv   the autocovariances of the series at lags 0 to at least the given order.
+     * @param order the order of the autoregression to fit.
+     * @return the autoregressive coefficients.
+     */
+    static double[] durbinLevinson(final double[] acv, final int order) {
+        final double[] phi = new double[order];
+        final double[] previous = new double[order];
+        double v = acv[0];
+        if (!(v > 0.0) || acv.length <= order) {
+            return new double[0];
+        }
+        for (int k = 1; k <= order; k++) {
+            double numerator = acv[k];
+            for (int j = 1; j < k; j++) {
+                numerator -= phi[j - 1] * acv[k - j];
+            }
+            final double kappa = numerator / v;
+            System.arraycopy(phi, 0, previous, 0, k - 1);
+            for (int j = 1; j < k; j++) {
+                phi[j - 1] = previous[j - 1] - kappa * previous[k - j - 1];
+            }
+            phi[k - 1] = kappa;
+            v *= (1.0 - kappa * kappa);
+            if (!(v > 0.0)) {
+                return new double[0];
+            }
+        }
+        return phi;
+    }
+
+    private static double[] centered(final double[] series) {
+        double sum = 0.0;
+        int observed = 0;
+        for (double value : series) {
+            if (!Double.isNaN(value)) {
+                sum += value;
+                observed++;
+            }
+        }
+        final double mean = (observed == 0) ? 0.0 : sum / observed;
+        final double[] x = new double[series.length];
+        for (int t = 0; t < x.length; t++) {
+            x[t] = Double.isNaN(series[t]) ? 0.0 : series[t] - mean;
+        }
+        return x;
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2017 Jacob Rachiele
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to
+ * do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+ * USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Contributors:
+ *
+ * Jacob Rachiele
+ */
+package timeseries.models.arima;
+
+import math.fft.FourierTransform;
+import timeseries.operators.LagPolynomial;
+
+/**
+ * The Whittle approximation to the likelihood of a stationary ARMA process, for fitting models to very long series.
+ * <p>
+ * The periodogram of the series is computed once, with a single fast Fourier transform, when the likelihood is
+ * created. Each evaluation then only needs the spectral density of the model at the Fourier frequencies
+ * &lambda;<sub>j</sub> = 2&pi;j/n for 0 &lt; j &lt; n/2, which is the squared gain of the moving-average
+ * {@link LagPolynomial} divided by that of the autoregressive one. An evaluation therefore costs O(n) operations for
+ * each nonzero coefficient, with no recursion over the series, against O(n m<sup>2</sup>) for a Kalman filter with
+ * an m-dimensional state.
+ * </p>
+ * <p>
+ * The zero frequency is left out, so the likelihood does not depend on the mean of the series. Missing observations
+ * are replaced by the mean of the observed values before the periodogram is computed. The squared gains are kept in
+ * workspaces between evaluations, so an instance is not thread-safe.
+ * </p>
+ *
+ * @author Jacob Rachiele
+ */
+final class WhittleLikelihood {
+
+    private final int n;
+    private final double[] periodogram; // |X_j|^2 / n for j from 0 to the number of frequencies used.
+    private final double[] maGain;
+    private final double[] arGain;
+
+    /**
+     * Create the Whittle likelihood of the given stationary series, computing its periodogram.
+     *
+     * @param series the stationary series, with any differencing and regression effects already removed.
+     */
+    WhittleLikelihood(final double[] series) {
+        this.n = series.length;
+        final int frequencies = (n - 1) / 2;
+        if (frequencies < 1) {
+            throw new IllegalArgumentException("The Whittle likelihood needs at least 3 observations, but the " +
+                                               "series had " + n);
+        }
+        double sum = 0.0;
+        int observed = 0;
+        for (double value : series) {
+            if (!Double.isNaN(value)) {
+                sum += value;
+                observed++;
+            }
+        }
+        final double mean = (observed == 0) ? 0.0 : sum / observed;
+        final double[] centered = new double[n];
+        for (int t = 0; t < n; t++) {
+            centered[t] = Double.isNaN(series[t]) ? 0.0 : series[t] - mean;
+        }
+        final double[] transform = FourierTransform.of(n).realForward(centered);
+        this.periodogram = new double[frequencies + 1];
+        for (int j = 1; j <= frequencies; j++) {
+            final double re = transform[2 * j];
+            final double im = transform[2 * j + 1];
+            periodogram[j] = (re * re + im * im) / n;
+        }
+        this.maGain = new double[frequencies + 1];
+        this.arGain = new double[frequencies + 1];
+    }
+
+    /**
+     * The number of Fourier frequencies the likelihood is summed over.
+     *
+     * @return the number of Fourier frequencies the likelihood is summed over.
+     */
+    int frequencies() {
+        return periodogram.length - 1;
+    }
+
+    /**
+     * The negative Whittle log-likelihood for the given coefficients, concentrated over the innovation variance and
+     * divided by the number of frequencies. It is half the sum of the log of the concentrated innovation variance
+     * and the mean log spectral density, the same scale as the objective used for exact maximum likelihood. For
+     * coefficients at which the spectral density vanishes or is unbounded the result is positive infinity.
+     *
+     * @param arCoeffs the autoregressive coefficients of the model, seasonal terms included.
+     * @param maCoeffs the moving-average coefficients of the model, seasonal terms included.
+     * @return the concentrated negative Whittle log-likelihood, per frequency.
+     */
+    double objective(final double[] arCoeffs, final double[] maCoeffs) {
+        computeGains(arCoeffs, maCoeffs);
+        double ssq = 0.0;
+        double sumLog = 0.0;
+        for (int j = 1; j < periodogram.length; j++) {
+            final double gain = maGain[j] / arGain[j];
+            ssq += periodogram[j] / gain;
+            sumLog += Math.log(gain);
+        }
+        final int m = frequencies();
+        final double value = 0.5 * (Math.log(ssq / m) + sumLog / m);
+        return Double.isNaN(value) ? Double.POSITIVE_INFINITY : value;
+    }
+
+    private void computeGains(final double[] arCoeffs, final double[] maCoeffs) {
+        LagPolynomial.movingAverage(maCoeffs).squaredGainInto(maGain, n);
+        LagPolynomial.autoRegressive(arCoeffs).squaredGainInto(arGain, n);
+    }
+}
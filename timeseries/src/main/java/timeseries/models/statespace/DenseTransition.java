@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2017 Jacob Rachiele
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to
+ * do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+ * USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Contributors:
+ *
+ * Jacob Rachiele
+ */
+package timeseries.models.statespace;
+
+import math.linear.doubles.Matrix;
+import math.linear.doubles.SymmetricMatrix;
+
+/**
+ * A transition that multiplies by a dense matrix.
+ *
+ * @author Jacob Rachiele
+ */
+final class DenseTransition implements StateTransition {
+
+    private final Matrix t;
+
+    DenseTransition(final Matrix t) {
+        if (t.nrow() != t.ncol()) {
+            throw new IllegalArgumentException("The transition matrix must be square, but had dimension (" +
+                                               t.nrow() + ", " + t.ncol() + ")");
+        }
+        this.t = t;
+    }
+
+    Matrix matrix() {
+        return this.t;
+    }
+
+    @Override
+    public int dimension() {
+        return t.nrow();
+    }
+
+    @Override
+    public double[] timesInto(final double[] destination, final double[] x) {
+        return t.timesInto(destination, x);
+    }
+
+    @Override
+    public double[] transposeTimesInto(final double[] destination, final double[] x) {
+        return t.transposeTimesInto(destination, x);
+    }
+
+    @Override
+    public SymmetricMatrix congruenceInto(final SymmetricMatrix destination, final SymmetricMatrix p) {
+        return p.congruenceInto(destination, t);
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2017 Jacob Rachiele
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to
+ * do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+ * USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Contributors:
+ *
+ * Jacob Rachiele
+ */
+package timeseries.models.statespace;
+
+import math.linear.doubles.SymmetricMatrix;
+
+import static java.lang.Math.PI;
+import static java.lang.Math.log;
+
+/**
+ * The output of running a {@link KalmanFilter} over a series: the one-step prediction errors and their variances,
+ * the pieces of the Gaussian log-likelihood, and the predicted state after the last observation, from which
+ * forecasts are made. This class is immutable and thread-safe.
+ *
+ * @author Jacob Rachiele
+ */
+public final class FilterResult {
+
+    private final StateSpaceModel model;
+    private final int n;
+    private final double ssq;
+    private final double sumLog;
+    private final double[] predictionErrors;
+    private final double[] predictionErrorVariances;
+    private final double[] nextState;
+    private final SymmetricMatrix nextCovariance;
+
+    FilterResult(final StateSpaceModel model, final int n, final double ssq, final double sumLog,
+                 final double[] predictionErrors, final double[] predictionErrorVariances, final double[] nextState,
+                 final SymmetricMatrix nextCovariance) {
+        this.model = model;
+        this.n = n;
+        this.ssq = ssq;
+        this.sumLog = sumLog;
+        this.predictionErrors = predictionErrors;
+        this.predictionErrorVariances = predictionErrorVariances;
+        this.nextState = nextState;
+        this.nextCovariance = nextCovariance;
+    }
+
+    /**
+     * The number of observations that contribute to the likelihood, which excludes missing observations and those
+     * used to pin down the diffuse elements of the initial state.
+     *
+     * @return the number of observations that contribute to the likelihood.
+     */
+    public int n() {
+        return this.n;
+    }
+
+    /**
+     * The sum of the squared prediction errors, each divided by its variance.
+     *
+     * @return the sum of the squared standardized prediction errors.
+     */
+    public double ssq() {
+        return this.ssq;
+    }
+
+    /**
+     * The sum of the natural logarithms of the prediction error variances.
+     *
+     * @return the sum of the logarithms of the prediction error variances.
+     */
+    public double sumLog() {
+        return this.sumLog;
+    }
+
+    /**
+     * The estimate ssq / n of a scale factor common to Q and H, for models specified up to such a factor.
+     *
+     * @return the estimate of the common scale factor of the model variances.
+     */
+    public double sigma2() {
+        return this.ssq / this.n;
+    }
+
+    /**
+     * The Gaussian log-likelihood of the observations, with the model variances taken as given.
+     *
+     * @return the log-likelihood of the observations.
+     */
+    public double logLikelihood() {
+        return -0.5 * (n * log(2 * PI) + sumLog + ssq);
+    }
+
+    /**
+     * The Gaussian log-likelihood of the observations, with the common scale factor of the model variances
+     * replaced by its maximum-likelihood estimate {@link #sigma2()}.
+     *
+     * @return the log-likelihood of the observations, concentrated with respect to the scale factor.
+     */
+    public double concentratedLogLikelihood() {
+        return (-n / 2.0) * (log(2 * PI * sigma2()) + 1.0) - (0.5 * sumLog);
+    }
+
+    /**
+     * The one-step prediction errors, which are NaN for missing observations.
+     *
+     * @return the one-step prediction errors.
+     */
+    public double[] predictionErrors() {
+        return this.predictionErrors.clone();
+    }
+
+    /**
+     * The variances of the one-step prediction errors.
+     *
+     * @return the variances of the one-step prediction errors.
+     */
+    public double[] predictionErrorVariances() {
+        return this.predictionErrorVariances.clone();
+    }
+
+    /**
+     * The one-step prediction errors, each divided by its standard deviation.
+     *
+     * @return the standardized one-step prediction errors.
+     */
+    public double[] standardizedPredictionErrors() {
+        final double[] standardized = new double[predictionErrors.length];
+        for (int t = 0; t < standardized.length; t++) {
+            standardized[t] = predictionErrors[t] / Math.sqrt(predictionErrorVariances[t]);
+        }
+        return standardized;
+    }
+
+    /**
+     * Forecast the given number of steps past the last observation.
+     *
+     * @param steps the number of steps to forecast.
+     * @return the means of the forecasts.
+     */
+    public double[] forecast(final int steps) {
+        final double[] means = new double[steps];
+        project(steps, means, null);
+        return means;
+    }
+
+    /**
+     * The variances of the forecast errors for the given number of steps past the last observation, in the units
+     * of the model variances.
+     *
+     * @param steps the number of steps to forecast.
+     * @return the variances of the forecast errors.
+     */
+    public double[] forecastVariances(final int steps) {
+        final double[] variances = new double[steps];
+        project(steps, null, variances);
+        return variances;
+    }
+
+    // Propagate the predicted state past the end of the series, recording the mean and variance of each forecast.
+    private void project(final int steps, final double[] means, final double[] variances) {
+        if (steps < 0) {
+            throw new IllegalArgumentException("The number of steps must be non-negative, but was " + steps);
+        }
+        final int m = nextState.length;
+        final StateTransition transition = model.transition();
+        final double[] z = model.observationVector();
+        final double h = model.observationVariance();
+        final SymmetricMatrix disturbanceCovariance = model.stateDisturbanceCovariance();
+        double[] state = nextState.clone();
+        double[] next = new double[m];
+        SymmetricMatrix covariance = nextCovariance.copy();
+        SymmetricMatrix nextCov = new SymmetricMatrix(m);
+        final double[] pz = new double[m];
+        for (int k = 0; k < steps; k++) {
+            if (means != null) {
+                means[k] = KalmanFilter.dot(z, state);
+            }
+            if (variances != null) {
+                variances[k] = KalmanFilter.dot(z, covariance.timesInto(pz, z)) + h;
+                if (k < steps - 1) {
+                    transition.congruenceInto(nextCov, covariance).plus(1.0, disturbanceCovariance);
+                    final SymmetricMatrix swap = covariance;
+                    covariance = nextCov;
+                    nextCov = swap;
+                }
+            }
+            if (means != null && k < steps - 1) {
+                transition.timesInto(next, state);
+                final double[] swap = state;
+                state = next;
+                next = swap;
+            }
+        }
+    }
+}
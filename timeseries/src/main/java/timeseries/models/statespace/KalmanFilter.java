@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) 2017 Jacob Rachiele
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to
+ * do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+ * USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Contributors:
+ *
+ * Jacob Rachiele
+ */
+package timeseries.models.statespace;
+
+import math.linear.doubles.Matrix;
+import math.linear.doubles.SymmetricMatrix;
+
+import static java.lang.Math.log;
+
+/**
+ * The Kalman filter and fixed-interval smoother for univariate {@link StateSpaceModel}s.
+ * <p>
+ * An instance is a workspace for models of a single state dimension: the state vectors and covariance matrices used
+ * by the recursions are allocated once and overwritten by each call, so filtering many models of the same dimension,
+ * as an optimizer does when it evaluates a likelihood, allocates only the per-observation output. This class is
+ * therefore not thread-safe.
+ * </p>
+ * <p>
+ * Missing observations, represented by NaN, are handled by a prediction-only step: the state is carried forward
+ * through the transition without an update, and the observation contributes nothing to the likelihood.
+ * </p>
+ *
+ * @author Jacob Rachiele
+ */
+public final class KalmanFilter {
+
+    private final int m;
+    private final double[] predictedState;
+    private final double[] filteredState;
+    private final double[] covarianceTimesZ; // P Z', which is the Kalman gain times the prediction error variance.
+    private final SymmetricMatrix predictedCovariance;
+    private final SymmetricMatrix filteredCovariance;
+
+    /**
+     * Create a new workspace for filtering models with states of the given dimension.
+     *
+     * @param dimension the dimension of the state vector.
+     */
+    public KalmanFilter(final int dimension) {
+        if (dimension < 1) {
+            throw new IllegalArgumentException("The state dimension must be positive, but was " + dimension);
+        }
+        this.m = dimension;
+        this.predictedState = new double[m];
+        this.filteredState = new double[m];
+        this.covarianceTimesZ = new double[m];
+        this.predictedCovariance = new SymmetricMatrix(m);
+        this.filteredCovariance = new SymmetricMatrix(m);
+    }
+
+    /**
+     * The dimension of the state vector of the models this workspace filters.
+     *
+     * @return the dimension of the state vector.
+     */
+    public int dimension() {
+        return this.m;
+    }
+
+    /**
+     * Run the filter over the given observations of the given model.
+     *
+     * @param model        the state-space model of the observations.
+     * @param observations the observations, with NaN marking a missing value.
+     * @return the result of filtering the observations.
+     */
+    public FilterResult filter(final StateSpaceModel model, final double[] observations) {
+        return run(model, observations, null, null);
+    }
+
+    /**
+     * Estimate the state at each time point from all of the given observations, using the fixed-interval smoother
+     * of Durbin and Koopman (2012, 4.4). The filtered states and covariances are kept for the backward pass, which
+     * takes O(n m<sup>2</sup>) memory.
+     *
+     * @param model        the state-space model of the observations.
+     * @param observations the observations, with NaN marking a missing value.
+     * @return an n by m matrix whose row t is the smoothed estimate of the state at time t.
+     */
+    public Matrix smooth(final StateSpaceModel model, final double[] observations) {
+        final int n = observations.length;
+        final double[] states = new double[n * m];
+        final SymmetricMatrix[] covariances = new SymmetricMatrix[n];
+        final FilterResult result = run(model, observations, states, covariances);
+        final double[] errors = result.predictionErrors();
+        final double[] variances = result.predictionErrorVariances();
+        final StateTransition transition = model.transition();
+        final double[] z = model.observationVector();
+
+        // r is the weighted sum of the innovations after time t, u is T' r, and the state estimate is a + P r.
+        final double[] r = new double[m];
+        final double[] u = new double[m];
+        final double[] pr = new double[m];
+        for (int t = n - 1; t >= 0; t--) {
+            transition.transposeTimesInto(u, r);
+            if (Double.isNaN(errors[t])) {
+                System.arraycopy(u, 0, r, 0, m);
+            } else {
+                covariances[t].timesInto(covarianceTimesZ, z);
+                final double scale = (errors[t] - dot(covarianceTimesZ, u)) / variances[t];
+                for (int i = 0; i < m; i++) {
+                    r[i] = u[i] + z[i] * scale;
+                }
+            }
+            covariances[t].timesInto(pr, r);
+            final int offset = t * m;
+            for (int i = 0; i < m; i++) {
+                states[offset + i] += pr[i];
+            }
+        }
+        return Matrix.create(n, m, states);
+    }
+
+    private FilterResult run(final StateSpaceModel model, final double[] y, final double[] states,
+                             final SymmetricMatrix[] covariances) {
+        validateDimension(model);
+        final StateTransition transition = model.transition();
+        final SymmetricMatrix disturbanceCovariance = model.stateDisturbanceCovariance();
+        final double[] errors = new double[y.length];
+        final double[] variances = new double[y.length];
+        startFrom(model.initialState(), model.initialCovariance());
+        if (y.length == 0) {
+            return new FilterResult(model, 0, 0.0, 0.0, errors, variances, predictedState.clone(),
+                                    predictedCovariance.copy());
+        }
+        final Totals totals = filterRange(model, transition, disturbanceCovariance, y, 0, y.length,
+                                          model.diffuseDimension(), errors, variances, states, covariances);
+        final double[] nextState = transition.timesInto(new double[m], filteredState);
+        final SymmetricMatrix nextCovariance = transition.congruenceInto(new SymmetricMatrix(m), filteredCovariance)
+                                                         .plus(1.0, disturbanceCovariance);
+        return new FilterResult(model, totals.n, totals.ssq, totals.sumLog, errors, variances, nextState,
+                                nextCovariance);
+    }
+
+    void validateDimension(final StateSpaceModel model) {
+        if (model.stateDimension() != m) {
+            throw new IllegalArgumentException("This workspace filters models of state dimension " + m + ", but " +
+                                               "the model has state dimension " + model.stateDimension());
+        }
+    }
+
+    /**
+     * Set the predicted state and covariance of the workspace to the given ones.
+     */
+    void startFrom(final double[] state, final SymmetricMatrix covariance) {
+        System.arraycopy(state, 0, predictedState, 0, m);
+        predictedCovariance.setTo(covariance);
+    }
+
+    /**
+     * Set the predicted state and covariance of the workspace to those that follow the given filtered state and
+     * covariance, so that {@link #filterRange} can resume filtering from the middle of a series.
+     */
+    void predictFrom(final StateTransition transition, final SymmetricMatrix disturbanceCovariance,
+                     final double[] state, final SymmetricMatrix covariance) {
+        transition.timesInto(predictedState, state);
+        transition.congruenceInto(predictedCovariance, covariance).plus(1.0, disturbanceCovariance);
+    }
+
+    /**
+     * Filter the observations from the first index, inclusive, to the last, exclusive, starting from the predicted
+     * state and covariance already in the workspace. On return the workspace holds the filtered state and
+     * covariance of the last observation.
+     */
+    Totals filterRange(final StateSpaceModel model, final StateTransition transition,
+                       final SymmetricMatrix disturbanceCovariance, final double[] y, final int from, final int to,
+                       int diffuse, final double[] errors, final double[] variances, final double[] states,
+                       final SymmetricMatrix[] covariances) {
+        final double[] z = model.observationVector();
+        final double h = model.observationVariance();
+        final Totals totals = new Totals();
+        for (int t = from; t < to; t++) {
+            if (t > from) {
+                // a = T a, P = T P T' + R Q R'.
+                transition.timesInto(predictedState, filteredState);
+                transition.congruenceInto(predictedCovariance, filteredCovariance);
+                predictedCovariance.plus(1.0, disturbanceCovariance);
+            }
+            if (states != null) {
+                System.arraycopy(predictedState, 0, states, t * m, m);
+                covariances[t] = predictedCovariance.copy();
+            }
+            predictedCovariance.timesInto(covarianceTimesZ, z);
+            final double f = dot(z, covarianceTimesZ) + h;
+            variances[t] = f;
+
+            if (Double.isNaN(y[t])) {
+                System.arraycopy(predictedState, 0, filteredState, 0, m);
+                filteredCovariance.setTo(predictedCovariance);
+                errors[t] = Double.NaN;
+                continue;
+            }
+
+            final double v = y[t] - dot(z, predictedState);
+            errors[t] = v;
+            if (diffuse > 0) {
+                diffuse--;
+            } else {
+                totals.n++;
+                totals.ssq += v * v / f;
+                totals.sumLog += log(f);
+            }
+
+            // a = a + P Z' v / f, P = P - (P Z')(Z P) / f.
+            final double gain = v / f;
+            for (int i = 0; i < m; i++) {
+                filteredState[i] = predictedState[i] + covarianceTimesZ[i] * gain;
+            }
+            filteredCovariance.setTo(predictedCovariance).rankOneUpdate(-1.0 / f, covarianceTimesZ);
+        }
+        return totals;
+    }
+
+    double[] filteredState() {
+        return this.filteredState;
+    }
+
+    SymmetricMatrix filteredCovariance() {
+        return this.filteredCovariance;
+    }
+
+    static double dot(final double[] x, final double[] y) {
+        double sum = 0.0;
+        for (int i = 0; i < x.length; i++) {
+            sum += x[i] * y[i];
+        }
+        return sum;
+    }
+
+    // The likelihood terms accumulated over a range of observations.
+    static final class Totals {
+
+        int n;
+        double ssq;
+        double sumLog;
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2017 Jacob Rachiele
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to
+ * do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+ * USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Contributors:
+ *
+ * Jacob Rachiele
+ */
+package timeseries.models.statespace;
+
+import math.linear.doubles.Matrix;
+import math.linear.doubles.SymmetricMatrix;
+
+/**
+ * The local level model, a random walk observed with noise,
+ * <pre>
+ *     y<sub>t</sub> = &mu;<sub>t</sub> + e<sub>t</sub>,   &mu;<sub>t+1</sub> = &mu;<sub>t</sub> + u<sub>t</sub>.
+ * </pre>
+ * The initial level is diffuse. This class is immutable and thread-safe.
+ *
+ * @author Jacob Rachiele
+ */
+public final class LocalLevelModel implements StateSpaceModel {
+
+    // The variance of the diffuse initial level, large relative to the scale of most series.
+    static final double DIFFUSE_VARIANCE = 1E7;
+
+    private final double levelVariance;
+    private final double observationVariance;
+
+    /**
+     * Create a new local level model with the given variances.
+     *
+     * @param levelVariance       the variance of the disturbance to the level.
+     * @param observationVariance the variance of the observation disturbance.
+     */
+    public LocalLevelModel(final double levelVariance, final double observationVariance) {
+        if (levelVariance < 0.0 || observationVariance < 0.0) {
+            throw new IllegalArgumentException("The variances must be non-negative, but were " + levelVariance +
+                                               " and " + observationVariance);
+        }
+        this.levelVariance = levelVariance;
+        this.observationVariance = observationVariance;
+    }
+
+    @Override
+    public int stateDimension() {
+        return 1;
+    }
+
+    @Override
+    public double[] observationVector() {
+        return new double[]{1.0};
+    }
+
+    @Override
+    public double observationVariance() {
+        return this.observationVariance;
+    }
+
+    @Override
+    public Matrix transitionMatrix() {
+        return Matrix.create(1, 1, new double[]{1.0});
+    }
+
+    @Override
+    public Matrix disturbanceLoading() {
+        return Matrix.create(1, 1, new double[]{1.0});
+    }
+
+    @Override
+    public SymmetricMatrix disturbanceCovariance() {
+        return new SymmetricMatrix(1).set(0, 0, levelVariance);
+    }
+
+    @Override
+    public double[] initialState() {
+        return new double[1];
+    }
+
+    @Override
+    public SymmetricMatrix initialCovariance() {
+        return new SymmetricMatrix(1).set(0, 0, DIFFUSE_VARIANCE);
+    }
+
+    @Override
+    public int diffuseDimension() {
+        return 1;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2017 Jacob Rachiele
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to
+ * do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+ * USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Contributors:
+ *
+ * Jacob Rachiele
+ */
+package timeseries.models.statespace;
+
+import math.linear.doubles.Matrix;
+import math.linear.doubles.SymmetricMatrix;
+
+/**
+ * The local linear trend model, in which both the level and the slope follow random walks,
+ * <pre>
+ *     y<sub>t</sub> = &mu;<sub>t</sub> + e<sub>t</sub>,
+ *     &mu;<sub>t+1</sub> = &mu;<sub>t</sub> + &beta;<sub>t</sub> + u<sub>t</sub>,
+ *     &beta;<sub>t+1</sub> = &beta;<sub>t</sub> + w<sub>t</sub>.
+ * </pre>
+ * The initial level and slope are diffuse. This class is immutable and thread-safe.
+ *
+ * @author Jacob Rachiele
+ */
+public final class LocalLinearTrendModel implements StateSpaceModel {
+
+    private final double levelVariance;
+    private final double slopeVariance;
+    private final double observationVariance;
+
+    /**
+     * Create a new local linear trend model with the given variances.
+     *
+     * @param levelVariance       the variance of the disturbance to the level.
+     * @param slopeVariance       the variance of the disturbance to the slope.
+     * @param observationVariance the variance of the observation disturbance.
+     */
+    public LocalLinearTrendModel(final double levelVariance, final double slopeVariance,
+                                 final double observationVariance) {
+        if (levelVariance < 0.0 || slopeVariance < 0.0 || observationVariance < 0.0) {
+            throw new IllegalArgumentException("The variances must be non-negative, but were " + levelVariance +
+                                               ", " + slopeVariance + " and " + observationVariance);
+        }
+        this.levelVariance = levelVariance;
+        this.slopeVariance = slopeVariance;
+        this.observationVariance = observationVariance;
+    }
+
+    @Override
+    public int stateDimension() {
+        return 2;
+    }
+
+    @Override
+    public double[] observationVector() {
+        return new double[]{1.0, 0.0};
+    }
+
+    @Override
+    public double observationVariance() {
+        return this.observationVariance;
+    }
+
+    @Override
+    public Matrix transitionMatrix() {
+        return Matrix.create(2, 2, new double[]{1.0, 1.0, 0.0, 1.0});
+    }
+
+    @Override
+    public Matrix disturbanceLoading() {
+        return Matrix.create(2, 2, new double[]{1.0, 0.0, 0.0, 1.0});
+    }
+
+    @Override
+    public SymmetricMatrix disturbanceCovariance() {
+        return new SymmetricMatrix(2).set(0, 0, levelVariance).set(1, 1, slopeVariance);
+    }
+
+    @Override
+    public double[] initialState() {
+        return new double[2];
+    }
+
+    @Override
+    public SymmetricMatrix initialCovariance() {
+        return new SymmetricMatrix(2).set(0, 0, LocalLevelModel.DIFFUSE_VARIANCE)
+                                     .set(1, 1, LocalLevelModel.DIFFUSE_VARIANCE);
+    }
+
+    @Override
+    public int diffuseDimension() {
+        return 2;
+    }
+}
@@ -0,0 +1,665 @@
+/*
+ * Copyright (c) 2017 Jacob Rachiele
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to
+ * do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+ * USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Contributors:
+ *
+ * Jacob Rachiele
+ */
+package timeseries.models.statespace;
+
+import math.linear.doubles.SymmetricMatrix;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * A Kalman filter that runs in parallel over time, for very long series.
+ * <p>
+ * Filtering is written as an associative prefix scan, following S&auml;rkk&auml; and Garc&iacute;a-Fern&aacute;ndez
+ * (2021). Each observation becomes an element (A, b, C, &eta;, J) that describes how it transforms the filtered
+ * state, and combining the elements of a prefix of the series gives the filtered state and covariance at its end.
+ * The scan is evaluated over blocks in three passes:
+ * </p>
+ * <ol>
+ *     <li>the elements of each block are combined, with the blocks done in parallel;</li>
+ *     <li>the block elements are scanned in order, which gives the filtered state and covariance at the start of
+ *     every block;</li>
+ *     <li>each block is filtered by an ordinary {@link KalmanFilter} from its starting state, in parallel, and the
+ *     likelihood terms of the blocks are summed.</li>
+ * </ol>
+ * <p>
+ * Within a block, the element of each observation has a rank-one information matrix, so folding it in takes a few
+ * applications of the transition per state dimension, much like a step of the sequential filter. The scan as a
+ * whole does about twice the work of the sequential filter and divides it among the cores, so it only pays off on
+ * machines with several cores, and callers must choose it explicitly. The result matches that of the sequential
+ * filter up to rounding error.
+ * </p>
+ * <p>
+ * The split of the series into blocks depends only on its length, never on the number of available threads, so
+ * the same observations and model give the same result on every machine. The common fork/join pool only decides
+ * how many blocks are worked on at once.
+ * </p>
+ *
+ * @author Jacob Rachiele
+ */
+public final class ParallelKalmanFilter {
+
+    /**
+     * Series shorter than this are filtered sequentially.
+     */
+    public static final int PARALLEL_THRESHOLD = 1 << 16;
+    /**
+     * The minimum length of the blocks a long series is split into.
+     */
+    public static final int BLOCK_LENGTH = 1 << 13;
+    private static final double NEGLIGIBLE = Math.sqrt(Double.MIN_NORMAL);
+
+    private ParallelKalmanFilter() {
+    }
+
+    /**
+     * Run the Kalman filter over the given observations of the given model. Series with at least
+     * {@value #PARALLEL_THRESHOLD} observations are split into as many blocks of nearly equal length as fit at least
+     * {@value #BLOCK_LENGTH} observations each, and filtered in parallel. Shorter series are filtered sequentially.
+     *
+     * @param model        the state-space model of the observations.
+     * @param observations the observations, with NaN marking a missing value.
+     * @return the result of filtering the observations.
+     */
+    public static FilterResult filter(final StateSpaceModel model, final double[] observations) {
+        if (observations.length < PARALLEL_THRESHOLD) {
+            return new KalmanFilter(model.stateDimension()).filter(model, observations);
+        }
+        return filter(model, observations, observations.length / BLOCK_LENGTH);
+    }
+
+    /**
+     * Run the Kalman filter over the given observations of the given model, split into the given number of blocks
+     * of nearly equal length that are filtered in parallel.
+     *
+     * @param model  the state-space model of the observations.
+     * @param y      the observations, with NaN marking a missing value.
+     * @param blocks the number of blocks to split the observations into, between 1 and their number.
+     * @return the result of filtering the observations.
+     */
+    public static FilterResult filter(final StateSpaceModel model, final double[] y, final int blocks) {
+        if (blocks < 1 || blocks > y.length) {
+            throw new IllegalArgumentException("The number of blocks must be between 1 and the number of " +
+                                               "observations, " + y.length + ", but was " + blocks);
+        }
+        final int m = model.stateDimension();
+        final int n = y.length;
+        final int[] starts = new int[blocks + 1];
+        for (int k = 0; k <= blocks; k++) {
+            starts[k] = (int) ((long) n * k / blocks);
+        }
+        final SymmetricMatrix disturbanceCovariance = model.stateDisturbanceCovariance();
+
+        // Pass 1: combine the elements of each block, and count its observations.
+        final Element[] elements = new Element[blocks];
+        final int[] observed = new int[blocks];
+        IntStream.range(0, blocks).parallel().forEach(k -> {
+            final Folder folder = new Folder(model, disturbanceCovariance);
+            final Element element = new Element(m);
+            int t = starts[k];
+            if (k == 0) {
+                folder.first(element, y[0]);
+                t++;
+            } else {
+                element.identity();
+            }
+            for (; t < starts[k + 1]; t++) {
+                folder.fold(element, y[t]);
+            }
+            int count = 0;
+            for (int i = starts[k]; i < starts[k + 1]; i++) {
+                if (!Double.isNaN(y[i])) {
+                    count++;
+                }
+            }
+            elements[k] = element;
+            observed[k] = count;
+        });
+
+        // Pass 2: scan the block elements to find the filtered state and covariance before each block.
+        final double[][] startStates = new double[blocks][];
+        final SymmetricMatrix[] startCovariances = new SymmetricMatrix[blocks];
+        final int[] diffuse = new int[blocks];
+        final Combiner combiner = new Combiner(m);
+        final Element prefix = elements[0].copy();
+        int remaining = Math.max(0, model.diffuseDimension() - observed[0]);
+        diffuse[0] = model.diffuseDimension();
+        for (int k = 1; k < blocks; k++) {
+            startStates[k] = prefix.b.clone();
+            startCovariances[k] = prefix.covariance();
+            diffuse[k] = remaining;
+            remaining = Math.max(0, remaining - observed[k]);
+            combiner.combine(prefix, elements[k]);
+        }
+
+        // Pass 3: filter each block from its starting state.
+        final double[] errors = new double[n];
+        final double[] variances = new double[n];
+        final KalmanFilter.Totals[] totals = new KalmanFilter.Totals[blocks];
+        final double[][] endStates = new double[blocks][];
+        final SymmetricMatrix[] endCovariances = new SymmetricMatrix[blocks];
+        IntStream.range(0, blocks).parallel().forEach(k -> {
+            final KalmanFilter filter = new KalmanFilter(m);
+            final StateTransition transition = model.transition();
+            if (k == 0) {
+                filter.startFrom(model.initialState(), model.initialCovariance());
+            } else {
+                filter.predictFrom(transition, disturbanceCovariance, startStates[k], startCovariances[k]);
+            }
+            totals[k] = filter.filterRange(model, transition, disturbanceCovariance, y, starts[k], starts[k + 1],
+                                           diffuse[k], errors, variances, null, null);
+            endStates[k] = filter.filteredState().clone();
+            endCovariances[k] = filter.filteredCovariance().copy();
+        });
+
+        int count = 0;
+        double ssq = 0.0;
+        double sumLog = 0.0;
+        for (KalmanFilter.Totals total : totals) {
+            count += total.n;
+            ssq += total.ssq;
+            sumLog += total.sumLog;
+        }
+        final StateTransition transition = model.transition();
+        final double[] nextState = transition.timesInto(new double[m], endStates[blocks - 1]);
+        final SymmetricMatrix nextCovariance = transition.congruenceInto(new SymmetricMatrix(m),
+                                                                         endCovariances[blocks - 1])
+                                                         .plus(1.0, disturbanceCovariance);
+        return new FilterResult(model, count, ssq, sumLog, errors, variances, nextState, nextCovariance);
+    }
+
+    /**
+     * An element of the filtering scan. The filtered state after a run of observations, given the filtered state x
+     * before it, has mean A x + b and covariance C when the run is combined with its predecessors; &eta; and J carry
+     * the information the run holds about x. Matrices are m by m and stored in row-major order.
+     */
+    private static final class Element {
+
+        private final int m;
+        private final double[] a;
+        private final double[] b;
+        private final double[] c;
+        private final double[] eta;
+        private final double[] j;
+        private boolean forgotten; // Whether A is zero, so that the element no longer depends on the state before it.
+
+        private Element(final int m) {
+            this.m = m;
+            this.a = new double[m * m];
+            this.b = new double[m];
+            this.c = new double[m * m];
+            this.eta = new double[m];
+            this.j = new double[m * m];
+        }
+
+        private void identity() {
+            Arrays.fill(a, 0.0);
+            for (int i = 0; i < m; i++) {
+                a[i * m + i] = 1.0;
+            }
+            Arrays.fill(b, 0.0);
+            Arrays.fill(c, 0.0);
+            Arrays.fill(eta, 0.0);
+            Arrays.fill(j, 0.0);
+            forgotten = false;
+        }
+
+        private Element copy() {
+            final Element copy = new Element(m);
+            System.arraycopy(a, 0, copy.a, 0, a.length);
+            System.arraycopy(b, 0, copy.b, 0, m);
+            System.arraycopy(c, 0, copy.c, 0, c.length);
+            System.arraycopy(eta, 0, copy.eta, 0, m);
+            System.arraycopy(j, 0, copy.j, 0, j.length);
+            copy.forgotten = forgotten;
+            return copy;
+        }
+
+        private SymmetricMatrix covariance() {
+            final SymmetricMatrix covariance = new SymmetricMatrix(m);
+            for (int col = 0; col < m; col++) {
+                for (int row = col; row < m; row++) {
+                    covariance.set(row, col, 0.5 * (c[row * m + col] + c[col * m + row]));
+                }
+            }
+            return covariance;
+        }
+    }
+
+    /**
+     * Folds the observations of a block into its element one at a time. The element of a single observation is
+     * never formed: with g = T' Z' and S = Z Q Z' + H its J is the rank-one g g' / S, so the inverse in the
+     * combination follows from the Sherman-Morrison formula and each fold costs about as much as a step of the
+     * sequential filter.
+     */
+    private static final class Folder {
+
+        private final int m;
+        private final StateTransition transition;
+        private final double[] dense; // The elements of T, if it has no structure to exploit.
+        private final SymmetricMatrix disturbanceCovariance;
+        private final double[] z;
+        private final double[] g; // T' Z'.
+        private final double[] gain; // Q Z' / S.
+        private final double s;
+        private final double h;
+        private final double[] a0;
+        private final SymmetricMatrix p0;
+        private final double[] cg;
+        private final double[] ag;
+        private final double[] x;
+        private final double[] column;
+        private final double[] product;
+
+        private Folder(final StateSpaceModel model, final SymmetricMatrix disturbanceCovariance) {
+            this.m = model.stateDimension();
+            this.transition = model.transition();
+            this.dense = (transition instanceof DenseTransition)
+                         ? ((DenseTransition) transition).matrix().data() : null;
+            this.disturbanceCovariance = disturbanceCovariance;
+            this.z = model.observationVector();
+            this.g = transition.transposeTimesInto(new double[m], z);
+            this.h = model.observationVariance();
+            this.gain = disturbanceCovariance.timesInto(new double[m], z);
+            this.s = KalmanFilter.dot(z, gain) + h;
+            for (int i = 0; i < m; i++) {
+                gain[i] /= s;
+            }
+            this.a0 = model.initialState();
+            this.p0 = model.initialCovariance();
+            this.cg = new double[m];
+            this.ag = new double[m];
+            this.x = new double[m * m];
+            this.column = new double[m];
+            this.product = new double[m];
+        }
+
+        // The first element holds the filtered state and covariance of the first observation, and nothing else.
+        private void first(final Element e, final double y0) {
+            Arrays.fill(e.a, 0.0);
+            e.forgotten = true;
+            Arrays.fill(e.eta, 0.0);
+            Arrays.fill(e.j, 0.0);
+            System.arraycopy(a0, 0, e.b, 0, m);
+            System.arraycopy(p0.toMatrix().data(), 0, e.c, 0, m * m);
+            if (Double.isNaN(y0)) {
+                return;
+            }
+            final double[] pz = p0.timesInto(new double[m], z);
+            final double f = KalmanFilter.dot(z, pz) + h;
+            final double scale = (y0 - KalmanFilter.dot(z, a0)) / f;
+            for (int row = 0; row < m; row++) {
+                e.b[row] += pz[row] * scale;
+                for (int col = 0; col < m; col++) {
+                    e.c[row * m + col] -= pz[row] * pz[col] / f;
+                }
+            }
+        }
+
+        /**
+         * Combine the element with that of the next observation y. When y is missing the next element is
+         * (T, 0, Q, 0, 0). Otherwise, with c = C g, d = S + g' c and M = (I + C J_y)^-1 = I - c g' / d:
+         * <pre>
+         *     A = A_y (A - c (A' g)' / d),       b = T w + K (y - g' w), where w = M (b + c y / S),
+         *     C = A_y (C - c c' / d) A_y' + Q - S K K',
+         *     eta = eta + A' g (y - g' b) / d,    J = J + (A' g)(A' g)' / d,
+         * </pre>
+         * where A_y v = T v - K g' v applies the transition of the next element.
+         */
+        private void fold(final Element e, final double y) {
+            if (Double.isNaN(y)) {
+                if (!e.forgotten) {
+                    applyToColumns(e.a, false);
+                    forget(e);
+                }
+                transition.timesInto(product, e.b);
+                System.arraycopy(product, 0, e.b, 0, m);
+                applyToColumns(e.c, false);
+                transposeInPlace(e.c);
+                applyToColumns(e.c, false);
+                addDisturbance(e.c);
+                return;
+            }
+            multiply(cg, e.c, g);
+            final double d = s + KalmanFilter.dot(g, cg);
+
+            // eta and J.
+            if (!e.forgotten) {
+                multiplyTranspose(ag, e.a, g);
+                final double innovation = (y - KalmanFilter.dot(g, e.b)) / d;
+                for (int i = 0; i < m; i++) {
+                    e.eta[i] += ag[i] * innovation;
+                    final double scaled = ag[i] / d;
+                    for (int k = 0; k < m; k++) {
+                        e.j[i * m + k] += scaled * ag[k];
+                    }
+                }
+            }
+
+            // b.
+            for (int i = 0; i < m; i++) {
+                column[i] = e.b[i] + cg[i] * y / s;
+            }
+            final double gw = KalmanFilter.dot(g, column);
+            for (int i = 0; i < m; i++) {
+                column[i] -= cg[i] * gw / d;
+            }
+            transition.timesInto(e.b, column);
+            final double correction = y - KalmanFilter.dot(g, column);
+            for (int i = 0; i < m; i++) {
+                e.b[i] += gain[i] * correction;
+            }
+
+            // A.
+            if (!e.forgotten) {
+                for (int i = 0; i < m; i++) {
+                    final double ci = cg[i] / d;
+                    for (int k = 0; k < m; k++) {
+                        e.a[i * m + k] -= ci * ag[k];
+                    }
+                }
+                applyToColumns(e.a, true);
+                forget(e);
+            }
+
+            // C.
+            for (int i = 0; i < m; i++) {
+                final double ci = cg[i] / d;
+                for (int k = 0; k < m; k++) {
+                    e.c[i * m + k] -= ci * cg[k];
+                }
+            }
+            applyToColumns(e.c, true);
+            transposeInPlace(e.c);
+            applyToColumns(e.c, true);
+            addDisturbance(e.c);
+            for (int i = 0; i < m; i++) {
+                final double gi = gain[i] * s;
+                for (int k = 0; k < m; k++) {
+                    e.c[i * m + k] -= gi * gain[k];
+                }
+            }
+        }
+
+        /*
+         * A stable filter forgets its starting state, so A decays geometrically along a block. Its entries are
+         * flushed to zero before their products become subnormal, which is far below the precision of the state and
+         * would otherwise slow the arithmetic by orders of magnitude. Once A is zero, eta and J stop changing.
+         */
+        private void forget(final Element e) {
+            boolean zero = true;
+            for (int i = 0; i < m * m; i++) {
+                if (Math.abs(e.a[i]) < NEGLIGIBLE) {
+                    e.a[i] = 0.0;
+                } else {
+                    zero = false;
+                }
+            }
+            e.forgotten = zero;
+        }
+
+        // Replace each column v of the row-major matrix by T v, or by T v - K g' v if updating.
+        private void applyToColumns(final double[] matrix, final boolean update) {
+            if (dense != null) {
+                for (int i = 0; i < m; i++) {
+                    for (int col = 0; col < m; col++) {
+                        double sum = 0.0;
+                        for (int k = 0; k < m; k++) {
+                            sum += dense[i * m + k] * matrix[k * m + col];
+                        }
+                        x[i * m + col] = sum;
+                    }
+                }
+                if (update) {
+                    multiplyTranspose(product, matrix, g);
+                    for (int i = 0; i < m; i++) {
+                        for (int col = 0; col < m; col++) {
+                            x[i * m + col] -= gain[i] * product[col];
+                        }
+                    }
+                }
+                System.arraycopy(x, 0, matrix, 0, m * m);
+                return;
+            }
+            for (int col = 0; col < m; col++) {
+                for (int i = 0; i < m; i++) {
+                    column[i] = matrix[i * m + col];
+                }
+                transition.timesInto(product, column);
+                if (update) {
+                    final double gv = KalmanFilter.dot(g, column);
+                    for (int i = 0; i < m; i++) {
+                        product[i] -= gain[i] * gv;
+                    }
+                }
+                for (int i = 0; i < m; i++) {
+                    x[i * m + col] = product[i];
+                }
+            }
+            System.arraycopy(x, 0, matrix, 0, m * m);
+        }
+
+        private void transposeInPlace(final double[] matrix) {
+            for (int i = 0; i < m; i++) {
+                for (int k = i + 1; k < m; k++) {
+                    final double temp = matrix[i * m + k];
+                    matrix[i * m + k] = matrix[k * m + i];
+                    matrix[k * m + i] = temp;
+                }
+            }
+        }
+
+        private void addDisturbance(final double[] matrix) {
+            for (int i = 0; i < m; i++) {
+                for (int k = 0; k <= i; k++) {
+                    final double q = disturbanceCovariance.at(i, k);
+                    matrix[i * m + k] += q;
+                    if (k != i) {
+                        matrix[k * m + i] += q;
+                    }
+                }
+            }
+        }
+
+        private void multiply(final double[] destination, final double[] matrix, final double[] vector) {
+            for (int row = 0; row < m; row++) {
+                double sum = 0.0;
+                for (int col = 0; col < m; col++) {
+                    sum += matrix[row * m + col] * vector[col];
+                }
+                destination[row] = sum;
+            }
+        }
+
+        private void multiplyTranspose(final double[] destination, final double[] matrix, final double[] vector) {
+            Arrays.fill(destination, 0.0);
+            for (int row = 0; row < m; row++) {
+                final double v = vector[row];
+                for (int col = 0; col < m; col++) {
+                    destination[col] += matrix[row * m + col] * v;
+                }
+            }
+        }
+    }
+
+    // Combines two elements with the associative operator of the scan, reusing its workspace between calls.
+    private static final class Combiner {
+
+        private final int m;
+        private final double[] inverse; // (I + C_i J_j)^-1.
+        private final double[] lu;
+        private final double[] x;
+        private final double[] y;
+        private final double[] v;
+        private final double[] w;
+
+        private Combiner(final int m) {
+            this.m = m;
+            this.inverse = new double[m * m];
+            this.lu = new double[m * m];
+            this.x = new double[m * m];
+            this.y = new double[m * m];
+            this.v = new double[m];
+            this.w = new double[m];
+        }
+
+        /**
+         * Combine the earlier element i with the later element j and store the result in i:
+         * <pre>
+         *     A = A_j M A_i,                      b = A_j M (b_i + C_i eta_j) + b_j,
+         *     C = A_j M C_i A_j' + C_j,           eta = A_i' M' (eta_j - J_j b_i) + eta_i,
+         *     J = A_i' M' J_j A_i + J_i,
+         * </pre>
+         * where M = (I + C_i J_j)^-1, and (I + J_j C_i)^-1 = M' because C_i and J_j are symmetric.
+         */
+        private void combine(final Element i, final Element j) {
+            multiply(lu, i.c, j.j, false, false);
+            for (int k = 0; k < m; k++) {
+                lu[k * m + k] += 1.0;
+            }
+            invert();
+
+            // eta and J, which need the old A_i and b_i.
+            multiply(v, j.j, i.b);
+            for (int k = 0; k < m; k++) {
+                v[k] = j.eta[k] - v[k];
+            }
+            multiplyTranspose(w, inverse, v);
+            multiplyTranspose(v, i.a, w);
+            for (int k = 0; k < m; k++) {
+                i.eta[k] += v[k];
+            }
+            multiply(x, inverse, j.j, true, false);
+            multiply(y, x, i.a, false, false);
+            multiply(x, i.a, y, true, false);
+            for (int k = 0; k < m * m; k++) {
+                i.j[k] += x[k];
+            }
+
+            // b.
+            multiply(v, i.c, j.eta);
+            for (int k = 0; k < m; k++) {
+                v[k] += i.b[k];
+            }
+            multiply(w, inverse, v);
+            multiply(i.b, j.a, w);
+            for (int k = 0; k < m; k++) {
+                i.b[k] += j.b[k];
+            }
+
+            // A.
+            multiply(x, inverse, i.a, false, false);
+            multiply(i.a, j.a, x, false, false);
+
+            // C.
+            multiply(x, inverse, i.c, false, false);
+            multiply(y, j.a, x, false, false);
+            multiply(i.c, y, j.a, false, true);
+            for (int k = 0; k < m * m; k++) {
+                i.c[k] += j.c[k];
+            }
+        }
+
+        // Gauss-Jordan elimination with partial pivoting, from lu into inverse. The state dimension is small, so the
+        // explicit inverse costs no more than the solves it replaces.
+        private void invert() {
+            for (int k = 0; k < m * m; k++) {
+                inverse[k] = 0.0;
+            }
+            for (int k = 0; k < m; k++) {
+                inverse[k * m + k] = 1.0;
+            }
+            for (int col = 0; col < m; col++) {
+                int pivot = col;
+                for (int row = col + 1; row < m; row++) {
+                    if (Math.abs(lu[row * m + col]) > Math.abs(lu[pivot * m + col])) {
+                        pivot = row;
+                    }
+                }
+                if (pivot != col) {
+                    swapRows(lu, pivot, col);
+                    swapRows(inverse, pivot, col);
+                }
+                final double scale = 1.0 / lu[col * m + col];
+                for (int k = 0; k < m; k++) {
+                    lu[col * m + k] *= scale;
+                    inverse[col * m + k] *= scale;
+                }
+                for (int row = 0; row < m; row++) {
+                    final double factor = lu[row * m + col];
+                    if (row != col && factor != 0.0) {
+                        for (int k = 0; k < m; k++) {
+                            lu[row * m + k] -= factor * lu[col * m + k];
+                            inverse[row * m + k] -= factor * inverse[col * m + k];
+                        }
+                    }
+                }
+            }
+        }
+
+        private void swapRows(final double[] matrix, final int first, final int second) {
+            for (int k = 0; k < m; k++) {
+                final double temp = matrix[first * m + k];
+                matrix[first * m + k] = matrix[second * m + k];
+                matrix[second * m + k] = temp;
+            }
+        }
+
+        // destination = op(left) op(right), where op transposes its argument if asked to.
+        private void multiply(final double[] destination, final double[] left, final double[] right,
+                              final boolean transposeLeft, final boolean transposeRight) {
+            for (int row = 0; row < m; row++) {
+                for (int col = 0; col < m; col++) {
+                    double sum = 0.0;
+                    for (int k = 0; k < m; k++) {
+                        final double l = transposeLeft ? left[k * m + row] : left[row * m + k];
+                        final double r = transposeRight ? right[col * m + k] : right[k * m + col];
+                        sum += l * r;
+                    }
+                    destination[row * m + col] = sum;
+                }
+            }
+        }
+
+        private void multiply(final double[] destination, final double[] matrix, final double[] vector) {
+            for (int row = 0; row < m; row++) {
+                double sum = 0.0;
+                for (int col = 0; col < m; col++) {
+                    sum += matrix[row * m + col] * vector[col];
+                }
+                destination[row] = sum;
+            }
+        }
+
+        private void multiplyTranspose(final double[] destination, final double[] matrix, final double[] vector) {
+            for (int col = 0; col < m; col++) {
+                double sum = 0.0;
+                for (int row = 0; row < m; row++) {
+                    sum += matrix[row * m + col] * vector[row];
+                }
+                destination[col] = sum;
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2017 Jacob Rachiele
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to
+ * do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+ * USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Contributors:
+ *
+ * Jacob Rachiele
+ */
+package timeseries.models.statespace;
+
+import math.linear.doubles.Matrix;
+import math.linear.doubles.SymmetricMatrix;
+
+/**
+ * A linear Gaussian state-space model of a univariate time series,
+ * <pre>
+ *     y<sub>t</sub> = Z a<sub>t</sub> + e<sub>t</sub>,         e<sub>t</sub> ~ N(0, H),
+ *     a<sub>t+1</sub> = T a<sub>t</sub> + R u<sub>t</sub>,     u<sub>t</sub> ~ N(0, Q),
+ * </pre>
+ * with a<sub>1</sub> ~ N(a0, P0). The system matrices do not vary with time.
+ * <p>
+ * Models with structured transition matrices, such as companion or shift matrices, should override
+ * {@link #transition()} so that the {@link KalmanFilter} never multiplies by a dense T.
+ * </p>
+ *
+ * @author Jacob Rachiele
+ */
+public interface StateSpaceModel {
+
+    /**
+     * The dimension m of the state vector.
+     *
+     * @return the dimension of the state vector.
+     */
+    int stateDimension();
+
+    /**
+     * The observation vector Z, of length m, that maps the state to the observation.
+     *
+     * @return the observation vector Z.
+     */
+    double[] observationVector();
+
+    /**
+     * The variance H of the observation disturbance.
+     *
+     * @return the variance of the observation disturbance.
+     */
+    double observationVariance();
+
+    /**
+     * The m by m transition matrix T.
+     *
+     * @return the transition matrix T.
+     */
+    Matrix transitionMatrix();
+
+    /**
+     * The m by g matrix R that loads the state disturbances onto the state.
+     *
+     * @return the disturbance loading matrix R.
+     */
+    Matrix disturbanceLoading();
+
+    /**
+     * The g by g covariance matrix Q of the state disturbances.
+     *
+     * @return the covariance matrix of the state disturbances.
+     */
+    SymmetricMatrix disturbanceCovariance();
+
+    /**
+     * The mean a0 of the initial state.
+     *
+     * @return the mean of the initial state.
+     */
+    double[] initialState();
+
+    /**
+     * The covariance matrix P0 of the initial state.
+     *
+     * @return the covariance matrix of the initial state.
+     */
+    SymmetricMatrix initialCovariance();
+
+    /**
+     * The number of elements of the initial state that have a diffuse prior, approximated by a large variance in
+     * P0. That many of the first observations only serve to pin down the diffuse elements, so they are left out of
+     * the likelihood. The default is no diffuse elements.
+     *
+     * @return the number of elements of the initial state with a diffuse prior.
+     */
+    default int diffuseDimension() {
+        return 0;
+    }
+
+    /**
+     * The transition matrix as an operator. The default multiplies by {@link #transitionMatrix()} directly.
+     *
+     * @return a new operator that applies the transition matrix.
+     */
+    default StateTransition transition() {
+        return StateTransition.of(transitionMatrix());
+    }
+
+    /**
+     * The covariance R Q R<sup>T</sup> of the disturbance added to the state at each step.
+     *
+     * @return the covariance of the disturbance added to the state at each step.
+     */
+    default SymmetricMatrix stateDisturbanceCovariance() {
+        return disturbanceCovariance().congruence(disturbanceLoading());
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2017 Jacob Rachiele
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to
+ * do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+ * USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Contributors:
+ *
+ * Jacob Rachiele
+ */
+package timeseries.models.statespace;
+
+import math.linear.doubles.Matrix;
+import math.linear.doubles.SymmetricMatrix;
+
+/**
+ * The transition matrix T of a {@link StateSpaceModel}, seen as the three operations the {@link KalmanFilter}
+ * needs. Implementations may apply T through its structure rather than forming it, and may keep workspaces between
+ * calls, in which case they are not thread-safe.
+ *
+ * @author Jacob Rachiele
+ */
+public interface StateTransition {
+
+    /**
+     * Create a transition that multiplies by the given dense matrix.
+     *
+     * @param t the square transition matrix.
+     * @return a transition that multiplies by the given matrix.
+     */
+    static StateTransition of(final Matrix t) {
+        return new DenseTransition(t);
+    }
+
+    /**
+     * The dimension of the state vector the transition acts on.
+     *
+     * @return the dimension of the state vector.
+     */
+    int dimension();
+
+    /**
+     * Compute T x and store it in the destination, which must not be x.
+     *
+     * @param destination the array to store the product in.
+     * @param x           the array to multiply.
+     * @return the destination array, now holding T x.
+     */
+    double[] timesInto(double[] destination, double[] x);
+
+    /**
+     * Compute T<sup>T</sup> x and store it in the destination, which must not be x.
+     *
+     * @param destination the array to store the product in.
+     * @param x           the array to multiply.
+     * @return the destination array, now holding T<sup>T</sup> x.
+     */
+    double[] transposeTimesInto(double[] destination, double[] x);
+
+    /**
+     * Compute T P T<sup>T</sup> and store it in the destination, which must not be P.
+     *
+     * @param destination the symmetric matrix to store the result in.
+     * @param p           the symmetric matrix to transform.
+     * @return the destination matrix, now holding T P T<sup>T</sup>.
+     */
+    SymmetricMatrix congruenceInto(SymmetricMatrix destination, SymmetricMatrix p);
+}
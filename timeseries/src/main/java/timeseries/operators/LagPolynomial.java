@@ -24,6 +24,8 @@
 package timeseries.operators;
 
 import data.DoubleFunctions;
+import math.fft.FourierTransform;
+import math.operations.DoubleKernels;
 import timeseries.TimeSeries;
 
 import java.time.OffsetDateTime;
@@ -34,14 +36,29 @@ import java.util.Arrays;
  * Forecasting, structural time series models and the Kalman filter</a>, (1989, equation 2.1.3), or
  * <a target="_blank" href="https://en.wikipedia.org/wiki/Lag_operator#Lag_polynomials"> the wiki entry</a>. The
  * polynomial is taken in the lag operator, but is algebraically equivalent to a real or complex polynomial.
+ * <p>
+ * Besides its dense coefficients, a lag polynomial keeps its nonzero coefficients together with their lags.
+ * Multiplying, applying, fitting and solving all work on the nonzero terms only, so that seasonal polynomials such
+ * as 1 - L<sup>168</sup> cost as little as their few terms and not as much as their degree.
+ * </p>
  *
  * @author jrachiele
  */
 public class LagPolynomial {
 
+    // Polynomials with at least this many nonzero coefficients are applied to whole series, and multiplied by one
+    // another, through the fast Fourier transform.
+    private static final int FFT_MIN_TERMS = 64;
+    private static final int FFT_MIN_BLOCK = 256;
+    // The number of frequencies between exact recomputations of the rotating terms in the squared gain.
+    private static final int GAIN_ANCHOR_INTERVAL = 256;
+
     final double[] parameters;
     private final double[] coefficients;
     private final int degree;
+    // The nonzero coefficients and their lags, in increasing order of lag. The first term is the constant term 1.
+    final int[] lags;
+    final double[] values;
 
     /**
      * Construct a new lag polynomial from the given parameters. Note that the parameters given here are not the same as
@@ -55,6 +72,20 @@ public class LagPolynomial {
         this.coefficients[0] = 1.0;
         System.arraycopy(parameters, 0, this.coefficients, 1, parameters.length);
         this.degree = parameters.length;
+        int nonZeros = 0;
+        for (double coefficient : coefficients) {
+            if (coefficient != 0.0) {
+                nonZeros++;
+            }
+        }
+        this.lags = new int[nonZeros];
+        this.values = new double[nonZeros];
+        for (int i = 0, k = 0; i < coefficients.length; i++) {
+            if (coefficients[i] != 0.0) {
+                lags[k] = i;
+                values[k++] = coefficients[i];
+            }
+        }
     }
 
     /**
@@ -154,15 +185,190 @@ public class LagPolynomial {
      * @return the product of this polynomial with the given polynomial.
      */
     public final LagPolynomial times(final LagPolynomial other) {
-        final double[] newParams = new double[this.degree + other.degree + 1];
-        for (int i = 0; i < coefficients.length; i++) {
-            for (int j = 0; j < other.coefficients.length; j++) {
-                newParams[i + j] += coefficients[i] * other.coefficients[j];
+        final double[] newParams;
+        if (this.lags.length >= FFT_MIN_TERMS && other.lags.length >= FFT_MIN_TERMS) {
+            newParams = convolve(this.coefficients, other.coefficients);
+        } else {
+            newParams = new double[this.degree + other.degree + 1];
+            for (int i = 0; i < lags.length; i++) {
+                for (int j = 0; j < other.lags.length; j++) {
+                    newParams[lags[i] + other.lags[j]] += values[i] * other.values[j];
+                }
             }
         }
         return new LagPolynomial(DoubleFunctions.slice(newParams, 1, newParams.length));
     }
 
+    private static double[] convolve(final double[] x, final double[] y) {
+        final FourierTransform transform = FourierTransform.of(FourierTransform.fastLength(x.length + y.length - 1));
+        final int length = transform.length();
+        final double[] spectrum = transform.realForward(Arrays.copyOf(x, length));
+        multiplyInto(spectrum, transform.realForward(Arrays.copyOf(y, length)));
+        return Arrays.copyOf(transform.realInverse(spectrum), x.length + y.length - 1);
+    }
+
+    private static void multiplyInto(final double[] spectrum, final double[] other) {
+        for (int k = 0; k < spectrum.length; k += 2) {
+            final double re = spectrum[k] * other[k] - spectrum[k + 1] * other[k + 1];
+            spectrum[k + 1] = spectrum[k] * other[k + 1] + spectrum[k + 1] * other[k];
+            spectrum[k] = re;
+        }
+    }
+
+    /**
+     * Apply this lag polynomial to every index of the given series at which all of the lagged values it needs are
+     * observed. Element t of the result is the polynomial applied at index t + degree of the series, so the result
+     * has degree fewer elements than the series.
+     * <p>
+     * Short polynomials are applied directly. Polynomials with many nonzero coefficients are applied by overlap-add
+     * fast convolution, which takes O(n log(degree)) time rather than O(n degree).
+     * </p>
+     *
+     * @param series the series to apply this lag polynomial to.
+     * @return the result of applying this lag polynomial to the series at every index from degree onward.
+     */
+    public final double[] apply(final double[] series) {
+        return applyInto(new double[Math.max(series.length - degree, 0)], series);
+    }
+
+    /**
+     * Apply this lag polynomial to every index of the given series at which all of the lagged values it needs are
+     * observed, and store the result in the destination. See {@link #apply(double[])}.
+     *
+     * @param destination the array of length series.length - degree to store the result in. It must not be the
+     *                    same array as the series.
+     * @param series      the series to apply this lag polynomial to.
+     * @return the destination array, now holding the result of applying this lag polynomial to the series.
+     */
+    public final double[] applyInto(final double[] destination, final double[] series) {
+        final int m = Math.max(series.length - degree, 0);
+        if (destination.length != m) {
+            throw new IllegalArgumentException("The destination must have length " + m + ", but had length " +
+                                               destination.length);
+        }
+        if (destination == series && degree > 0) {
+            throw new IllegalArgumentException("The destination must not be the same array as the series.");
+        }
+        if (m == 0) {
+            return destination;
+        }
+        if (lags.length >= FFT_MIN_TERMS) {
+            return applyByTransform(destination, series);
+        }
+        Arrays.fill(destination, 0.0);
+        for (int k = 0; k < lags.length; k++) {
+            DoubleKernels.axpy(values[k], series, degree - lags[k], destination, 0, m);
+        }
+        return destination;
+    }
+
+    // Overlap-add: convolve the series one block at a time with the transformed coefficients, adding the tail of
+    // each block's convolution into the start of the next.
+    private double[] applyByTransform(final double[] destination, final double[] series) {
+        final int n = series.length;
+        final int minLength = Math.max(4 * coefficients.length, FFT_MIN_BLOCK);
+        final FourierTransform transform = FourierTransform.of(
+                FourierTransform.fastLength(Math.min(minLength, n + degree)));
+        final int length = transform.length();
+        final int block = length - degree;
+        final double[] filter = transform.realForward(Arrays.copyOf(coefficients, length));
+        final double[] buffer = new double[length];
+        final double[] spectrum = new double[filter.length];
+        Arrays.fill(destination, 0.0);
+        for (int start = 0; start < n; start += block) {
+            final int size = Math.min(block, n - start);
+            System.arraycopy(series, start, buffer, 0, size);
+            Arrays.fill(buffer, size, length, 0.0);
+            transform.realForwardInto(spectrum, buffer);
+            multiplyInto(spectrum, filter);
+            transform.realInverseInto(buffer, spectrum);
+            final int from = Math.max(degree - start, 0);
+            final int to = Math.min(size + degree, n - start);
+            for (int j = from; j < to; j++) {
+                destination[start + j - degree] += buffer[j];
+            }
+        }
+        return destination;
+    }
+
+    /**
+     * Solve this lag polynomial applied to a series for the series itself, in place, starting at the given index.
+     * On entry, the values of the series before the given index are the known values of x, and the values from the
+     * given index onward are the values of y = p(L)x, where p is this polynomial. On return, every value holds x,
+     * computed by the recursion x<sub>t</sub> = y<sub>t</sub> - &sum;<sub>i</sub> c<sub>i</sub>
+     * x<sub>t-i</sub>. For differencing polynomials this integrates the differenced series.
+     *
+     * @param series the series to solve in place.
+     * @param from   the first index to solve at, at least the degree of this polynomial.
+     * @return the given series, now holding the solution.
+     */
+    public final double[] solveInPlace(final double[] series, final int from) {
+        if (from < degree) {
+            throw new IllegalArgumentException("The first index to solve at must be at least the degree of the " +
+                                               "polynomial, " + degree + ", but was " + from);
+        }
+        for (int t = from; t < series.length; t++) {
+            double value = series[t];
+            for (int k = 1; k < lags.length; k++) {
+                value -= values[k] * series[t - lags[k]];
+            }
+            series[t] = value;
+        }
+        return series;
+    }
+
+    /**
+     * Compute the squared gain |p(e<sup>-i&lambda;</sup>)|<sup>2</sup> of this polynomial at the Fourier frequencies
+     * &lambda;<sub>j</sub> = 2&pi;j/n, for j from 0 up to the length of the destination less one, and store it in
+     * the destination. The squared gain of the moving-average polynomial divided by that of the autoregressive
+     * polynomial is the spectral density of an ARMA process with unit innovation variance, up to a factor of 2&pi;.
+     * <p>
+     * The sum at each frequency runs over the nonzero terms only. The cosine and sine of each term are advanced from
+     * one frequency to the next by a rotation, and recomputed exactly every few hundred frequencies so that rounding
+     * errors do not accumulate.
+     * </p>
+     *
+     * @param destination the array to store the squared gains in, of length at most n.
+     * @param n           the number of Fourier frequencies in a full turn of the unit circle.
+     * @return the destination array, now holding the squared gains of this polynomial.
+     */
+    public final double[] squaredGainInto(final double[] destination, final int n) {
+        if (destination.length > n) {
+            throw new IllegalArgumentException("The destination may hold at most " + n + " frequencies, but had " +
+                                               "length " + destination.length);
+        }
+        final int terms = lags.length;
+        final double[] cos = new double[terms];
+        final double[] sin = new double[terms];
+        final double[] stepCos = new double[terms];
+        final double[] stepSin = new double[terms];
+        for (int k = 0; k < terms; k++) {
+            final double step = 2.0 * Math.PI * (lags[k] % n) / n;
+            stepCos[k] = Math.cos(step);
+            stepSin[k] = Math.sin(step);
+        }
+        for (int j = 0; j < destination.length; j++) {
+            if (j % GAIN_ANCHOR_INTERVAL == 0) {
+                for (int k = 0; k < terms; k++) {
+                    final double angle = 2.0 * Math.PI * (((long) j * lags[k]) % n) / n;
+                    cos[k] = Math.cos(angle);
+                    sin[k] = Math.sin(angle);
+                }
+            }
+            double re = 0.0;
+            double im = 0.0;
+            for (int k = 0; k < terms; k++) {
+                re += values[k] * cos[k];
+                im += values[k] * sin[k];
+                final double c = cos[k];
+                cos[k] = c * stepCos[k] - sin[k] * stepSin[k];
+                sin[k] = sin[k] * stepCos[k] + c * stepSin[k];
+            }
+            destination[j] = re * re + im * im;
+        }
+        return destination;
+    }
+
     /**
      * Apply this lag polynomial to a time series at the given index.
      *
@@ -172,8 +378,8 @@ public class LagPolynomial {
      */
     public final double apply(final TimeSeries timeSeries, final int index) {
         double value = 0.0;
-        for (int i = 0; i < coefficients.length; i++) {
-            value += this.coefficients[i] * LagOperator.apply(timeSeries, index, i);
+        for (int k = 0; k < lags.length; k++) {
+            value += values[k] * LagOperator.apply(timeSeries, index, lags[k]);
         }
         return value;
     }
@@ -187,8 +393,8 @@ public class LagPolynomial {
      */
     public final double apply(final TimeSeries timeSeries, final OffsetDateTime dateTime) {
         double value = 0.0;
-        for (int i = 0; i < coefficients.length; i++) {
-            value += this.coefficients[i] * LagOperator.apply(timeSeries, dateTime, i);
+        for (int k = 0; k < lags.length; k++) {
+            value += values[k] * LagOperator.apply(timeSeries, dateTime, lags[k]);
         }
         return value;
     }
@@ -204,8 +410,8 @@ public class LagPolynomial {
      */
     public double fit(final TimeSeries timeSeries, final int index) {
         double value = 0.0;
-        for (int i = 0; i < parameters.length; i++) {
-            value -= parameters[i] * LagOperator.apply(timeSeries, index, i + 1);
+        for (int k = 1; k < lags.length; k++) {
+            value -= values[k] * LagOperator.apply(timeSeries, index, lags[k]);
         }
         return value;
     }
@@ -222,8 +428,8 @@ public class LagPolynomial {
      */
     public double fit(final TimeSeries timeSeries, OffsetDateTime dateTime) {
         double value = 0.0;
-        for (int i = 0; i < parameters.length; i++) {
-            value -= parameters[i] * LagOperator.apply(timeSeries, dateTime, i + 1);
+        for (int k = 1; k < lags.length; k++) {
+            value -= values[k] * LagOperator.apply(timeSeries, dateTime, lags[k]);
         }
         return value;
     }
@@ -239,8 +445,8 @@ public class LagPolynomial {
      */
     public double fit(final double[] timeSeries, final int index) {
         double value = 0.0;
-        for (int i = 0; i < parameters.length; i++) {
-            value -= parameters[i] * LagOperator.apply(timeSeries, index, i + 1);
+        for (int k = 1; k < lags.length; k++) {
+            value -= values[k] * LagOperator.apply(timeSeries, index, lags[k]);
         }
         return value;
     }
@@ -261,8 +467,8 @@ public class LagPolynomial {
      */
     public final double[] inverseParams() {
         final double[] invParams = new double[parameters.length];
-        for (int i = 0; i < invParams.length; i++) {
-            invParams[i] = -parameters[i];
+        for (int k = 1; k < lags.length; k++) {
+            invParams[lags[k] - 1] = -values[k];
         }
         return invParams;
     }
@@ -46,8 +46,8 @@ public final class MovingAveragePolynomial extends LagPolynomial {
     @Override
     public double fit(final TimeSeries residualSeries, final int index) {
         double value = 0.0;
-        for (int i = 0; i < parameters.length; i++) {
-            value += parameters[i] * LagOperator.apply(residualSeries, index, i + 1);
+        for (int k = 1; k < lags.length; k++) {
+            value += values[k] * LagOperator.apply(residualSeries, index, lags[k]);
         }
         return value;
     }
@@ -55,8 +55,8 @@ public final class MovingAveragePolynomial extends LagPolynomial {
     @Override
     public double fit(final double[] residualSeries, final int index) {
         double value = 0.0;
-        for (int i = 0; i < parameters.length; i++) {
-            value += parameters[i] * LagOperator.apply(residualSeries, index, i + 1);
+        for (int k = 1; k < lags.length; k++) {
+            value += values[k] * LagOperator.apply(residualSeries, index, lags[k]);
         }
         return value;
     }
@@ -29,13 +29,18 @@ import static org.hamcrest.Matchers.*;
 import static org.hamcrest.MatcherAssert.*;
 
 import org.hamcrest.MatcherAssert;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.ExpectedException;
 
 import math.stats.Statistics;
 import timeseries.TestData;
 
 public class DoubleFunctionsSpec {
 
+  @Rule
+  public ExpectedException exception = ExpectedException.none();
+
   @Test
   public void whenNewArrayCreatedOutputValuesEqualToInputValues() {
     double[] expected = new double[] {3.0, 7.5, 10.0};
@@ -134,4 +139,26 @@ public class DoubleFunctionsSpec {
     assertThat(Statistics.meanOf(neg), is(closeTo(-15514.25641, 1E-4)));
     assertThat(Statistics.stdDeviationOf(neg), is(closeTo(4688.38717, 1E-4)));
   }
+
+  @Test
+  public void whenBoxCoxIntoSameArrayThenTransformedInPlace() {
+    double[] data = TestData.debitcards.asArray();
+    double[] expected = boxCox(data, 0.5);
+    assertThat(boxCoxInto(data, data, 0.5), is(sameInstance(data)));
+    assertThat(data, is(equalTo(expected)));
+    inverseBoxCoxInto(data, data, 0.5);
+    assertThat(data[0], is(closeTo(TestData.debitcards.at(0), 1E-8)));
+  }
+
+  @Test
+  public void whenSqrtIntoThenSquareRootsStoredInDestination() {
+    double[] data = {4.0, 9.0, 16.0};
+    assertThat(sqrtInto(data, data), is(equalTo(new double[] {2.0, 3.0, 4.0})));
+  }
+
+  @Test
+  public void whenDestinationLongerThanDataThenIllegalArgument() {
+    exception.expect(IllegalArgumentException.class);
+    sqrtInto(new double[4], new double[] {4.0, 9.0, 16.0});
+  }
 }
@@ -27,10 +27,13 @@ package data.regression.primitive;
 import com.google.common.testing.EqualsTester;
 import data.DoubleFunctions;
 import data.Range;
+import math.linear.doubles.QRDecomposition;
 import math.operations.Operators;
 import timeseries.TestData;
 import org.junit.Test;
 
+import java.util.Random;
+
 import static org.hamcrest.Matchers.*;
 import static org.hamcrest.MatcherAssert.*;
 import static org.junit.Assert.assertArrayEquals;
@@ -98,6 +101,36 @@ public class LinearRegressionModelSpec {
         assertThat(multipleRegression.beta(), is(this.regression.beta()));
     }
 
+    @Test
+    public void whenSeasonalDummiesAndTrendThenSameAsQRSolution() {
+        // The shorter design is solved through the sparse normal equations. The longer one is just as sparse, but its
+        // intercept and trend columns make A'A too ill-conditioned for them, so it is solved by QR.
+        for (int n : new int[]{240, 24000}) {
+            double[][] predictors = new double[12][n];
+            double[] y = new double[n];
+            double[] design = new double[13 * n];
+            Random random = new Random(n);
+            for (int t = 0; t < n; t++) {
+                for (int k = 0; k < 11; k++) {
+                    predictors[k][t] = (t % 12 == k) ? 1.0 : 0.0;
+                }
+                predictors[11][t] = t + 1;
+                y[t] = 5.0 + 0.01 * (t + 1) + 0.3 * (t % 12) + random.nextGaussian();
+                design[t] = 1.0;
+            }
+            for (int k = 0; k < 12; k++) {
+                System.arraycopy(predictors[k], 0, design, (k + 1) * n, n);
+            }
+            QRDecomposition qr = new QRDecomposition(n, 13);
+            qr.decomposeColumnMajor(design);
+            double[] expected = qr.solveInto(new double[13], y);
+            double[] beta = MultipleLinearRegressionModel.builder().predictors(predictors).response(y).build().beta();
+            for (int j = 0; j < expected.length; j++) {
+                assertThat(beta[j], is(closeTo(expected[j], 1E-12 * Math.abs(expected[j]))));
+            }
+        }
+    }
+
     @Test
     public void equalsContract() {
         MultipleLinearRegressionModel other = this.regression.withHasIntercept(!hasIntercept);
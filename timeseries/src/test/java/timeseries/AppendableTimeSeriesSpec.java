@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2017 Jacob Rachiele
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to
+ * do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+ * USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Contributors:
+ *
+ * Jacob Rachiele
+ */
+package timeseries;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import timeseries.models.arima.Arima;
+import timeseries.models.arima.ArimaOrder;
+
+import java.time.OffsetDateTime;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class AppendableTimeSeriesSpec {
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    @Test
+    public void whenValuesAppendedThenSnapshotEqualsEquivalentTimeSeries() {
+        TimeSeries expected = TestData.ausbeer;
+        AppendableTimeSeries series = new AppendableTimeSeries(expected.timePeriod(), expected.startTime());
+        for (double value : expected.asArray()) {
+            series.append(value);
+        }
+        assertThat(series.snapshot(), is(expected));
+        assertThat(series.snapshot().at(expected.observationTimes().get(10)), is(expected.at(10)));
+    }
+
+    @Test
+    public void whenAppendedAcrossSegmentsThenSnapshotHasAllValues() {
+        double[] data = new double[10000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = i;
+        }
+        OffsetDateTime start = OffsetDateTime.parse("2017-01-01T00:00:00Z");
+        AppendableTimeSeries series = new AppendableTimeSeries(TimePeriod.oneHour(), start);
+        series.append(data);
+        assertThat(series.snapshot(), is(new TimeSeries(TimePeriod.oneHour(), start, data)));
+    }
+
+    @Test
+    public void whenNoAppendBetweenSnapshotsThenSameInstance() {
+        AppendableTimeSeries series = new AppendableTimeSeries(TestData.ausbeer);
+        TimeSeries first = series.snapshot();
+        assertThat(series.snapshot(), is(sameInstance(first)));
+        series.append(400.0);
+        TimeSeries second = series.snapshot();
+        assertThat(second, is(not(sameInstance(first))));
+        assertThat(first.size(), is(TestData.ausbeer.size()));
+        assertThat(second.size(), is(TestData.ausbeer.size() + 1));
+    }
+
+    @Test
+    public void whenValuesAppendedThenRunningStatisticsMatchBatchStatistics() {
+        TimeSeries expected = TestData.ausbeer;
+        AppendableTimeSeries series = new AppendableTimeSeries(expected);
+        assertThat(series.size(), is(expected.size()));
+        assertThat(series.sum(), is(closeTo(expected.sum(), 1E-8)));
+        assertThat(series.mean(), is(closeTo(expected.mean(), 1E-10)));
+        assertThat(series.variance(), is(closeTo(expected.variance(), 1E-8)));
+        assertThat(series.stdDeviation(), is(closeTo(expected.stdDeviation(), 1E-10)));
+    }
+
+    @Test
+    public void whenIndexBeyondSizeThenIndexOutOfBounds() {
+        AppendableTimeSeries series = new AppendableTimeSeries(TestData.ausbeer);
+        exception.expect(IndexOutOfBoundsException.class);
+        series.at(series.size());
+    }
+
+    @Test
+    public void whenConcurrentReadersThenSnapshotsAreConsistent() throws Exception {
+        final AppendableTimeSeries series = new AppendableTimeSeries(TimePeriod.oneHour(),
+                                                                     OffsetDateTime.parse("2017-01-01T00:00:00Z"));
+        final int total = 20000;
+        final boolean[] consistent = {true};
+        Thread reader = new Thread(() -> {
+            while (series.size() < total) {
+                TimeSeries snapshot = series.snapshot();
+                for (int i = 0; i < snapshot.size(); i++) {
+                    if (snapshot.at(i) != i) {
+                        consistent[0] = false;
+                    }
+                }
+            }
+        });
+        reader.start();
+        for (int i = 0; i < total; i++) {
+            series.append(i);
+        }
+        reader.join();
+        assertThat(consistent[0], is(true));
+        assertThat(series.snapshot().size(), is(total));
+    }
+
+    @Test
+    public void whenSnapshotModeledThenSameAsTimeSeries() {
+        AppendableTimeSeries series = new AppendableTimeSeries(TestData.livestock);
+        ArimaOrder order = ArimaOrder.order(1, 1, 1);
+        Arima fromSnapshot = Arima.model(series.snapshot(), order, Arima.FittingStrategy.CSS);
+        Arima fromSeries = Arima.model(TestData.livestock, order, Arima.FittingStrategy.CSS);
+        assertThat(fromSnapshot.coefficients(), is(fromSeries.coefficients()));
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2017 Jacob Rachiele
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to
+ * do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+ * USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Contributors:
+ *
+ * Jacob Rachiele
+ */
+package timeseries;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertArrayEquals;
+
+public class IrregularTimeSeriesSpec {
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    private final IrregularTimeSeries trades = new IrregularTimeSeries(
+            Arrays.asList(time("09:30:00.250"), time("09:30:01.900"), time("09:30:04.000"), time("09:30:07.500")),
+            10.0, 11.0, 12.0, 13.0);
+    private final IrregularTimeSeries quotes = new IrregularTimeSeries(
+            Arrays.asList(time("09:30:00"), time("09:30:01.900"), time("09:30:05"), time("09:30:06")),
+            1.0, 2.0, 3.0, 4.0);
+
+    @Test
+    public void whenAsOfThenLastKnownValueReturned() {
+        assertThat(trades.asOf(time("09:30:03")), is(11.0));
+        assertThat(trades.asOf(time("09:30:04")), is(12.0));
+        assertThat(trades.asOf(time("09:30:00")), is(Double.NaN));
+    }
+
+    @Test
+    public void whenRangeQueriedThenObservationsWithinRangeReturned() {
+        IrregularTimeSeries range = trades.between(time("09:30:01"), time("09:30:04"));
+        assertArrayEquals(new double[]{11.0, 12.0}, range.asArray(), 0.0);
+        assertThat(trades.between(time("09:30:08"), time("09:30:09")).size(), is(0));
+    }
+
+    @Test
+    public void whenAsOfJoinedThenLastKnownQuoteAtEachTrade() {
+        IrregularTimeSeries joined = trades.asOfJoin(quotes);
+        assertThat(joined.observationTimes(), is(trades.observationTimes()));
+        assertArrayEquals(new double[]{1.0, 2.0, 2.0, 4.0}, joined.asArray(), 0.0);
+    }
+
+    @Test
+    public void whenAlignedOnUnionThenMissingValuesAreNaN() {
+        List<IrregularTimeSeries> aligned = trades.align(quotes, IrregularTimeSeries.Join.UNION);
+        assertThat(aligned.get(0).size(), is(7));
+        assertThat(aligned.get(0).observationTimes(), is(aligned.get(1).observationTimes()));
+        double nan = Double.NaN;
+        assertArrayEquals(new double[]{nan, 10.0, 11.0, 12.0, nan, nan, 13.0}, aligned.get(0).asArray(), 0.0);
+        assertArrayEquals(new double[]{1.0, nan, 2.0, nan, 3.0, 4.0, nan}, aligned.get(1).asArray(), 0.0);
+    }
+
+    @Test
+    public void whenAlignedOnIntersectionThenOnlyCommonTimes() {
+        List<IrregularTimeSeries> aligned = trades.align(quotes, IrregularTimeSeries.Join.INTERSECTION);
+        assertThat(aligned.get(0).observationTimes(), is(Arrays.asList(time("09:30:01.900"))));
+        assertThat(trades.minus(quotes).asArray(), is(new double[]{9.0}));
+    }
+
+    @Test
+    public void whenExactTimeMissingThenIllegalArgument() {
+        assertThat(trades.at(time("09:30:04")), is(12.0));
+        exception.expect(IllegalArgumentException.class);
+        trades.at(time("09:30:05"));
+    }
+
+    @Test
+    public void whenTimesNotIncreasingThenIllegalArgument() {
+        exception.expect(IllegalArgumentException.class);
+        new IrregularTimeSeries(Arrays.asList(time("09:30:01"), time("09:30:01")), 1.0, 2.0);
+    }
+
+    @Test
+    public void whenResampledThenRegularSeriesReturned() {
+        TimeSeries counts = trades.resample(new TimePeriod(TimeUnit.SECOND, 2), Aggregation.COUNT)
+                                  .get(Aggregation.COUNT);
+        assertArrayEquals(new double[]{2.0, 0.0, 1.0, 1.0}, counts.asArray(), 0.0);
+    }
+
+    private static OffsetDateTime time(final String time) {
+        return OffsetDateTime.parse("2017-06-01T" + time + "Z");
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2017 Jacob Rachiele
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to
+ * do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+ * USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Contributors:
+ *
+ * Jacob Rachiele
+ */
+package timeseries;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertArrayEquals;
+
+public class ResamplerSpec {
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    @Test
+    public void whenMinuteDataResampledToHoursThenEveryAggregationCorrect() {
+        double[] data = new double[180];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = i;
+        }
+        TimeSeries series = new TimeSeries(TimeUnit.MINUTE, "2017-01-01T00:00:00", data);
+        Map<Aggregation, TimeSeries> hourly = series.resample(TimePeriod.oneHour(), Aggregation.values());
+        assertArrayEquals(new double[]{1770, 5370, 8970}, hourly.get(Aggregation.SUM).asArray(), 1E-10);
+        assertArrayEquals(new double[]{29.5, 89.5, 149.5}, hourly.get(Aggregation.MEAN).asArray(), 1E-10);
+        assertArrayEquals(new double[]{0, 60, 120}, hourly.get(Aggregation.MIN).asArray(), 0.0);
+        assertArrayEquals(new double[]{59, 119, 179}, hourly.get(Aggregation.MAX).asArray(), 0.0);
+        assertArrayEquals(new double[]{0, 60, 120}, hourly.get(Aggregation.FIRST).asArray(), 0.0);
+        assertArrayEquals(new double[]{59, 119, 179}, hourly.get(Aggregation.LAST).asArray(), 0.0);
+        assertArrayEquals(new double[]{60, 60, 60}, hourly.get(Aggregation.COUNT).asArray(), 0.0);
+        double std = new TimeSeries(Arrays.copyOfRange(data, 0, 60)).stdDeviation();
+        assertArrayEquals(new double[]{std, std, std}, hourly.get(Aggregation.STD).asArray(), 1E-10);
+        assertThat(hourly.get(Aggregation.SUM).observationTimes().get(2),
+                   is(OffsetDateTime.parse("2017-01-01T02:00:00Z")));
+    }
+
+    @Test
+    public void whenSeriesStartsMidPeriodThenPeriodsAlignedToCalendar() {
+        TimeSeries series = Ts.newMonthlySeries(2016, 2, 1.0, 2.0, 3.0, 4.0, 5.0, 6.0, 7.0);
+        TimeSeries quarterly = series.resample(TimePeriod.oneQuarter(), Aggregation.SUM).get(Aggregation.SUM);
+        assertArrayEquals(new double[]{3.0, 12.0, 13.0}, quarterly.asArray(), 0.0);
+        assertThat(quarterly.startTime(), is(OffsetDateTime.parse("2016-01-01T00:00:00Z")));
+    }
+
+    @Test
+    public void whenPartialPeriodsExcludedThenOnlyCompletePeriodsRemain() {
+        TimeSeries series = Ts.newMonthlySeries(2016, 2, 1.0, 2.0, 3.0, 4.0, 5.0, 6.0, 7.0);
+        TimeSeries quarterly = series.resample(TimePeriod.oneQuarter(), false, Aggregation.SUM)
+                                     .get(Aggregation.SUM);
+        assertArrayEquals(new double[]{12.0}, quarterly.asArray(), 0.0);
+        assertThat(quarterly.startTime(), is(OffsetDateTime.parse("2016-04-01T00:00:00Z")));
+    }
+
+    @Test
+    public void whenIrregularObservationsThenEmptyPeriodsFilled() {
+        List<OffsetDateTime> times = Arrays.asList(OffsetDateTime.parse("2017-03-01T09:15:00Z"),
+                                                   OffsetDateTime.parse("2017-03-01T17:40:00Z"),
+                                                   OffsetDateTime.parse("2017-03-03T08:00:00Z"));
+        Map<Aggregation, TimeSeries> daily = new Resampler(TimePeriod.oneDay(), true)
+                .resample(times, new double[]{2.0, 4.0, 5.0}, null, Aggregation.MEAN, Aggregation.COUNT);
+        assertArrayEquals(new double[]{3.0, Double.NaN, 5.0}, daily.get(Aggregation.MEAN).asArray(), 0.0);
+        assertArrayEquals(new double[]{2.0, 0.0, 1.0}, daily.get(Aggregation.COUNT).asArray(), 0.0);
+    }
+
+    @Test
+    public void whenHoursResampledToWeeksThenWeeksStartOnMonday() {
+        double[] data = new double[24 * 14];
+        Arrays.fill(data, 1.0);
+        TimeSeries series = new TimeSeries(TimeUnit.HOUR, "2017-01-04T00:00:00", data);
+        TimeSeries weekly = series.resample(TimePeriod.oneWeek(), Aggregation.COUNT).get(Aggregation.COUNT);
+        assertThat(weekly.startTime(), is(OffsetDateTime.parse("2017-01-02T00:00:00Z")));
+        assertArrayEquals(new double[]{120, 168, 48}, weekly.asArray(), 0.0);
+    }
+
+    @Test
+    public void whenLargeSeriesResampledThenParallelResultMatchesExpected() {
+        final int days = 100;
+        double[] data = new double[1440 * days];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = i / 1440;
+        }
+        TimeSeries series = new TimeSeries(TimeUnit.MINUTE, "2017-01-01T00:00:00", data);
+        TimeSeries daily = series.resample(TimePeriod.oneDay(), Aggregation.MEAN).get(Aggregation.MEAN);
+        double[] expected = new double[days];
+        for (int d = 0; d < days; d++) {
+            expected[d] = d;
+        }
+        assertArrayEquals(expected, daily.asArray(), 1E-10);
+    }
+
+    @Test
+    public void whenTimesOutOfOrderThenIllegalArgument() {
+        List<OffsetDateTime> times = Arrays.asList(OffsetDateTime.parse("2017-03-02T00:00:00Z"),
+                                                   OffsetDateTime.parse("2017-03-01T00:00:00Z"));
+        exception.expect(IllegalArgumentException.class);
+        new Resampler(TimePeriod.oneDay(), true).resample(times, new double[]{1.0, 2.0}, null, Aggregation.SUM);
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2017 Jacob Rachiele
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to
+ * do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+ * USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Contributors:
+ *
+ * Jacob Rachiele
+ */
+package timeseries;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertArrayEquals;
+
+public class TimeSeriesPanelSpec {
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    private final TimeSeries first = Ts.newMonthlySeries(2017, 1, 1.0, 4.0, 9.0, 16.0, 25.0);
+    private final TimeSeries second = Ts.newMonthlySeries(2017, 1, 3.0, 2.0, 5.0, 4.0, 7.0);
+    private final TimeSeriesPanel panel = TimeSeriesPanel.of(first, second);
+
+    @Test
+    public void whenColumnRetrievedThenEqualToOriginalSeries() {
+        assertThat(panel.rows(), is(5));
+        assertThat(panel.columns(), is(2));
+        assertThat(panel.column(0), is(first));
+        assertThat(panel.column(1), is(second));
+        assertThat(panel.column(1).mean(), is(second.mean()));
+        assertThat(panel.column(1).at(first.observationTimes().get(2)), is(5.0));
+    }
+
+    @Test
+    public void whenCrossSectionalMeanThenMeanAcrossSeriesAtEachTime() {
+        double[] expected = {2.0, 3.0, 7.0, 10.0, 16.0};
+        assertArrayEquals(expected, panel.crossSectionalMean().asArray(), 1E-12);
+        assertThat(panel.crossSectionalMean().observationTimes(), is(first.observationTimes()));
+    }
+
+    @Test
+    public void whenCrossSectionalVarianceThenVarianceAcrossSeriesAtEachTime() {
+        double[] expected = {2.0, 2.0, 8.0, 72.0, 162.0};
+        assertArrayEquals(expected, panel.crossSectionalVariance().asArray(), 1E-12);
+    }
+
+    @Test
+    public void whenPanelDifferencedThenEveryColumnDifferenced() {
+        TimeSeriesPanel differenced = panel.difference();
+        assertThat(differenced.column(0), is(first.difference()));
+        assertThat(differenced.column(1), is(second.difference()));
+    }
+
+    @Test
+    public void whenAcfComputedThenMatchesEachColumn() {
+        double[][] acf = panel.autoCorrelationUpToLag(2);
+        assertArrayEquals(first.autoCorrelationUpToLag(2), acf[0], 1E-12);
+        assertArrayEquals(second.autoCorrelationUpToLag(2), acf[1], 1E-12);
+    }
+
+    @Test
+    public void whenColumnsMappedThenResultsInColumnOrder() {
+        List<Double> sums = panel.mapColumns(TimeSeries::sum);
+        assertThat(sums, is(Arrays.asList(55.0, 21.0)));
+    }
+
+    @Test
+    public void whenSeriesHaveDifferentTimesThenIllegalArgument() {
+        TimeSeries other = Ts.newMonthlySeries(2016, 1, 1.0, 4.0, 9.0, 16.0, 25.0);
+        exception.expect(IllegalArgumentException.class);
+        TimeSeriesPanel.of(first, other);
+    }
+
+    @Test
+    public void whenConstructedFromColumnsThenEqualToPanelOfSeries() {
+        TimeSeriesPanel fromColumns = new TimeSeriesPanel(TimePeriod.oneMonth(), first.startTime(),
+                                                          first.asArray(), second.asArray());
+        assertThat(fromColumns.column(0), is(first));
+        assertThat(fromColumns.column(1), is(second));
+    }
+}
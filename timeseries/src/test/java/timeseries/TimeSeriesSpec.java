@@ -24,6 +24,7 @@
 
 package timeseries;
 
+import math.stats.Statistics;
 import org.hamcrest.MatcherAssert;
 import org.junit.Rule;
 import org.junit.Test;
@@ -160,6 +161,16 @@ public class TimeSeriesSpec {
         assertArrayEquals(expected, result, 1E-2);
     }
 
+    @Test
+    public void whenAutoCovarianceComputedUpToManyLagsThenSameAsEachLag() {
+        TimeSeries series = TestData.ausbeer;
+        double[] result = series.autoCovarianceUpToLag(100);
+        assertThat(result.length, is(101));
+        for (int i = 0; i < result.length; i++) {
+            assertThat(result[i], is(closeTo(series.autoCovarianceAtLag(i), 1E-8)));
+        }
+    }
+
     @Test
     public void whenAutoCorrelationComputedUpToLagKThenResultingArrayCorrect() {
         TimeSeries series = new TimeSeries(10.0, 5.0, 4.5, 7.7, 3.4, 6.9);
@@ -205,6 +216,21 @@ public class TimeSeriesSpec {
         assertArrayEquals(expected, result, 1E-2);
     }
 
+    @Test
+    public void whenRollingMeanComputedThenAlignedWithWindowEnd() {
+        TimeSeries series = TestData.elecSales;
+        TimeSeries rollingMean = series.rolling(5).mean();
+        assertArrayEquals(series.movingAverage(5).asArray(), rollingMean.asArray(), 1E-8);
+        assertThat(rollingMean.startTime(), is(series.observationTimes().get(4)));
+    }
+
+    @Test
+    public void whenRollingMaxComputedThenResultCorrect() {
+        TimeSeries series = new TimeSeries(3.0, 1.0, 4.0, 1.0, 5.0, 9.0, 2.0, 6.0);
+        double[] expected = new double[]{4.0, 4.0, 5.0, 9.0, 9.0, 9.0};
+        assertArrayEquals(expected, series.rolling(3).max().asArray(), 0.0);
+    }
+
     @Test
     public void whenTimeSeriesAggregatedDatesCorrect() {
         TimeSeries series = TestData.ausbeer;
@@ -251,4 +277,13 @@ public class TimeSeriesSpec {
         MatcherAssert.assertThat(series1, is(not(series2)));
         MatcherAssert.assertThat(series2, is(not(series3)));
     }
+
+    @Test
+    public void whenSummaryRequestedThenComputedOnceAndConsistent() {
+        TimeSeries series = TestData.ausbeer;
+        assertThat(series.summary(), is(sameInstance(series.summary())));
+        assertThat(series.variance(), is(equalTo(Statistics.varianceOf(series.asArray()))));
+        assertThat(series.sum(), is(equalTo(Statistics.sumOf(series.asArray()))));
+        assertThat(series.median(), is(equalTo(Statistics.medianOf(series.asArray()))));
+    }
 }
@@ -36,7 +36,7 @@ public class ArimaForecastSpec {
     @Test
     public void whenForecastThenCorrectPredictionIntervals() {
         TimeSeries timeSeries = TestData.debitcards;
-        Arima.FittingStrategy fittingStrategy = Arima.FittingStrategy.CSSML;
+        Arima.FittingStrategy fittingStrategy = Arima.FittingStrategy.ML;
         ArimaCoefficients coefficients = ArimaCoefficients.newBuilder()
                                                           .setMACoeffs(-0.6760904)
                                                           .setSeasonalMACoeffs(-0.5718134)
@@ -59,7 +59,7 @@ public class ArimaForecastSpec {
     @Test
     public void whenArimaForecastThenForecastValuesCorrect() {
         TimeSeries timeSeries = TestData.debitcards;
-        Arima.FittingStrategy fittingStrategy = ArimaModel.FittingStrategy.CSSML;
+        Arima.FittingStrategy fittingStrategy = ArimaModel.FittingStrategy.ML;
         ArimaCoefficients coefficients = ArimaCoefficients.newBuilder()
                                                           .setMACoeffs(-0.6760904)
                                                           .setSeasonalMACoeffs(-0.5718134)
@@ -21,18 +21,93 @@
  *
  * Jacob Rachiele
  */
-
 package timeseries.models.arima;
 
+import math.linear.doubles.SymmetricMatrix;
 import org.junit.Test;
 import timeseries.TestData;
+import timeseries.models.statespace.FilterResult;
+import timeseries.models.statespace.KalmanFilter;
+import timeseries.models.statespace.ParallelKalmanFilter;
 import timeseries.operators.LagPolynomial;
 
+import java.util.Random;
+
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertArrayEquals;
 
-public class ArmaKalmanFilterSpec {
+public class ArimaKalmanFilterSpec {
+
+    @Test
+    public void whenSeriesLongThenParallelLikelihoodSameAsSequential() {
+        Random random = new Random(17);
+        double[] y = new double[ParallelKalmanFilter.PARALLEL_THRESHOLD + 5000];
+        for (int t = 0; t < y.length; t++) {
+            y[t] = random.nextGaussian() + (t >= 12 ? y[t - 12] : 0.0) + (t >= 1 ? 0.4 * random.nextGaussian() : 0.0);
+        }
+        double[] delta = new double[12];
+        delta[11] = 1.0;
+        ArimaStateSpace ss = new ArimaStateSpace(y, new double[] {0.3}, new double[] {-0.2}, delta);
+        FilterResult expected = new KalmanFilter(ss.stateDimension()).filter(ss, y);
+        FilterResult parallel = ParallelKalmanFilter.filter(ss, y, 9);
+        assertThat(parallel.n(), is(expected.n()));
+        assertThat(parallel.concentratedLogLikelihood(), is(closeTo(expected.concentratedLogLikelihood(), 1E-4)));
+        ArimaKalmanFilter filter = ArimaKalmanFilter.parallel(ss);
+        assertThat(filter.n(), is(expected.n()));
+        assertThat(filter.logLikelihood(), is(closeTo(expected.concentratedLogLikelihood(), 1E-4)));
+    }
+
+    @Test
+    public void whenObservationMissingThenPredictionOnlyStep() {
+        double[] series = {1.2, -0.4, 0.8, 1.5, -0.3, 0.2, 0.9, -1.1};
+        double[] gappy = series.clone();
+        gappy[3] = Double.NaN;
+        double[] ar = {0.5};
+        double[] ma = {0.3};
+        ArimaKalmanFilter full = new ArimaKalmanFilter(new ArimaStateSpace(series, ar, ma, new double[0]));
+        ArimaKalmanFilter filter = new ArimaKalmanFilter(new ArimaStateSpace(gappy, ar, ma, new double[0]));
+        assertThat(filter.n(), is(full.n() - 1));
+        assertThat(Double.isNaN(filter.predictionError()[3]), is(true));
+        assertThat(Double.isNaN(filter.logLikelihood()), is(false));
+        assertThat(filter.predictionError()[2], is(full.predictionError()[2]));
+    }
+
+    @Test
+    public void whenStationaryCovarianceFromLyapunovThenSameAsAS154() {
+        double[] phi = {0.5, 0.2, -0.3, 0.1};
+        double[] theta = {0.7};
+        double[] packed = ArimaKalmanFilter.getInitialStateCovariance(phi, theta);
+        SymmetricMatrix expected = SymmetricMatrix.fromPacked(4, packed);
+        SymmetricMatrix result = ArimaKalmanFilter.stationaryCovariance(phi, theta, 4);
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j <= i; j++) {
+                assertThat(result.at(i, j), is(closeTo(expected.at(i, j), 1E-10)));
+            }
+        }
+    }
+
+    @Test
+    public void whenSeasonalStationaryCovarianceFromLyapunovThenSameAsAS154() {
+        // The expanded coefficients of (1 - 0.6L)(1 - 0.4L^12) and (1 + 0.3L)(1 - 0.5L^12), for which r = 14.
+        double[] phi = new double[13];
+        phi[0] = 0.6;
+        phi[11] = 0.4;
+        phi[12] = -0.24;
+        double[] theta = new double[13];
+        theta[0] = 0.3;
+        theta[11] = -0.5;
+        theta[12] = -0.15;
+        SymmetricMatrix expected = SymmetricMatrix.fromPacked(14, ArimaKalmanFilter.getInitialStateCovariance(phi,
+                                                                                                              theta));
+        SymmetricMatrix result = ArimaKalmanFilter.stationaryCovariance(phi, theta, 14);
+        for (int i = 0; i < 14; i++) {
+            for (int j = 0; j <= i; j++) {
+                assertThat(result.at(i, j), is(closeTo(expected.at(i, j), 1E-9)));
+            }
+        }
+    }
 
     @Test
     public void whenStateSpaceArmaInitializedThenDataSetProperly() throws Exception {
@@ -42,7 +117,7 @@ public class ArmaKalmanFilterSpec {
         double[] ar = arDiff.inverseParams();
         double[] ma = {-0.8373430, 0.0, 0.0, 0.3854193, -0.3227282};
         double[] y = TestData.ukcars.asArray();
-        ArmaStateSpace ss = new ArmaStateSpace(y, ar, ma);
+        ArimaStateSpace ss = new ArimaStateSpace(y, ar, ma, new double[0]);
         assertThat(ss.stateEffectsVector(), is(new double[]{1.0, 0.0, 0.0, 0.0, 0.0, 0.0}));
     }
 
@@ -56,7 +131,7 @@ public class ArmaKalmanFilterSpec {
     public void whenManyMoreARThanMACoeffsThenStarmaOutputCorrect() {
         double[] phi = {0.5, 0.2, -0.3, 0.1};
         double[] theta = {0.7};
-        double[] P = ArmaKalmanFilter.getInitialStateCovariance(phi, theta);
+        double[] P = ArimaKalmanFilter.getInitialStateCovariance(phi, theta);
         double[] expected = {3.201238, 0.854377, -0.610805, 0.2455, 0.546552, -0.03122, 0.002944, 0.172824,
                 -0.071487, 0.032012};
         assertArrayEquals(expected, P, 1E-6);
@@ -66,7 +141,7 @@ public class ArmaKalmanFilterSpec {
     public void whenManyMoreMAThanARCoeffsThenStarmaOutputCorrect() {
         double[] theta = {0.5, 0.2, -0.3, 0.1};
         double[] phi = {0.7};
-        double[] P = ArmaKalmanFilter.getInitialStateCovariance(phi, theta);
+        double[] P = ArimaKalmanFilter.getInitialStateCovariance(phi, theta);
         // makeARIMA(phi = c(0.5, 0.2, -0.3, 0.1), theta = c(0.7), Delta = numeric())$Pn
         double[] expected = {4.017882, 0.4708, -0.056, -0.18, 0.1, 0.39, 0.01, -0.13, 0.05, 0.14, -0.09, 0.02, 0.1,
                 -0.03, 0.01};
@@ -77,7 +152,7 @@ public class ArmaKalmanFilterSpec {
     public void whenMoreARThanMACoeffsThenStarmaOutputCorrect() {
         double[] phi = {0.5, 0.2};
         double[] theta = {0.7};
-        double[] P = ArmaKalmanFilter.getInitialStateCovariance(phi, theta);
+        double[] P = ArimaKalmanFilter.getInitialStateCovariance(phi, theta);
         // makeARIMA(phi = c(0.5, 0.2, -0.3, 0.1), theta = c(0.7), Delta = numeric())$Pn
         double[] expected = {4.042735, 1.380342, 0.651709};
         assertArrayEquals(expected, P, 1E-6);
@@ -87,18 +162,17 @@ public class ArmaKalmanFilterSpec {
     public void whenMoreMAThanARCoeffsThenStarmaOutputCorrect() {
         double[] theta = {0.5, 0.2};
         double[] phi = {0.7};
-        double[] P = ArmaKalmanFilter.getInitialStateCovariance(phi, theta);
+        double[] P = ArimaKalmanFilter.getInitialStateCovariance(phi, theta);
         // makeARIMA(phi = c(0.5, 0.2, -0.3, 0.1), theta = c(0.7), Delta = numeric())$Pn
         double[] expected = {4.560784, 0.74, 0.2, 0.29, 0.1, 0.04};
         assertArrayEquals(expected, P, 1E-6);
-        double[] full = ArmaKalmanFilter.unpack(P);
     }
 
     @Test
     public void whenNumberOfMAAndARCoeffsEqualThenStarmaOutputCorrect() {
         double[] phi = {0.5, 0.2};
         double[] theta = {0.7, -0.3};
-        double[] P = ArmaKalmanFilter.getInitialStateCovariance(phi, theta);
+        double[] P = ArimaKalmanFilter.getInitialStateCovariance(phi, theta);
         // makeARIMA(phi = c(0.5, 0.2, -0.3, 0.1), theta = c(0.7), Delta = numeric())$Pn
         double[] expected = {3.222222, 0.827778, -0.3, 0.588889, -0.21, 0.09};
         assertArrayEquals(expected, P, 1E-6);
@@ -108,7 +182,7 @@ public class ArmaKalmanFilterSpec {
     public void whenOnlyOneARCoeffThenStarmaOutputCorrect() {
         double[] phi = {0.3};
         double[] theta = {};
-        double[] P = ArmaKalmanFilter.getInitialStateCovariance(phi, theta);
+        double[] P = ArimaKalmanFilter.getInitialStateCovariance(phi, theta);
         double[] expected = {1.098901};
         assertArrayEquals(expected, P, 1E-6);
     }
@@ -117,7 +191,7 @@ public class ArmaKalmanFilterSpec {
     public void whenOnlyOneMACoeffThenStarmaOutputCorrect() {
         double[] phi = {};
         double[] theta = {0.3};
-        double[] P = ArmaKalmanFilter.getInitialStateCovariance(phi, theta);
+        double[] P = ArimaKalmanFilter.getInitialStateCovariance(phi, theta);
         double[] expected = {1.09, 0.3, 0.09};
         assertArrayEquals(expected, P, 1E-6);
     }
@@ -126,14 +200,8 @@ public class ArmaKalmanFilterSpec {
     public void whenNoCoeffsThenStarmaOutputTheNumberOne() {
         double[] phi = {};
         double[] theta = {};
-        double[] P = ArmaKalmanFilter.getInitialStateCovariance(phi, theta);
+        double[] P = ArimaKalmanFilter.getInitialStateCovariance(phi, theta);
         double[] expected = {1.0};
         assertArrayEquals(expected, P, 1E-6);
-
-//    phi = new double[] {-0.12721, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, -0.197255, -0.025093};
-//    theta = new double[] {-0.645583, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, -0.407286, 0.262937};
-//    P = ArmaKalmanFilter.getInitialStateCovariance(phi, theta);
-//    double[] Pnew = ArmaKalmanFilter.unpack(P);
-//    System.out.println(Arrays.toString(P));
     }
 }
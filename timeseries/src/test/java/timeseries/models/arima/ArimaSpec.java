@@ -33,6 +33,9 @@ import timeseries.TimePeriod;
 import timeseries.TimeSeries;
 import timeseries.models.Forecast;
 import timeseries.models.arima.Arima.Constant;
+import timeseries.models.statespace.ParallelKalmanFilter;
+
+import java.util.Random;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
@@ -52,11 +55,42 @@ public class ArimaSpec {
         assertThat(arimaModel.fittedSeries().asArray(), is(expected));
     }
 
+    @Test
+    public void whenObservationsMissingThenModelFitWithoutThem() {
+        double[] data = TestData.livestock.asArray();
+        data[5] = Double.NaN;
+        data[20] = Double.NaN;
+        TimeSeries series = new TimeSeries(TestData.livestock.timePeriod(), TestData.livestock.observationTimes(),
+                                           data);
+        ArimaOrder order = ArimaOrder.order(1, 1, 1);
+        Arima model = Arima.model(series, order, TimePeriod.oneYear(), Arima.FittingStrategy.ML);
+        assertThat(model.coefficients().arCoeffs()[0], is(closeTo(0.64, 0.15)));
+        assertThat(model.coefficients().maCoeffs()[0], is(closeTo(-0.50, 0.15)));
+        assertThat(Double.isNaN(model.logLikelihood()), is(false));
+        double[] fitted = model.fittedSeries().asArray();
+        for (int t = 0; t < fitted.length; t++) {
+            assertThat(Double.isNaN(fitted[t]), is(t == 5 || t == 20));
+        }
+        assertThat(Double.isNaN(model.fcst(1)[0]), is(false));
+    }
+
+    @Test
+    public void whenObservationsMissingThenCssFitSkipsThem() {
+        double[] data = TestData.livestock.asArray();
+        data[10] = Double.NaN;
+        TimeSeries series = new TimeSeries(TestData.livestock.timePeriod(), TestData.livestock.observationTimes(),
+                                           data);
+        ArimaOrder order = ArimaOrder.order(1, 1, 1);
+        Arima model = Arima.model(series, order, TimePeriod.oneYear(), Arima.FittingStrategy.CSS);
+        assertThat(Double.isNaN(model.sigma2()), is(false));
+        assertThat(Double.isNaN(model.coefficients().arCoeffs()[0]), is(false));
+    }
+
     @Test
     public void whenArimaModelFitThenParametersSimilarToROutput() throws Exception {
         TimeSeries series = TestData.livestock;
         ArimaOrder order = ArimaOrder.order(1, 1, 1);
-        Arima model = Arima.model(series, order, TimePeriod.oneYear(), Arima.FittingStrategy.CSSML);
+        Arima model = Arima.model(series, order, TimePeriod.oneYear(), Arima.FittingStrategy.ML);
         assertThat(model.coefficients().arCoeffs()[0], is(closeTo(0.64, 0.02)));
         assertThat(model.coefficients().maCoeffs()[0], is(closeTo(-0.50, 0.02)));
     }
@@ -65,7 +99,7 @@ public class ArimaSpec {
     public void whenArimaModelFitDebitcardsThenParametersSimilarToROutput() throws Exception {
         TimeSeries series = TestData.debitcards;
         ArimaOrder order = ArimaOrder.order(1, 1, 1, 1, 1, 1);
-        Arima model = Arima.model(series, order, TimePeriod.oneYear(), Arima.FittingStrategy.CSSML);
+        Arima model = Arima.model(series, order, TimePeriod.oneYear(), Arima.FittingStrategy.ML);
 
         ArimaCoefficients expected = ArimaCoefficients.newBuilder()
                                                       .setARCoeffs(-0.1040)
@@ -98,7 +132,7 @@ public class ArimaSpec {
                                                     .setMACoeffs(-0.5035514)
                                                     .setDifferences(1)
                                                     .build();
-        Arima model = Arima.model(series, coeffs, TimePeriod.oneYear(), ArimaModel.FittingStrategy.CSSML);
+        Arima model = Arima.model(series, coeffs, TimePeriod.oneYear(), ArimaModel.FittingStrategy.ML);
         Forecast fcst = model.forecast(10);
         double[] expectedLower = {432.515957, 420.689242, 410.419267, 401.104152, 392.539282, 384.606261, 377.216432,
                 370.29697, 363.786478, 357.632926
@@ -112,6 +146,93 @@ public class ArimaSpec {
         assertArrayEquals(expectedUpper, actualUpper, 1E-4);
     }
 
+    @Test
+    public void whenWhittleFitOfLongSeriesThenCoefficientsNearTrueValues() {
+        Random random = new Random(42);
+        double[] data = new double[50000];
+        double previousError = 0.0;
+        double previousValue = 0.0;
+        for (int t = 0; t < data.length; t++) {
+            double error = random.nextGaussian();
+            data[t] = 10.0 + 0.6 * previousValue + error + 0.3 * previousError;
+            previousValue = data[t] - 10.0;
+            previousError = error;
+        }
+        TimeSeries series = new TimeSeries(data);
+        Arima model = Arima.model(series, ArimaOrder.order(1, 0, 1), ArimaModel.FittingStrategy.WHITTLE);
+        assertThat(model.coefficients().arCoeffs()[0], is(closeTo(0.6, 0.02)));
+        assertThat(model.coefficients().maCoeffs()[0], is(closeTo(0.3, 0.02)));
+        assertThat(model.coefficients().mean(), is(closeTo(10.0, 0.05)));
+        assertThat(model.sigma2(), is(closeTo(1.0, 0.02)));
+    }
+
+    @Test
+    public void whenWhittleFitWithMeanThenMeanStandardErrorFromRegression() {
+        TimeSeries series = TestData.livestock;
+        Arima model = Arima.model(series, ArimaOrder.order(1, 0, 0, Constant.INCLUDE),
+                                  ArimaModel.FittingStrategy.WHITTLE);
+        double[] stdErrors = model.stdErrors();
+        assertThat(stdErrors.length, is(2));
+        assertThat(stdErrors[1], is(closeTo(series.stdDeviation() / Math.sqrt(series.size()), 1E-8)));
+        assertThat(model.coefficients().mean(), is(closeTo(series.mean(), 1E-8)));
+    }
+
+    @Test
+    public void whenFitWithParallelFilteringThenSameAsSequential() {
+        Random random = new Random(9);
+        double[] data = new double[ParallelKalmanFilter.PARALLEL_THRESHOLD + 1000];
+        double previousError = 0.0;
+        for (int t = 1; t < data.length; t++) {
+            double error = random.nextGaussian();
+            data[t] = 0.5 * data[t - 1] + error - 0.2 * previousError;
+            previousError = error;
+        }
+        TimeSeries series = new TimeSeries(data);
+        ArimaOrder order = ArimaOrder.order(1, 0, 1, Constant.EXCLUDE);
+        Arima sequential = Arima.model(series, order, TimePeriod.oneYear(), Arima.FittingStrategy.ML,
+                                       Arima.Filtering.SEQUENTIAL);
+        Arima parallel = Arima.model(series, order, TimePeriod.oneYear(), Arima.FittingStrategy.ML,
+                                     Arima.Filtering.PARALLEL);
+        assertThat(parallel.coefficients().arCoeffs()[0], is(closeTo(sequential.coefficients().arCoeffs()[0], 1E-4)));
+        assertThat(parallel.coefficients().maCoeffs()[0], is(closeTo(sequential.coefficients().maCoeffs()[0], 1E-4)));
+        assertThat(parallel.logLikelihood(), is(closeTo(sequential.logLikelihood(), 1E-4)));
+    }
+
+    @Test
+    public void whenWhittleFitThenCoefficientsNearMaximumLikelihood() {
+        TimeSeries series = TestData.debitcards;
+        ArimaOrder order = ArimaOrder.order(1, 1, 1);
+        Arima whittle = Arima.model(series, order, ArimaModel.FittingStrategy.WHITTLE);
+        Arima ml = Arima.model(series, order, ArimaModel.FittingStrategy.ML);
+        assertThat(whittle.coefficients().arCoeffs()[0], is(closeTo(ml.coefficients().arCoeffs()[0], 0.1)));
+        assertThat(whittle.coefficients().maCoeffs()[0], is(closeTo(ml.coefficients().maCoeffs()[0], 0.1)));
+    }
+
+    @Test
+    public void whenOptimumNonInvertibleThenMovingAverageRootsReflected() {
+        Arima model = Arima.model(TestData.debitcards, ArimaOrder.order(1, 1, 1), ArimaModel.FittingStrategy.ML);
+        assertThat(model.coefficients().arCoeffs()[0], is(closeTo(0.0346, 1E-3)));
+        assertThat(model.coefficients().maCoeffs()[0], is(closeTo(-0.7968, 1E-3)));
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void whenFitByDeprecatedCssMlThenSameAsMaximumLikelihood() {
+        ArimaOrder order = ArimaOrder.order(1, 0, 1, Constant.INCLUDE);
+        Arima cssml = Arima.model(TestData.livestock, order, ArimaModel.FittingStrategy.CSSML);
+        Arima ml = Arima.model(TestData.livestock, order, ArimaModel.FittingStrategy.ML);
+        assertArrayEquals(ml.coefficients().getAllCoeffs(), cssml.coefficients().getAllCoeffs(), 0.0);
+        assertThat(cssml.logLikelihood(), is(ml.logLikelihood()));
+    }
+
+    @Test
+    public void whenMovingAverageInvertedThenRootsReflectedOutsideUnitCircle() {
+        assertArrayEquals(new double[]{-0.8}, ArimaModel.invertMovingAverage(new double[]{-1.25}), 1E-12);
+        assertArrayEquals(new double[]{-0.8, 0.0}, ArimaModel.invertMovingAverage(new double[]{-1.25, 0.0}), 1E-12);
+        assertArrayEquals(new double[]{0.125, 0.25}, ArimaModel.invertMovingAverage(new double[]{0.5, 4.0}), 1E-12);
+        assertArrayEquals(new double[]{0.5, 0.2}, ArimaModel.invertMovingAverage(new double[]{0.5, 0.2}), 0.0);
+    }
+
     @Test
     public void whenModelFitThenModelInformationCorrect() {
         ArimaCoefficients coefficients = ArimaCoefficients.newBuilder()
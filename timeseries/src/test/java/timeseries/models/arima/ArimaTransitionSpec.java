@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2017 Jacob Rachiele
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to
+ * do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+ * USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Contributors:
+ *
+ * Jacob Rachiele
+ */
+package timeseries.models.arima;
+
+import math.linear.doubles.Matrix;
+import math.linear.doubles.SymmetricMatrix;
+import math.linear.doubles.Vector;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+
+public class ArimaTransitionSpec {
+
+    private final Random random = new Random(5);
+
+    @Test
+    public void whenSeasonalTransitionAppliedThenSameAsDenseMatrix() {
+        // The differencing coefficients of (1 - L)(1 - L^12) and an ARMA block of length 14.
+        double[] delta = new double[13];
+        delta[0] = 1.0;
+        delta[11] = 1.0;
+        delta[12] = -1.0;
+        double[] ar = new double[13];
+        ar[0] = 0.4;
+        ar[11] = -0.3;
+        ar[12] = 0.12;
+        assertSameAsDense(ar, delta, 14);
+    }
+
+    @Test
+    public void whenNoDifferencingThenSameAsDenseMatrix() {
+        assertSameAsDense(new double[] {0.5, -0.2}, new double[0], 3);
+    }
+
+    @Test
+    public void whenSingleStateThenSameAsDenseMatrix() {
+        assertSameAsDense(new double[0], new double[] {1.0}, 1);
+    }
+
+    private void assertSameAsDense(final double[] ar, final double[] delta, final int r) {
+        ArimaTransition transition = new ArimaTransition(ar, delta, r);
+        int rd = transition.dimension();
+        Matrix t = denseTransition(ar, delta, r);
+
+        double[] x = randomArray(rd);
+        double[] expected = t.times(Vector.from(x)).elements();
+        double[] result = transition.timesInto(new double[rd], x);
+        for (int i = 0; i < rd; i++) {
+            assertThat(result[i], is(closeTo(expected[i], 1E-12)));
+        }
+
+        double[] expectedTranspose = t.transpose().times(Vector.from(x)).elements();
+        double[] transposed = transition.transposeTimesInto(new double[rd], x);
+        for (int i = 0; i < rd; i++) {
+            assertThat(transposed[i], is(closeTo(expectedTranspose[i], 1E-12)));
+        }
+
+        double[] a = randomArray(rd * rd);
+        SymmetricMatrix p = SymmetricMatrix.fromLower(Matrix.create(rd, rd, a).times(Matrix.create(rd, rd, a)
+                                                                                           .transpose()));
+        double[] expectedCongruence = t.times(p.toMatrix()).times(t.transpose()).data();
+        SymmetricMatrix congruence = transition.congruenceInto(new SymmetricMatrix(rd), p);
+        for (int i = 0; i < rd; i++) {
+            for (int j = 0; j < rd; j++) {
+                assertThat(congruence.at(i, j), is(closeTo(expectedCongruence[i * rd + j], 1E-10)));
+            }
+        }
+    }
+
+    @Test
+    public void whenTransitionMatrixFormedThenSameAsDenseMatrix() {
+        double[] ar = {0.5, -0.2};
+        double[] delta = {2.0, -1.0};
+        ArimaStateSpace ss = new ArimaStateSpace(new double[0], ar, new double[] {0.3}, delta);
+        double[] expected = denseTransition(ar, delta, 2).data();
+        double[] result = ss.transitionMatrix().data();
+        for (int i = 0; i < expected.length; i++) {
+            assertThat(result[i], is(closeTo(expected[i], 0.0)));
+        }
+    }
+
+    // The dense transition matrix the state space used to form.
+    private static Matrix denseTransition(final double[] ar, final double[] delta, final int r) {
+        final int d = delta.length;
+        final double[][] t = new double[r + d][r + d];
+        for (int i = 0; i < ar.length; i++) {
+            t[i][0] = ar[i];
+        }
+        for (int i = 1; i < r; i++) {
+            t[i - 1][i] = 1;
+        }
+        for (int i = 0; i < d; i++) {
+            t[r][r + i] = delta[i];
+        }
+        if (d > 0) {
+            t[r][0] = 1.0;
+        }
+        for (int i = 0; i < d - 1; i++) {
+            t[r + i + 1][r + i] = 1.0;
+        }
+        return new Matrix(t, Matrix.Order.ROW_MAJOR);
+    }
+
+    private double[] randomArray(final int length) {
+        double[] array = new double[length];
+        for (int i = 0; i < length; i++) {
+            array[i] = random.nextGaussian();
+        }
+        return array;
+    }
+}
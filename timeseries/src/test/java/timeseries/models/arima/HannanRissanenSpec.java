@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2017 Jacob Rachiele
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to
+ * do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+ * USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Contributors:
+ *
+ * Jacob Rachiele
+ */
+package timeseries.models.arima;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+
+public class HannanRissanenSpec {
+
+    @Test
+    public void whenDurbinLevinsonOnArTwoAutocovariancesThenCoefficientsRecovered() {
+        // The autocovariances of x_t = 0.5 x_{t-1} - 0.3 x_{t-2} + e_t, up to a constant factor.
+        double rho1 = 0.5 / 1.3;
+        double rho2 = 0.5 * rho1 - 0.3;
+        double rho3 = 0.5 * rho2 - 0.3 * rho1;
+        double[] phi = HannanRissanen.durbinLevinson(new double[]{1.0, rho1, rho2, rho3}, 3);
+        assertThat(phi[0], is(closeTo(0.5, 1E-12)));
+        assertThat(phi[1], is(closeTo(-0.3, 1E-12)));
+        assertThat(phi[2], is(closeTo(0.0, 1E-12)));
+    }
+
+    @Test
+    public void whenDegenerateAutocovariancesThenNoCoefficients() {
+        assertThat(HannanRissanen.durbinLevinson(new double[]{0.0, 0.0, 0.0}, 2).length, is(0));
+    }
+
+    @Test
+    public void whenPureAutoregressionThenYuleWalkerEstimates() {
+        Random random = new Random(3);
+        double[] series = new double[20000];
+        for (int t = 2; t < series.length; t++) {
+            series[t] = 0.5 * series[t - 1] - 0.3 * series[t - 2] + random.nextGaussian();
+        }
+        HannanRissanen estimate = HannanRissanen.estimate(series, ArimaOrder.order(2, 0, 0), 1);
+        assertThat(estimate.arCoeffs()[0], is(closeTo(0.5, 0.02)));
+        assertThat(estimate.arCoeffs()[1], is(closeTo(-0.3, 0.02)));
+        // The asymptotic variance of both estimates is 1 - 0.3^2.
+        assertThat(estimate.variances()[0], is(closeTo(0.91, 0.05)));
+        assertThat(estimate.variances()[1], is(closeTo(0.91, 0.05)));
+    }
+
+    @Test
+    public void whenArmaThenHannanRissanenEstimatesNearTrueValues() {
+        Random random = new Random(5);
+        double[] series = new double[20000];
+        double previousError = 0.0;
+        for (int t = 1; t < series.length; t++) {
+            double error = random.nextGaussian();
+            series[t] = 0.6 * series[t - 1] + error + 0.3 * previousError;
+            previousError = error;
+        }
+        HannanRissanen estimate = HannanRissanen.estimate(series, ArimaOrder.order(1, 0, 1), 1);
+        assertThat(estimate.arCoeffs()[0], is(closeTo(0.6, 0.05)));
+        assertThat(estimate.maCoeffs()[0], is(closeTo(0.3, 0.05)));
+    }
+
+    @Test
+    public void whenSeasonalArmaThenHannanRissanenEstimatesNearTrueValues() {
+        Random random = new Random(7);
+        double[] series = new double[20000];
+        double[] errors = new double[series.length];
+        for (int t = 0; t < series.length; t++) {
+            errors[t] = random.nextGaussian();
+            series[t] = errors[t];
+            if (t >= 1) {
+                series[t] += 0.4 * series[t - 1];
+            }
+            if (t >= 12) {
+                series[t] += 0.5 * errors[t - 12];
+            }
+        }
+        ArimaOrder order = ArimaOrder.order(1, 0, 0, 0, 0, 1);
+        HannanRissanen estimate = HannanRissanen.estimate(series, order, 12);
+        assertThat(estimate.arCoeffs()[0], is(closeTo(0.4, 0.05)));
+        assertThat(estimate.smaCoeffs()[0], is(closeTo(0.5, 0.05)));
+    }
+
+    @Test
+    public void whenSeriesTooShortThenZeroEstimates() {
+        HannanRissanen estimate = HannanRissanen.estimate(new double[]{1.0, -1.0, 2.0}, ArimaOrder.order(1, 0, 1), 1);
+        assertThat(estimate.arCoeffs()[0], is(0.0));
+        assertThat(estimate.maCoeffs()[0], is(0.0));
+        assertThat(estimate.variances()[1], is(1.0));
+    }
+}
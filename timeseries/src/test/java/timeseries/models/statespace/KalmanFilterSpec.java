@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2017 Jacob Rachiele
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to
+ * do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+ * USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Contributors:
+ *
+ * Jacob Rachiele
+ */
+package timeseries.models.statespace;
+
+import math.linear.doubles.Matrix;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+
+public class KalmanFilterSpec {
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    @Test
+    public void whenLevelConstantThenSmoothedLevelIsMean() {
+        double[] y = {1.0, 2.0, 3.0, 4.0, 5.0};
+        Matrix smoothed = new KalmanFilter(1).smooth(new LocalLevelModel(0.0, 1.0), y);
+        for (int t = 0; t < y.length; t++) {
+            assertThat(smoothed.data()[t], is(closeTo(3.0, 1E-6)));
+        }
+    }
+
+    @Test
+    public void whenLevelConstantThenLikelihoodOfMeanModel() {
+        // With a constant level, each prediction is the mean of the observations so far.
+        double[] y = {1.0, 2.0, 3.0, 4.0, 5.0};
+        FilterResult result = new KalmanFilter(1).filter(new LocalLevelModel(0.0, 1.0), y);
+        assertThat(result.n(), is(4));
+        double[] errors = result.predictionErrors();
+        double[] variances = result.predictionErrorVariances();
+        for (int t = 1; t < y.length; t++) {
+            assertThat(errors[t], is(closeTo(y[t] - (t + 1) / 2.0, 1E-6)));
+            assertThat(variances[t], is(closeTo(1.0 + 1.0 / t, 1E-6)));
+        }
+        assertThat(result.forecast(1)[0], is(closeTo(3.0, 1E-6)));
+        assertThat(result.forecastVariances(1)[0], is(closeTo(1.2, 1E-6)));
+    }
+
+    @Test
+    public void whenObservationMissingThenSkippedAndSmoothedThrough() {
+        double[] y = {1.0, 2.0, Double.NaN, 4.0, 5.0};
+        KalmanFilter filter = new KalmanFilter(1);
+        LocalLevelModel model = new LocalLevelModel(0.5, 1.0);
+        FilterResult result = filter.filter(model, y);
+        assertThat(result.n(), is(3));
+        assertThat(Double.isNaN(result.predictionErrors()[2]), is(true));
+        assertThat(Double.isNaN(result.logLikelihood()), is(false));
+        double[] smoothed = filter.smooth(model, y).data();
+        assertThat(smoothed[2], is(closeTo(3.0, 1E-6)));
+    }
+
+    @Test
+    public void whenLinearTrendThenForecastExtendsLine() {
+        double[] y = new double[20];
+        for (int t = 0; t < y.length; t++) {
+            y[t] = 2.0 + 3.0 * t;
+        }
+        FilterResult result = new KalmanFilter(2).filter(new LocalLinearTrendModel(0.0, 0.0, 1.0), y);
+        assertThat(result.n(), is(18));
+        double[] forecast = result.forecast(3);
+        double[] variances = result.forecastVariances(3);
+        for (int h = 0; h < 3; h++) {
+            assertThat(forecast[h], is(closeTo(2.0 + 3.0 * (y.length + h), 1E-4)));
+        }
+        assertThat(variances[0], is(greaterThan(1.0)));
+        assertThat(variances[2], is(greaterThan(variances[0])));
+    }
+
+    @Test
+    public void whenWorkspaceReusedThenSameResult() {
+        double[] y = {0.3, -1.2, 2.5, 0.7, 1.9, -0.4};
+        KalmanFilter filter = new KalmanFilter(2);
+        LocalLinearTrendModel model = new LocalLinearTrendModel(0.5, 0.1, 1.0);
+        double first = filter.filter(model, y).logLikelihood();
+        filter.filter(new LocalLinearTrendModel(2.0, 1.0, 0.5), y);
+        assertThat(filter.filter(model, y).logLikelihood(), is(first));
+    }
+
+    @Test
+    public void whenModelDimensionDiffersThenIllegalArgument() {
+        exception.expect(IllegalArgumentException.class);
+        new KalmanFilter(2).filter(new LocalLevelModel(1.0, 1.0), new double[] {1.0, 2.0});
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2017 Jacob Rachiele
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software
+ * and associated documentation files (the "Software"), to deal in the Software without restriction
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense
+ * and/or sell copies of the Software, and to permit persons to whom the Software is furnished to
+ * do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT,
+ * TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE
+ * USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ * Contributors:
+ *
+ * Jacob Rachiele
+ */
+package timeseries.models.statespace;
+
+import math.linear.doubles.Matrix;
+import math.linear.doubles.SymmetricMatrix;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+
+public class ParallelKalmanFilterSpec {
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    private static double[] randomWalkPlusNoise(final int n, final long seed) {
+        final Random random = new Random(seed);
+        final double[] y = new double[n];
+        double level = 0.0;
+        for (int t = 0; t < n; t++) {
+            level += 0.5 * random.nextGaussian();
+            y[t] = level + random.nextGaussian();
+        }
+        return y;
+    }
+
+    @Test
+    public void whenLocalLevelFilteredInBlocksThenSameAsSequential() {
+        double[] y = randomWalkPlusNoise(2000, 11);
+        LocalLevelModel model = new LocalLevelModel(0.25, 1.0);
+        FilterResult expected = new KalmanFilter(1).filter(model, y);
+        FilterResult result = ParallelKalmanFilter.filter(model, y, 7);
+        assertSameResult(result, expected);
+    }
+
+    @Test
+    public void whenLocalLinearTrendWithGapsFilteredInBlocksThenSameAsSequential() {
+        double[] y = randomWalkPlusNoise(3000, 12);
+        for (int t = 0; t < y.length; t += 97) {
+            y[t] = Double.NaN;
+        }
+        LocalLinearTrendModel model = new LocalLinearTrendModel(0.2, 0.01, 1.0);
+        FilterResult expected = new KalmanFilter(2).filter(model, y);
+        FilterResult result = ParallelKalmanFilter.filter(model, y, 9);
+        assertSameResult(result, expected);
+        assertThat(result.n(), is(expected.n()));
+    }
+
+    @Test
+    public void whenSeasonallyDifferencedModelFilteredInBlocksThenSameAsSequential() {
+        // ARMA(1, 1) errors with a seasonal difference of period 4, whose last four values are diffuse.
+        final int r = 2;
+        final int d = 4;
+        final int m = r + d;
+        final double[] t = new double[m * m];
+        t[0] = 0.5;
+        t[1] = 1.0;
+        t[r * m] = 1.0;
+        t[r * m + m - 1] = 1.0;
+        for (int i = r + 1; i < m; i++) {
+            t[i * m + i - 1] = 1.0;
+        }
+        final double[] z = {1.0, 0.0, 0.0, 0.0, 0.0, 1.0};
+        final double[] loading = {1.0, 0.3, 0.0, 0.0, 0.0, 0.0};
+        StateSpaceModel model = new StateSpaceModel() {
+            @Override
+            public int stateDimension() {
+                return m;
+            }
+
+            @Override
+            public double[] observationVector() {
+                return z.clone();
+            }
+
+            @Override
+            public double observationVariance() {
+                return 0.0;
+            }
+
+            @Override
+            public Matrix transitionMatrix() {
+                return Matrix.create(m, m, t.clone());
+            }
+
+            @Override
+            public Matrix disturbanceLoading() {
+                return Matrix.create(m, 1, loading.clone());
+            }
+
+            @Override
+            public SymmetricMatrix disturbanceCovariance() {
+                return new SymmetricMatrix(1).set(0, 0, 1.0);
+            }
+
+            @Override
+            public double[] initialState() {
+                return new double[m];
+            }
+
+            @Override
+            public SymmetricMatrix initialCovariance() {
+                SymmetricMatrix p0 = new SymmetricMatrix(m).set(0, 0, 1.6).set(1, 0, 0.3).set(1, 1, 0.09);
+                for (int i = r; i < m; i++) {
+                    p0.set(i, i, 1E6);
+                }
+                return p0;
+            }
+
+            @Override
+            public int diffuseDimension() {
+                return d;
+            }
+        };
+        Random random = new Random(14);
+        double[] y = new double[4000];
+        for (int i = 0; i < y.length; i++) {
+            y[i] = random.nextGaussian() + (i >= 4 ? y[i - 4] : 0.0);
+        }
+        y[1] = Double.NaN;
+        FilterResult expected = new KalmanFilter(m).filter(model, y);
+        FilterResult result = ParallelKalmanFilter.filter(model, y, 6);
+        assertSameResult(result, expected);
+    }
+
+    @Test
+    public void whenSeriesLongThenSameAsSequential() {
+        double[] y = randomWalkPlusNoise(ParallelKalmanFilter.PARALLEL_THRESHOLD + 1000, 13);
+        LocalLinearTrendModel model = new LocalLinearTrendModel(0.3, 0.02, 1.0);
+        FilterResult expected = new KalmanFilter(2).filter(model, y);
+        assertSameResult(ParallelKalmanFilter.filter(model, y), expected);
+    }
+
+    @Test
+    public void whenMoreBlocksThanObservationsThenIllegalArgument() {
+        exception.expect(IllegalArgumentException.class);
+        ParallelKalmanFilter.filter(new LocalLevelModel(1.0, 1.0), new double[]{1.0, 2.0}, 3);
+    }
+
+    private static void assertSameResult(final FilterResult result, final FilterResult expected) {
+        assertThat(result.n(), is(expected.n()));
+        assertThat(result.logLikelihood(), is(closeTo(expected.logLikelihood(), 1E-6)));
+        double[] errors = result.predictionErrors();
+        double[] expectedErrors = expected.predictionErrors();
+        for (int t = 0; t < errors.length; t++) {
+            if (Double.isNaN(expectedErrors[t])) {
+                assertThat(Double.isNaN(errors[t]), is(true));
+            } else {
+                assertThat(errors[t], is(closeTo(expectedErrors[t], 1E-6)));
+            }
+        }
+        assertThat(result.forecast(2)[1], is(closeTo(expected.forecast(2)[1], 1E-6)));
+    }
+}
@@ -32,8 +32,11 @@ import timeseries.TimeSeries;
 
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Random;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 
@@ -149,5 +152,131 @@ public final class LagPolynomialSpec {
         assertThat(LagOperator.apply(series, dateTime), is(series.at(0)));
         assertThat(LagOperator.apply(series, 1), is(series.at(0)));
     }
+
+    @Test
+    public void whenAppliedToWholeSeriesThenSameAsAppliedAtEachIndex() {
+        TimeSeries series = TestData.ausbeer;
+        LagPolynomial poly = LagPolynomial.differences(1).times(LagPolynomial.seasonalDifferences(4, 1));
+        double[] filtered = poly.apply(series.asArray());
+        assertThat(filtered.length, is(series.size() - 5));
+        for (int t = 0; t < filtered.length; t++) {
+            assertThat(filtered[t], is(closeTo(poly.apply(series, t + 5), 1E-10)));
+        }
+    }
+
+    @Test
+    public void whenLongPolynomialAppliedThenSameAsDirectSum() {
+        Random random = new Random(11);
+        double[] params = new double[100];
+        for (int i = 0; i < params.length; i++) {
+            params[i] = random.nextGaussian() / (i + 1);
+        }
+        double[] series = new double[2000];
+        for (int t = 0; t < series.length; t++) {
+            series[t] = random.nextGaussian();
+        }
+        LagPolynomial poly = new LagPolynomial(params);
+        double[] coefficients = poly.coefficients();
+        double[] filtered = poly.apply(series);
+        assertThat(filtered.length, is(1900));
+        for (int t = 0; t < filtered.length; t++) {
+            double expected = 0.0;
+            for (int i = 0; i < coefficients.length; i++) {
+                expected += coefficients[i] * series[t + 100 - i];
+            }
+            assertThat(filtered[t], is(closeTo(expected, 1E-10)));
+        }
+    }
+
+    @Test
+    public void whenSquaredGainComputedThenSameAsDirectEvaluation() {
+        LagPolynomial poly = LagPolynomial.autoRegressive(0.5, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, -0.3)
+                                          .times(LagPolynomial.movingAverage(0.4));
+        double[] coefficients = poly.coefficients();
+        int n = 10001;
+        double[] gains = poly.squaredGainInto(new double[n / 2 + 1], n);
+        for (int j = 0; j < gains.length; j++) {
+            double re = 0.0;
+            double im = 0.0;
+            for (int k = 0; k < coefficients.length; k++) {
+                double angle = 2.0 * Math.PI * j * k / n;
+                re += coefficients[k] * Math.cos(angle);
+                im -= coefficients[k] * Math.sin(angle);
+            }
+            assertThat(gains[j], is(closeTo(re * re + im * im, 1E-10)));
+        }
+    }
+
+    @Test
+    public void whenSquaredGainDestinationTooLongThenIllegalArgument() {
+        exception.expect(IllegalArgumentException.class);
+        LagPolynomial.movingAverage(0.5).squaredGainInto(new double[11], 10);
+    }
+
+    @Test
+    public void whenSolvedInPlaceThenInverseOfApply() {
+        double[] series = TestData.ausbeer.asArray();
+        LagPolynomial poly = LagPolynomial.differences(2).times(LagPolynomial.seasonalDifferences(4, 1));
+        double[] solved = Arrays.copyOf(series, series.length);
+        System.arraycopy(poly.apply(series), 0, solved, 6, series.length - 6);
+        poly.solveInPlace(solved, 6);
+        for (int t = 0; t < series.length; t++) {
+            assertThat(solved[t], is(closeTo(series[t], 1E-8)));
+        }
+    }
+
+    @Test
+    public void whenSolvedBeforeDegreeThenIllegalArgument() {
+        exception.expect(IllegalArgumentException.class);
+        LagPolynomial.differences(2).solveInPlace(new double[10], 1);
+    }
+
+    @Test
+    public void whenLongPolynomialsMultipliedThenSameAsDirectProduct() {
+        double[] left = new double[80];
+        double[] right = new double[70];
+        Arrays.fill(left, 0.5);
+        Arrays.fill(right, -0.25);
+        double[] product = new LagPolynomial(left).times(new LagPolynomial(right)).coefficients();
+        double[] leftCoefficients = new LagPolynomial(left).coefficients();
+        double[] rightCoefficients = new LagPolynomial(right).coefficients();
+        assertThat(product.length, is(151));
+        for (int k = 0; k < product.length; k++) {
+            double expected = 0.0;
+            for (int i = Math.max(0, k - 70); i <= Math.min(k, 80); i++) {
+                expected += leftCoefficients[i] * rightCoefficients[k - i];
+            }
+            assertThat(product[k], is(closeTo(expected, 1E-12)));
+        }
+    }
+
+    @Test
+    public void whenSeasonalPolynomialThenOnlyNonzeroTermsKept() {
+        LagPolynomial poly = LagPolynomial.differences(1).times(LagPolynomial.seasonalDifferences(168, 2));
+        assertThat(poly.lags, is(new int[] {0, 1, 168, 169, 336, 337}));
+        assertThat(poly.values, is(new double[] {1.0, -1.0, -2.0, 2.0, 1.0, -1.0}));
+        assertThat(poly.coefficients().length, is(338));
+        double[] inverseParams = poly.inverseParams();
+        assertThat(inverseParams[0], is(1.0));
+        assertThat(inverseParams[167], is(2.0));
+        assertThat(inverseParams[1], is(0.0));
+    }
+
+    @Test
+    public void whenSeasonalPolynomialFitThenSameAsDenseSum() {
+        Random random = new Random(3);
+        double[] series = new double[400];
+        for (int t = 0; t < series.length; t++) {
+            series[t] = random.nextGaussian();
+        }
+        LagPolynomial poly = LagPolynomial.differences(1).times(LagPolynomial.seasonalDifferences(24, 1));
+        double[] parameters = poly.parameters();
+        for (int t = 25; t < series.length; t++) {
+            double expected = 0.0;
+            for (int i = 0; i < parameters.length; i++) {
+                expected -= parameters[i] * series[t - i - 1];
+            }
+            assertThat(poly.fit(series, t), is(closeTo(expected, 1E-12)));
+        }
+    }
 }
-  
\ No newline at end of file